@@ -0,0 +1,336 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Reference;
+import org.eclipse.microprofile.openapi.models.media.Discriminator;
+import org.eclipse.microprofile.openapi.models.security.SecurityRequirement;
+
+/**
+ * This class indexes the components of an OpenAPI model and the references between them, so that references can be
+ * resolved, and the elements referencing a component found, without searching the model.
+ *
+ * <br><br>The index is a graph whose nodes are identified by JSON pointers into the model:
+ * <ul>
+ * <li>each component, such as <code>#/components/schemas/Booking</code>, which is also the form of the references
+ * to it;</li>
+ * <li>each path item, such as <code>#/paths/~1bookings~1{id}</code>, for the references of the path item that are
+ * not in one of its operations, such as the references of its parameters;</li>
+ * <li>each operation, such as <code>#/paths/~1bookings~1{id}/get</code>;</li>
+ * <li>the top-level security requirements of the model, <code>#/security</code>.</li>
+ * </ul>
+ * A node references a component if the node, or one of its descendants, is a reference to the component. The names
+ * of the security schemes of a security requirement are considered as references to these schemes, and the values of
+ * the mapping of a discriminator, such as <code>#/components/schemas/Dog</code>, or <code>Dog</code> for the schema
+ * of this name, as references to these schemas. A reference to a
+ * component that the model does not hold is a node as well, which resolves to null.
+ *
+ * <br><br>The index is built in one walk of the model. Resolving a reference is a single lookup, and the references
+ * and referrers of a node, as well as the closure of a set of nodes, take a time proportional to the number of
+ * references visited. The index is not updated when the model is modified.
+ *
+ * <br><br>Instances may be shared by any number of threads.
+ *
+ * <br><br>Example:
+ * <pre><code>ComponentIndex index = ComponentIndex.of(openAPI);
+ * Schema flight = index.resolve(bookingSchema.getProperties().get("flight"));
+ * Set&lt;String&gt; users = index.getReferrers("#/components/schemas/Flight");
+ * Set&lt;String&gt; needed = index.getClosure(Collections.singleton(ComponentIndex.operationPointer("/bookings", HttpMethod.GET)));
+ * </code></pre>
+ */
+public final class ComponentIndex {
+
+    /**
+     * The pointer of the top-level security requirements of the model.
+     */
+    public static final String SECURITY_POINTER = "#/security";
+
+    private static final String COMPONENTS_PREFIX = "#/components/";
+
+    private static final String PATHS_PREFIX = "#/paths/";
+
+    private static final String SECURITY_SCHEMES_PREFIX = COMPONENTS_PREFIX + "securitySchemes/";
+
+    private static final String SCHEMAS_PREFIX = COMPONENTS_PREFIX + "schemas/";
+
+    private final Map<String, Node> nodes = new HashMap<>();
+
+    private ComponentIndex(OpenAPI openAPI) {
+        indexComponents(openAPI.getComponents());
+        indexPaths(openAPI);
+        if (openAPI.getSecurity() != null) {
+            final Node security = node(SECURITY_POINTER);
+            for (SecurityRequirement requirement : openAPI.getSecurity()) {
+                if (requirement != null) {
+                    addSchemes(security, requirement);
+                }
+            }
+        }
+    }
+
+    /**
+     * Indexes the components of the given model and the references of its components, path items and operations.
+     *
+     * @param openAPI the model to index
+     * @return a new index
+     *
+     * @throws NullPointerException if the model is null
+     */
+    public static ComponentIndex of(OpenAPI openAPI) {
+        if (openAPI == null) {
+            throw new NullPointerException();
+        }
+        return new ComponentIndex(openAPI);
+    }
+
+    /**
+     * @param path the path of a path item, such as <code>/bookings/{id}</code>
+     * @return the pointer identifying the path item
+     */
+    public static String pathPointer(String path) {
+        return PATHS_PREFIX + path.replace("~", "~0").replace("/", "~1");
+    }
+
+    /**
+     * @param path the path of a path item, such as <code>/bookings/{id}</code>
+     * @param method the HTTP method of an operation of the path item
+     * @return the pointer identifying the operation
+     */
+    public static String operationPointer(String path, PathItem.HttpMethod method) {
+        return pathPointer(path) + "/" + method.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the component a reference, such as <code>#/components/schemas/Booking</code>, refers to.
+     *
+     * @param ref the reference
+     * @return the component, or null if the model holds no component of this reference
+     */
+    public Object resolve(String ref) {
+        final Node node = nodes.get(ref);
+        return node == null ? null : node.element;
+    }
+
+    /**
+     * Returns the component the given element refers to.
+     *
+     * @param <T> describes the type parameter
+     * @param reference the element
+     * @return the component, or null if the element is not a reference to a component held by the model
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Reference<T>> T resolve(T reference) {
+        if (reference == null || reference.getRef() == null) {
+            return null;
+        }
+        final Object component = resolve(reference.getRef());
+        return ModelTypes.of(reference.getClass()).isInstance(component) ? (T) component : null;
+    }
+
+    /**
+     * @return the pointers of all the nodes of the index
+     */
+    public Set<String> getPointers() {
+        return Collections.unmodifiableSet(nodes.keySet());
+    }
+
+    /**
+     * Returns the references of the given node, which are the pointers of the components it references directly.
+     *
+     * @param pointer the pointer of a node
+     * @return the references of the node, empty if the index has no node of this pointer
+     */
+    public Set<String> getReferences(String pointer) {
+        final Node node = nodes.get(pointer);
+        return node == null ? Collections.emptySet() : pointers(node.references);
+    }
+
+    /**
+     * Returns the nodes referencing the given component directly.
+     *
+     * @param ref the reference of the component
+     * @return the pointers of the components, path items, operations and security requirements referencing it
+     */
+    public Set<String> getReferrers(String ref) {
+        final Node node = nodes.get(ref);
+        return node == null ? Collections.emptySet() : pointers(node.referrers);
+    }
+
+    /**
+     * Returns the components reachable from the given nodes, directly or through other components.
+     *
+     * @param pointers the pointers of the nodes to start from
+     * @return the pointers of the reachable components, which include a starting node only if it is reachable
+     * from one of the starting nodes
+     */
+    public Set<String> getClosure(Collection<String> pointers) {
+        final Set<Node> reached = new LinkedHashSet<>();
+        final Deque<Node> pending = new ArrayDeque<>();
+        for (String pointer : pointers) {
+            final Node node = nodes.get(pointer);
+            if (node != null) {
+                pending.addAll(node.references);
+            }
+        }
+        while (!pending.isEmpty()) {
+            final Node node = pending.pop();
+            if (reached.add(node)) {
+                pending.addAll(node.references);
+            }
+        }
+        return pointers(reached);
+    }
+
+    private static Set<String> pointers(Set<Node> nodes) {
+        final Set<String> pointers = new LinkedHashSet<>();
+        for (Node node : nodes) {
+            pointers.add(node.pointer);
+        }
+        return Collections.unmodifiableSet(pointers);
+    }
+
+    private Node node(String pointer) {
+        return nodes.computeIfAbsent(pointer, Node::new);
+    }
+
+    private void indexComponents(Components components) {
+        if (components == null) {
+            return;
+        }
+        for (Method getter : ModelTypes.properties(Components.class)) {
+            final Object entries = ModelTypes.read(getter, components);
+            if (!(entries instanceof Map) || "extensions".equals(ModelTypes.propertyName(getter))) {
+                continue;
+            }
+            final String prefix = COMPONENTS_PREFIX + ModelTypes.propertyName(getter) + "/";
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) entries).entrySet()) {
+                if (entry.getValue() instanceof Constructible) {
+                    final Node node = node(prefix + entry.getKey());
+                    node.element = entry.getValue();
+                    addReferences(node, (Constructible) entry.getValue(), false);
+                }
+            }
+        }
+    }
+
+    private void indexPaths(OpenAPI openAPI) {
+        if (openAPI.getPaths() == null) {
+            return;
+        }
+        for (Map.Entry<String, PathItem> entry : openAPI.getPaths().entrySet()) {
+            final PathItem item = entry.getValue();
+            if (item == null) {
+                continue;
+            }
+            addReferences(node(pathPointer(entry.getKey())), item, true);
+            for (Map.Entry<PathItem.HttpMethod, Operation> operation : item.readOperationsMap().entrySet()) {
+                addReferences(node(operationPointer(entry.getKey(), operation.getKey())), operation.getValue(), false);
+            }
+        }
+    }
+
+    /**
+     * Adds the references of the element and its descendants to the node.
+     *
+     * @param skipOperations whether the operations of a path item are skipped, since they are nodes of their own
+     */
+    private void addReferences(Node node, Constructible element, boolean skipOperations) {
+        OASModelWalker.walk(element, new OASVisitor() {
+            @Override
+            public boolean visitOperation(Operation operation) {
+                return !skipOperations;
+            }
+
+            @Override
+            public boolean visitSecurityRequirement(SecurityRequirement requirement) {
+                addSchemes(node, requirement);
+                return true;
+            }
+
+            @Override
+            public boolean visitDiscriminator(Discriminator discriminator) {
+                if (discriminator.getMapping() != null) {
+                    for (String value : discriminator.getMapping().values()) {
+                        if (value == null) {
+                            continue;
+                        }
+                        if (value.startsWith(COMPONENTS_PREFIX)) {
+                            addReference(node, node(value));
+                        }
+                        else if (value.indexOf('/') < 0) {
+                            // a schema name, as allowed by the OpenAPI specification
+                            addReference(node, node(SCHEMAS_PREFIX + value));
+                        }
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public void leave(Constructible visited) {
+                if (visited instanceof Reference) {
+                    final String ref = ((Reference<?>) visited).getRef();
+                    if (ref != null && ref.startsWith(COMPONENTS_PREFIX)) {
+                        addReference(node, node(ref));
+                    }
+                }
+            }
+        });
+    }
+
+    private void addSchemes(Node node, SecurityRequirement requirement) {
+        for (String scheme : requirement.keySet()) {
+            addReference(node, node(SECURITY_SCHEMES_PREFIX + scheme));
+        }
+    }
+
+    private static void addReference(Node from, Node to) {
+        if (from.references.add(to)) {
+            to.referrers.add(from);
+        }
+    }
+
+    /**
+     * A node of the index: a component, a path item, an operation or the top-level security requirements.
+     */
+    private static final class Node {
+        private final String pointer;
+        private Object element;
+        private final Set<Node> references = new LinkedHashSet<>(4);
+        private final Set<Node> referrers = new LinkedHashSet<>(4);
+
+        private Node(String pointer) {
+            this.pointer = pointer;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+
+/**
+ * This class removes the components of an OpenAPI model that the model no longer references, such as the schemas
+ * of the elements an {@link OASFilter} removed. It implements the optional processing stage that follows the filter
+ * when the {@value OASConfig#PRUNE_COMPONENTS} configuration property is true.
+ *
+ * <br><br>The components are pruned by mark and sweep: the components reachable through references from the path
+ * items, the operations and the top-level security requirements of the model, directly or through other components,
+ * are marked, as indexed by a {@link ComponentIndex}, and the schemas, responses, parameters, examples, request
+ * bodies, headers, links and callbacks that are not marked are removed. Components that only reference each other,
+ * and no path item or operation references, are removed as well. The security schemes are kept, since a security
+ * scheme may be declared for the clients of an API without being required by any operation.
+ *
+ * <br><br>Example:
+ * <pre><code>OASFilterWalker.filter(openAPI, filter);
+ * if (config.getOptionalValue(OASConfig.PRUNE_COMPONENTS, Boolean.class).orElse(false)) {
+ *     ComponentPruner.prune(openAPI);
+ * }
+ * </code></pre>
+ */
+public final class ComponentPruner {
+
+    private static final String COMPONENTS_PREFIX = "#/components/";
+
+    private static final String PATHS_PREFIX = "#/paths/";
+
+    private ComponentPruner() {
+    }
+
+    /**
+     * Removes the components of the model that its path items, operations and top-level security requirements do not
+     * reach through references.
+     *
+     * @param openAPI the model to prune, which is modified
+     * @return the references of the removed components, such as <code>#/components/schemas/Booking</code>, in the
+     * order of the model for each type of component
+     *
+     * @throws NullPointerException if the model is null
+     */
+    public static Set<String> prune(OpenAPI openAPI) {
+        final Components components = openAPI.getComponents();
+        if (components == null) {
+            return Collections.emptySet();
+        }
+        final ComponentIndex index = ComponentIndex.of(openAPI);
+        final List<String> roots = new ArrayList<>();
+        roots.add(ComponentIndex.SECURITY_POINTER);
+        for (String pointer : index.getPointers()) {
+            if (pointer.startsWith(PATHS_PREFIX)) {
+                roots.add(pointer);
+            }
+        }
+        final Set<String> marked = index.getClosure(roots);
+
+        final Set<String> removed = new LinkedHashSet<>();
+        for (Method getter : ModelTypes.properties(Components.class)) {
+            final String type = ModelTypes.propertyName(getter);
+            if ("extensions".equals(type) || "securitySchemes".equals(type)) {
+                continue;
+            }
+            final Object entries = ModelTypes.read(getter, components);
+            if (!(entries instanceof Map) || ((Map<?, ?>) entries).isEmpty()) {
+                continue;
+            }
+            final String prefix = COMPONENTS_PREFIX + type + "/";
+            final Map<Object, Object> kept = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) entries).entrySet()) {
+                final String ref = prefix + entry.getKey();
+                if (marked.contains(ref)) {
+                    kept.put(entry.getKey(), entry.getValue());
+                }
+                else {
+                    removed.add(ref);
+                }
+            }
+            // the maps returned by the getters are not required to be modifiable, so they are replaced
+            if (kept.size() < ((Map<?, ?>) entries).size()) {
+                ModelTypes.write(Components.class, getter, components, kept.isEmpty() ? null : kept);
+            }
+        }
+        return removed;
+    }
+}
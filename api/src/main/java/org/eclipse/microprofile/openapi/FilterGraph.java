@@ -0,0 +1,675 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.callbacks.Callback;
+import org.eclipse.microprofile.openapi.models.headers.Header;
+import org.eclipse.microprofile.openapi.models.links.Link;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.models.media.Encoding;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.parameters.RequestBody;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.security.SecurityScheme;
+import org.eclipse.microprofile.openapi.models.servers.Server;
+import org.eclipse.microprofile.openapi.models.tags.Tag;
+
+/**
+ * The filterable elements of an OpenAPI model and the dependencies between them, as used by
+ * {@link OASFilterWalker}.
+ * <p>
+ * Each filterable element becomes one {@link Node}, even when it is referenced from several places
+ * in the model. A node depends on the filterable elements below it, up to and including the next
+ * filterable element on each branch, and knows how to write their filter results back into the
+ * model. Non-filterable containers (lists, maps, content, media types, encodings) are owned by the
+ * first node that reaches them, so that no container is ever written by two nodes.
+ * <p>
+ * Elements that none of the filters is interested in, and below which no element any of the filters is
+ * interested in can be found, are not collected at all, so whole subtrees such as deep schema graphs are
+ * skipped when no filter looks at schemas.
+ * <p>
+ * A reference back to an element that is still being collected, which only happens in a model
+ * with cycles, is not followed. The element on the other end of such a reference is filtered
+ * after the element holding the reference, and that reference is left untouched.
+ */
+final class FilterGraph {
+
+    /**
+     * The kinds of elements that may be found below an element of each kind.
+     */
+    private static final Map<FilterableType, Set<FilterableType>> DESCENDANTS = new EnumMap<>(FilterableType.class);
+
+    static {
+        final Map<FilterableType, Set<FilterableType>> children = new EnumMap<>(FilterableType.class);
+        for (FilterableType type : FilterableType.values()) {
+            children.put(type, EnumSet.noneOf(FilterableType.class));
+        }
+        // Content holds schemas in its media types and headers in their encodings
+        children.get(FilterableType.SCHEMA).add(FilterableType.SCHEMA);
+        children.get(FilterableType.PARAMETER).addAll(EnumSet.of(FilterableType.SCHEMA, FilterableType.HEADER));
+        children.get(FilterableType.HEADER).addAll(EnumSet.of(FilterableType.SCHEMA, FilterableType.HEADER));
+        children.get(FilterableType.REQUEST_BODY).addAll(EnumSet.of(FilterableType.SCHEMA, FilterableType.HEADER));
+        children.get(FilterableType.API_RESPONSE).addAll(EnumSet.of(FilterableType.SCHEMA, FilterableType.HEADER, FilterableType.LINK));
+        children.get(FilterableType.LINK).add(FilterableType.SERVER);
+        children.get(FilterableType.OPERATION).addAll(EnumSet.of(FilterableType.PARAMETER, FilterableType.REQUEST_BODY,
+                FilterableType.API_RESPONSE, FilterableType.CALLBACK, FilterableType.SERVER));
+        children.get(FilterableType.CALLBACK).add(FilterableType.PATH_ITEM);
+        children.get(FilterableType.PATH_ITEM).addAll(EnumSet.of(FilterableType.OPERATION, FilterableType.PARAMETER, FilterableType.SERVER));
+        children.get(FilterableType.OPENAPI).addAll(EnumSet.complementOf(EnumSet.of(FilterableType.OPENAPI)));
+
+        for (FilterableType type : FilterableType.values()) {
+            final Set<FilterableType> descendants = EnumSet.noneOf(FilterableType.class);
+            final Deque<FilterableType> pending = new ArrayDeque<>(children.get(type));
+            while (!pending.isEmpty()) {
+                final FilterableType descendant = pending.pop();
+                if (descendants.add(descendant)) {
+                    pending.addAll(children.get(descendant));
+                }
+            }
+            DESCENDANTS.put(type, descendants);
+        }
+    }
+
+    private final List<OASFilter> filters;
+    private final List<Set<FilterableType>> filterTypes = new ArrayList<>();
+    private final Set<FilterableType> wanted = EnumSet.noneOf(FilterableType.class);
+    private final Map<Object, Node> nodes = new IdentityHashMap<>();
+    private final Map<Object, Container> containers = new IdentityHashMap<>();
+    private final List<Node> order = new ArrayList<>();
+    private final Node root;
+
+    /**
+     * Collects the elements of the given model that the given filters are interested in, as declared by
+     * {@link OASFilter#getFilteredTypes()}, and the elements on the way to them.
+     */
+    FilterGraph(OpenAPI openAPI, List<OASFilter> filters) {
+        this.filters = filters;
+        for (OASFilter filter : filters) {
+            final Set<FilterableType> types = FilterableType.of(filter.getFilteredTypes());
+            filterTypes.add(types);
+            wanted.addAll(types);
+        }
+        this.root = node(FilterableType.OPENAPI, openAPI);
+    }
+
+    /**
+     * @return the root node, which depends on every other node
+     */
+    Node root() {
+        return root;
+    }
+
+    /**
+     * @return all nodes, each of them after the nodes it depends on, ending with the root
+     */
+    List<Node> order() {
+        return order;
+    }
+
+    /**
+     * The kinds of filterable elements, each of which knows how to pass an element of its kind
+     * to an {@link OASFilter}.
+     */
+    enum FilterableType {
+        PATH_ITEM(PathItem.class) {
+            @Override
+            Object filter(OASFilter filter, Object element) {
+                return filter.filterPathItem((PathItem) element);
+            }
+        },
+        OPERATION(Operation.class) {
+            @Override
+            Object filter(OASFilter filter, Object element) {
+                return filter.filterOperation((Operation) element);
+            }
+        },
+        PARAMETER(Parameter.class) {
+            @Override
+            Object filter(OASFilter filter, Object element) {
+                return filter.filterParameter((Parameter) element);
+            }
+        },
+        HEADER(Header.class) {
+            @Override
+            Object filter(OASFilter filter, Object element) {
+                return filter.filterHeader((Header) element);
+            }
+        },
+        REQUEST_BODY(RequestBody.class) {
+            @Override
+            Object filter(OASFilter filter, Object element) {
+                return filter.filterRequestBody((RequestBody) element);
+            }
+        },
+        API_RESPONSE(APIResponse.class) {
+            @Override
+            Object filter(OASFilter filter, Object element) {
+                return filter.filterAPIResponse((APIResponse) element);
+            }
+        },
+        SCHEMA(Schema.class) {
+            @Override
+            Object filter(OASFilter filter, Object element) {
+                return filter.filterSchema((Schema) element);
+            }
+        },
+        SECURITY_SCHEME(SecurityScheme.class) {
+            @Override
+            Object filter(OASFilter filter, Object element) {
+                return filter.filterSecurityScheme((SecurityScheme) element);
+            }
+        },
+        SERVER(Server.class) {
+            @Override
+            Object filter(OASFilter filter, Object element) {
+                return filter.filterServer((Server) element);
+            }
+        },
+        TAG(Tag.class) {
+            @Override
+            Object filter(OASFilter filter, Object element) {
+                return filter.filterTag((Tag) element);
+            }
+        },
+        LINK(Link.class) {
+            @Override
+            Object filter(OASFilter filter, Object element) {
+                return filter.filterLink((Link) element);
+            }
+        },
+        CALLBACK(Callback.class) {
+            @Override
+            Object filter(OASFilter filter, Object element) {
+                return filter.filterCallback((Callback) element);
+            }
+        },
+        OPENAPI(OpenAPI.class) {
+            @Override
+            Object filter(OASFilter filter, Object element) {
+                filter.filterOpenAPI((OpenAPI) element);
+                return element;
+            }
+        };
+
+        private final Class<? extends Constructible> modelType;
+
+        FilterableType(Class<? extends Constructible> modelType) {
+            this.modelType = modelType;
+        }
+
+        /**
+         * @return the model interface of this kind of element
+         */
+        Class<? extends Constructible> modelType() {
+            return modelType;
+        }
+
+        /**
+         * Passes the element to the filter method for this kind of element.
+         *
+         * @return the element to be used or null
+         */
+        abstract Object filter(OASFilter filter, Object element);
+
+        /**
+         * @return the kinds of elements whose model interface is in the given set, or all kinds if the set is null
+         */
+        static Set<FilterableType> of(Set<Class<? extends Constructible>> modelTypes) {
+            final Set<FilterableType> types = EnumSet.allOf(FilterableType.class);
+            if (modelTypes != null) {
+                types.removeIf(type -> !modelTypes.contains(type.modelType));
+            }
+            return types;
+        }
+    }
+
+    /**
+     * A filterable element of the model.
+     */
+    final class Node implements Scope {
+
+        private final FilterableType type;
+        private final Object element;
+        private final Set<Node> dependencies = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final List<Binding> bindings = new ArrayList<>();
+        private boolean collected;
+        private int level;
+        private Object result;
+
+        Node(FilterableType type, Object element) {
+            this.type = type;
+            this.element = element;
+        }
+
+        FilterableType type() {
+            return type;
+        }
+
+        Object element() {
+            return element;
+        }
+
+        /**
+         * @return the length of the longest chain of dependencies below this node, so nodes of the same
+         * level never depend on each other
+         */
+        int level() {
+            return level;
+        }
+
+        /**
+         * Writes the results of the nodes this node depends on back into the model and passes the
+         * element to each of the filters interested in it in turn, stopping at the first one that
+         * returns null. May only be called once all dependencies have been filtered.
+         */
+        void filter() {
+            for (Binding binding : bindings) {
+                binding.apply();
+            }
+            Object current = element;
+            for (int i = 0; i < filters.size() && current != null; i++) {
+                if (filterTypes.get(i).contains(type)) {
+                    current = type.filter(filters.get(i), current);
+                }
+            }
+            result = current;
+        }
+
+        @Override
+        public Node owner() {
+            return this;
+        }
+
+        @Override
+        public void dependOn(Node node) {
+            dependencies.add(node);
+        }
+    }
+
+    /**
+     * The place a node's dependencies are collected in: the node itself, or one of the containers it owns.
+     */
+    interface Scope {
+
+        Node owner();
+
+        void dependOn(Node node);
+    }
+
+    /**
+     * A non-filterable container, which remembers the nodes found in it so that a later owner reaching
+     * the same container depends on them as well.
+     */
+    private static final class Container implements Scope {
+
+        private final Scope parent;
+        private final List<Node> found = new ArrayList<>();
+
+        Container(Scope parent) {
+            this.parent = parent;
+        }
+
+        @Override
+        public Node owner() {
+            return parent.owner();
+        }
+
+        @Override
+        public void dependOn(Node node) {
+            found.add(node);
+            parent.dependOn(node);
+        }
+    }
+
+    /**
+     * Writes the results of one or more filtered nodes back into the model.
+     */
+    private interface Binding {
+        void apply();
+    }
+
+    private static final class PropertyBinding implements Binding {
+
+        private final Node node;
+        private final Consumer<Object> setter;
+
+        PropertyBinding(Node node, Consumer<Object> setter) {
+            this.node = node;
+            this.setter = setter;
+        }
+
+        @Override
+        public void apply() {
+            if (node.result != node.element) {
+                setter.accept(node.result);
+            }
+        }
+    }
+
+    private static final class ListBinding implements Binding {
+
+        private final List<Object> list;
+        private final List<Node> elements = new ArrayList<>();
+
+        ListBinding(List<Object> list) {
+            this.list = list;
+        }
+
+        @Override
+        public void apply() {
+            final Iterator<Node> nodes = elements.iterator();
+            final ListIterator<Object> it = list.listIterator();
+            while (it.hasNext() && nodes.hasNext()) {
+                // null elements and references closing a cycle are recorded as null and left in place
+                final Node node = nodes.next();
+                it.next();
+                if (node == null || node.result == node.element) {
+                    continue;
+                }
+                if (node.result == null) {
+                    it.remove();
+                }
+                else {
+                    it.set(node.result);
+                }
+            }
+        }
+    }
+
+    private static final class MapBinding implements Binding {
+
+        private final Map<String, Object> map;
+        private final List<Map.Entry<String, Node>> entries = new ArrayList<>();
+
+        MapBinding(Map<String, Object> map) {
+            this.map = map;
+        }
+
+        @Override
+        public void apply() {
+            for (Map.Entry<String, Node> entry : entries) {
+                final Node node = entry.getValue();
+                if (node.result == null) {
+                    map.remove(entry.getKey());
+                }
+                else if (node.result != node.element) {
+                    map.put(entry.getKey(), node.result);
+                }
+            }
+        }
+    }
+
+    private Node node(FilterableType type, Object element) {
+        Node node = nodes.get(element);
+        if (node != null) {
+            return node.collected ? node : null;
+        }
+        if (type != FilterableType.OPENAPI && !isWanted(type)) {
+            // no filter is interested in this element or anything below it
+            return null;
+        }
+        node = new Node(type, element);
+        nodes.put(element, node);
+        collect(node);
+        for (Node dependency : node.dependencies) {
+            node.level = Math.max(node.level, dependency.level + 1);
+        }
+        node.collected = true;
+        order.add(node);
+        return node;
+    }
+
+    private void collect(Node node) {
+        switch (node.type) {
+            case OPENAPI:
+                collectOpenAPI(node, (OpenAPI) node.element);
+                break;
+            case PATH_ITEM:
+                collectPathItem(node, (PathItem) node.element);
+                break;
+            case OPERATION:
+                collectOperation(node, (Operation) node.element);
+                break;
+            case CALLBACK:
+                map(node, FilterableType.PATH_ITEM, (Callback) node.element);
+                break;
+            case PARAMETER:
+                final Parameter parameter = (Parameter) node.element;
+                property(node, FilterableType.SCHEMA, parameter.getSchema(), v -> parameter.setSchema((Schema) v));
+                content(node, parameter.getContent());
+                break;
+            case HEADER:
+                final Header header = (Header) node.element;
+                property(node, FilterableType.SCHEMA, header.getSchema(), v -> header.setSchema((Schema) v));
+                content(node, header.getContent());
+                break;
+            case REQUEST_BODY:
+                content(node, ((RequestBody) node.element).getContent());
+                break;
+            case API_RESPONSE:
+                final APIResponse response = (APIResponse) node.element;
+                map(node, FilterableType.HEADER, response.getHeaders());
+                content(node, response.getContent());
+                map(node, FilterableType.LINK, response.getLinks());
+                break;
+            case LINK:
+                final Link link = (Link) node.element;
+                property(node, FilterableType.SERVER, link.getServer(), v -> link.setServer((Server) v));
+                break;
+            case SCHEMA:
+                collectSchema(node, (Schema) node.element);
+                break;
+            default:
+                // servers, tags and security schemes have no filterable descendants
+                break;
+        }
+    }
+
+    private void collectOpenAPI(Node node, OpenAPI openAPI) {
+        list(node, FilterableType.SERVER, openAPI.getServers());
+        list(node, FilterableType.TAG, openAPI.getTags());
+        map(node, FilterableType.PATH_ITEM, openAPI.getPaths());
+        final Components components = openAPI.getComponents();
+        if (components != null) {
+            // the sections are only read when needed, since they may be built on first access
+            if (isWanted(FilterableType.SCHEMA)) {
+                map(node, FilterableType.SCHEMA, components.getSchemas());
+            }
+            if (isWanted(FilterableType.API_RESPONSE)) {
+                map(node, FilterableType.API_RESPONSE, components.getResponses());
+            }
+            if (isWanted(FilterableType.PARAMETER)) {
+                map(node, FilterableType.PARAMETER, components.getParameters());
+            }
+            if (isWanted(FilterableType.REQUEST_BODY)) {
+                map(node, FilterableType.REQUEST_BODY, components.getRequestBodies());
+            }
+            if (isWanted(FilterableType.HEADER)) {
+                map(node, FilterableType.HEADER, components.getHeaders());
+            }
+            if (isWanted(FilterableType.SECURITY_SCHEME)) {
+                map(node, FilterableType.SECURITY_SCHEME, components.getSecuritySchemes());
+            }
+            if (isWanted(FilterableType.LINK)) {
+                map(node, FilterableType.LINK, components.getLinks());
+            }
+            if (isWanted(FilterableType.CALLBACK)) {
+                map(node, FilterableType.CALLBACK, components.getCallbacks());
+            }
+        }
+    }
+
+    /**
+     * @return whether a filter is interested in the elements of the given kind, or in elements below them
+     */
+    private boolean isWanted(FilterableType type) {
+        return wanted.contains(type) || !Collections.disjoint(wanted, DESCENDANTS.get(type));
+    }
+
+    private void collectPathItem(Node node, PathItem pathItem) {
+        property(node, FilterableType.OPERATION, pathItem.getGET(), v -> pathItem.setGET((Operation) v));
+        property(node, FilterableType.OPERATION, pathItem.getPUT(), v -> pathItem.setPUT((Operation) v));
+        property(node, FilterableType.OPERATION, pathItem.getPOST(), v -> pathItem.setPOST((Operation) v));
+        property(node, FilterableType.OPERATION, pathItem.getDELETE(), v -> pathItem.setDELETE((Operation) v));
+        property(node, FilterableType.OPERATION, pathItem.getOPTIONS(), v -> pathItem.setOPTIONS((Operation) v));
+        property(node, FilterableType.OPERATION, pathItem.getHEAD(), v -> pathItem.setHEAD((Operation) v));
+        property(node, FilterableType.OPERATION, pathItem.getPATCH(), v -> pathItem.setPATCH((Operation) v));
+        property(node, FilterableType.OPERATION, pathItem.getTRACE(), v -> pathItem.setTRACE((Operation) v));
+        list(node, FilterableType.PARAMETER, pathItem.getParameters());
+        list(node, FilterableType.SERVER, pathItem.getServers());
+    }
+
+    private void collectOperation(Node node, Operation operation) {
+        list(node, FilterableType.PARAMETER, operation.getParameters());
+        property(node, FilterableType.REQUEST_BODY, operation.getRequestBody(), v -> operation.setRequestBody((RequestBody) v));
+        map(node, FilterableType.API_RESPONSE, operation.getResponses());
+        map(node, FilterableType.CALLBACK, operation.getCallbacks());
+        list(node, FilterableType.SERVER, operation.getServers());
+    }
+
+    private void collectSchema(Node node, Schema schema) {
+        map(node, FilterableType.SCHEMA, schema.getProperties());
+        property(node, FilterableType.SCHEMA, schema.getItems(), v -> schema.setItems((Schema) v));
+        property(node, FilterableType.SCHEMA, schema.getNot(), v -> schema.setNot((Schema) v));
+        if (schema.getAdditionalProperties() instanceof Schema) {
+            property(node, FilterableType.SCHEMA, schema.getAdditionalProperties(), v -> schema.setAdditionalProperties((Schema) v));
+        }
+        list(node, FilterableType.SCHEMA, schema.getAllOf());
+        list(node, FilterableType.SCHEMA, schema.getAnyOf());
+        list(node, FilterableType.SCHEMA, schema.getOneOf());
+    }
+
+    private void content(Scope scope, Content content) {
+        final Scope contentScope = enter(scope, content);
+        if (contentScope == null) {
+            return;
+        }
+        for (MediaType mediaType : content.values()) {
+            final Scope mediaTypeScope = enter(contentScope, mediaType);
+            if (mediaTypeScope == null) {
+                continue;
+            }
+            property(mediaTypeScope, FilterableType.SCHEMA, mediaType.getSchema(), v -> mediaType.setSchema((Schema) v));
+            final Map<String, Encoding> encodings = mediaType.getEncoding();
+            final Scope encodingsScope = enter(mediaTypeScope, encodings);
+            if (encodingsScope == null) {
+                continue;
+            }
+            for (Encoding encoding : encodings.values()) {
+                final Scope encodingScope = enter(encodingsScope, encoding);
+                if (encodingScope != null) {
+                    map(encodingScope, FilterableType.HEADER, encoding.getHeaders());
+                }
+            }
+        }
+    }
+
+    private void property(Scope scope, FilterableType type, Object value, Consumer<Object> setter) {
+        if (value == null) {
+            return;
+        }
+        final Node node = node(type, value);
+        if (node != null) {
+            scope.dependOn(node);
+            scope.owner().bindings.add(new PropertyBinding(node, setter));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void list(Scope scope, FilterableType type, List<?> list) {
+        final Scope listScope = enter(scope, list);
+        if (listScope == null) {
+            return;
+        }
+        final ListBinding binding = new ListBinding((List<Object>) list);
+        boolean bound = false;
+        for (Object value : list) {
+            final Node node = value == null ? null : node(type, value);
+            if (node != null) {
+                listScope.dependOn(node);
+                bound = true;
+            }
+            binding.elements.add(node);
+        }
+        if (bound) {
+            listScope.owner().bindings.add(binding);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void map(Scope scope, FilterableType type, Map<String, ?> map) {
+        final Scope mapScope = enter(scope, map);
+        if (mapScope == null) {
+            return;
+        }
+        final MapBinding binding = new MapBinding((Map<String, Object>) map);
+        for (Map.Entry<String, ?> entry : map.entrySet()) {
+            final Node node = entry.getValue() == null ? null : node(type, entry.getValue());
+            if (node != null) {
+                mapScope.dependOn(node);
+                binding.entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), node));
+            }
+        }
+        if (!binding.entries.isEmpty()) {
+            mapScope.owner().bindings.add(binding);
+        }
+    }
+
+    /**
+     * Enters a non-filterable container.
+     *
+     * @return the scope to collect the contents of the container in, or null if the container is null or
+     * was already collected, in which case the given scope depends on the nodes found in it
+     */
+    private Scope enter(Scope scope, Object container) {
+        if (container == null) {
+            return null;
+        }
+        final Container existing = containers.get(container);
+        if (existing != null) {
+            for (Node node : existing.found) {
+                scope.dependOn(node);
+            }
+            return null;
+        }
+        final Container entered = new Container(scope);
+        containers.put(container, entered);
+        return entered;
+    }
+}
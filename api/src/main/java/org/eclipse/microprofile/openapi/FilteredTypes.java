@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.eclipse.microprofile.openapi.models.Constructible;
+
+/**
+ * Derives the types a filter class filters from the filter methods it overrides, which is the default
+ * implementation of {@link OASFilter#getFilteredTypes()}. The result is computed once per filter class.
+ */
+final class FilteredTypes {
+
+    private static final ClassValue<Set<Class<? extends Constructible>>> TYPES = new ClassValue<Set<Class<? extends Constructible>>>() {
+        @Override
+        protected Set<Class<? extends Constructible>> computeValue(Class<?> filterClass) {
+            final Set<Class<? extends Constructible>> types = new LinkedHashSet<>();
+            for (FilterGraph.FilterableType type : FilterGraph.FilterableType.values()) {
+                final Class<? extends Constructible> modelType = type.modelType();
+                try {
+                    final Method method = filterClass.getMethod("filter" + modelType.getSimpleName(), modelType);
+                    if (method.getDeclaringClass() != OASFilter.class) {
+                        types.add(modelType);
+                    }
+                }
+                catch (NoSuchMethodException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return Collections.unmodifiableSet(types);
+        }
+    };
+
+    private FilteredTypes() {}
+
+    static Set<Class<? extends Constructible>> of(Class<? extends OASFilter> filterClass) {
+        return TYPES.get(filterClass);
+    }
+}
@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable map backed by two arrays, which keeps the iteration order of the map it was copied from.
+ * Small maps are searched linearly; larger ones get an open-addressing index of the positions of their keys, an
+ * array of integers probed linearly and kept at most half full. The hash code is cached.
+ */
+final class FrozenMap<K, V> extends AbstractMap<K, V> {
+
+    /**
+     * Maps of up to this size are searched linearly instead of through an index.
+     */
+    private static final int LINEAR_SEARCH_LIMIT = 8;
+
+    private final Object[] keys;
+    private final Object[] values;
+    /**
+     * The position of each key plus one, by its hash, and zero for empty slots, or null for small maps.
+     */
+    private final int[] index;
+    private int hash;
+
+    /**
+     * Creates a map with the given keys and values, which are not copied and must not be modified afterwards.
+     */
+    FrozenMap(Object[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+        if (keys.length > LINEAR_SEARCH_LIMIT) {
+            index = new int[Integer.highestOneBit(keys.length * 4 - 1)];
+            final int mask = index.length - 1;
+            for (int i = 0; i < keys.length; i++) {
+                int slot = hash(keys[i]) & mask;
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                index[slot] = i + 1;
+            }
+        }
+        else {
+            index = null;
+        }
+    }
+
+    private int indexOf(Object key) {
+        if (index != null) {
+            final int mask = index.length - 1;
+            for (int slot = hash(key) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+                if (Objects.equals(keys[index[slot] - 1], key)) {
+                    return index[slot] - 1;
+                }
+            }
+            return -1;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (Objects.equals(keys[i], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int hash(Object key) {
+        final int h = key == null ? 0 : key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return keys.length == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        final int i = indexOf(key);
+        return i < 0 ? null : (V) values[i];
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        return new AbstractSet<Map.Entry<K, V>>() {
+            @Override
+            public Iterator<Map.Entry<K, V>> iterator() {
+                return new Iterator<Map.Entry<K, V>>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < keys.length;
+                    }
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public Map.Entry<K, V> next() {
+                        if (next >= keys.length) {
+                            throw new NoSuchElementException();
+                        }
+                        final int i = next++;
+                        return new AbstractMap.SimpleImmutableEntry<>((K) keys[i], (V) values[i]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    @Override
+    public int hashCode() {
+        int h = hash;
+        if (h == 0) {
+            for (int i = 0; i < keys.length; i++) {
+                h += Objects.hashCode(keys[i]) ^ Objects.hashCode(values[i]);
+            }
+            hash = h;
+        }
+        return h;
+    }
+}
@@ -0,0 +1,295 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+
+/**
+ * The implementation of the elements of an {@link OpenAPISnapshot}: a proxy of a model interface whose
+ * property values are held in an array, in the order of {@link ModelTypes#properties(Class)}. The entries
+ * of the model interfaces that extend {@link Map} are held in a {@link FrozenMap}.
+ * <p>
+ * Each method of a model interface is resolved once per model interface to the index of its property, or to
+ * the action it takes, and later calls look the method up by identity, since the proxies of a model interface
+ * pass the same {@link Method} instances. Getters return the values, the methods of {@link Map} are delegated
+ * to the entries, and every method that would modify the element throws {@link UnsupportedOperationException}.
+ * <p>
+ * Two frozen elements are equal if they are of the same model interface and have equal values and entries; the
+ * hash code is computed once. A frozen element of a model interface that extends {@link Map} is equal to any map
+ * with equal entries instead, as the contract of {@link Map#equals(Object)} requires.
+ */
+final class FrozenModel implements InvocationHandler {
+
+    private static final int HASH_CODE = -1;
+    private static final int EQUALS = -2;
+    private static final int TO_STRING = -3;
+    private static final int MAP_SIZE = -4;
+    private static final int MAP_IS_EMPTY = -5;
+    private static final int MAP_GET = -6;
+    private static final int MAP_CONTAINS_KEY = -7;
+    private static final int MAP_ENTRY_SET = -8;
+    private static final int MAP_KEY_SET = -9;
+    private static final int MAP_VALUES = -10;
+    private static final int MAP_OTHER = -11;
+    private static final int READ_OPERATIONS = -12;
+    private static final int READ_OPERATIONS_MAP = -13;
+    private static final int DEFAULT_RESPONSE = -14;
+    private static final int UNSUPPORTED = -15;
+
+    private static final ClassValue<Shape> SHAPES = new ClassValue<Shape>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Shape computeValue(Class<?> modelType) {
+            return new Shape((Class<? extends Constructible>) modelType);
+        }
+    };
+
+    private final Shape shape;
+    private final Object[] values;
+    private final Map<String, Object> entries;
+    private int hash;
+
+    private FrozenModel(Class<? extends Constructible> type, Object[] values, Map<String, Object> entries) {
+        this.shape = SHAPES.get(type);
+        this.values = values;
+        this.entries = entries;
+    }
+
+    /**
+     * Creates a frozen element of the given model interface.
+     *
+     * @param values the property values, which are not copied and must not be modified afterwards
+     * @param entries the entries of a model interface that extends Map, or null
+     */
+    static <T extends Constructible> T create(Class<T> type, Object[] values, Map<String, Object> entries) {
+        return type.cast(Proxy.newProxyInstance(FrozenModel.class.getClassLoader(), new Class<?>[] {type},
+                new FrozenModel(type, values, entries)));
+    }
+
+    /**
+     * @return true if the given object is an element created by {@link #create(Class, Object[], Map)}
+     */
+    static boolean isFrozen(Object element) {
+        return element != null && Proxy.isProxyClass(element.getClass()) && Proxy.getInvocationHandler(element) instanceof FrozenModel;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        final int code = shape.code(method);
+        if (code >= 0) {
+            return values[code];
+        }
+        switch (code) {
+            case HASH_CODE:
+                return hashCode();
+            case EQUALS:
+                return args[0] == proxy || equalsElement(args[0]);
+            case TO_STRING:
+                return toString();
+            case MAP_SIZE:
+                return entries.size();
+            case MAP_IS_EMPTY:
+                return entries.isEmpty();
+            case MAP_GET:
+                return entries.get(args[0]);
+            case MAP_CONTAINS_KEY:
+                return entries.containsKey(args[0]);
+            case MAP_ENTRY_SET:
+                return entries.entrySet();
+            case MAP_KEY_SET:
+                return entries.keySet();
+            case MAP_VALUES:
+                return entries.values();
+            case MAP_OTHER:
+                try {
+                    return method.invoke(entries, args);
+                }
+                catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            case READ_OPERATIONS:
+                return Collections.unmodifiableList(new ArrayList<>(readOperations((PathItem) proxy).values()));
+            case READ_OPERATIONS_MAP:
+                return readOperations((PathItem) proxy);
+            case DEFAULT_RESPONSE:
+                return entries.get(APIResponses.DEFAULT);
+            default:
+                throw new UnsupportedOperationException("The " + shape.type.getSimpleName() + " of an OpenAPISnapshot cannot be modified");
+        }
+    }
+
+    private boolean equalsElement(Object obj) {
+        if (entries != null) {
+            return obj instanceof Map && entries.equals(obj);
+        }
+        return isFrozen(obj) && equals(Proxy.getInvocationHandler(obj));
+    }
+
+    private static Map<PathItem.HttpMethod, Operation> readOperations(PathItem pathItem) {
+        final Map<PathItem.HttpMethod, Operation> operations = new LinkedHashMap<>();
+        putOperation(operations, PathItem.HttpMethod.GET, pathItem.getGET());
+        putOperation(operations, PathItem.HttpMethod.PUT, pathItem.getPUT());
+        putOperation(operations, PathItem.HttpMethod.POST, pathItem.getPOST());
+        putOperation(operations, PathItem.HttpMethod.DELETE, pathItem.getDELETE());
+        putOperation(operations, PathItem.HttpMethod.OPTIONS, pathItem.getOPTIONS());
+        putOperation(operations, PathItem.HttpMethod.HEAD, pathItem.getHEAD());
+        putOperation(operations, PathItem.HttpMethod.PATCH, pathItem.getPATCH());
+        putOperation(operations, PathItem.HttpMethod.TRACE, pathItem.getTRACE());
+        return Collections.unmodifiableMap(operations);
+    }
+
+    private static void putOperation(Map<PathItem.HttpMethod, Operation> operations, PathItem.HttpMethod httpMethod, Operation operation) {
+        if (operation != null) {
+            operations.put(httpMethod, operation);
+        }
+    }
+
+    /**
+     * The hash code of the entries for the model interfaces that extend Map, as for any map, and otherwise of the
+     * model interface and the values.
+     */
+    @Override
+    public int hashCode() {
+        if (entries != null) {
+            return entries.hashCode();
+        }
+        int h = hash;
+        if (h == 0) {
+            h = 31 * shape.type.getName().hashCode() + Arrays.hashCode(values);
+            hash = h;
+        }
+        return h;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof FrozenModel)) {
+            return false;
+        }
+        final FrozenModel other = (FrozenModel) obj;
+        return shape == other.shape && hashCode() == other.hashCode() && Arrays.equals(values, other.values)
+                && Objects.equals(entries, other.entries);
+    }
+
+    @Override
+    public String toString() {
+        final Map<String, Object> properties = new LinkedHashMap<>();
+        final List<Method> getters = ModelTypes.properties(shape.type);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                properties.put(ModelTypes.propertyName(getters.get(i)), values[i]);
+            }
+        }
+        return shape.type.getSimpleName() + (entries == null ? "" : entries.toString()) + properties;
+    }
+
+    /**
+     * The code of each method of a model interface: the index of its property, or one of the negative actions.
+     */
+    private static final class Shape {
+        private final Class<? extends Constructible> type;
+        private final Map<Method, Integer> codes = new HashMap<>();
+
+        /**
+         * The codes of the methods already called, by identity, which is replaced as a whole when a method is added.
+         */
+        private volatile Map<Method, Integer> resolved = Collections.emptyMap();
+
+        private Shape(Class<? extends Constructible> type) {
+            this.type = type;
+            final List<Method> properties = ModelTypes.properties(type);
+            for (int i = 0; i < properties.size(); i++) {
+                codes.put(properties.get(i), i);
+            }
+        }
+
+        int code(Method method) {
+            final Integer code = resolved.get(method);
+            return code != null ? code : resolve(method);
+        }
+
+        private synchronized int resolve(Method method) {
+            Integer code = codes.get(method);
+            if (code == null) {
+                code = action(method);
+            }
+            final Map<Method, Integer> copy = new IdentityHashMap<>(resolved);
+            copy.put(method, code);
+            resolved = copy;
+            return code;
+        }
+
+        private int action(Method method) {
+            final Class<?> declaringClass = method.getDeclaringClass();
+            final String name = method.getName();
+            if (declaringClass == Object.class) {
+                return "hashCode".equals(name) ? HASH_CODE : "equals".equals(name) ? EQUALS : TO_STRING;
+            }
+            if (declaringClass == Map.class && Map.class.isAssignableFrom(type)) {
+                switch (name) {
+                    case "size":
+                        return MAP_SIZE;
+                    case "isEmpty":
+                        return MAP_IS_EMPTY;
+                    case "get":
+                        return MAP_GET;
+                    case "containsKey":
+                        return MAP_CONTAINS_KEY;
+                    case "entrySet":
+                        return MAP_ENTRY_SET;
+                    case "keySet":
+                        return MAP_KEY_SET;
+                    case "values":
+                        return MAP_VALUES;
+                    default:
+                        return MAP_OTHER;
+                }
+            }
+            if (type == PathItem.class && "readOperations".equals(name)) {
+                return READ_OPERATIONS;
+            }
+            if (type == PathItem.class && "readOperationsMap".equals(name)) {
+                return READ_OPERATIONS_MAP;
+            }
+            // not a property, since its setter is setDefaultValue, but the entry of the default response
+            if (type == APIResponses.class && "getDefault".equals(name)) {
+                return DEFAULT_RESPONSE;
+            }
+            return UNSUPPORTED;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.openapi.models.Components;
+
+/**
+ * This class creates {@link Components} whose sections, such as the schemas or the responses, are built on first
+ * access, so that the sections a request or a filter never touches are never built.
+ *
+ * <br><br>A section is given as a supplier of its map, keyed by the name of its property: <code>schemas</code>,
+ * <code>responses</code>, <code>parameters</code>, <code>examples</code>, <code>requestBodies</code>,
+ * <code>headers</code>, <code>securitySchemes</code>, <code>links</code>, <code>callbacks</code> or
+ * <code>extensions</code>. The supplier of a section is called once, on the first call to any method of the section,
+ * such as <code>getSchemas</code>, <code>setSchemas</code>, <code>schemas</code> or <code>addSchema</code>, and its
+ * map is set on components created by {@link OASFactory}, to which every call is then delegated. A supplier may return
+ * null for an empty section. If a supplier throws an exception, the exception is thrown to the caller, and the
+ * supplier is called again on the next access to its section. The methods of the components that belong to no
+ * section, such as <code>equals</code>, build all the sections first.
+ *
+ * <br><br>The {@link OASFilterWalker} only reads the sections of the components holding elements that one of the
+ * filters is interested in, so that a filter declaring that it only filters path items and operations leaves the
+ * other sections unbuilt.
+ *
+ * <br><br>The components may be used by any number of threads: each section is built at most once. Once built, the
+ * sections are as thread-safe as the components created by {@link OASFactory}.
+ *
+ * <br><br>Example, in an {@link OASModelReader}:
+ * <pre><code>Map&lt;String, Supplier&lt;Map&lt;String, ?&gt;&gt;&gt; sections = new HashMap&lt;&gt;();
+ * sections.put("schemas", () -&gt; buildSchemas());
+ * sections.put("securitySchemes", () -&gt; buildSecuritySchemes());
+ * return OASFactory.createObject(OpenAPI.class).openapi("3.0.0")
+ *         .paths(buildPaths())
+ *         .components(LazyComponents.of(sections));
+ * </code></pre>
+ */
+public final class LazyComponents {
+
+    /**
+     * The getter of each section, and the section of each method of the components belonging to one.
+     */
+    private static final Map<String, Method> GETTERS = new HashMap<>();
+    private static final Map<String, String> SECTIONS = new HashMap<>();
+
+    static {
+        for (Method getter : ModelTypes.properties(Components.class)) {
+            if (Map.class.isAssignableFrom(getter.getReturnType())) {
+                final String section = ModelTypes.propertyName(getter);
+                final String name = getter.getName().substring(3);
+                final String singular = name.endsWith("ies") ? name.substring(0, name.length() - 3) + "y"
+                        : name.substring(0, name.length() - 1);
+                GETTERS.put(section, getter);
+                SECTIONS.put(getter.getName(), section);
+                SECTIONS.put("set" + name, section);
+                SECTIONS.put(section, section);
+                SECTIONS.put("add" + singular, section);
+            }
+        }
+    }
+
+    private LazyComponents() {
+    }
+
+    /**
+     * Creates components whose sections are built by the given suppliers on first access.
+     *
+     * @param sections the supplier of each section, by the name of its property, which are copied. The sections
+     * without a supplier are empty.
+     * @return the components
+     *
+     * @throws NullPointerException if the map of the sections or one of the suppliers is null
+     * @throws IllegalArgumentException if a name is not the name of a section of the components
+     */
+    public static Components of(Map<String, ? extends Supplier<? extends Map<String, ?>>> sections) {
+        final Map<String, Supplier<? extends Map<String, ?>>> pending = new LinkedHashMap<>(sections);
+        for (Map.Entry<String, Supplier<? extends Map<String, ?>>> entry : pending.entrySet()) {
+            if (!GETTERS.containsKey(entry.getKey())) {
+                throw new IllegalArgumentException("Not a section of the components: " + entry.getKey());
+            }
+            if (entry.getValue() == null) {
+                throw new NullPointerException();
+            }
+        }
+        return (Components) Proxy.newProxyInstance(LazyComponents.class.getClassLoader(), new Class<?>[] {Components.class},
+                new Handler(OASFactory.createObject(Components.class), pending));
+    }
+
+    /**
+     * Returns whether the given section of the given components is built. The sections of components that were not
+     * created by {@link #of(Map)} are always built.
+     *
+     * @param components the components
+     * @param section the name of the property of the section, such as <code>schemas</code>
+     * @return false if the section still waits for its first access
+     *
+     * @throws NullPointerException if the components are null
+     */
+    public static boolean isBuilt(Components components, String section) {
+        final Handler handler = handler(components);
+        if (handler == null) {
+            return true;
+        }
+        synchronized (handler) {
+            return !handler.pending.containsKey(section);
+        }
+    }
+
+    private static Handler handler(Object element) {
+        if (Proxy.isProxyClass(element.getClass()) && Proxy.getInvocationHandler(element) instanceof Handler) {
+            return (Handler) Proxy.getInvocationHandler(element);
+        }
+        return null;
+    }
+
+    /**
+     * Delegates the calls to the components holding the built sections, once the section of the call is built.
+     */
+    private static final class Handler implements InvocationHandler {
+        private final Components delegate;
+        private final Map<String, Supplier<? extends Map<String, ?>>> pending;
+
+        private Handler(Components delegate, Map<String, Supplier<? extends Map<String, ?>>> pending) {
+            this.delegate = delegate;
+            this.pending = pending;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            final String section = SECTIONS.get(method.getName());
+            if (section != null) {
+                build(section);
+            }
+            else {
+                for (String name : pendingSections()) {
+                    build(name);
+                }
+            }
+            if (method.getDeclaringClass() == Object.class && "equals".equals(method.getName())) {
+                final Handler other = args[0] == null ? null : handler(args[0]);
+                if (other != null) {
+                    for (String name : other.pendingSections()) {
+                        other.build(name);
+                    }
+                }
+                return args[0] == proxy || delegate.equals(other == null ? args[0] : other.delegate);
+            }
+            try {
+                final Object result = method.invoke(delegate, args);
+                // the builder methods return the components the call is delegated to
+                return result == delegate ? proxy : result;
+            }
+            catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private synchronized Iterable<String> pendingSections() {
+            return pending.isEmpty() ? Collections.emptyList() : new ArrayList<>(pending.keySet());
+        }
+
+        private synchronized void build(String section) {
+            final Supplier<? extends Map<String, ?>> supplier = pending.get(section);
+            if (supplier == null) {
+                return;
+            }
+            final Map<String, ?> entries = supplier.get();
+            pending.remove(section);
+            if (entries != null) {
+                ModelTypes.write(Components.class, GETTERS.get(section), delegate, entries);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.ExternalDocumentation;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.callbacks.Callback;
+import org.eclipse.microprofile.openapi.models.examples.Example;
+import org.eclipse.microprofile.openapi.models.headers.Header;
+import org.eclipse.microprofile.openapi.models.info.Contact;
+import org.eclipse.microprofile.openapi.models.info.Info;
+import org.eclipse.microprofile.openapi.models.info.License;
+import org.eclipse.microprofile.openapi.models.links.Link;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.models.media.Discriminator;
+import org.eclipse.microprofile.openapi.models.media.Encoding;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.media.XML;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.parameters.RequestBody;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.eclipse.microprofile.openapi.models.security.OAuthFlow;
+import org.eclipse.microprofile.openapi.models.security.OAuthFlows;
+import org.eclipse.microprofile.openapi.models.security.Scopes;
+import org.eclipse.microprofile.openapi.models.security.SecurityRequirement;
+import org.eclipse.microprofile.openapi.models.security.SecurityScheme;
+import org.eclipse.microprofile.openapi.models.servers.Server;
+import org.eclipse.microprofile.openapi.models.servers.ServerVariable;
+import org.eclipse.microprofile.openapi.models.servers.ServerVariables;
+import org.eclipse.microprofile.openapi.models.tags.Tag;
+
+/**
+ * The model interfaces of the OpenAPI model tree, and the properties they declare.
+ * <p>
+ * A property is a getter without parameters, named {@code getXxx}, for which the model interface also
+ * declares a {@code setXxx} method. The entries of the model interfaces that extend {@link Map} are
+ * not properties.
+ */
+final class ModelTypes {
+
+    /**
+     * Every model interface that can be created with {@link OASFactory#createObject(Class)}.
+     */
+    static final List<Class<? extends Constructible>> ALL = Collections.unmodifiableList(Arrays.asList(
+            Components.class, ExternalDocumentation.class, OpenAPI.class, Operation.class, PathItem.class, Paths.class,
+            Callback.class, Example.class, Header.class, Contact.class, Info.class, License.class, Link.class, Content.class,
+            Discriminator.class, Encoding.class, MediaType.class, Schema.class, XML.class, Parameter.class, RequestBody.class,
+            APIResponse.class, APIResponses.class, OAuthFlow.class, OAuthFlows.class, Scopes.class, SecurityRequirement.class,
+            SecurityScheme.class, Server.class, ServerVariable.class, ServerVariables.class, Tag.class));
+
+    private static final ClassValue<Class<? extends Constructible>> MODEL_TYPES = new ClassValue<Class<? extends Constructible>>() {
+        @Override
+        protected Class<? extends Constructible> computeValue(Class<?> implementation) {
+            for (Class<? extends Constructible> modelType : ALL) {
+                if (modelType.isAssignableFrom(implementation)) {
+                    return modelType;
+                }
+            }
+            throw new IllegalArgumentException("Not an implementation of a model interface: " + implementation.getName());
+        }
+    };
+
+    private static final ClassValue<List<Method>> PROPERTIES = new ClassValue<List<Method>>() {
+        @Override
+        protected List<Method> computeValue(Class<?> modelType) {
+            final List<Method> properties = new ArrayList<>();
+            for (Method method : modelType.getMethods()) {
+                final String name = method.getName();
+                if (name.startsWith("get") && method.getParameterCount() == 0 && !Modifier.isStatic(method.getModifiers())
+                        && method.getDeclaringClass() != Map.class && hasSetter(modelType, "set" + name.substring(3))) {
+                    properties.add(method);
+                }
+            }
+            properties.sort(Comparator.comparing(Method::getName));
+            return Collections.unmodifiableList(properties);
+        }
+    };
+
+    private static final ClassValue<Map<String, List<Method>>> SETTERS = new ClassValue<Map<String, List<Method>>>() {
+        @Override
+        protected Map<String, List<Method>> computeValue(Class<?> modelType) {
+            final Map<String, List<Method>> setters = new HashMap<>();
+            for (Method method : modelType.getMethods()) {
+                if (method.getName().startsWith("set") && method.getParameterCount() == 1 && !Modifier.isStatic(method.getModifiers())) {
+                    setters.computeIfAbsent(method.getName().substring(3), k -> new ArrayList<>(1)).add(method);
+                }
+            }
+            return setters;
+        }
+    };
+
+    private ModelTypes() {}
+
+    /**
+     * @return the model interface implemented by the given class
+     * @throws IllegalArgumentException if the class implements none of the model interfaces
+     */
+    static Class<? extends Constructible> of(Class<?> implementation) {
+        return MODEL_TYPES.get(implementation);
+    }
+
+    /**
+     * @return the getters of the properties of the given model interface, sorted by name
+     */
+    static List<Method> properties(Class<? extends Constructible> modelType) {
+        return PROPERTIES.get(modelType);
+    }
+
+    /**
+     * @return the name of the property read by the given getter
+     */
+    static String propertyName(Method getter) {
+        final String name = getter.getName().substring(3);
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Reads a property of a model element.
+     */
+    static Object read(Method getter, Object element) {
+        try {
+            return getter.invoke(element);
+        }
+        catch (InvocationTargetException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Writes a property of a model element, with the setter of the property accepting the given value.
+     *
+     * @throws IllegalArgumentException if no setter of the property accepts the value
+     */
+    static void write(Class<? extends Constructible> modelType, Method getter, Object element, Object value) {
+        for (Method setter : SETTERS.get(modelType).get(getter.getName().substring(3))) {
+            if (value == null || setter.getParameterTypes()[0].isInstance(value)) {
+                try {
+                    setter.invoke(element, value);
+                    return;
+                }
+                catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+                catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+        throw new IllegalArgumentException("No setter of " + propertyName(getter) + " accepts " + value.getClass().getName());
+    }
+
+    private static boolean hasSetter(Class<?> modelType, String name) {
+        for (Method method : modelType.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterCount() == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
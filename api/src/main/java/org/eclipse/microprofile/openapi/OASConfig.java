@@ -36,6 +36,13 @@ public final class OASConfig {
      */
     public static final String FILTER = "mp.openapi.filter";
 
+    /**
+     * Configuration property to remove the components that are not referenced by the model once it is filtered.
+     * 
+     * @see org.eclipse.microprofile.openapi.ComponentPruner
+     */
+    public static final String PRUNE_COMPONENTS = "mp.openapi.filter.prune.components";
+
     /**
      * Configuration property to disable annotation scanning.
      * 
@@ -46,7 +46,7 @@ public final class OASFactory {
      * @throws IllegalArgumentException if an instance could not be created, most likely, due to an illegal or inappropriate class
      */
     public static <T extends Constructible> T createObject(Class<T> clazz) {
-        return OASFactoryResolver.instance().createObject(clazz);
+        return OASFactoryResolver.instance().getSupplier(clazz).get();
     }
 
 }
\ No newline at end of file
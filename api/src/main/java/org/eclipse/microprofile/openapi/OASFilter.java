@@ -15,6 +15,9 @@
  */
 package org.eclipse.microprofile.openapi;
 
+import java.util.Set;
+
+import org.eclipse.microprofile.openapi.models.Constructible;
 import org.eclipse.microprofile.openapi.models.OpenAPI;
 import org.eclipse.microprofile.openapi.models.Operation;
 import org.eclipse.microprofile.openapi.models.PathItem;
@@ -183,4 +186,20 @@ public interface OASFilter {
      * @param openAPI the current OpenAPI element
      */
     default void filterOpenAPI(OpenAPI openAPI) {}
+
+    /**
+     * Returns the types of the elements this filter wants to be called for, which allows a vendor framework to
+     * skip the elements of all other types, and the parts of the model tree that contain none of these types.
+     * Elements whose type is not in the returned set may still be passed to this filter.
+     *
+     * <br><br>The default implementation returns the types whose filter method is overridden by the class of this
+     * filter, so that a filter overriding only {@link #filterOperation(Operation)} returns a set containing just
+     * {@code Operation.class}. Implementers that decide at runtime what to filter, for example by delegating to
+     * other filters, should override this method and return all types they may filter.
+     *
+     * @return the unmodifiable set of model interfaces of the elements to be filtered
+     */
+    default Set<Class<? extends Constructible>> getFilteredTypes() {
+        return FilteredTypes.of(getClass());
+    }
 }
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+
+/**
+ * This class walks an OpenAPI model tree through one or more {@link OASFilter} implementations, following
+ * the ordering rules of the specification: every filterable descendant of an element is filtered before the
+ * element itself, and {@link OASFilter#filterOpenAPI(OpenAPI)} is called last.
+ *
+ * <br><br>Elements are filtered on the calling thread unless a {@link ForkJoinPool} is given, in which case
+ * elements that do not depend on each other, such as sibling path items or the schemas in the components, are
+ * filtered concurrently on the pool. Filters used with a pool must therefore be safe for use by multiple
+ * threads. When several filters are given, each element is passed to all of them in turn, and an element for
+ * which a filter returns null is removed from the model without being passed to the remaining filters.
+ *
+ * <br><br>An element referenced from several places in the model is filtered once, and its result is used
+ * in every place it is referenced from. Elements are only passed to the filters that declare an interest in
+ * their type through {@link OASFilter#getFilteredTypes()}, and parts of the model that contain no element
+ * any of the filters is interested in are not walked at all.
+ *
+ * <br><br>Example:
+ * <pre><code>OASFilterWalker.filter(openAPI, new MyFilter());
+ * OASFilterWalker.filter(openAPI, Collections.singletonList(new MyThreadSafeFilter()), pool);
+ * </code></pre>
+ */
+public final class OASFilterWalker {
+
+    /**
+     * Nodes of the same level are filtered in batches of at most this size per task.
+     */
+    private static final int BATCH_SIZE = 32;
+
+    private OASFilterWalker() {}
+
+    /**
+     * Filters the given model with the given filter, on the calling thread.
+     *
+     * @param openAPI the model to filter, which is updated in place
+     * @param filter the filter to apply
+     *
+     * @throws NullPointerException if the model or the filter is null
+     */
+    public static void filter(OpenAPI openAPI, OASFilter filter) {
+        if (filter == null) {
+            throw new NullPointerException();
+        }
+        filter(openAPI, Collections.singletonList(filter), null);
+    }
+
+    /**
+     * Filters the given model with the given filters, in the order of the list, using the given pool.
+     *
+     * @param openAPI the model to filter, which is updated in place
+     * @param filters the filters to apply, which must be safe for use by multiple threads unless the pool is null
+     * @param pool the pool to filter independent elements on, or null to filter all elements on the calling thread
+     *
+     * @throws NullPointerException if the model, the list of filters or any of the filters is null
+     */
+    public static void filter(OpenAPI openAPI, List<? extends OASFilter> filters, ForkJoinPool pool) {
+        if (openAPI == null) {
+            throw new NullPointerException();
+        }
+        final List<OASFilter> walked = new ArrayList<>(filters);
+        if (walked.contains(null)) {
+            throw new NullPointerException();
+        }
+        if (walked.isEmpty()) {
+            return;
+        }
+
+        final FilterGraph graph = new FilterGraph(openAPI, walked);
+        if (pool == null || pool.getParallelism() == 1) {
+            for (FilterGraph.Node node : graph.order()) {
+                node.filter();
+            }
+            return;
+        }
+
+        final List<List<FilterGraph.Node>> levels = new ArrayList<>();
+        for (FilterGraph.Node node : graph.order()) {
+            while (levels.size() <= node.level()) {
+                levels.add(new ArrayList<>());
+            }
+            levels.get(node.level()).add(node);
+        }
+        // The root depends on every other node and is therefore alone on the last level
+        for (List<FilterGraph.Node> level : levels) {
+            if (level.size() <= BATCH_SIZE) {
+                for (FilterGraph.Node node : level) {
+                    node.filter();
+                }
+            }
+            else {
+                pool.invoke(new FilterTask(level, 0, level.size()));
+            }
+        }
+    }
+
+    /**
+     * Filters a range of nodes of the same level, which do not depend on each other.
+     */
+    private static final class FilterTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<FilterGraph.Node> nodes;
+        private final int from;
+        private final int to;
+
+        FilterTask(List<FilterGraph.Node> nodes, int from, int to) {
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= BATCH_SIZE) {
+                for (int i = from; i < to; i++) {
+                    nodes.get(i).filter();
+                }
+            }
+            else {
+                final int middle = (from + to) >>> 1;
+                invokeAll(new FilterTask(nodes, from, middle), new FilterTask(nodes, middle, to));
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.Reference;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.servers.Server;
+import org.eclipse.microprofile.openapi.models.tags.Tag;
+
+/**
+ * This class merges the OpenAPI model trees of the sources of the processed document, in the order of the processing
+ * rules of the specification: the model of the OASModelReader, the vendor extensions, the static file and the
+ * annotations, where each source overrides the conflicting elements of the sources before it.
+ *
+ * <br><br>The overlay is merged into the base in one pass over the overlay, as follows:
+ * <ul>
+ * <li>a property set in the overlay overrides the property of the base, except that two elements are merged
+ * recursively, so that the properties of the base element that the overlay element does not set are kept;</li>
+ * <li>the entries of maps, such as the paths, the responses of an operation keyed by response code, the components
+ * keyed by name, the media types of a content or the extensions, are merged by key, and the operations of a path
+ * item are merged by HTTP method;</li>
+ * <li>the tags of a model are merged by name, the servers by URL and the parameters by name and location, or by
+ * reference, each element on its own: an element without a key, or whose key the base list does not hold, is
+ * appended. The overlay replaces any other list, such as the security requirements or the required properties of a
+ * schema;</li>
+ * <li>an element that is a reference, in the base or in the overlay, is replaced by the element of the overlay, and
+ * values that are not elements, such as examples or the values of extensions, are replaced as a whole.</li>
+ * </ul>
+ *
+ * <br><br>The base is modified in place. The elements of the overlay that do not conflict with an element of the
+ * base are moved into the base rather than copied, so the overlay is not to be used once merged. The maps and lists
+ * of the base are modified in place, and are only allocated again when they are not modifiable.
+ *
+ * <br><br>Example:
+ * <pre><code>OpenAPI model = OASMerger.merge(readerModel, staticModel);
+ * model = OASMerger.merge(model, annotationsModel);
+ * </code></pre>
+ */
+public final class OASMerger {
+
+    private OASMerger() {
+    }
+
+    /**
+     * Merges the overlay into the base, where the overlay overrides the conflicting elements of the base.
+     *
+     * @param <T> describes the type parameter
+     * @param base the element to merge into, which is modified, or null
+     * @param overlay the element to merge, which is not to be used once merged, or null
+     * @return the merged element: the base, or the overlay if the base is null or is replaced
+     *
+     * @throws IllegalArgumentException if the base implements none of the model interfaces
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Constructible> T merge(T base, T overlay) {
+        return (T) mergeElement(base, overlay);
+    }
+
+    private static Object mergeElement(Constructible base, Constructible overlay) {
+        if (base == null) {
+            return overlay;
+        }
+        if (overlay == null || overlay == base) {
+            return base;
+        }
+        final Class<? extends Constructible> type = ModelTypes.of(base.getClass());
+        if (!type.isInstance(overlay) || isReference(base) || isReference(overlay)) {
+            return overlay;
+        }
+        if (base instanceof Map) {
+            mergeEntries(base, (Map<?, ?>) overlay);
+        }
+        for (Method getter : ModelTypes.properties(type)) {
+            final Object value = ModelTypes.read(getter, overlay);
+            if (value == null) {
+                continue;
+            }
+            final Object current = ModelTypes.read(getter, base);
+            final Object merged;
+            if (current == null) {
+                merged = value;
+            }
+            else if (current instanceof Constructible && value instanceof Constructible) {
+                final Object element = mergeElement((Constructible) current, (Constructible) value);
+                merged = element == current ? null : element;
+            }
+            else if (current instanceof Map && value instanceof Map && Map.class.isAssignableFrom(getter.getReturnType())) {
+                merged = mergeMap((Map<?, ?>) current, (Map<?, ?>) value);
+            }
+            else if (current instanceof List && value instanceof List) {
+                merged = mergeList((List<?>) current, (List<?>) value);
+            }
+            else {
+                merged = value;
+            }
+            // a map or list modified in place is set again, in case the getter returned a copy
+            if (merged != null) {
+                ModelTypes.write(type, getter, base, merged);
+            }
+        }
+        return base;
+    }
+
+    private static Object mergeValue(Object base, Object overlay) {
+        if (base instanceof Constructible && overlay instanceof Constructible) {
+            return mergeElement((Constructible) base, (Constructible) overlay);
+        }
+        return overlay;
+    }
+
+    private static boolean isReference(Constructible element) {
+        return element instanceof Reference && ((Reference<?>) element).getRef() != null;
+    }
+
+    /**
+     * Merges the entries of an element that is a map, such as Paths or APIResponses, in place.
+     */
+    @SuppressWarnings("unchecked")
+    private static void mergeEntries(Constructible base, Map<?, ?> overlay) {
+        final Map<Object, Object> entries = (Map<Object, Object>) base;
+        for (Map.Entry<?, ?> entry : overlay.entrySet()) {
+            final Object current = entries.get(entry.getKey());
+            final Object merged = current == null ? entry.getValue() : mergeValue(current, entry.getValue());
+            if (merged != current) {
+                entries.put(entry.getKey(), merged);
+            }
+        }
+    }
+
+    /**
+     * Merges the entries of the overlay into the base map, in place if the base map is modifiable, and otherwise into
+     * a copy of it, since the maps returned by the getters of the model are not required to be modifiable.
+     *
+     * @return the merged map, or null if the base map is left unchanged
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<?, ?> mergeMap(Map<?, ?> base, Map<?, ?> overlay) {
+        final Map<Object, Object> changes = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : overlay.entrySet()) {
+            final Object current = base.get(entry.getKey());
+            final Object merged = current == null ? entry.getValue() : mergeValue(current, entry.getValue());
+            if (merged != current || !base.containsKey(entry.getKey())) {
+                changes.put(entry.getKey(), merged);
+            }
+        }
+        if (changes.isEmpty()) {
+            return null;
+        }
+        try {
+            ((Map<Object, Object>) base).putAll(changes);
+            return base;
+        }
+        catch (UnsupportedOperationException e) {
+            final Map<Object, Object> copy = new LinkedHashMap<>(base);
+            copy.putAll(changes);
+            return copy;
+        }
+    }
+
+    /**
+     * Merges the elements of the overlay that have a key into the elements of the base list with the same key, and
+     * appends the others, in place if the base list is modifiable, and otherwise into a copy of it. The overlay
+     * replaces the base list if it is empty, or if no element of either list has a key.
+     *
+     * @return the merged list, or null if the base list is left unchanged
+     */
+    @SuppressWarnings("unchecked")
+    private static List<?> mergeList(List<?> base, List<?> overlay) {
+        if (overlay.isEmpty() || base.isEmpty()) {
+            return overlay;
+        }
+        final Map<Object, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < base.size(); i++) {
+            final Object key = keyOf(base.get(i));
+            if (key != null) {
+                indexes.putIfAbsent(key, i);
+            }
+        }
+        boolean keyed = !indexes.isEmpty();
+        for (int i = 0; i < overlay.size() && !keyed; i++) {
+            keyed = keyOf(overlay.get(i)) != null;
+        }
+        if (!keyed) {
+            return overlay;
+        }
+        // the merged values are computed once, then set on the base list, or on a copy of it if it is not modifiable
+        final Map<Integer, Object> replaced = new LinkedHashMap<>();
+        final List<Object> appended = new ArrayList<>();
+        for (Object element : overlay) {
+            final Object key = keyOf(element);
+            final Integer index = key == null ? null : indexes.get(key);
+            if (index == null) {
+                if (key != null) {
+                    indexes.put(key, base.size() + appended.size());
+                }
+                appended.add(element);
+            }
+            else if (index < base.size()) {
+                final Object merged = mergeValue(base.get(index), element);
+                if (merged != base.get(index)) {
+                    replaced.put(index, merged);
+                }
+            }
+            else {
+                appended.set(index - base.size(), mergeValue(appended.get(index - base.size()), element));
+            }
+        }
+        if (replaced.isEmpty() && appended.isEmpty()) {
+            return null;
+        }
+        try {
+            return apply((List<Object>) base, replaced, appended);
+        }
+        catch (UnsupportedOperationException e) {
+            return apply(new ArrayList<>(base), replaced, appended);
+        }
+    }
+
+    private static List<Object> apply(List<Object> list, Map<Integer, Object> replaced, List<Object> appended) {
+        for (Map.Entry<Integer, Object> entry : replaced.entrySet()) {
+            list.set(entry.getKey(), entry.getValue());
+        }
+        list.addAll(appended);
+        return list;
+    }
+
+    /**
+     * @return the key identifying the given element of a list, or null if the element is not merged by key
+     */
+    private static Object keyOf(Object element) {
+        if (element instanceof Tag) {
+            return ((Tag) element).getName();
+        }
+        if (element instanceof Server) {
+            return ((Server) element).getUrl();
+        }
+        if (element instanceof Parameter) {
+            final Parameter parameter = (Parameter) element;
+            if (isReference(parameter)) {
+                // a reference is only merged with the same reference, which it replaces
+                return parameter.getRef();
+            }
+            return parameter.getName() == null ? null : Arrays.asList(parameter.getName(), parameter.getIn());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,549 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.microprofile.openapi;
+
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.ExternalDocumentation;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.callbacks.Callback;
+import org.eclipse.microprofile.openapi.models.examples.Example;
+import org.eclipse.microprofile.openapi.models.headers.Header;
+import org.eclipse.microprofile.openapi.models.info.Contact;
+import org.eclipse.microprofile.openapi.models.info.Info;
+import org.eclipse.microprofile.openapi.models.info.License;
+import org.eclipse.microprofile.openapi.models.links.Link;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.models.media.Discriminator;
+import org.eclipse.microprofile.openapi.models.media.Encoding;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.media.XML;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.parameters.RequestBody;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.eclipse.microprofile.openapi.models.security.OAuthFlow;
+import org.eclipse.microprofile.openapi.models.security.OAuthFlows;
+import org.eclipse.microprofile.openapi.models.security.Scopes;
+import org.eclipse.microprofile.openapi.models.security.SecurityRequirement;
+import org.eclipse.microprofile.openapi.models.security.SecurityScheme;
+import org.eclipse.microprofile.openapi.models.servers.Server;
+import org.eclipse.microprofile.openapi.models.servers.ServerVariable;
+import org.eclipse.microprofile.openapi.models.servers.ServerVariables;
+import org.eclipse.microprofile.openapi.models.tags.Tag;
+
+/**
+ * This class dispatches the elements of an OpenAPI model tree to an {@link OASVisitor}.
+ *
+ * <br><br>{@link #walk(Constructible, OASVisitor)} visits an element and, depth first, its descendants, in the order
+ * in which they are declared by the model interfaces. The values of the model interfaces that extend {@link java.util.Map},
+ * such as {@link Paths}, are visited in the iteration order of the map. Every reference is followed, so an element
+ * referenced from several places is visited once for each of them; visitors that want to visit such elements only once,
+ * or that may be given a model with cycles, can return false from the visit method for an element they have seen before.
+ *
+ * <br><br>{@link #dispatch(Constructible, OASVisitor)} calls the visit method for the type of a single element only.
+ *
+ * <br><br>Example:
+ * <pre><code>OASModelWalker.walk(openAPI, new MyValidator());
+ * </code></pre>
+ */
+public final class OASModelWalker {
+
+    private static final ClassValue<ModelKind> KINDS = new ClassValue<ModelKind>() {
+        @Override
+        protected ModelKind computeValue(Class<?> implementation) {
+            final Class<? extends Constructible> modelType = ModelTypes.of(implementation);
+            for (ModelKind kind : ModelKind.values()) {
+                if (kind.modelType == modelType) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Not an implementation of a model interface: " + implementation.getName());
+        }
+    };
+
+    private OASModelWalker() {}
+
+    /**
+     * Calls the visit method of the visitor for the type of the given element, without visiting its descendants.
+     *
+     * @param element the element to visit
+     * @param visitor the visitor
+     * @return the value returned by the visit method
+     *
+     * @throws NullPointerException if the element or the visitor is null
+     * @throws IllegalArgumentException if the element implements none of the model interfaces
+     */
+    public static boolean dispatch(Constructible element, OASVisitor visitor) {
+        if (visitor == null) {
+            throw new NullPointerException();
+        }
+        return KINDS.get(element.getClass()).visit(visitor, element);
+    }
+
+    /**
+     * Visits the given element and, unless the visitor asks to skip them, its descendants.
+     *
+     * @param element the element to start from, for example an OpenAPI model
+     * @param visitor the visitor
+     *
+     * @throws NullPointerException if the element or the visitor is null
+     * @throws IllegalArgumentException if the element, or one of its descendants, implements none of the model interfaces
+     */
+    public static void walk(Constructible element, OASVisitor visitor) {
+        if (element == null || visitor == null) {
+            throw new NullPointerException();
+        }
+        element(element, visitor);
+    }
+
+    private static void element(Constructible element, OASVisitor visitor) {
+        if (element == null) {
+            return;
+        }
+        final ModelKind kind = KINDS.get(element.getClass());
+        if (kind.visit(visitor, element)) {
+            kind.walkDescendants(element, visitor);
+            visitor.leave(element);
+        }
+    }
+
+    private static void list(List<? extends Constructible> elements, OASVisitor visitor) {
+        if (elements != null) {
+            for (int i = 0; i < elements.size(); i++) {
+                element(elements.get(i), visitor);
+            }
+        }
+    }
+
+    private static void map(Map<String, ?> elements, OASVisitor visitor) {
+        if (elements != null) {
+            for (Object element : elements.values()) {
+                if (element instanceof Constructible) {
+                    element((Constructible) element, visitor);
+                }
+            }
+        }
+    }
+
+    /**
+     * The types of elements, each of which knows the visit method for its type and how to reach its descendants.
+     */
+    private enum ModelKind {
+        OPENAPI(OpenAPI.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitOpenAPI((OpenAPI) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final OpenAPI e = (OpenAPI) element;
+                element(e.getInfo(), visitor);
+                element(e.getExternalDocs(), visitor);
+                list(e.getServers(), visitor);
+                list(e.getSecurity(), visitor);
+                list(e.getTags(), visitor);
+                element(e.getPaths(), visitor);
+                element(e.getComponents(), visitor);
+            }
+        },
+        INFO(Info.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitInfo((Info) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final Info e = (Info) element;
+                element(e.getContact(), visitor);
+                element(e.getLicense(), visitor);
+            }
+        },
+        CONTACT(Contact.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitContact((Contact) element);
+            }
+        },
+        LICENSE(License.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitLicense((License) element);
+            }
+        },
+        EXTERNAL_DOCUMENTATION(ExternalDocumentation.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitExternalDocumentation((ExternalDocumentation) element);
+            }
+        },
+        SERVER(Server.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitServer((Server) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final Server e = (Server) element;
+                element(e.getVariables(), visitor);
+            }
+        },
+        SERVER_VARIABLES(ServerVariables.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitServerVariables((ServerVariables) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final ServerVariables e = (ServerVariables) element;
+                map(e, visitor);
+            }
+        },
+        SERVER_VARIABLE(ServerVariable.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitServerVariable((ServerVariable) element);
+            }
+        },
+        SECURITY_REQUIREMENT(SecurityRequirement.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitSecurityRequirement((SecurityRequirement) element);
+            }
+        },
+        TAG(Tag.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitTag((Tag) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final Tag e = (Tag) element;
+                element(e.getExternalDocs(), visitor);
+            }
+        },
+        PATHS(Paths.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitPaths((Paths) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final Paths e = (Paths) element;
+                map(e, visitor);
+            }
+        },
+        PATH_ITEM(PathItem.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitPathItem((PathItem) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final PathItem e = (PathItem) element;
+                element(e.getGET(), visitor);
+                element(e.getPUT(), visitor);
+                element(e.getPOST(), visitor);
+                element(e.getDELETE(), visitor);
+                element(e.getOPTIONS(), visitor);
+                element(e.getHEAD(), visitor);
+                element(e.getPATCH(), visitor);
+                element(e.getTRACE(), visitor);
+                list(e.getParameters(), visitor);
+                list(e.getServers(), visitor);
+            }
+        },
+        OPERATION(Operation.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitOperation((Operation) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final Operation e = (Operation) element;
+                element(e.getExternalDocs(), visitor);
+                list(e.getParameters(), visitor);
+                element(e.getRequestBody(), visitor);
+                element(e.getResponses(), visitor);
+                map(e.getCallbacks(), visitor);
+                list(e.getSecurity(), visitor);
+                list(e.getServers(), visitor);
+            }
+        },
+        PARAMETER(Parameter.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitParameter((Parameter) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final Parameter e = (Parameter) element;
+                element(e.getSchema(), visitor);
+                map(e.getExamples(), visitor);
+                element(e.getContent(), visitor);
+            }
+        },
+        REQUEST_BODY(RequestBody.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitRequestBody((RequestBody) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final RequestBody e = (RequestBody) element;
+                element(e.getContent(), visitor);
+            }
+        },
+        API_RESPONSES(APIResponses.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitAPIResponses((APIResponses) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final APIResponses e = (APIResponses) element;
+                map(e, visitor);
+            }
+        },
+        API_RESPONSE(APIResponse.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitAPIResponse((APIResponse) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final APIResponse e = (APIResponse) element;
+                map(e.getHeaders(), visitor);
+                element(e.getContent(), visitor);
+                map(e.getLinks(), visitor);
+            }
+        },
+        CALLBACK(Callback.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitCallback((Callback) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final Callback e = (Callback) element;
+                map(e, visitor);
+            }
+        },
+        HEADER(Header.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitHeader((Header) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final Header e = (Header) element;
+                element(e.getSchema(), visitor);
+                map(e.getExamples(), visitor);
+                element(e.getContent(), visitor);
+            }
+        },
+        CONTENT(Content.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitContent((Content) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final Content e = (Content) element;
+                map(e, visitor);
+            }
+        },
+        MEDIA_TYPE(MediaType.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitMediaType((MediaType) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final MediaType e = (MediaType) element;
+                element(e.getSchema(), visitor);
+                map(e.getExamples(), visitor);
+                map(e.getEncoding(), visitor);
+            }
+        },
+        ENCODING(Encoding.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitEncoding((Encoding) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final Encoding e = (Encoding) element;
+                map(e.getHeaders(), visitor);
+            }
+        },
+        SCHEMA(Schema.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitSchema((Schema) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final Schema e = (Schema) element;
+                element(e.getDiscriminator(), visitor);
+                element(e.getExternalDocs(), visitor);
+                element(e.getXml(), visitor);
+                map(e.getProperties(), visitor);
+                if (e.getAdditionalProperties() instanceof Schema) {
+                    element((Schema) e.getAdditionalProperties(), visitor);
+                }
+                element(e.getItems(), visitor);
+                element(e.getNot(), visitor);
+                list(e.getAllOf(), visitor);
+                list(e.getAnyOf(), visitor);
+                list(e.getOneOf(), visitor);
+            }
+        },
+        DISCRIMINATOR(Discriminator.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitDiscriminator((Discriminator) element);
+            }
+        },
+        XML(XML.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitXML((XML) element);
+            }
+        },
+        EXAMPLE(Example.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitExample((Example) element);
+            }
+        },
+        LINK(Link.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitLink((Link) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final Link e = (Link) element;
+                element(e.getServer(), visitor);
+            }
+        },
+        COMPONENTS(Components.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitComponents((Components) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final Components e = (Components) element;
+                map(e.getSchemas(), visitor);
+                map(e.getResponses(), visitor);
+                map(e.getParameters(), visitor);
+                map(e.getExamples(), visitor);
+                map(e.getRequestBodies(), visitor);
+                map(e.getHeaders(), visitor);
+                map(e.getSecuritySchemes(), visitor);
+                map(e.getLinks(), visitor);
+                map(e.getCallbacks(), visitor);
+            }
+        },
+        SECURITY_SCHEME(SecurityScheme.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitSecurityScheme((SecurityScheme) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final SecurityScheme e = (SecurityScheme) element;
+                element(e.getFlows(), visitor);
+            }
+        },
+        OAUTH_FLOWS(OAuthFlows.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitOAuthFlows((OAuthFlows) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final OAuthFlows e = (OAuthFlows) element;
+                element(e.getImplicit(), visitor);
+                element(e.getPassword(), visitor);
+                element(e.getClientCredentials(), visitor);
+                element(e.getAuthorizationCode(), visitor);
+            }
+        },
+        OAUTH_FLOW(OAuthFlow.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitOAuthFlow((OAuthFlow) element);
+            }
+
+            @Override
+            void walkDescendants(Constructible element, OASVisitor visitor) {
+                final OAuthFlow e = (OAuthFlow) element;
+                element(e.getScopes(), visitor);
+            }
+        },
+        SCOPES(Scopes.class) {
+            @Override
+            boolean visit(OASVisitor visitor, Constructible element) {
+                return visitor.visitScopes((Scopes) element);
+            }
+        };
+
+        private final Class<? extends Constructible> modelType;
+
+        ModelKind(Class<? extends Constructible> modelType) {
+            this.modelType = modelType;
+        }
+
+        abstract boolean visit(OASVisitor visitor, Constructible element);
+
+        /**
+         * Walks the descendants of an element of this type; elements without descendants keep this implementation.
+         */
+        void walkDescendants(Constructible element, OASVisitor visitor) {}
+    }
+}
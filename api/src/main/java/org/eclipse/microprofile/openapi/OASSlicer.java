@@ -0,0 +1,363 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.tags.Tag;
+import org.eclipse.microprofile.openapi.spi.DocumentFormat;
+import org.eclipse.microprofile.openapi.spi.OASDocumentCache;
+import org.eclipse.microprofile.openapi.spi.OASWriter;
+import org.eclipse.microprofile.openapi.spi.SerializedDocument;
+
+/**
+ * This class serves parts of a fully processed OpenAPI model, selected by the optional query parameters
+ * {@value #PATH_PARAMETER}, {@value #TAG_PARAMETER} and {@value #OPERATION_ID_PARAMETER} of the /openapi endpoint.
+ *
+ * <br><br>A part of the model is a valid model holding the top-level properties of the model, the path items and
+ * operations matching every given parameter, the tags of these operations, and the components they reach through
+ * references, directly or through other components, as well as the security schemes named by their security
+ * requirements:
+ * <ul>
+ * <li>the {@value #PATH_PARAMETER} parameter selects the path item of the given path, with all its operations;</li>
+ * <li>the {@value #TAG_PARAMETER} parameter selects the operations with the given tag;</li>
+ * <li>the {@value #OPERATION_ID_PARAMETER} parameter selects the operation with the given operationId.</li>
+ * </ul>
+ *
+ * <br><br>The paths, operations and tags are indexed once, when the slicer is created, together with the references
+ * of the model in a {@link ComponentIndex}, so that selecting the operations and components of a part only looks
+ * them up. A part is built the first time it is
+ * requested, and is then shared by all later requests, as are its serialized documents. The parts share their
+ * elements with the model, which is not to be modified once given to the slicer; a slicer is created again for a new
+ * model.
+ *
+ * <br><br>Instances may be shared by any number of threads.
+ *
+ * <br><br>Example:
+ * <pre><code>OASSlicer slicer = OASSlicer.of(openAPI, true);
+ * SerializedDocument document = slicer.getDocument(request.getParameter(OASSlicer.PATH_PARAMETER),
+ *         request.getParameter(OASSlicer.TAG_PARAMETER), request.getParameter(OASSlicer.OPERATION_ID_PARAMETER),
+ *         DocumentFormat.forRequest(formatParameter, acceptHeader));
+ * if (document == null) {
+ *     // respond with 404 Not Found
+ * }
+ * </code></pre>
+ */
+public final class OASSlicer {
+
+    /**
+     * The query parameter selecting a path.
+     */
+    public static final String PATH_PARAMETER = "path";
+
+    /**
+     * The query parameter selecting the operations of a tag.
+     */
+    public static final String TAG_PARAMETER = "tag";
+
+    /**
+     * The query parameter selecting an operation by operationId.
+     */
+    public static final String OPERATION_ID_PARAMETER = "operationId";
+
+    private static final String COMPONENTS_PREFIX = "#/components/";
+
+    private final OpenAPI model;
+    private final boolean gzip;
+    private final ComponentIndex index;
+
+    private final Map<String, PathEntry> paths = new HashMap<>();
+    private final Map<String, List<OperationEntry>> tags = new HashMap<>();
+    private final Map<String, OperationEntry> operationIds = new HashMap<>();
+
+    private final Map<List<String>, Slice> slices = new ConcurrentHashMap<>();
+
+    private OASSlicer(OpenAPI model, boolean gzip) {
+        this.model = model;
+        this.gzip = gzip;
+        this.index = ComponentIndex.of(model);
+        indexOperations();
+    }
+
+    /**
+     * Creates a slicer for the given model, indexing its paths, operations, tags and components.
+     *
+     * @param openAPI the fully processed model, which is not to be modified once given to the slicer
+     * @param gzip whether the serialized documents also hold a gzip compressed copy of their bytes
+     * @return a new slicer
+     *
+     * @throws NullPointerException if the model is null
+     */
+    public static OASSlicer of(OpenAPI openAPI, boolean gzip) {
+        if (openAPI == null) {
+            throw new NullPointerException();
+        }
+        return new OASSlicer(openAPI, gzip);
+    }
+
+    /**
+     * Returns the part of the model matching all the given parameters.
+     *
+     * @param path the value of the {@value #PATH_PARAMETER} parameter, or null
+     * @param tag the value of the {@value #TAG_PARAMETER} parameter, or null
+     * @param operationId the value of the {@value #OPERATION_ID_PARAMETER} parameter, or null
+     * @return the part of the model, the model itself if all parameters are null, or null if no path item or
+     * operation matches the parameters
+     */
+    public OpenAPI slice(String path, String tag, String operationId) {
+        final Slice slice = find(path, tag, operationId);
+        return slice == null ? null : slice.model;
+    }
+
+    /**
+     * Returns the document of the part of the model matching all the given parameters, in the given format.
+     *
+     * @param path the value of the {@value #PATH_PARAMETER} parameter, or null
+     * @param tag the value of the {@value #TAG_PARAMETER} parameter, or null
+     * @param operationId the value of the {@value #OPERATION_ID_PARAMETER} parameter, or null
+     * @param format the format of the document
+     * @return the serialized document, or null if no path item or operation matches the parameters
+     *
+     * @throws NullPointerException if the format is null
+     */
+    public SerializedDocument getDocument(String path, String tag, String operationId, DocumentFormat format) {
+        if (format == null) {
+            throw new NullPointerException();
+        }
+        final Slice slice = find(path, tag, operationId);
+        return slice == null ? null : slice.documents.get(format);
+    }
+
+    private Slice find(String path, String tag, String operationId) {
+        // only the parts matching an operation or a path are kept, so their number is bounded by the model
+        return slices.computeIfAbsent(Arrays.asList(path, tag, operationId), key -> build(path, tag, operationId));
+    }
+
+    /**
+     * Indexes the paths, operations and tags of the model. The references of the path items, operations and
+     * components are indexed by the {@link ComponentIndex}.
+     */
+    private void indexOperations() {
+        if (model.getPaths() == null) {
+            return;
+        }
+        for (Map.Entry<String, PathItem> entry : model.getPaths().entrySet()) {
+            final PathItem item = entry.getValue();
+            if (item == null) {
+                continue;
+            }
+            final PathEntry pathEntry = new PathEntry(entry.getKey(), item);
+            for (Map.Entry<PathItem.HttpMethod, Operation> method : item.readOperationsMap().entrySet()) {
+                final Operation operation = method.getValue();
+                final OperationEntry operationEntry = new OperationEntry(pathEntry, operation,
+                        ComponentIndex.operationPointer(entry.getKey(), method.getKey()));
+                pathEntry.operations.add(operationEntry);
+                if (operation.getOperationId() != null) {
+                    operationIds.putIfAbsent(operation.getOperationId(), operationEntry);
+                }
+                if (operation.getTags() != null) {
+                    for (String tag : new HashSet<>(operation.getTags())) {
+                        tags.computeIfAbsent(tag, k -> new ArrayList<>()).add(operationEntry);
+                    }
+                }
+            }
+            paths.put(entry.getKey(), pathEntry);
+        }
+    }
+
+    /**
+     * Builds the part of the model matching the given parameters.
+     *
+     * @return the part, or null if nothing matches
+     */
+    private Slice build(String path, String tag, String operationId) {
+        if (path == null && tag == null && operationId == null) {
+            return new Slice(model);
+        }
+        final Map<PathEntry, List<OperationEntry>> selected = new LinkedHashMap<>();
+        if (operationId != null || tag != null) {
+            final List<OperationEntry> candidates;
+            if (operationId != null) {
+                final OperationEntry entry = operationIds.get(operationId);
+                candidates = entry == null ? Collections.emptyList() : Collections.singletonList(entry);
+            }
+            else {
+                candidates = tags.getOrDefault(tag, Collections.emptyList());
+            }
+            for (OperationEntry candidate : candidates) {
+                final Operation operation = candidate.operation;
+                if ((path == null || path.equals(candidate.path.path))
+                        && (tag == null || operation.getTags() != null && operation.getTags().contains(tag))
+                        && (operationId == null || operationId.equals(operation.getOperationId()))) {
+                    selected.computeIfAbsent(candidate.path, k -> new ArrayList<>()).add(candidate);
+                }
+            }
+        }
+        else if (paths.containsKey(path)) {
+            final PathEntry entry = paths.get(path);
+            selected.put(entry, entry.operations);
+        }
+        if (selected.isEmpty()) {
+            return null;
+        }
+
+        final List<String> pointers = new ArrayList<>();
+        pointers.add(ComponentIndex.SECURITY_POINTER);
+        final Set<String> tagNames = new HashSet<>();
+        final Paths slicePaths = OASFactory.createObject(Paths.class);
+        for (Map.Entry<PathEntry, List<OperationEntry>> selection : selected.entrySet()) {
+            final PathEntry entry = selection.getKey();
+            final List<OperationEntry> operations = selection.getValue();
+            pointers.add(entry.pointer);
+            for (OperationEntry operation : operations) {
+                pointers.add(operation.pointer);
+                if (operation.operation.getTags() != null) {
+                    tagNames.addAll(operation.operation.getTags());
+                }
+            }
+            slicePaths.addPathItem(entry.path, operations.size() == entry.operations.size() ? entry.item : copy(entry.item, operations));
+        }
+        final Set<String> reachable = index.getClosure(pointers);
+
+        final OpenAPI slice = OASFactory.createObject(OpenAPI.class)
+                .openapi(model.getOpenapi())
+                .info(model.getInfo())
+                .externalDocs(model.getExternalDocs())
+                .servers(model.getServers())
+                .security(model.getSecurity())
+                .paths(slicePaths)
+                .components(components(reachable));
+        if (model.getTags() != null && !tagNames.isEmpty()) {
+            final List<Tag> sliceTags = new ArrayList<>();
+            for (Tag modelTag : model.getTags()) {
+                if (modelTag != null && tagNames.contains(modelTag.getName())) {
+                    sliceTags.add(modelTag);
+                }
+            }
+            slice.setTags(sliceTags.isEmpty() ? null : sliceTags);
+        }
+        slice.setExtensions(model.getExtensions());
+        return new Slice(slice);
+    }
+
+    /**
+     * @return a copy of the path item holding only the given operations
+     */
+    private static PathItem copy(PathItem item, List<OperationEntry> operations) {
+        final Set<Operation> kept = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (OperationEntry operation : operations) {
+            kept.add(operation.operation);
+        }
+        final PathItem copy = OASFactory.createObject(PathItem.class);
+        for (Method getter : ModelTypes.properties(PathItem.class)) {
+            final Object value = ModelTypes.read(getter, item);
+            if (value != null && (!(value instanceof Operation) || kept.contains(value))) {
+                ModelTypes.write(PathItem.class, getter, copy, value);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * @return the components of the model that are reachable, in the order of the model, or null if there are none
+     */
+    private Components components(Set<String> reachable) {
+        if (model.getComponents() == null || reachable.isEmpty()) {
+            return null;
+        }
+        final Components components = OASFactory.createObject(Components.class);
+        boolean empty = true;
+        for (Method getter : ModelTypes.properties(Components.class)) {
+            final Object entries = ModelTypes.read(getter, model.getComponents());
+            if (!(entries instanceof Map) || "extensions".equals(ModelTypes.propertyName(getter))) {
+                continue;
+            }
+            final String type = COMPONENTS_PREFIX + ModelTypes.propertyName(getter) + "/";
+            final Map<Object, Object> kept = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) entries).entrySet()) {
+                if (reachable.contains(type + entry.getKey())) {
+                    kept.put(entry.getKey(), entry.getValue());
+                }
+            }
+            if (!kept.isEmpty()) {
+                ModelTypes.write(Components.class, getter, components, kept);
+                empty = false;
+            }
+        }
+        return empty ? null : components;
+    }
+
+    /**
+     * A part of the model, and the cache of its serialized documents.
+     */
+    private final class Slice {
+        private final OpenAPI model;
+        private final OASDocumentCache documents;
+
+        private Slice(OpenAPI model) {
+            this.model = model;
+            this.documents = OASDocumentCache.of(format -> OASWriter.instance().toBytes(model, format), gzip);
+        }
+    }
+
+    /**
+     * A path item of the model, its operations, and its pointer in the component index.
+     */
+    private static final class PathEntry {
+        private final String path;
+        private final PathItem item;
+        private final String pointer;
+        private final List<OperationEntry> operations = new ArrayList<>();
+
+        private PathEntry(String path, PathItem item) {
+            this.path = path;
+            this.item = item;
+            this.pointer = ComponentIndex.pathPointer(path);
+        }
+    }
+
+    /**
+     * An operation of the model, and its pointer in the component index.
+     */
+    private static final class OperationEntry {
+        private final PathEntry path;
+        private final Operation operation;
+        private final String pointer;
+
+        private OperationEntry(PathEntry path, Operation operation, String pointer) {
+            this.path = path;
+            this.operation = operation;
+            this.pointer = pointer;
+        }
+    }
+}
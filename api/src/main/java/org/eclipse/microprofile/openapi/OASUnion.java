@@ -0,0 +1,623 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.Reference;
+import org.eclipse.microprofile.openapi.models.links.Link;
+import org.eclipse.microprofile.openapi.models.media.Discriminator;
+import org.eclipse.microprofile.openapi.models.security.SecurityRequirement;
+import org.eclipse.microprofile.openapi.models.tags.Tag;
+
+/**
+ * This class keeps the OpenAPI model of each application deployed in a runtime, together with the logical union of
+ * these models that the <code>/openapi</code> endpoint of a runtime hosting several applications is expected to serve.
+ *
+ * <br><br>Adding, replacing or removing the model of an application only merges the contribution of that application
+ * into the union, or withdraws it, so that redeploying one application does not rebuild the union from the models of
+ * all the others. The union keeps, for every path, component, operationId and tag, the applications contributing it:
+ * <ul>
+ * <li>the components of an application are added to the components of the union, and a component whose name is
+ * already used by another application is renamed, by appending an underscore and the name of the application, and the
+ * references of the application to the component, including the discriminator mappings naming a schema, are changed
+ * accordingly;</li>
+ * <li>an operationId that is already used by another application is renamed in the same way, as well as the links of
+ * the application to the operation;</li>
+ * <li>the security requirements and servers declared at the top level of an application are copied to the operations
+ * of the application that do not declare their own, since they would otherwise apply to every application;</li>
+ * <li>a path used by several applications holds the operations of all of them, and its summary, description, servers
+ * and parameters are those of the first application declaring them, while an operation whose path and HTTP method are
+ * already used by another application is left out of the union;</li>
+ * <li>the tags are merged by name, and the first application declaring a tag provides its description.</li>
+ * </ul>
+ *
+ * <br><br>Names are not renamed back when the application that caused the conflict is removed, so the names in the
+ * union stay stable for as long as an application is deployed. The renaming modifies the models given to this class,
+ * which are to be modifiable and are not to be used by the caller once added.
+ *
+ * <br><br>The methods of this class are synchronized on the union. The model of the union is modified in place, so
+ * that a caller serializing it, for example to fill an {@link org.eclipse.microprofile.openapi.spi.OASDocumentCache},
+ * is to synchronize on the union as well, and to invalidate its documents once an application is added or removed.
+ *
+ * <br><br>Example:
+ * <pre><code>OASUnion union = new OASUnion(OASFactory.createObject(OpenAPI.class).openapi("3.0.0").info(runtimeInfo));
+ * union.put("inventory", inventoryModel);
+ * union.put("orders", ordersModel);
+ * OpenAPI model = union.getModel();
+ * </code></pre>
+ */
+public final class OASUnion {
+
+    /**
+     * The getters of the maps of components, such as the schemas or the responses, in the order they are merged.
+     */
+    private static final List<Method> COMPONENT_GETTERS;
+
+    static {
+        final List<Method> getters = new ArrayList<>();
+        for (Method getter : ModelTypes.properties(Components.class)) {
+            if (Map.class.isAssignableFrom(getter.getReturnType()) && !"extensions".equals(ModelTypes.propertyName(getter))) {
+                getters.add(getter);
+            }
+        }
+        COMPONENT_GETTERS = Collections.unmodifiableList(getters);
+    }
+
+    private static final String COMPONENTS_PREFIX = "#/components/";
+
+    private final OpenAPI union;
+    private final Paths paths;
+    private final Components components;
+
+    private final Map<String, Contribution> applications = new LinkedHashMap<>();
+    private final Map<String, List<Contribution>> pathContributors = new HashMap<>();
+    private final Map<String, List<Contribution>> tagContributors = new LinkedHashMap<>();
+    private final Map<String, Contribution> operationIds = new HashMap<>();
+    private final Map<String, Map<String, Contribution>> componentOwners = new HashMap<>();
+    private final Map<String, Map<String, Object>> componentEntries = new HashMap<>();
+
+    /**
+     * Creates a union without applications.
+     *
+     * @param base the model providing the version, info, external documentation, servers, security requirements and
+     * extensions of the union, which is not modified
+     *
+     * @throws NullPointerException if the base is null
+     */
+    public OASUnion(OpenAPI base) {
+        if (base == null) {
+            throw new NullPointerException();
+        }
+        paths = OASFactory.createObject(Paths.class);
+        components = OASFactory.createObject(Components.class);
+        union = OASFactory.createObject(OpenAPI.class)
+                .openapi(base.getOpenapi())
+                .info(base.getInfo())
+                .externalDocs(base.getExternalDocs())
+                .servers(base.getServers())
+                .security(base.getSecurity())
+                .paths(paths)
+                .components(components);
+        union.setExtensions(base.getExtensions());
+    }
+
+    /**
+     * Returns the model of the union, which is modified in place when an application is added or removed.
+     *
+     * @return the model of the union
+     */
+    public synchronized OpenAPI getModel() {
+        return union;
+    }
+
+    /**
+     * @return the names of the applications of the union, in the order in which they were first added
+     */
+    public synchronized Set<String> getApplications() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(applications.keySet()));
+    }
+
+    /**
+     * Returns the model of an application, with the names renamed in the union.
+     *
+     * @param application the name of the application
+     * @return the model of the application, or null if the union has no application of this name
+     */
+    public synchronized OpenAPI getModel(String application) {
+        final Contribution contribution = applications.get(application);
+        return contribution == null ? null : contribution.model;
+    }
+
+    /**
+     * Adds the model of an application to the union, or replaces the model the application had in the union. Only the
+     * contribution of this application is merged again.
+     *
+     * @param application the name of the application
+     * @param model the model of the application, which may be modified and is not to be used once added
+     *
+     * @throws NullPointerException if the name or the model is null
+     */
+    public synchronized void put(String application, OpenAPI model) {
+        if (application == null || model == null) {
+            throw new NullPointerException();
+        }
+        final Changes changes = new Changes();
+        final Contribution previous = applications.get(application);
+        if (previous != null) {
+            withdraw(previous, changes);
+        }
+        applications.put(application, contribute(application, model, changes));
+        apply(changes);
+    }
+
+    /**
+     * Removes the model of an application from the union. The names the other applications were given in the union
+     * are kept.
+     *
+     * @param application the name of the application
+     * @return true if the union had an application of this name
+     */
+    public synchronized boolean remove(String application) {
+        final Contribution previous = applications.remove(application);
+        if (previous == null) {
+            return false;
+        }
+        final Changes changes = new Changes();
+        withdraw(previous, changes);
+        apply(changes);
+        return true;
+    }
+
+    private Contribution contribute(String application, OpenAPI model, Changes changes) {
+        final Contribution contribution = new Contribution(model);
+        final String suffix = "_" + application.replaceAll("[^a-zA-Z0-9._-]", "_");
+
+        final Map<String, Map<String, String>> renamedComponents = new HashMap<>();
+        if (model.getComponents() != null) {
+            for (Method getter : COMPONENT_GETTERS) {
+                @SuppressWarnings("unchecked")
+                final Map<String, Object> entries = (Map<String, Object>) ModelTypes.read(getter, model.getComponents());
+                if (entries == null || entries.isEmpty()) {
+                    continue;
+                }
+                final String type = ModelTypes.propertyName(getter);
+                final Map<String, Contribution> owners = componentOwners.computeIfAbsent(type, k -> new HashMap<>());
+                final List<String> names = new ArrayList<>(entries.size());
+                for (Map.Entry<String, Object> entry : entries.entrySet()) {
+                    String name = entry.getKey();
+                    if (owners.containsKey(name)) {
+                        name = rename(name, suffix, n -> owners.containsKey(n) || entries.containsKey(n));
+                        renamedComponents.computeIfAbsent(type, k -> new HashMap<>()).put(entry.getKey(), name);
+                    }
+                    owners.put(name, contribution);
+                    componentEntries.computeIfAbsent(type, k -> new LinkedHashMap<>()).put(name, entry.getValue());
+                    names.add(name);
+                }
+                contribution.components.put(type, names);
+                changes.components.computeIfAbsent(type, k -> new LinkedHashSet<>()).addAll(names);
+            }
+        }
+
+        final Elements elements = new Elements();
+        OASModelWalker.walk(model, elements);
+        final Set<String> ids = new HashSet<>();
+        for (Operation operation : elements.operations) {
+            ids.add(operation.getOperationId());
+        }
+        final Map<String, String> renamedIds = new HashMap<>();
+        for (Operation operation : elements.operations) {
+            String id = operation.getOperationId();
+            if (id == null) {
+                continue;
+            }
+            final Contribution owner = operationIds.get(id);
+            if (owner != null && owner != contribution) {
+                id = renamedIds.computeIfAbsent(id, k -> rename(k, suffix, n -> operationIds.containsKey(n) || ids.contains(n)));
+                operation.setOperationId(id);
+            }
+            operationIds.put(id, contribution);
+            contribution.operationIds.add(id);
+        }
+        for (Link link : elements.links) {
+            final String id = renamedIds.get(link.getOperationId());
+            if (id != null) {
+                link.setOperationId(id);
+            }
+        }
+        if (!renamedComponents.isEmpty()) {
+            for (Reference<?> reference : elements.references) {
+                final String ref = renamedReference(reference.getRef(), renamedComponents);
+                if (ref != null) {
+                    reference.setRef(ref);
+                }
+            }
+            for (Discriminator discriminator : elements.discriminators) {
+                renameMapping(discriminator, renamedComponents);
+            }
+            final Map<String, String> renamedSchemes = renamedComponents.get("securitySchemes");
+            if (renamedSchemes != null) {
+                for (SecurityRequirement requirement : elements.requirements) {
+                    renameSchemes(requirement, renamedSchemes);
+                }
+            }
+        }
+
+        if (model.getPaths() != null) {
+            for (Map.Entry<String, PathItem> entry : model.getPaths().entrySet()) {
+                final PathItem item = entry.getValue();
+                if (item == null) {
+                    continue;
+                }
+                for (Operation operation : item.readOperations()) {
+                    if (model.getSecurity() != null && operation.getSecurity() == null) {
+                        operation.setSecurity(new ArrayList<>(model.getSecurity()));
+                    }
+                    if (model.getServers() != null && item.getServers() == null && operation.getServers() == null) {
+                        operation.setServers(new ArrayList<>(model.getServers()));
+                    }
+                }
+                pathContributors.computeIfAbsent(entry.getKey(), k -> new ArrayList<>(1)).add(contribution);
+                contribution.paths.add(entry.getKey());
+                changes.paths.add(entry.getKey());
+            }
+        }
+
+        if (model.getTags() != null) {
+            for (Tag tag : model.getTags()) {
+                if (tag != null && tag.getName() != null && contribution.tags.put(tag.getName(), tag) == null) {
+                    tagContributors.computeIfAbsent(tag.getName(), k -> new ArrayList<>(1)).add(contribution);
+                    changes.tags = true;
+                }
+            }
+        }
+        return contribution;
+    }
+
+    /**
+     * Withdraws the contribution of an application from the indexes of the union. The entries the contribution leaves
+     * without owner are only removed from the model of the union by {@link #apply(Changes)}, so that a path, component
+     * or tag that the application contributes again keeps its position.
+     */
+    private void withdraw(Contribution contribution, Changes changes) {
+        for (String path : contribution.paths) {
+            final List<Contribution> contributors = pathContributors.get(path);
+            contributors.remove(contribution);
+            if (contributors.isEmpty()) {
+                pathContributors.remove(path);
+            }
+            changes.paths.add(path);
+        }
+        for (Map.Entry<String, List<String>> entry : contribution.components.entrySet()) {
+            final Map<String, Contribution> owners = componentOwners.get(entry.getKey());
+            for (String name : entry.getValue()) {
+                owners.remove(name);
+            }
+            changes.components.computeIfAbsent(entry.getKey(), k -> new LinkedHashSet<>()).addAll(entry.getValue());
+        }
+        for (String id : contribution.operationIds) {
+            operationIds.remove(id, contribution);
+        }
+        for (String tag : contribution.tags.keySet()) {
+            tagContributors.get(tag).remove(contribution);
+            changes.tags = true;
+        }
+    }
+
+    /**
+     * Brings the model of the union up to date with the indexes, for the paths, components and tags that changed.
+     */
+    private void apply(Changes changes) {
+        for (String path : changes.paths) {
+            final List<Contribution> contributors = pathContributors.get(path);
+            if (contributors == null) {
+                paths.remove(path);
+            }
+            else if (contributors.size() == 1) {
+                paths.addPathItem(path, contributors.get(0).model.getPaths().get(path));
+            }
+            else {
+                paths.addPathItem(path, combine(path, contributors));
+            }
+        }
+        for (Method getter : COMPONENT_GETTERS) {
+            final String type = ModelTypes.propertyName(getter);
+            final Set<String> names = changes.components.get(type);
+            if (names == null) {
+                continue;
+            }
+            final Map<String, Object> entries = componentEntries.get(type);
+            final Map<String, Contribution> owners = componentOwners.get(type);
+            for (String name : names) {
+                if (!owners.containsKey(name)) {
+                    entries.remove(name);
+                }
+            }
+            ModelTypes.write(Components.class, getter, components, updateComponents(getter, names, entries));
+        }
+        if (changes.tags) {
+            final List<Tag> tags = new ArrayList<>(tagContributors.size());
+            for (Iterator<Map.Entry<String, List<Contribution>>> i = tagContributors.entrySet().iterator(); i.hasNext();) {
+                final Map.Entry<String, List<Contribution>> entry = i.next();
+                if (entry.getValue().isEmpty()) {
+                    i.remove();
+                }
+                else {
+                    tags.add(entry.getValue().get(0).tags.get(entry.getKey()));
+                }
+            }
+            union.setTags(tags.isEmpty() ? null : tags);
+        }
+    }
+
+    /**
+     * Puts and removes the changed names of a type of components in the map of the union, in place if the map is
+     * modifiable, and otherwise in a copy of the entries of the union, since the maps returned by the getters of the
+     * model are not required to be modifiable.
+     *
+     * @return the map of the components of the type, or null if the union has none
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> updateComponents(Method getter, Set<String> names, Map<String, Object> entries) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+        final Map<String, Object> current = (Map<String, Object>) ModelTypes.read(getter, components);
+        if (current == null) {
+            return new LinkedHashMap<>(entries);
+        }
+        try {
+            // the names are in the order they were contributed, and a name already in the map keeps its position
+            for (String name : names) {
+                final Object entry = entries.get(name);
+                if (entry == null) {
+                    current.remove(name);
+                }
+                else {
+                    current.put(name, entry);
+                }
+            }
+            return current;
+        }
+        catch (UnsupportedOperationException e) {
+            return new LinkedHashMap<>(entries);
+        }
+    }
+
+    /**
+     * @return a path item holding the operations of every application using the given path
+     */
+    private static PathItem combine(String path, List<Contribution> contributors) {
+        final PathItem combined = OASFactory.createObject(PathItem.class);
+        for (Contribution contributor : contributors) {
+            final PathItem item = contributor.model.getPaths().get(path);
+            if (combined.getSummary() == null) {
+                combined.setSummary(item.getSummary());
+            }
+            if (combined.getDescription() == null) {
+                combined.setDescription(item.getDescription());
+            }
+            if (combined.getServers() == null) {
+                combined.setServers(item.getServers());
+            }
+            if (combined.getParameters() == null) {
+                combined.setParameters(item.getParameters());
+            }
+            final Map<PathItem.HttpMethod, Operation> operations = combined.readOperationsMap();
+            for (Map.Entry<PathItem.HttpMethod, Operation> entry : item.readOperationsMap().entrySet()) {
+                if (!operations.containsKey(entry.getKey())) {
+                    setOperation(combined, entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return combined;
+    }
+
+    private static void setOperation(PathItem item, PathItem.HttpMethod method, Operation operation) {
+        switch (method) {
+            case GET:
+                item.setGET(operation);
+                break;
+            case PUT:
+                item.setPUT(operation);
+                break;
+            case POST:
+                item.setPOST(operation);
+                break;
+            case DELETE:
+                item.setDELETE(operation);
+                break;
+            case OPTIONS:
+                item.setOPTIONS(operation);
+                break;
+            case HEAD:
+                item.setHEAD(operation);
+                break;
+            case PATCH:
+                item.setPATCH(operation);
+                break;
+            case TRACE:
+                item.setTRACE(operation);
+                break;
+            default:
+                throw new IllegalArgumentException(method.name());
+        }
+    }
+
+    /**
+     * @return the name followed by the suffix, and by a number if that name is taken as well
+     */
+    private static String rename(String name, String suffix, Predicate<String> taken) {
+        String renamed = name + suffix;
+        for (int i = 2; taken.test(renamed); i++) {
+            renamed = name + suffix + "_" + i;
+        }
+        return renamed;
+    }
+
+    /**
+     * @return the reference to the renamed component, or null if the reference does not name a renamed component
+     */
+    private static String renamedReference(String ref, Map<String, Map<String, String>> renamedComponents) {
+        final int slash = ref.indexOf('/', COMPONENTS_PREFIX.length());
+        if (slash < 0) {
+            return null;
+        }
+        final Map<String, String> renamed = renamedComponents.get(ref.substring(COMPONENTS_PREFIX.length(), slash));
+        final String name = renamed == null ? null : renamed.get(ref.substring(slash + 1));
+        return name == null ? null : ref.substring(0, slash + 1) + name;
+    }
+
+    /**
+     * Renames the schemas named by the mapping of a discriminator, either by a reference or by the name of the schema,
+     * as read by {@link ComponentIndex}.
+     */
+    private static void renameMapping(Discriminator discriminator, Map<String, Map<String, String>> renamedComponents) {
+        final Map<String, String> mapping = discriminator.getMapping();
+        if (mapping == null) {
+            return;
+        }
+        final Map<String, String> renamedSchemas = renamedComponents.get("schemas");
+        Map<String, String> changed = null;
+        for (Map.Entry<String, String> entry : mapping.entrySet()) {
+            final String value = entry.getValue();
+            if (value == null) {
+                continue;
+            }
+            String renamed = null;
+            if (value.startsWith(COMPONENTS_PREFIX)) {
+                renamed = renamedReference(value, renamedComponents);
+            }
+            else if (value.indexOf('/') < 0 && renamedSchemas != null) {
+                renamed = renamedSchemas.get(value);
+            }
+            if (renamed != null) {
+                if (changed == null) {
+                    changed = new LinkedHashMap<>(mapping);
+                }
+                changed.put(entry.getKey(), renamed);
+            }
+        }
+        if (changed != null) {
+            discriminator.setMapping(changed);
+        }
+    }
+
+    private static void renameSchemes(SecurityRequirement requirement, Map<String, String> renamedSchemes) {
+        for (Map.Entry<String, String> entry : renamedSchemes.entrySet()) {
+            if (requirement.containsKey(entry.getKey())) {
+                requirement.put(entry.getValue(), requirement.remove(entry.getKey()));
+            }
+        }
+    }
+
+    /**
+     * The contribution of an application to the union: its model, and the names it holds in the union.
+     */
+    private static final class Contribution {
+        private final OpenAPI model;
+        private final List<String> paths = new ArrayList<>();
+        private final Map<String, List<String>> components = new HashMap<>();
+        private final List<String> operationIds = new ArrayList<>();
+        private final Map<String, Tag> tags = new LinkedHashMap<>();
+
+        private Contribution(OpenAPI model) {
+            this.model = model;
+        }
+    }
+
+    /**
+     * The paths, components and tags of the union changed by adding or removing an application.
+     */
+    private static final class Changes {
+        private final Set<String> paths = new LinkedHashSet<>();
+        private final Map<String, Set<String>> components = new HashMap<>();
+        private boolean tags;
+    }
+
+    /**
+     * Collects the elements of a model that name other elements: operations, links, security requirements,
+     * discriminators and references to components. An element reached from several places is collected once.
+     */
+    private static final class Elements implements OASVisitor {
+        private final Set<Constructible> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final List<Operation> operations = new ArrayList<>();
+        private final List<Link> links = new ArrayList<>();
+        private final List<SecurityRequirement> requirements = new ArrayList<>();
+        private final List<Reference<?>> references = new ArrayList<>();
+        private final List<Discriminator> discriminators = new ArrayList<>();
+
+        @Override
+        public boolean visitOperation(Operation operation) {
+            if (!visited.add(operation)) {
+                return false;
+            }
+            operations.add(operation);
+            return true;
+        }
+
+        @Override
+        public boolean visitLink(Link link) {
+            links.add(link);
+            return true;
+        }
+
+        @Override
+        public boolean visitSecurityRequirement(SecurityRequirement requirement) {
+            if (visited.add(requirement)) {
+                requirements.add(requirement);
+            }
+            return true;
+        }
+
+        @Override
+        public boolean visitDiscriminator(Discriminator discriminator) {
+            if (visited.add(discriminator)) {
+                discriminators.add(discriminator);
+            }
+            return true;
+        }
+
+        @Override
+        public void leave(Constructible element) {
+            if (element instanceof Reference) {
+                final Reference<?> reference = (Reference<?>) element;
+                if (reference.getRef() != null && reference.getRef().startsWith(COMPONENTS_PREFIX) && visited.add(element)) {
+                    references.add(reference);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,399 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.eclipse.microprofile.openapi;
+
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.ExternalDocumentation;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.callbacks.Callback;
+import org.eclipse.microprofile.openapi.models.examples.Example;
+import org.eclipse.microprofile.openapi.models.headers.Header;
+import org.eclipse.microprofile.openapi.models.info.Contact;
+import org.eclipse.microprofile.openapi.models.info.Info;
+import org.eclipse.microprofile.openapi.models.info.License;
+import org.eclipse.microprofile.openapi.models.links.Link;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.models.media.Discriminator;
+import org.eclipse.microprofile.openapi.models.media.Encoding;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.media.XML;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.parameters.RequestBody;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.eclipse.microprofile.openapi.models.security.OAuthFlow;
+import org.eclipse.microprofile.openapi.models.security.OAuthFlows;
+import org.eclipse.microprofile.openapi.models.security.Scopes;
+import org.eclipse.microprofile.openapi.models.security.SecurityRequirement;
+import org.eclipse.microprofile.openapi.models.security.SecurityScheme;
+import org.eclipse.microprofile.openapi.models.servers.Server;
+import org.eclipse.microprofile.openapi.models.servers.ServerVariable;
+import org.eclipse.microprofile.openapi.models.servers.ServerVariables;
+import org.eclipse.microprofile.openapi.models.tags.Tag;
+
+/**
+ * This interface allows application developers and vendors to process the elements of an OpenAPI model tree
+ * without writing their own traversal of it. It has a method for each type of element in the model tree, which
+ * {@link OASModelWalker} calls for every element of that type it reaches.
+ *
+ * <br><br>Every method has a default implementation, which allows implementers to only override the methods for
+ * the types they care about. A visit method returns whether the descendants of the element are to be visited as
+ * well; the default implementations return true. Once all descendants of an element have been visited,
+ * {@link #leave(Constructible)} is called for it.
+ *
+ * <br><br>Example, counting the operations of a model:
+ * <pre><code>AtomicInteger count = new AtomicInteger();
+ * OASModelWalker.walk(openAPI, new OASVisitor() {
+ *     public boolean visitOperation(Operation operation) {
+ *         count.incrementAndGet();
+ *         return false;
+ *     }
+ * });</code></pre>
+ */
+public interface OASVisitor {
+
+    /**
+     * Visits an OpenAPI element.
+     *
+     * @param openAPI the current OpenAPI element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitOpenAPI(OpenAPI openAPI) {
+        return true;
+    }
+
+    /**
+     * Visits an Info element.
+     *
+     * @param info the current Info element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitInfo(Info info) {
+        return true;
+    }
+
+    /**
+     * Visits a Contact element.
+     *
+     * @param contact the current Contact element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitContact(Contact contact) {
+        return true;
+    }
+
+    /**
+     * Visits a License element.
+     *
+     * @param license the current License element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitLicense(License license) {
+        return true;
+    }
+
+    /**
+     * Visits an ExternalDocumentation element.
+     *
+     * @param externalDocumentation the current ExternalDocumentation element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitExternalDocumentation(ExternalDocumentation externalDocumentation) {
+        return true;
+    }
+
+    /**
+     * Visits a Server element.
+     *
+     * @param server the current Server element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitServer(Server server) {
+        return true;
+    }
+
+    /**
+     * Visits a ServerVariables element.
+     *
+     * @param serverVariables the current ServerVariables element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitServerVariables(ServerVariables serverVariables) {
+        return true;
+    }
+
+    /**
+     * Visits a ServerVariable element.
+     *
+     * @param serverVariable the current ServerVariable element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitServerVariable(ServerVariable serverVariable) {
+        return true;
+    }
+
+    /**
+     * Visits a SecurityRequirement element.
+     *
+     * @param securityRequirement the current SecurityRequirement element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitSecurityRequirement(SecurityRequirement securityRequirement) {
+        return true;
+    }
+
+    /**
+     * Visits a Tag element.
+     *
+     * @param tag the current Tag element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitTag(Tag tag) {
+        return true;
+    }
+
+    /**
+     * Visits a Paths element.
+     *
+     * @param paths the current Paths element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitPaths(Paths paths) {
+        return true;
+    }
+
+    /**
+     * Visits a PathItem element.
+     *
+     * @param pathItem the current PathItem element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitPathItem(PathItem pathItem) {
+        return true;
+    }
+
+    /**
+     * Visits an Operation element.
+     *
+     * @param operation the current Operation element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitOperation(Operation operation) {
+        return true;
+    }
+
+    /**
+     * Visits a Parameter element.
+     *
+     * @param parameter the current Parameter element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitParameter(Parameter parameter) {
+        return true;
+    }
+
+    /**
+     * Visits a RequestBody element.
+     *
+     * @param requestBody the current RequestBody element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitRequestBody(RequestBody requestBody) {
+        return true;
+    }
+
+    /**
+     * Visits an APIResponses element.
+     *
+     * @param apiResponses the current APIResponses element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitAPIResponses(APIResponses apiResponses) {
+        return true;
+    }
+
+    /**
+     * Visits an APIResponse element.
+     *
+     * @param apiResponse the current APIResponse element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitAPIResponse(APIResponse apiResponse) {
+        return true;
+    }
+
+    /**
+     * Visits a Callback element.
+     *
+     * @param callback the current Callback element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitCallback(Callback callback) {
+        return true;
+    }
+
+    /**
+     * Visits a Header element.
+     *
+     * @param header the current Header element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitHeader(Header header) {
+        return true;
+    }
+
+    /**
+     * Visits a Content element.
+     *
+     * @param content the current Content element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitContent(Content content) {
+        return true;
+    }
+
+    /**
+     * Visits a MediaType element.
+     *
+     * @param mediaType the current MediaType element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitMediaType(MediaType mediaType) {
+        return true;
+    }
+
+    /**
+     * Visits an Encoding element.
+     *
+     * @param encoding the current Encoding element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitEncoding(Encoding encoding) {
+        return true;
+    }
+
+    /**
+     * Visits a Schema element.
+     *
+     * @param schema the current Schema element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitSchema(Schema schema) {
+        return true;
+    }
+
+    /**
+     * Visits a Discriminator element.
+     *
+     * @param discriminator the current Discriminator element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitDiscriminator(Discriminator discriminator) {
+        return true;
+    }
+
+    /**
+     * Visits an XML element.
+     *
+     * @param xml the current XML element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitXML(XML xml) {
+        return true;
+    }
+
+    /**
+     * Visits an Example element.
+     *
+     * @param example the current Example element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitExample(Example example) {
+        return true;
+    }
+
+    /**
+     * Visits a Link element.
+     *
+     * @param link the current Link element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitLink(Link link) {
+        return true;
+    }
+
+    /**
+     * Visits a Components element.
+     *
+     * @param components the current Components element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitComponents(Components components) {
+        return true;
+    }
+
+    /**
+     * Visits a SecurityScheme element.
+     *
+     * @param securityScheme the current SecurityScheme element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitSecurityScheme(SecurityScheme securityScheme) {
+        return true;
+    }
+
+    /**
+     * Visits an OAuthFlows element.
+     *
+     * @param oauthFlows the current OAuthFlows element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitOAuthFlows(OAuthFlows oauthFlows) {
+        return true;
+    }
+
+    /**
+     * Visits an OAuthFlow element.
+     *
+     * @param oauthFlow the current OAuthFlow element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitOAuthFlow(OAuthFlow oauthFlow) {
+        return true;
+    }
+
+    /**
+     * Visits a Scopes element.
+     *
+     * @param scopes the current Scopes element
+     * @return true to visit the descendants of the element, false to skip them
+     */
+    default boolean visitScopes(Scopes scopes) {
+        return true;
+    }
+
+    /**
+     * Called for an element once all of its descendants have been visited, if its visit method returned true.
+     *
+     * @param element the element whose descendants have been visited
+     */
+    default void leave(Constructible element) {}
+}
@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+
+/**
+ * This class holds a deeply immutable copy of an OpenAPI model tree, for use once the model has been completely
+ * processed.
+ *
+ * <br><br>Every element of the snapshot implements the same model interface as the element it was copied from. Its
+ * getters return the copied values, while setters, builder methods and the methods modifying lists and maps throw
+ * {@link UnsupportedOperationException}. Lists and maps are copied into compact immutable collections. An element
+ * referenced from several places in the model is copied once and shared by all of these places, and elements that
+ * are already frozen are not copied again. Hash codes are computed once, and two frozen elements are equal if they
+ * are of the same model interface and hold equal values, except that the elements of the model interfaces that
+ * extend {@link Map}, such as the paths, are equal to any map with equal entries, as maps are.
+ *
+ * <br><br>A snapshot can be shared by any number of threads without synchronization.
+ *
+ * <br><br>Example:
+ * <pre><code>OpenAPISnapshot snapshot = OpenAPISnapshot.of(openAPI);
+ * OpenAPI model = snapshot.getModel();
+ * </code></pre>
+ */
+public final class OpenAPISnapshot {
+
+    private final OpenAPI model;
+
+    private OpenAPISnapshot(OpenAPI model) {
+        this.model = model;
+    }
+
+    /**
+     * Creates a snapshot of the given model. Later changes to the given model are not reflected in the snapshot.
+     *
+     * @param openAPI the model to copy
+     * @return a snapshot of the model
+     *
+     * @throws NullPointerException if the model is null
+     * @throws IllegalArgumentException if the model contains an element that is its own descendant
+     */
+    public static OpenAPISnapshot of(OpenAPI openAPI) {
+        return new OpenAPISnapshot(freeze(openAPI));
+    }
+
+    /**
+     * Creates a deeply immutable copy of the given element, or returns the element itself if it is already frozen.
+     *
+     * @param <T> describes the type parameter
+     * @param element the element to copy
+     * @return the frozen element
+     *
+     * @throws NullPointerException if the element is null
+     * @throws IllegalArgumentException if the element is its own descendant, or implements none of the model interfaces
+     */
+    public static <T extends Constructible> T freeze(T element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        @SuppressWarnings("unchecked")
+        final T frozen = (T) new Freezer().freezeElement(element);
+        return frozen;
+    }
+
+    /**
+     * Returns whether the given element is frozen, that is whether it belongs to a snapshot or was returned by
+     * {@link #freeze(Constructible)}.
+     *
+     * @param element the element to check
+     * @return true if the element is frozen
+     */
+    public static boolean isFrozen(Object element) {
+        return FrozenModel.isFrozen(element);
+    }
+
+    /**
+     * @return the immutable model held by this snapshot
+     */
+    public OpenAPI getModel() {
+        return model;
+    }
+
+    @Override
+    public int hashCode() {
+        return model.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || (obj instanceof OpenAPISnapshot && model.equals(((OpenAPISnapshot) obj).model));
+    }
+
+    @Override
+    public String toString() {
+        return "OpenAPISnapshot" + model;
+    }
+
+    /**
+     * Copies one model tree, keeping track of the elements already copied.
+     */
+    private static final class Freezer {
+
+        private final Map<Object, Object> frozen = new IdentityHashMap<>();
+
+        Object freezeElement(Constructible element) {
+            if (FrozenModel.isFrozen(element)) {
+                return element;
+            }
+            if (frozen.containsKey(element)) {
+                final Object copy = frozen.get(element);
+                if (copy == null) {
+                    throw new IllegalArgumentException("The model contains a cycle through a " + ModelTypes.of(element.getClass()).getSimpleName());
+                }
+                return copy;
+            }
+            // marks the element as being copied until its copy is complete
+            frozen.put(element, null);
+
+            final Class<? extends Constructible> type = ModelTypes.of(element.getClass());
+            final List<Method> properties = ModelTypes.properties(type);
+            final Object[] values = new Object[properties.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = freezeValue(ModelTypes.read(properties.get(i), element));
+            }
+            @SuppressWarnings("unchecked")
+            final Map<String, Object> entries = element instanceof Map ? freezeMap((Map<String, Object>) element) : null;
+
+            final Object copy = FrozenModel.create(type, values, entries);
+            frozen.put(element, copy);
+            return copy;
+        }
+
+        private Object freezeValue(Object value) {
+            if (value instanceof Constructible) {
+                return freezeElement((Constructible) value);
+            }
+            if (value instanceof List) {
+                final Object[] elements = ((List<?>) value).toArray();
+                if (elements.length == 0) {
+                    return Collections.emptyList();
+                }
+                for (int i = 0; i < elements.length; i++) {
+                    elements[i] = freezeValue(elements[i]);
+                }
+                return Collections.unmodifiableList(Arrays.asList(elements));
+            }
+            if (value instanceof Map) {
+                return freezeMap((Map<?, ?>) value);
+            }
+            return value;
+        }
+
+        private <K, V> Map<K, V> freezeMap(Map<?, ?> map) {
+            if (map.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            final Object[] keys = new Object[map.size()];
+            final Object[] values = new Object[keys.length];
+            int i = 0;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                keys[i] = entry.getKey();
+                values[i] = freezeValue(entry.getValue());
+                i++;
+            }
+            return new FrozenMap<>(keys, values);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * This class decides which classes of an application are scanned for annotations, following the
+ * {@link OASConfig#SCAN_PACKAGES}, {@link OASConfig#SCAN_CLASSES}, {@link OASConfig#SCAN_EXCLUDE_PACKAGES} and
+ * {@link OASConfig#SCAN_EXCLUDE_CLASSES} configuration.
+ *
+ * <br><br>The packages of the rules are compiled into a prefix tree, and the classes of the rules into hash sets, so
+ * that the cost of deciding on a class depends on the length of its name and not on the number of rules. A class is
+ * accepted or rejected as follows:
+ * <ul>
+ * <li>a class listed in the excluded classes, or nested in one of them, is rejected;</li>
+ * <li>otherwise a class listed in the included classes, or nested in one of them, is accepted;</li>
+ * <li>otherwise the most specific package rule applying to the class decides, where a package rule applies to the
+ * classes of the package and of its subpackages, and an exclusion wins over an inclusion of the same package;</li>
+ * <li>otherwise the class is accepted if no package or class is included at all, and rejected if some are.</li>
+ * </ul>
+ *
+ * <br><br>A filter is immutable, and can be shared by any number of threads.
+ *
+ * <br><br>Example:
+ * <pre><code>ScanFilter filter = ScanFilter.of(key -&gt; config.getOptionalValue(key, String.class).orElse(null));
+ * if (filter.accept(className)) {
+ *     // scan the class
+ * }
+ * </code></pre>
+ */
+public final class ScanFilter {
+
+    private static final byte INCLUDE = 1;
+    private static final byte EXCLUDE = 2;
+
+    private final Node packages = new Node();
+    private final Set<String> includedClasses;
+    private final Set<String> excludedClasses;
+    private final boolean includesAny;
+
+    private ScanFilter(Collection<String> includePackages, Collection<String> includeClasses, Collection<String> excludePackages,
+            Collection<String> excludeClasses) {
+        boolean includes = false;
+        for (String name : includePackages) {
+            includes |= addPackage(name, INCLUDE);
+        }
+        for (String name : excludePackages) {
+            addPackage(name, EXCLUDE);
+        }
+        includedClasses = toSet(includeClasses);
+        excludedClasses = toSet(excludeClasses);
+        includesAny = includes || !includedClasses.isEmpty();
+    }
+
+    /**
+     * Creates a filter from the given package and class names.
+     *
+     * @param includePackages the packages to scan, or an empty collection
+     * @param includeClasses the classes to scan, or an empty collection
+     * @param excludePackages the packages to exclude from scans, or an empty collection
+     * @param excludeClasses the classes to exclude from scans, or an empty collection
+     * @return a new filter
+     *
+     * @throws NullPointerException if any of the collections or names is null
+     */
+    public static ScanFilter of(Collection<String> includePackages, Collection<String> includeClasses, Collection<String> excludePackages,
+            Collection<String> excludeClasses) {
+        return new ScanFilter(includePackages, includeClasses, excludePackages, excludeClasses);
+    }
+
+    /**
+     * Creates a filter from the comma-separated values of the scan configuration properties.
+     *
+     * @param config a function returning the value of a configuration property, or null if the property is not set
+     * @return a new filter
+     *
+     * @throws NullPointerException if the function is null
+     */
+    public static ScanFilter of(Function<String, String> config) {
+        return new ScanFilter(split(config.apply(OASConfig.SCAN_PACKAGES)), split(config.apply(OASConfig.SCAN_CLASSES)),
+                split(config.apply(OASConfig.SCAN_EXCLUDE_PACKAGES)), split(config.apply(OASConfig.SCAN_EXCLUDE_CLASSES)));
+    }
+
+    /**
+     * @param className the binary name of a class
+     * @return true if the class is to be scanned
+     *
+     * @throws NullPointerException if the name is null
+     */
+    public boolean accept(String className) {
+        if (matches(excludedClasses, className)) {
+            return false;
+        }
+        if (matches(includedClasses, className)) {
+            return true;
+        }
+        int rule = 0;
+        Node node = packages;
+        for (int i = 0; i < className.length() && node != null; i++) {
+            final char c = className.charAt(i);
+            if (c == '.' && node.rule != 0) {
+                rule = node.rule;
+            }
+            node = node.child(c);
+        }
+        if (rule != 0) {
+            return (rule & EXCLUDE) == 0;
+        }
+        return !includesAny;
+    }
+
+    /**
+     * @param clazz a class
+     * @return true if the class is to be scanned
+     *
+     * @throws NullPointerException if the class is null
+     */
+    public boolean accept(Class<?> clazz) {
+        return accept(clazz.getName());
+    }
+
+    /**
+     * @return false if the name is empty, and no rule was added
+     */
+    private boolean addPackage(String name, byte rule) {
+        String packageName = name.trim();
+        if (packageName.endsWith(".*")) {
+            packageName = packageName.substring(0, packageName.length() - 2);
+        }
+        else if (packageName.endsWith(".")) {
+            packageName = packageName.substring(0, packageName.length() - 1);
+        }
+        if (packageName.isEmpty()) {
+            return false;
+        }
+        Node node = packages;
+        for (int i = 0; i < packageName.length(); i++) {
+            node = node.addChild(packageName.charAt(i));
+        }
+        node.rule |= rule;
+        return true;
+    }
+
+    private static boolean matches(Set<String> classes, String className) {
+        if (classes.isEmpty()) {
+            return false;
+        }
+        if (classes.contains(className)) {
+            return true;
+        }
+        // the rules of a class apply to its nested classes
+        for (int i = className.indexOf('$'); i > 0; i = className.indexOf('$', i + 1)) {
+            if (classes.contains(className.substring(0, i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Set<String> toSet(Collection<String> names) {
+        final Set<String> set = new HashSet<>();
+        for (String name : names) {
+            final String className = name.trim();
+            if (!className.isEmpty()) {
+                set.add(className);
+            }
+        }
+        return set.isEmpty() ? Collections.<String>emptySet() : set;
+    }
+
+    private static List<String> split(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(Arrays.asList(value.split(",")));
+    }
+
+    /**
+     * A node of the prefix tree of the package rules, with its children sorted by character.
+     */
+    private static final class Node {
+
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private byte rule;
+
+        Node child(char c) {
+            final int i = Arrays.binarySearch(keys, c);
+            return i < 0 ? null : children[i];
+        }
+
+        Node addChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            i = -i - 1;
+            final char[] newKeys = new char[keys.length + 1];
+            final Node[] newChildren = new Node[keys.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, i);
+            System.arraycopy(children, 0, newChildren, 0, i);
+            System.arraycopy(keys, i, newKeys, i + 1, keys.length - i);
+            System.arraycopy(children, i, newChildren, i + 1, keys.length - i);
+            newKeys[i] = c;
+            newChildren[i] = new Node();
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[i];
+        }
+    }
+}
@@ -0,0 +1,410 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+
+/**
+ * This class replaces the schemas of an OpenAPI model that are structurally equal by one shared instance, and may
+ * move the schemas used several times into the components of the model.
+ *
+ * <br><br>Two schemas are equal if they are of the same model interface and all their properties, including their
+ * extensions, their references and the order of their properties, are equal, where the schemas they hold are
+ * compared in the same way. The schemas are compared bottom-up: the schemas held by a schema are replaced by their
+ * shared instances first, so that a schema is compared with a structural key holding the identities of its schemas
+ * instead of their whole trees, and every schema of the model is visited once. The schemas of the components are
+ * visited first, so that a schema equal to a component schema is replaced by the component schema.
+ *
+ * <br><br>When hoisting, a schema held in place by the model, rather than by the components, is moreover replaced by
+ * a reference:
+ * <ul>
+ * <li>to the component schema it is equal to, if there is one;</li>
+ * <li>to a new component schema, named after the title of the schema, if the schema is held in more than one place,
+ * and has properties or is composed of other schemas with <code>allOf</code>, <code>anyOf</code> or
+ * <code>oneOf</code>. Simpler schemas, such as <code>type: string</code>, are shared but kept in place.</li>
+ * </ul>
+ * The references to a component schema share one instance.
+ *
+ * <br><br>Since the shared schemas are held in several places of the model, modifying one of them modifies all these
+ * places, so the model is to be canonicalized once it is completely processed, for example after the filter.
+ *
+ * <br><br>Example:
+ * <pre><code>OASFilterWalker.filter(openAPI, filter);
+ * SchemaCanonicalizer.canonicalize(openAPI, true);
+ * </code></pre>
+ */
+public final class SchemaCanonicalizer {
+
+    private static final String SCHEMAS_PREFIX = "#/components/schemas/";
+
+    /**
+     * The shared instance of each visited schema, the shared instances by structural key, and the shared instances
+     * in the order in which they were first found, with the number of places holding them.
+     */
+    private final Map<Schema, Schema> canonical = new IdentityHashMap<>();
+    private final Map<Object, Schema> byKey = new HashMap<>();
+    private final Set<Schema> inProgress = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Constructible> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<Schema, int[]> occurrences = new IdentityHashMap<>();
+    private final List<Schema> order = new ArrayList<>();
+
+    /**
+     * The references replacing the hoisted schemas, and whether the current pass hoists.
+     */
+    private final Map<Schema, Schema> references = new IdentityHashMap<>();
+    private boolean hoisting;
+
+    private int replaced;
+
+    private SchemaCanonicalizer() {
+    }
+
+    /**
+     * Replaces the equal schemas of the model by one shared instance.
+     *
+     * @param openAPI the model, which is modified
+     * @return the number of places of the model in which a schema was replaced
+     *
+     * @throws NullPointerException if the model is null
+     * @throws IllegalArgumentException if the model holds an element that implements none of the model interfaces
+     */
+    public static int canonicalize(OpenAPI openAPI) {
+        return canonicalize(openAPI, false);
+    }
+
+    /**
+     * Replaces the equal schemas of the model by one shared instance, and optionally the schemas equal to a component
+     * schema, or held in several places, by references to components.
+     *
+     * @param openAPI the model, which is modified
+     * @param hoist whether schemas are replaced by references to components
+     * @return the number of places of the model in which a schema was replaced by a shared instance or a reference
+     *
+     * @throws NullPointerException if the model is null
+     * @throws IllegalArgumentException if the model holds an element that implements none of the model interfaces
+     */
+    public static int canonicalize(OpenAPI openAPI, boolean hoist) {
+        if (openAPI == null) {
+            throw new NullPointerException();
+        }
+        final SchemaCanonicalizer canonicalizer = new SchemaCanonicalizer();
+        final Components components = openAPI.getComponents();
+        if (components != null) {
+            canonicalizer.element(components);
+        }
+        canonicalizer.element(openAPI);
+        if (hoist) {
+            canonicalizer.hoist(openAPI);
+        }
+        return canonicalizer.replaced;
+    }
+
+    /**
+     * Visits the values of the properties, and the entries, of an element other than a schema, and replaces the
+     * schemas among them.
+     */
+    private void element(Constructible element) {
+        if (!visited.add(element)) {
+            return;
+        }
+        if (element instanceof Components) {
+            components((Components) element);
+            return;
+        }
+        children(element);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void children(Constructible element) {
+        final Class<? extends Constructible> type = ModelTypes.of(element.getClass());
+        if (element instanceof Map) {
+            final Map<Object, Object> entries = (Map<Object, Object>) element;
+            final Map<Object, Object> changed = new LinkedHashMap<>();
+            for (Map.Entry<Object, Object> entry : entries.entrySet()) {
+                final Object value = value(entry.getValue());
+                if (value != entry.getValue()) {
+                    changed.put(entry.getKey(), value);
+                }
+            }
+            entries.putAll(changed);
+        }
+        for (Method getter : ModelTypes.properties(type)) {
+            final Object value = ModelTypes.read(getter, element);
+            final Object result = value(value);
+            if (result != value) {
+                ModelTypes.write(type, getter, element, result);
+            }
+        }
+    }
+
+    /**
+     * Visits the component schemas, which are shared but never replaced by references, and the other components.
+     */
+    private void components(Components components) {
+        final Map<String, Schema> schemas = components.getSchemas();
+        if (schemas != null) {
+            final Map<String, Schema> changed = new LinkedHashMap<>();
+            for (Map.Entry<String, Schema> entry : schemas.entrySet()) {
+                final Schema schema = entry.getValue() == null ? null : hoisting ? walked(entry.getValue()) : share(entry.getValue());
+                if (schema != entry.getValue()) {
+                    changed.put(entry.getKey(), schema);
+                }
+            }
+            if (!changed.isEmpty()) {
+                final Map<String, Schema> copy = new LinkedHashMap<>(schemas);
+                copy.putAll(changed);
+                components.setSchemas(copy);
+            }
+        }
+        final Class<? extends Constructible> type = ModelTypes.of(components.getClass());
+        for (Method getter : ModelTypes.properties(type)) {
+            if (!"schemas".equals(ModelTypes.propertyName(getter))) {
+                final Object value = ModelTypes.read(getter, components);
+                final Object result = value(value);
+                if (result != value) {
+                    ModelTypes.write(type, getter, components, result);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the value with its schemas replaced, which is a copy of the value if the value is a list or a map in
+     * which a schema was replaced, since the lists and maps returned by the getters are not required to be modifiable
+     */
+    private Object value(Object value) {
+        if (value instanceof Schema) {
+            final Schema schema = (Schema) value;
+            final Schema result = hoisting ? reference(walked(schema)) : occurrence(share(schema));
+            if (result != schema) {
+                replaced++;
+            }
+            return result;
+        }
+        if (value instanceof Constructible) {
+            element((Constructible) value);
+            return value;
+        }
+        if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            List<Object> copy = null;
+            for (int i = 0; i < list.size(); i++) {
+                final Object result = value(list.get(i));
+                if (result != list.get(i) && copy == null) {
+                    copy = new ArrayList<>(list);
+                }
+                if (copy != null) {
+                    copy.set(i, result);
+                }
+            }
+            return copy == null ? value : copy;
+        }
+        if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            Map<Object, Object> copy = null;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                final Object result = value(entry.getValue());
+                if (result != entry.getValue()) {
+                    if (copy == null) {
+                        copy = new LinkedHashMap<>(map);
+                    }
+                    copy.put(entry.getKey(), result);
+                }
+            }
+            return copy == null ? value : copy;
+        }
+        return value;
+    }
+
+    /**
+     * @return the shared instance of the schema, once the schemas it holds are replaced by their shared instances
+     */
+    private Schema share(Schema schema) {
+        final Schema known = canonical.get(schema);
+        if (known != null) {
+            return known;
+        }
+        if (!inProgress.add(schema)) {
+            // a schema holding itself is compared by identity
+            return schema;
+        }
+        children(schema);
+        inProgress.remove(schema);
+        Schema shared = byKey.putIfAbsent(key(schema), schema);
+        if (shared == null) {
+            shared = schema;
+            order.add(schema);
+        }
+        canonical.put(schema, shared);
+        return shared;
+    }
+
+    private Schema occurrence(Schema schema) {
+        occurrences.computeIfAbsent(schema, k -> new int[1])[0]++;
+        return schema;
+    }
+
+    /**
+     * @return the schema, once the schemas it holds are replaced by references during the hoisting pass
+     */
+    private Schema walked(Schema schema) {
+        if (visited.add(schema)) {
+            children(schema);
+        }
+        return schema;
+    }
+
+    private Schema reference(Schema schema) {
+        final Schema reference = references.get(schema);
+        return reference == null ? schema : reference;
+    }
+
+    /**
+     * @return the structural key of a schema whose schemas are already shared, which holds the identities of these
+     * schemas
+     */
+    private static Object key(Constructible element) {
+        final Class<? extends Constructible> type = ModelTypes.of(element.getClass());
+        final List<Method> properties = ModelTypes.properties(type);
+        final List<Object> key = new ArrayList<>(properties.size() + 2);
+        key.add(type);
+        for (Method getter : properties) {
+            key.add(keyOf(ModelTypes.read(getter, element)));
+        }
+        if (element instanceof Map) {
+            key.add(keyOf(new LinkedHashMap<>((Map<?, ?>) element)));
+        }
+        return key;
+    }
+
+    private static Object keyOf(Object value) {
+        if (value instanceof Schema) {
+            return new Identity(value);
+        }
+        if (value instanceof Constructible) {
+            return key((Constructible) value);
+        }
+        if (value instanceof List) {
+            final List<Object> key = new ArrayList<>(((List<?>) value).size());
+            for (Object element : (List<?>) value) {
+                key.add(keyOf(element));
+            }
+            return key;
+        }
+        if (value instanceof Map) {
+            // the entries are compared in order, since the order of the properties of a schema is serialized
+            final List<Object> key = new ArrayList<>(((Map<?, ?>) value).size() * 2);
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                key.add(entry.getKey());
+                key.add(keyOf(entry.getValue()));
+            }
+            return Arrays.asList("map", key);
+        }
+        return value;
+    }
+
+    /**
+     * Replaces the schemas equal to a component schema, or held in several places, by references.
+     */
+    private void hoist(OpenAPI openAPI) {
+        Components components = openAPI.getComponents();
+        final Map<String, Schema> schemas = components == null || components.getSchemas() == null
+                ? new LinkedHashMap<>() : new LinkedHashMap<>(components.getSchemas());
+        for (Map.Entry<String, Schema> entry : schemas.entrySet()) {
+            if (entry.getValue() != null && !references.containsKey(entry.getValue())) {
+                references.put(entry.getValue(), OASFactory.createObject(Schema.class).ref(SCHEMAS_PREFIX + entry.getKey()));
+            }
+        }
+        boolean added = false;
+        for (Schema schema : order) {
+            final int[] count = occurrences.get(schema);
+            if (count != null && count[0] > 1 && !references.containsKey(schema) && isComposite(schema)) {
+                final String name = name(schema, schemas);
+                schemas.put(name, schema);
+                references.put(schema, OASFactory.createObject(Schema.class).ref(SCHEMAS_PREFIX + name));
+                added = true;
+            }
+        }
+        if (references.isEmpty()) {
+            return;
+        }
+        if (added) {
+            if (components == null) {
+                components = OASFactory.createObject(Components.class);
+                openAPI.setComponents(components);
+            }
+            components.setSchemas(schemas);
+        }
+        hoisting = true;
+        visited.clear();
+        element(components);
+        element(openAPI);
+    }
+
+    private static boolean isComposite(Schema schema) {
+        return schema.getRef() == null && (schema.getProperties() != null && !schema.getProperties().isEmpty()
+                || schema.getAllOf() != null || schema.getAnyOf() != null || schema.getOneOf() != null);
+    }
+
+    /**
+     * @return the title of the schema, made a valid component name, or a generated name, which no component has
+     */
+    private static String name(Schema schema, Map<String, Schema> schemas) {
+        final String base = schema.getTitle() == null || schema.getTitle().isEmpty()
+                ? "Schema" : schema.getTitle().replaceAll("[^a-zA-Z0-9._-]", "_");
+        String name = base;
+        for (int i = 2; schemas.containsKey(name); i++) {
+            name = base + i;
+        }
+        return name;
+    }
+
+    /**
+     * A schema in a structural key, compared by identity.
+     */
+    private static final class Identity {
+        private final Object value;
+
+        private Identity(Object value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Identity && ((Identity) other).value == value;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(value);
+        }
+    }
+}
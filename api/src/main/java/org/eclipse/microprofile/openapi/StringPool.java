@@ -0,0 +1,191 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.microprofile.openapi.models.Constructible;
+
+/**
+ * This class is a pool of strings, used while building an OpenAPI model so that the strings repeated throughout the
+ * model, such as media types like <code>application/json</code>, the targets of <code>$ref</code>, tag names,
+ * response codes like <code>200</code>, formats like <code>int64</code> and repeated descriptions, are held by one
+ * instance each.
+ *
+ * <br><br>A pool is meant to be created for the build of one model, shared by the readers of its documents and by the
+ * code creating elements with {@link OASFactory}, and dropped once the model is built. Unlike
+ * {@link String#intern()}, the pool holds no string beyond the build, and looks strings up in a plain hash map. The
+ * model keeps the pooled instances, so the memory saved lasts as long as the model does.
+ *
+ * <br><br>The strings of a document read by {@link org.eclipse.microprofile.openapi.spi.OASReader} or
+ * {@link org.eclipse.microprofile.openapi.spi.BinaryDocument} with a pool are pooled as they are read. The strings of
+ * a model built otherwise, for example by an {@link OASModelReader}, are pooled by {@link #intern(Constructible)}.
+ *
+ * <br><br>This class is not thread-safe.
+ *
+ * <br><br>Example:
+ * <pre><code>StringPool pool = new StringPool();
+ * OpenAPI model = OASReader.instance().read(in, DocumentFormat.YAML, pool);
+ * OASMerger.merge(model, pool.intern(modelReader.buildModel()));
+ * </code></pre>
+ */
+public final class StringPool {
+
+    private final Map<String, String> strings = new HashMap<>();
+
+    /**
+     * Creates an empty pool.
+     */
+    public StringPool() {
+    }
+
+    /**
+     * Returns the pooled instance of a string, which is the given string if the pool does not hold an equal one yet.
+     *
+     * @param string the string, or null
+     * @return the pooled instance equal to the string, or null if the string is null
+     */
+    public String intern(String string) {
+        if (string == null) {
+            return null;
+        }
+        final String pooled = strings.putIfAbsent(string, string);
+        return pooled == null ? string : pooled;
+    }
+
+    /**
+     * @return the number of distinct strings in the pool
+     */
+    public int size() {
+        return strings.size();
+    }
+
+    /**
+     * Replaces the strings held by an element and the elements it holds, such as the values of their string properties,
+     * the keys of their maps and the strings of their lists, by their pooled instances. The lists and maps in which a
+     * string is replaced are replaced by copies, since the lists and maps returned by the getters are not required to
+     * be modifiable, and the entries of an element that is a map are put back in their order.
+     *
+     * @param <T> the type of the element
+     * @param element the element, which is modified
+     * @return the element
+     *
+     * @throws NullPointerException if the element is null
+     * @throws IllegalArgumentException if the element holds an element that implements none of the model interfaces
+     */
+    public <T extends Constructible> T intern(T element) {
+        if (element == null) {
+            throw new NullPointerException();
+        }
+        new Walker().element(element);
+        return element;
+    }
+
+    /**
+     * Visits each element of a model once.
+     */
+    private final class Walker {
+        private final Set<Constructible> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        @SuppressWarnings("unchecked")
+        private void element(Constructible element) {
+            if (!visited.add(element)) {
+                return;
+            }
+            final Class<? extends Constructible> type = ModelTypes.of(element.getClass());
+            if (element instanceof Map) {
+                final Map<Object, Object> entries = (Map<Object, Object>) element;
+                final Map<Object, Object> interned = map(entries);
+                if (interned != entries) {
+                    entries.clear();
+                    entries.putAll(interned);
+                }
+            }
+            for (Method getter : ModelTypes.properties(type)) {
+                final Object value = ModelTypes.read(getter, element);
+                final Object result = value(value);
+                if (result != value) {
+                    ModelTypes.write(type, getter, element, result);
+                }
+            }
+        }
+
+        /**
+         * @return the pooled instance of a string, or a copy of a list or a map in which a string was replaced
+         */
+        private Object value(Object value) {
+            if (value instanceof String) {
+                return intern((String) value);
+            }
+            if (value instanceof Constructible) {
+                element((Constructible) value);
+                return value;
+            }
+            if (value instanceof List) {
+                final List<?> list = (List<?>) value;
+                List<Object> copy = null;
+                for (int i = 0; i < list.size(); i++) {
+                    final Object result = value(list.get(i));
+                    if (result != list.get(i) && copy == null) {
+                        copy = new ArrayList<>(list);
+                    }
+                    if (copy != null) {
+                        copy.set(i, result);
+                    }
+                }
+                return copy == null ? value : copy;
+            }
+            if (value instanceof Map) {
+                return map((Map<?, ?>) value);
+            }
+            return value;
+        }
+
+        /**
+         * @return the map, or a copy of it in the same order if one of its keys or values was replaced
+         */
+        private Map<Object, Object> map(Map<?, ?> map) {
+            final List<Object> entries = new ArrayList<>(map.size() * 2);
+            boolean changed = false;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                final Object key = value(entry.getKey());
+                final Object result = value(entry.getValue());
+                changed |= key != entry.getKey() || result != entry.getValue();
+                entries.add(key);
+                entries.add(result);
+            }
+            if (!changed) {
+                @SuppressWarnings("unchecked")
+                final Map<Object, Object> same = (Map<Object, Object>) map;
+                return same;
+            }
+            final Map<Object, Object> copy = new LinkedHashMap<>(map.size() * 2);
+            for (int i = 0; i < entries.size(); i += 2) {
+                copy.put(entries.get(i), entries.get(i + 1));
+            }
+            return copy;
+        }
+    }
+}
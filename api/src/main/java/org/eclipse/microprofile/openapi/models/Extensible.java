@@ -29,6 +29,10 @@ public interface Extensible {
 
     /**
      * Returns the extensions property from an Extensible instance.
+     * <p>
+     * Since extensions are rare, implementations may return an empty immutable map, shared by all the instances, as
+     * long as no extension was added to this instance, instead of allocating an empty map for each instance. Extensions
+     * are therefore to be added with {@link #addExtension(String, Object)} rather than through the returned map.
      *
      * @return a map containing keys which start with "x-" and values which provide additional information
      **/
@@ -36,6 +40,9 @@ public interface Extensible {
 
     /**
      * Adds the given object to this Extensible's map of extensions, with the given name as its key.
+     * <p>
+     * An implementation returning a shared empty immutable map from {@link #getExtensions()} replaces it with a new
+     * modifiable map holding the extension. A map given to {@link #setExtensions(Map)} is not replaced.
      *
      * @param name the key used to access the extension object. Always prefixed by "x-".
      * @param value data not required by the specification
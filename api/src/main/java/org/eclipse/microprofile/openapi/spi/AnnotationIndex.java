@@ -0,0 +1,323 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.spi;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * This class is not intended to be used by end-users. It holds the build-time index of the classes of an application
+ * that carry OpenAPI or JAX-RS annotations, so that vendors can read the index instead of scanning every class of the
+ * application at deployment time.
+ *
+ * <br><br>The index of a jar is stored in its {@link #RESOURCE_NAME} resource, which is generated at compile time by
+ * the annotation processor of the microprofile-openapi-processor artifact. The resource starts with the four bytes
+ * "OAIX" and a version byte, followed by the number of classes and by the binary names of the classes in ascending
+ * order. Each name is stored as the number of leading characters it shares with the previous name, the UTF-8 bytes of the
+ * rest of the name and a byte of {@link #OPENAPI_ANNOTATIONS kind flags}. All numbers are unsigned variable-length
+ * integers of 7 bits per byte.
+ *
+ * <br><br>The scan configuration of the application, such as
+ * {@link org.eclipse.microprofile.openapi.OASConfig#SCAN_PACKAGES}, still applies to the classes of the index.
+ *
+ * <br><br>Example:
+ * <pre><code>AnnotationIndex index = AnnotationIndex.load(applicationClassLoader);
+ * for (String className : index.getClassNames(AnnotationIndex.JAXRS_ANNOTATIONS)) {
+ *     // process the class
+ * }
+ * </code></pre>
+ */
+public final class AnnotationIndex {
+
+    /**
+     * The name of the resource holding the index of a jar.
+     */
+    public static final String RESOURCE_NAME = "META-INF/openapi.idx";
+
+    /**
+     * The flag of the classes carrying annotations of the org.eclipse.microprofile.openapi.annotations packages, on
+     * the class itself or on any of its members or parameters.
+     */
+    public static final int OPENAPI_ANNOTATIONS = 1;
+
+    /**
+     * The flag of the classes carrying annotations of the javax.ws.rs packages, on the class itself or on any of its
+     * members or parameters.
+     */
+    public static final int JAXRS_ANNOTATIONS = 2;
+
+    private static final byte[] MAGIC = { 'O', 'A', 'I', 'X' };
+    private static final int VERSION = 1;
+    private static final int ALL_KINDS = OPENAPI_ANNOTATIONS | JAXRS_ANNOTATIONS;
+
+    private static final AnnotationIndex EMPTY = new AnnotationIndex(new String[0], new byte[0]);
+
+    private final String[] classNames;
+    private final byte[] kinds;
+
+    private AnnotationIndex(String[] classNames, byte[] kinds) {
+        this.classNames = classNames;
+        this.kinds = kinds;
+    }
+
+    /**
+     * Creates an index of the given classes.
+     *
+     * @param kindsByClassName the binary names of the classes, mapped to their kind flags
+     * @return a new index
+     *
+     * @throws NullPointerException if the map or any of its keys or values is null
+     * @throws IllegalArgumentException if any of the values is not a combination of the kind flags
+     */
+    public static AnnotationIndex of(Map<String, Integer> kindsByClassName) {
+        final SortedMap<String, Integer> sorted = new TreeMap<>(kindsByClassName);
+        final String[] names = new String[sorted.size()];
+        final byte[] flags = new byte[names.length];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : sorted.entrySet()) {
+            final int kind = entry.getValue();
+            if ((kind & ~ALL_KINDS) != 0) {
+                throw new IllegalArgumentException("Invalid kind flags " + kind + " for " + entry.getKey());
+            }
+            names[i] = entry.getKey();
+            flags[i] = (byte) kind;
+            i++;
+        }
+        return new AnnotationIndex(names, flags);
+    }
+
+    /**
+     * Reads the index of every {@link #RESOURCE_NAME} resource visible to the given class loader, and merges them.
+     *
+     * @param loader the class loader of the application
+     * @return the merged index, which is empty if no resource was found
+     *
+     * @throws IOException if a resource cannot be read or is not a valid index
+     */
+    public static AnnotationIndex load(ClassLoader loader) throws IOException {
+        AnnotationIndex index = EMPTY;
+        final Enumeration<URL> resources = loader.getResources(RESOURCE_NAME);
+        while (resources.hasMoreElements()) {
+            try (InputStream in = resources.nextElement().openStream()) {
+                index = index.merge(read(in));
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Reads an index from the given stream, which is not closed.
+     *
+     * @param in the stream to read
+     * @return the index
+     *
+     * @throws IOException if the stream cannot be read or does not hold a valid index
+     */
+    public static AnnotationIndex read(InputStream in) throws IOException {
+        final DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        final byte[] magic = new byte[MAGIC.length];
+        data.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IOException("Not an OpenAPI annotation index");
+        }
+        final int version = data.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported OpenAPI annotation index version " + version);
+        }
+        final int count = readVarInt(data);
+        final String[] names = new String[count];
+        final byte[] flags = new byte[count];
+        String previous = "";
+        for (int i = 0; i < count; i++) {
+            final int shared = readVarInt(data);
+            final byte[] suffix = new byte[readVarInt(data)];
+            data.readFully(suffix);
+            if (shared > previous.length()) {
+                throw new IOException("Corrupt OpenAPI annotation index");
+            }
+            names[i] = previous.substring(0, shared) + new String(suffix, StandardCharsets.UTF_8);
+            flags[i] = data.readByte();
+            previous = names[i];
+        }
+        return new AnnotationIndex(names, flags);
+    }
+
+    /**
+     * Writes this index to the given stream, which is flushed but not closed.
+     *
+     * @param out the stream to write to
+     *
+     * @throws IOException if writing to the stream fails
+     */
+    public void write(OutputStream out) throws IOException {
+        final DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        writeVarInt(data, classNames.length);
+        String previous = "";
+        for (int i = 0; i < classNames.length; i++) {
+            final String name = classNames[i];
+            int shared = 0;
+            final int max = Math.min(name.length(), previous.length());
+            while (shared < max && name.charAt(shared) == previous.charAt(shared)) {
+                shared++;
+            }
+            if (shared > 0 && Character.isHighSurrogate(name.charAt(shared - 1))) {
+                // never splits a surrogate pair
+                shared--;
+            }
+            final byte[] suffix = name.substring(shared).getBytes(StandardCharsets.UTF_8);
+            writeVarInt(data, shared);
+            writeVarInt(data, suffix.length);
+            data.write(suffix);
+            data.writeByte(kinds[i]);
+            previous = name;
+        }
+        data.flush();
+    }
+
+    /**
+     * @return the binary names of all the classes of this index, in ascending order
+     */
+    public List<String> getClassNames() {
+        return Collections.unmodifiableList(Arrays.asList(classNames));
+    }
+
+    /**
+     * @param kind a combination of kind flags
+     * @return the binary names of the classes of this index carrying any of the given kinds of annotations, in
+     * ascending order
+     */
+    public List<String> getClassNames(int kind) {
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < classNames.length; i++) {
+            if ((kinds[i] & kind) != 0) {
+                names.add(classNames[i]);
+            }
+        }
+        return Collections.unmodifiableList(names);
+    }
+
+    /**
+     * @param className the binary name of a class
+     * @return the kind flags of the given class, or 0 if the class is not part of this index
+     */
+    public int getKinds(String className) {
+        final int i = Arrays.binarySearch(classNames, className);
+        return i < 0 ? 0 : kinds[i];
+    }
+
+    /**
+     * @return the number of classes of this index
+     */
+    public int size() {
+        return classNames.length;
+    }
+
+    /**
+     * Merges this index with another. The kind flags of a class indexed by both are combined.
+     *
+     * @param other the index to merge with this one
+     * @return the merged index
+     */
+    public AnnotationIndex merge(AnnotationIndex other) {
+        if (other.classNames.length == 0) {
+            return this;
+        }
+        if (classNames.length == 0) {
+            return other;
+        }
+        final String[] names = new String[classNames.length + other.classNames.length];
+        final byte[] flags = new byte[names.length];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < classNames.length || j < other.classNames.length) {
+            final int order = i == classNames.length ? 1 : j == other.classNames.length ? -1 : classNames[i].compareTo(other.classNames[j]);
+            if (order <= 0) {
+                names[n] = classNames[i];
+                flags[n] = order == 0 ? (byte) (kinds[i++] | other.kinds[j++]) : kinds[i++];
+            }
+            else {
+                names[n] = other.classNames[j];
+                flags[n] = other.kinds[j++];
+            }
+            n++;
+        }
+        return new AnnotationIndex(Arrays.copyOf(names, n), Arrays.copyOf(flags, n));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof AnnotationIndex)) {
+            return false;
+        }
+        final AnnotationIndex other = (AnnotationIndex) obj;
+        return Arrays.equals(classNames, other.classNames) && Arrays.equals(kinds, other.kinds);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(classNames) + Arrays.hashCode(kinds);
+    }
+
+    private static int readVarInt(DataInputStream data) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = data.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    break;
+                }
+                return value;
+            }
+        }
+        throw new IOException("Corrupt OpenAPI annotation index");
+    }
+
+    private static void writeVarInt(DataOutputStream data, int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            data.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        data.writeByte(remaining);
+    }
+}
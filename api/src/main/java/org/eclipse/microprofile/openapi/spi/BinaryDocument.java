@@ -0,0 +1,379 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.spi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.microprofile.openapi.StringPool;
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+
+/**
+ * This class is not intended to be used by end-users. It should be used by vendors to write an OpenAPI model in a
+ * compact binary format at build time, and to load it at deployment time much faster than a YAML or JSON document.
+ * A document in this format is looked up as {@value #RESOURCE} before the textual documents, see
+ * {@link OASReader#read(ClassLoader)}.
+ *
+ * <br><br>The document holds the same tree of objects, arrays and scalars as its JSON form, encoded as follows:
+ * <ul>
+ * <li>the four bytes <code>OASB</code> and a version byte, currently 1;</li>
+ * <li>the string table: the number of strings, then the length of each string in bytes followed by its UTF-8
+ * encoding. Every name and every string value of the document, such as the target of a <code>$ref</code>, is stored
+ * once in the table and referred to by its index;</li>
+ * <li>the root object, where each value starts with a tag byte: 1 for null, 2 for false, 3 for true, 4 for a string
+ * followed by its index, 5 for a number followed by the index of its decimal text, 6 for an object followed by its
+ * fields, that is the index of each name plus one followed by the value, and a 0 ending the object, and 7 for an
+ * array followed by its values, and a 0 tag ending the array.</li>
+ * </ul>
+ * All the lengths, counts and indexes are unsigned variable-length integers of 7 bits per byte, least significant
+ * first, where the high bit of a byte is set if more bytes follow.
+ *
+ * <br><br>Example:
+ * <pre><code>try (OutputStream out = Files.newOutputStream(target.resolve("META-INF/openapi.bin"))) {
+ *     BinaryDocument.write(OASReader.instance().read(source.resolve("META-INF/openapi.yaml")), out);
+ * }
+ * </code></pre>
+ */
+public final class BinaryDocument {
+
+    /**
+     * The name of the resource of an application holding its OpenAPI document in the binary format.
+     */
+    public static final String RESOURCE = "META-INF/openapi.bin";
+
+    private static final byte[] MAGIC = { 'O', 'A', 'S', 'B' };
+    private static final byte VERSION = 1;
+
+    private static final int END = 0;
+    private static final int NULL = 1;
+    private static final int FALSE = 2;
+    private static final int TRUE = 3;
+    private static final int STRING = 4;
+    private static final int NUMBER = 5;
+    private static final int OBJECT = 6;
+    private static final int ARRAY = 7;
+
+    private BinaryDocument() {
+    }
+
+    /**
+     * Writes the given element of the OpenAPI model tree, and all of its descendants, to the given stream in the
+     * binary format. The stream is neither flushed nor closed.
+     *
+     * @param element the element to write, usually an {@link OpenAPI} model
+     * @param out the stream to write to
+     *
+     * @throws NullPointerException if any of the arguments is null
+     * @throws IOException if writing to the stream fails
+     */
+    public static void write(Constructible element, OutputStream out) throws IOException {
+        if (element == null || out == null) {
+            throw new NullPointerException();
+        }
+        StreamingOASWriter.write(element, new Encoder(out));
+    }
+
+    /**
+     * Reads an OpenAPI document in the binary format from the remaining bytes of the given buffer, such as a buffer
+     * mapping a file. The position of the buffer is not changed.
+     *
+     * @param buffer the buffer to read from
+     * @return the model of the document
+     *
+     * @throws NullPointerException if the buffer is null
+     * @throws IOException if the document is malformed
+     */
+    public static OpenAPI read(ByteBuffer buffer) throws IOException {
+        return read(buffer, new ModelBuilder());
+    }
+
+    /**
+     * Reads an OpenAPI document in the binary format from the remaining bytes of the given buffer, replacing the
+     * strings of the model by their pooled instances in the given pool. The position of the buffer is not changed.
+     * <p>
+     * The string table already makes the equal strings of one document share an instance, so a pool only saves memory
+     * when it is shared with the other documents of the model.
+     *
+     * @param buffer the buffer to read from
+     * @param pool the pool of the strings, which may be shared by the documents of one model
+     * @return the model of the document
+     *
+     * @throws NullPointerException if any of the arguments is null
+     * @throws IOException if the document is malformed
+     */
+    public static OpenAPI read(ByteBuffer buffer, StringPool pool) throws IOException {
+        return read(buffer, new ModelBuilder(pool));
+    }
+
+    private static OpenAPI read(ByteBuffer buffer, ModelBuilder builder) throws IOException {
+        try {
+            new Decoder(buffer.duplicate(), builder).read();
+            return builder.getModel();
+        }
+        catch (BufferUnderflowException e) {
+            throw new IOException("Truncated binary document", e);
+        }
+        catch (IllegalArgumentException | IllegalStateException e) {
+            throw new IOException("Malformed binary document: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads an OpenAPI document in the binary format from the given stream, which is not closed.
+     *
+     * @param in the stream to read from
+     * @return the model of the document
+     *
+     * @throws NullPointerException if the stream is null
+     * @throws IOException if reading from the stream fails, or the document is malformed
+     */
+    public static OpenAPI read(InputStream in) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(DocumentEmitter.BUFFER_SIZE);
+        final byte[] buffer = new byte[DocumentEmitter.BUFFER_SIZE];
+        for (int count = in.read(buffer); count >= 0; count = in.read(buffer)) {
+            bytes.write(buffer, 0, count);
+        }
+        return read(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    /**
+     * Encodes the events of a document into a body held in memory, interning its strings, and writes the string
+     * table and the body once the document is complete.
+     */
+    private static final class Encoder extends DocumentEmitter {
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private byte[] body = new byte[DocumentEmitter.BUFFER_SIZE];
+        private int length;
+
+        Encoder(OutputStream out) {
+            super(new byte[DocumentEmitter.BUFFER_SIZE], out, null);
+        }
+
+        @Override
+        void beginObject() {
+            append(OBJECT);
+        }
+
+        @Override
+        void endObject() {
+            append(END);
+        }
+
+        @Override
+        void beginArray() {
+            append(ARRAY);
+        }
+
+        @Override
+        void endArray() {
+            append(END);
+        }
+
+        @Override
+        void name(String name) {
+            appendVarint(index(name) + 1);
+        }
+
+        @Override
+        void scalar(Object value) {
+            if (value == null) {
+                append(NULL);
+            }
+            else if (value instanceof Boolean) {
+                append((Boolean) value ? TRUE : FALSE);
+            }
+            else {
+                final String literal = value instanceof Number ? literal(value) : null;
+                append(literal != null ? NUMBER : STRING);
+                appendVarint(index(literal != null ? literal : value.toString()));
+            }
+        }
+
+        @Override
+        void finish() throws IOException {
+            for (byte b : MAGIC) {
+                write((char) b);
+            }
+            write((char) VERSION);
+            final String[] strings = new String[indexes.size()];
+            for (Map.Entry<String, Integer> entry : indexes.entrySet()) {
+                strings[entry.getValue()] = entry.getKey();
+            }
+            writeVarint(strings.length);
+            for (String string : strings) {
+                final byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+                writeVarint(utf8.length);
+                for (byte b : utf8) {
+                    write((char) (b & 0xFF));
+                }
+            }
+            for (int i = 0; i < length; i++) {
+                write((char) (body[i] & 0xFF));
+            }
+            super.finish();
+        }
+
+        private int index(String string) {
+            Integer index = indexes.get(string);
+            if (index == null) {
+                index = indexes.size();
+                indexes.put(string, index);
+            }
+            return index;
+        }
+
+        private void append(int b) {
+            if (length == body.length) {
+                body = Arrays.copyOf(body, length * 2);
+            }
+            body[length++] = (byte) b;
+        }
+
+        private void appendVarint(int value) {
+            int v = value;
+            while ((v & ~0x7F) != 0) {
+                append((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            append(v);
+        }
+
+        private void writeVarint(int value) throws IOException {
+            int v = value;
+            while ((v & ~0x7F) != 0) {
+                write((char) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            write((char) v);
+        }
+    }
+
+    /**
+     * Gives the events of a document in the binary format to a {@link ModelBuilder}.
+     */
+    private static final class Decoder {
+
+        private final ByteBuffer buffer;
+        private final ModelBuilder builder;
+        private String[] strings;
+
+        Decoder(ByteBuffer buffer, ModelBuilder builder) {
+            this.buffer = buffer;
+            this.builder = builder;
+        }
+
+        void read() throws IOException {
+            for (byte b : MAGIC) {
+                if (buffer.get() != b) {
+                    throw new IOException("Not a binary OpenAPI document");
+                }
+            }
+            final byte version = buffer.get();
+            if (version != VERSION) {
+                throw new IOException("Unsupported version " + version + " of the binary OpenAPI document");
+            }
+            strings = new String[count()];
+            byte[] utf8 = new byte[64];
+            for (int i = 0; i < strings.length; i++) {
+                final int length = count();
+                if (length > utf8.length) {
+                    utf8 = new byte[Math.max(length, utf8.length * 2)];
+                }
+                buffer.get(utf8, 0, length);
+                strings[i] = new String(utf8, 0, length, StandardCharsets.UTF_8);
+            }
+            value(buffer.get());
+            if (buffer.hasRemaining()) {
+                throw new IOException("Unexpected content after the binary OpenAPI document");
+            }
+        }
+
+        private void value(int tag) throws IOException {
+            switch (tag) {
+                case NULL:
+                    builder.scalar("", true);
+                    break;
+                case FALSE:
+                    builder.scalar("false", true);
+                    break;
+                case TRUE:
+                    builder.scalar("true", true);
+                    break;
+                case STRING:
+                    builder.scalar(string(varint()), false);
+                    break;
+                case NUMBER:
+                    builder.scalar(string(varint()), true);
+                    break;
+                case OBJECT:
+                    builder.startObject();
+                    for (int name = varint(); name != 0; name = varint()) {
+                        builder.name(string(name - 1));
+                        value(buffer.get());
+                    }
+                    builder.endObject();
+                    break;
+                case ARRAY:
+                    builder.startArray();
+                    for (int element = buffer.get(); element != END; element = buffer.get()) {
+                        value(element);
+                    }
+                    builder.endArray();
+                    break;
+                default:
+                    throw new IOException("Invalid tag " + tag + " in the binary OpenAPI document");
+            }
+        }
+
+        private String string(int index) throws IOException {
+            if (index < 0 || index >= strings.length) {
+                throw new IOException("Invalid string index " + index + " in the binary OpenAPI document");
+            }
+            return strings[index];
+        }
+
+        private int count() throws IOException {
+            final int count = varint();
+            if (count < 0 || count > buffer.remaining()) {
+                throw new IOException("Invalid length " + count + " in the binary OpenAPI document");
+            }
+            return count;
+        }
+
+        private int varint() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+                final byte b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Invalid variable-length integer in the binary OpenAPI document");
+        }
+    }
+}
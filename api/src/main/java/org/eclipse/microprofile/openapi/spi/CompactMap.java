@@ -0,0 +1,339 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.spi;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * This class is not intended to be used by end-users. It is a compact map that vendors may extend to implement the
+ * model interfaces that extend {@link Map}, such as {@link org.eclipse.microprofile.openapi.models.media.Content} or
+ * {@link org.eclipse.microprofile.openapi.models.responses.APIResponses}, which mostly hold a few entries.
+ *
+ * <br><br>The keys and values are held in insertion order in a single array, alternating keys and values, without an
+ * object per entry. Maps of up to eight entries are searched linearly. Larger maps get an open-addressing index of the
+ * positions of their keys, an array of integers probed linearly and kept at most half full. A map of one entry thus
+ * takes an array of two references, where a {@link java.util.LinkedHashMap} takes a table and an entry object.
+ *
+ * <br><br>The map keeps the insertion order, as a {@link java.util.LinkedHashMap} does: replacing the value of a key
+ * keeps its position. Removing an entry moves the following ones, and so takes a time proportional to the size of the
+ * map. Null keys and values are permitted. The iterators are fail-fast, and the entries they return write through to
+ * the map as long as it is not structurally modified.
+ *
+ * <br><br>This class is not thread-safe.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class CompactMap<K, V> extends AbstractMap<K, V> {
+
+    /**
+     * Maps of up to this size are searched linearly instead of through an index.
+     */
+    private static final int LINEAR_SEARCH_LIMIT = 8;
+
+    private static final Object[] EMPTY = {};
+
+    /**
+     * The keys at even positions, each followed by its value.
+     */
+    private Object[] entries = EMPTY;
+    private int size;
+
+    /**
+     * The position of each key plus one, by its hash, and zero for empty slots, or null for small maps.
+     */
+    private int[] index;
+    private int modCount;
+
+    private Set<Map.Entry<K, V>> entrySet;
+
+    /**
+     * Creates an empty map.
+     */
+    public CompactMap() {
+    }
+
+    /**
+     * Creates a map with the entries of the given map, in its iteration order.
+     *
+     * @param map the map to copy
+     *
+     * @throws NullPointerException if the map is null
+     */
+    public CompactMap(Map<? extends K, ? extends V> map) {
+        entries = new Object[map.size() * 2];
+        putAll(map);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        final int position = find(key);
+        return position < 0 ? null : (V) entries[position * 2 + 1];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V put(K key, V value) {
+        final int position = find(key);
+        if (position >= 0) {
+            final V previous = (V) entries[position * 2 + 1];
+            entries[position * 2 + 1] = value;
+            return previous;
+        }
+        if (size * 2 == entries.length) {
+            // one entry first, since most of these maps hold one
+            entries = Arrays.copyOf(entries, Math.max(2, entries.length + (entries.length >> 1) + (entries.length >> 1 & 1)));
+        }
+        entries[size * 2] = key;
+        entries[size * 2 + 1] = value;
+        size++;
+        modCount++;
+        if (index != null && size * 2 <= index.length) {
+            insert(index, key, size);
+        }
+        else if (size > LINEAR_SEARCH_LIMIT) {
+            rebuildIndex();
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V remove(Object key) {
+        final int position = find(key);
+        if (position < 0) {
+            return null;
+        }
+        final V previous = (V) entries[position * 2 + 1];
+        removeAt(position);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(entries, 0, size * 2, null);
+            size = 0;
+            index = null;
+            modCount++;
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> set = entrySet;
+        if (set == null) {
+            set = new EntrySet();
+            entrySet = set;
+        }
+        return set;
+    }
+
+    /**
+     * @return the position of the key, or -1 if the map does not hold it
+     */
+    private int find(Object key) {
+        if (index == null) {
+            for (int i = 0; i < size; i++) {
+                if (Objects.equals(entries[i * 2], key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        final int mask = index.length - 1;
+        for (int slot = hash(key) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            final int position = index[slot] - 1;
+            if (Objects.equals(entries[position * 2], key)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    private void removeAt(int position) {
+        System.arraycopy(entries, position * 2 + 2, entries, position * 2, (size - position - 1) * 2);
+        size--;
+        entries[size * 2] = null;
+        entries[size * 2 + 1] = null;
+        modCount++;
+        // the positions of the following keys changed
+        if (size > LINEAR_SEARCH_LIMIT) {
+            rebuildIndex();
+        }
+        else {
+            index = null;
+        }
+    }
+
+    private void rebuildIndex() {
+        final int capacity = Integer.highestOneBit(size * 4 - 1);
+        final int[] table = new int[capacity];
+        for (int i = 0; i < size; i++) {
+            insert(table, entries[i * 2], i + 1);
+        }
+        index = table;
+    }
+
+    private static void insert(int[] table, Object key, int positionPlusOne) {
+        final int mask = table.length - 1;
+        int slot = hash(key) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = positionPlusOne;
+    }
+
+    private static int hash(Object key) {
+        final int h = key == null ? 0 : key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            CompactMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new Iterator<Map.Entry<K, V>>() {
+                private int next;
+                private int last = -1;
+                private int expectedModCount = modCount;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Map.Entry<K, V> next() {
+                    if (modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    last = next++;
+                    return new Entry(last);
+                }
+
+                @Override
+                public void remove() {
+                    if (last < 0) {
+                        throw new IllegalStateException();
+                    }
+                    if (modCount != expectedModCount) {
+                        throw new ConcurrentModificationException();
+                    }
+                    removeAt(last);
+                    next = last;
+                    last = -1;
+                    expectedModCount = modCount;
+                }
+            };
+        }
+    }
+
+    /**
+     * An entry at a position of the map, which writes its value through to the map.
+     */
+    private final class Entry implements Map.Entry<K, V> {
+        private final K key;
+        private int position;
+
+        @SuppressWarnings("unchecked")
+        private Entry(int position) {
+            this.key = (K) entries[position * 2];
+            this.position = position;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V getValue() {
+            return position < size && entries[position * 2] == key ? (V) entries[position * 2 + 1] : get(key);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V setValue(V value) {
+            if (position >= size || entries[position * 2] != key) {
+                position = find(key);
+                if (position < 0) {
+                    throw new IllegalStateException("The entry was removed from the map");
+                }
+            }
+            final V previous = (V) entries[position * 2 + 1];
+            entries[position * 2 + 1] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Map.Entry)) {
+                return false;
+            }
+            final Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+            return Objects.equals(key, other.getKey()) && Objects.equals(getValue(), other.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + getValue();
+        }
+    }
+}
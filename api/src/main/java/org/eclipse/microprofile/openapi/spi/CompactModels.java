@@ -0,0 +1,262 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.spi;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.callbacks.Callback;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.eclipse.microprofile.openapi.models.security.Scopes;
+import org.eclipse.microprofile.openapi.models.security.SecurityRequirement;
+import org.eclipse.microprofile.openapi.models.servers.ServerVariable;
+import org.eclipse.microprofile.openapi.models.servers.ServerVariables;
+
+/**
+ * This class is not intended to be used by end-users. It provides reference implementations of the model interfaces
+ * that extend {@link Map}, backed by a {@link CompactMap}, which an {@link OASFactoryResolver} may create instead of
+ * implementations backed by a {@link java.util.LinkedHashMap}:
+ * <ul>
+ * <li>{@link Paths}</li>
+ * <li>{@link Callback}</li>
+ * <li>{@link Content}</li>
+ * <li>{@link APIResponses}</li>
+ * <li>{@link Scopes}</li>
+ * <li>{@link SecurityRequirement}</li>
+ * <li>{@link ServerVariables}</li>
+ * </ul>
+ * The extensions of the implementations are a shared empty immutable map until a map is set or the first extension is
+ * added. The short name of a reference of a {@link Callback}, which contains no <code>/</code>, is expanded to
+ * <code>#/components/callbacks/</code> followed by the name. Two implementations are equal if they hold equal entries,
+ * as maps are.
+ *
+ * <br><br>Example, in an {@link OASFactoryResolver}:
+ * <pre><code>public &lt;T extends Constructible&gt; Supplier&lt;T&gt; createSupplier(Class&lt;T&gt; clazz) {
+ *     return CompactModels.supports(clazz) ? CompactModels.createSupplier(clazz) : super.createSupplier(clazz);
+ * }
+ * </code></pre>
+ */
+public final class CompactModels {
+
+    private static final Map<Class<?>, Supplier<?>> SUPPLIERS = new HashMap<>();
+
+    static {
+        SUPPLIERS.put(Paths.class, CompactPaths::new);
+        SUPPLIERS.put(Callback.class, CompactCallback::new);
+        SUPPLIERS.put(Content.class, CompactContent::new);
+        SUPPLIERS.put(APIResponses.class, CompactAPIResponses::new);
+        SUPPLIERS.put(Scopes.class, CompactScopes::new);
+        SUPPLIERS.put(SecurityRequirement.class, CompactSecurityRequirement::new);
+        SUPPLIERS.put(ServerVariables.class, CompactServerVariables::new);
+    }
+
+    private CompactModels() {
+    }
+
+    /**
+     * @param clazz a model interface
+     * @return whether this class provides an implementation of the model interface
+     */
+    public static boolean supports(Class<?> clazz) {
+        return SUPPLIERS.containsKey(clazz);
+    }
+
+    /**
+     * Creates a compact implementation of the given model interface.
+     *
+     * @param <T> describes the type parameter
+     * @param clazz one of the model interfaces extending {@link Map}
+     * @return a new empty instance
+     *
+     * @throws NullPointerException if the specified class is null
+     * @throws IllegalArgumentException if this class provides no implementation of the model interface
+     */
+    public static <T extends Constructible> T createObject(Class<T> clazz) {
+        return createSupplier(clazz).get();
+    }
+
+    /**
+     * Returns a supplier of new compact implementations of the given model interface, which may be used by any
+     * number of threads.
+     *
+     * @param <T> describes the type parameter
+     * @param clazz one of the model interfaces extending {@link Map}
+     * @return the supplier
+     *
+     * @throws NullPointerException if the specified class is null
+     * @throws IllegalArgumentException if this class provides no implementation of the model interface
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Constructible> Supplier<T> createSupplier(Class<T> clazz) {
+        if (clazz == null) {
+            throw new NullPointerException();
+        }
+        final Supplier<?> supplier = SUPPLIERS.get(clazz);
+        if (supplier == null) {
+            throw new IllegalArgumentException("No compact implementation of " + clazz.getName());
+        }
+        return (Supplier<T>) supplier;
+    }
+
+    /**
+     * A compact map holding the extensions of an extensible element.
+     */
+    private abstract static class ExtensibleMap<V> extends CompactMap<String, V> {
+        private static final Map<String, Object> NO_EXTENSIONS = Collections.emptyMap();
+
+        private Map<String, Object> extensions = NO_EXTENSIONS;
+
+        public Map<String, Object> getExtensions() {
+            return extensions;
+        }
+
+        public void setExtensions(Map<String, Object> extensions) {
+            this.extensions = extensions;
+        }
+
+        public void addExtension(String name, Object value) {
+            if (extensions == null || extensions == NO_EXTENSIONS) {
+                extensions = new LinkedHashMap<>(4);
+            }
+            extensions.put(name, value);
+        }
+    }
+
+    private static final class CompactPaths extends ExtensibleMap<PathItem> implements Paths {
+        @Override
+        public Paths addPathItem(String name, PathItem item) {
+            put(name, item);
+            return this;
+        }
+    }
+
+    private static final class CompactCallback extends ExtensibleMap<PathItem> implements Callback {
+        private static final String PREFIX = "#/components/callbacks/";
+
+        private String ref;
+
+        @Override
+        public Callback addPathItem(String name, PathItem pathItem) {
+            put(name, pathItem);
+            return this;
+        }
+
+        @Override
+        public String getRef() {
+            return ref;
+        }
+
+        @Override
+        public void setRef(String ref) {
+            this.ref = ref != null && ref.indexOf('/') < 0 ? PREFIX + ref : ref;
+        }
+
+        @Override
+        public Callback ref(String ref) {
+            setRef(ref);
+            return this;
+        }
+    }
+
+    private static final class CompactContent extends CompactMap<String, MediaType> implements Content {
+        @Override
+        public Content addMediaType(String name, MediaType mediaType) {
+            put(name, mediaType);
+            return this;
+        }
+    }
+
+    private static final class CompactAPIResponses extends CompactMap<String, APIResponse> implements APIResponses {
+        @Override
+        public APIResponses addApiResponse(String name, APIResponse apiResponse) {
+            put(name, apiResponse);
+            return this;
+        }
+
+        @Override
+        public APIResponse getDefault() {
+            return get(DEFAULT);
+        }
+
+        @Override
+        public void setDefaultValue(APIResponse defaultValue) {
+            if (defaultValue == null) {
+                remove(DEFAULT);
+            }
+            else {
+                put(DEFAULT, defaultValue);
+            }
+        }
+
+        @Override
+        public APIResponses defaultValue(APIResponse defaultValue) {
+            setDefaultValue(defaultValue);
+            return this;
+        }
+    }
+
+    private static final class CompactScopes extends ExtensibleMap<String> implements Scopes {
+        @Override
+        public Scopes addScope(String scope, String description) {
+            put(scope, description);
+            return this;
+        }
+    }
+
+    private static final class CompactSecurityRequirement extends CompactMap<String, List<String>> implements SecurityRequirement {
+        @Override
+        public SecurityRequirement addScheme(String securitySchemeName, String scope) {
+            final List<String> scopes = new ArrayList<>(1);
+            if (scope != null) {
+                scopes.add(scope);
+            }
+            put(securitySchemeName, scopes);
+            return this;
+        }
+
+        @Override
+        public SecurityRequirement addScheme(String securitySchemeName, List<String> scopes) {
+            put(securitySchemeName, scopes);
+            return this;
+        }
+
+        @Override
+        public SecurityRequirement addScheme(String securitySchemeName) {
+            put(securitySchemeName, new ArrayList<>(0));
+            return this;
+        }
+    }
+
+    private static final class CompactServerVariables extends ExtensibleMap<ServerVariable> implements ServerVariables {
+        @Override
+        public ServerVariables addServerVariable(String name, ServerVariable serverVariable) {
+            put(name, serverVariable);
+            return this;
+        }
+    }
+}
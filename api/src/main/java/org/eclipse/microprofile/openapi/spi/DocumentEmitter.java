@@ -0,0 +1,488 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.spi;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Writes a document as a stream of events, encoding it as UTF-8 into a buffer that is flushed to an output stream
+ * or a channel whenever it is full. Nothing but the current nesting of objects and arrays is kept in memory.
+ * <p>
+ * Objects contain {@link #name(String) names}, each followed by one value, and arrays contain values. A value is a
+ * {@link #scalar(Object) scalar}, an object or an array.
+ */
+abstract class DocumentEmitter {
+
+    static final int BUFFER_SIZE = 8192;
+
+    private final byte[] buffer;
+    private int position;
+    private final OutputStream out;
+    private final WritableByteChannel channel;
+
+    DocumentEmitter(byte[] buffer, OutputStream out, WritableByteChannel channel) {
+        this.buffer = buffer;
+        this.out = out;
+        this.channel = channel;
+    }
+
+    /**
+     * @return an emitter writing the given format to the given output stream or, if it is null, to the given channel
+     */
+    static DocumentEmitter create(DocumentFormat format, byte[] buffer, OutputStream out, WritableByteChannel channel) {
+        return format == DocumentFormat.JSON ? new Json(buffer, out, channel) : new Yaml(buffer, out, channel);
+    }
+
+    abstract void beginObject() throws IOException;
+
+    abstract void endObject() throws IOException;
+
+    abstract void beginArray() throws IOException;
+
+    abstract void endArray() throws IOException;
+
+    abstract void name(String name) throws IOException;
+
+    /**
+     * Writes a string, a number, a boolean or null. Any other value is written as a string.
+     */
+    abstract void scalar(Object value) throws IOException;
+
+    /**
+     * Writes the buffered bytes. The emitter does not flush or close the underlying stream or channel.
+     */
+    void finish() throws IOException {
+        flush();
+    }
+
+    private void flush() throws IOException {
+        if (position > 0) {
+            if (out != null) {
+                out.write(buffer, 0, position);
+            }
+            else {
+                final ByteBuffer bytes = ByteBuffer.wrap(buffer, 0, position);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+            }
+            position = 0;
+        }
+    }
+
+    final void write(char ascii) throws IOException {
+        if (position == buffer.length) {
+            flush();
+        }
+        buffer[position++] = (byte) ascii;
+    }
+
+    final void writeAscii(String ascii) throws IOException {
+        for (int i = 0; i < ascii.length(); i++) {
+            write(ascii.charAt(i));
+        }
+    }
+
+    final void indent(int spaces) throws IOException {
+        for (int i = 0; i < spaces; i++) {
+            write(' ');
+        }
+    }
+
+    /**
+     * Writes the given string as a double-quoted string, which both JSON and YAML accept.
+     */
+    final void writeQuoted(String value) throws IOException {
+        write('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    writeAscii("\\\"");
+                    break;
+                case '\\':
+                    writeAscii("\\\\");
+                    break;
+                case '\n':
+                    writeAscii("\\n");
+                    break;
+                case '\r':
+                    writeAscii("\\r");
+                    break;
+                case '\t':
+                    writeAscii("\\t");
+                    break;
+                default:
+                    if (c < 0x20 || c == 0x7F) {
+                        writeAscii("\\u00");
+                        write(Character.forDigit(c >> 4, 16));
+                        write(Character.forDigit(c & 0xF, 16));
+                    }
+                    else if (c < 0x80) {
+                        write(c);
+                    }
+                    else {
+                        i = writeUtf8(value, i);
+                    }
+            }
+        }
+        write('"');
+    }
+
+    /**
+     * Encodes the character at the given index, and the low surrogate following it if it is a high surrogate.
+     *
+     * @return the index of the last character encoded
+     */
+    private int writeUtf8(String value, int index) throws IOException {
+        final char c = value.charAt(index);
+        if (c < 0x800) {
+            write((char) (0xC0 | (c >> 6)));
+            write((char) (0x80 | (c & 0x3F)));
+            return index;
+        }
+        if (Character.isHighSurrogate(c) && index + 1 < value.length() && Character.isLowSurrogate(value.charAt(index + 1))) {
+            final int codePoint = Character.toCodePoint(c, value.charAt(index + 1));
+            if (escapesSupplementaryCharacters()) {
+                writeAscii("\\U");
+                for (int shift = 28; shift >= 0; shift -= 4) {
+                    write(Character.forDigit((codePoint >> shift) & 0xF, 16));
+                }
+                return index + 1;
+            }
+            write((char) (0xF0 | (codePoint >> 18)));
+            write((char) (0x80 | ((codePoint >> 12) & 0x3F)));
+            write((char) (0x80 | ((codePoint >> 6) & 0x3F)));
+            write((char) (0x80 | (codePoint & 0x3F)));
+            return index + 1;
+        }
+        if (Character.isSurrogate(c)) {
+            // an unpaired surrogate is replaced, as the standard UTF-8 encoder does
+            write('?');
+            return index;
+        }
+        write((char) (0xE0 | (c >> 12)));
+        write((char) (0x80 | ((c >> 6) & 0x3F)));
+        write((char) (0x80 | (c & 0x3F)));
+        return index;
+    }
+
+    /**
+     * @return whether the characters outside the Basic Multilingual Plane are written as escape sequences
+     */
+    boolean escapesSupplementaryCharacters() {
+        return false;
+    }
+
+    /**
+     * @return the textual form of a scalar that is not a string, or null if the scalar is to be written as a string
+     */
+    static String literal(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof Boolean) {
+            return value.toString();
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        if (value instanceof Number) {
+            final String literal = value.toString();
+            // NaN and infinities have no literal in JSON
+            return Character.isDigit(literal.charAt(literal.length() - 1)) ? literal : null;
+        }
+        return null;
+    }
+
+    /**
+     * Writes compact JSON.
+     */
+    private static final class Json extends DocumentEmitter {
+
+        private boolean[] first = new boolean[16];
+        private int depth;
+        private boolean afterName;
+
+        Json(byte[] buffer, OutputStream out, WritableByteChannel channel) {
+            super(buffer, out, channel);
+        }
+
+        private void separate() throws IOException {
+            if (afterName) {
+                afterName = false;
+            }
+            else if (depth > 0) {
+                if (first[depth]) {
+                    first[depth] = false;
+                }
+                else {
+                    write(',');
+                }
+            }
+        }
+
+        private void push(char bracket) throws IOException {
+            separate();
+            write(bracket);
+            if (++depth == first.length) {
+                first = Arrays.copyOf(first, depth * 2);
+            }
+            first[depth] = true;
+        }
+
+        @Override
+        void beginObject() throws IOException {
+            push('{');
+        }
+
+        @Override
+        void endObject() throws IOException {
+            depth--;
+            write('}');
+        }
+
+        @Override
+        void beginArray() throws IOException {
+            push('[');
+        }
+
+        @Override
+        void endArray() throws IOException {
+            depth--;
+            write(']');
+        }
+
+        @Override
+        void name(String name) throws IOException {
+            separate();
+            writeQuoted(name);
+            write(':');
+            afterName = true;
+        }
+
+        @Override
+        void scalar(Object value) throws IOException {
+            separate();
+            final String literal = literal(value);
+            if (literal != null) {
+                writeAscii(literal);
+            }
+            else {
+                writeQuoted(String.valueOf(value));
+            }
+        }
+    }
+
+    /**
+     * Writes block style YAML, indented by two spaces per level. The header of an object or an array, that is the
+     * name or the dash introducing it, is only written once its first value is written or once it is known to be
+     * empty, in which case the flow style {} or [] is used.
+     */
+    private static final class Yaml extends DocumentEmitter {
+
+        private static final int INDENT = 2;
+
+        private boolean[] isArray = new boolean[16];
+        private boolean[] started = new boolean[16];
+        private String[] names = new String[16];
+        private int depth;
+        private boolean inline;
+
+        Yaml(byte[] buffer, OutputStream out, WritableByteChannel channel) {
+            super(buffer, out, channel);
+            // the root is an object that is already started
+            started[0] = true;
+        }
+
+        /**
+         * @return the indentation of the values of the container at the given depth
+         */
+        private static int indentOf(int level) {
+            return level * INDENT;
+        }
+
+        private void startLine(int spaces) throws IOException {
+            if (inline) {
+                inline = false;
+            }
+            else {
+                indent(spaces);
+            }
+        }
+
+        /**
+         * Writes the header of a value of the container at the given depth: its name or its dash.
+         */
+        private void header(int level) throws IOException {
+            startLine(indentOf(level));
+            if (isArray[level]) {
+                writeAscii("- ");
+            }
+            else {
+                writeString(names[level]);
+                write(':');
+            }
+        }
+
+        /**
+         * Writes the headers of the containers up to the given depth that are not started yet.
+         */
+        private void start(int level) throws IOException {
+            if (started[level]) {
+                return;
+            }
+            start(level - 1);
+            header(level - 1);
+            if (isArray[level - 1]) {
+                inline = true;
+            }
+            else {
+                write('\n');
+            }
+            started[level] = true;
+        }
+
+        private void push(boolean array) throws IOException {
+            if (++depth == started.length) {
+                isArray = Arrays.copyOf(isArray, depth * 2);
+                started = Arrays.copyOf(started, depth * 2);
+                names = Arrays.copyOf(names, depth * 2);
+            }
+            isArray[depth] = array;
+            started[depth] = false;
+            names[depth] = null;
+        }
+
+        private void pop(String empty) throws IOException {
+            if (!started[depth]) {
+                start(depth - 1);
+                header(depth - 1);
+                if (!isArray[depth - 1]) {
+                    write(' ');
+                }
+                writeAscii(empty);
+                write('\n');
+            }
+            depth--;
+        }
+
+        /**
+         * Many YAML readers only accept the characters of the Basic Multilingual Plane unescaped.
+         */
+        @Override
+        boolean escapesSupplementaryCharacters() {
+            return true;
+        }
+
+        @Override
+        void beginObject() throws IOException {
+            // the root object is the container at depth 0
+            if (depth > 0 || names[0] != null) {
+                push(false);
+            }
+        }
+
+        @Override
+        void endObject() throws IOException {
+            if (depth > 0) {
+                pop("{}");
+            }
+        }
+
+        @Override
+        void beginArray() throws IOException {
+            push(true);
+        }
+
+        @Override
+        void endArray() throws IOException {
+            pop("[]");
+        }
+
+        @Override
+        void name(String name) throws IOException {
+            names[depth] = name;
+        }
+
+        @Override
+        void scalar(Object value) throws IOException {
+            start(depth);
+            header(depth);
+            if (!isArray[depth]) {
+                write(' ');
+            }
+            final String literal = literal(value);
+            if (literal != null) {
+                writeAscii(literal);
+            }
+            else {
+                writeString(String.valueOf(value));
+            }
+            write('\n');
+        }
+
+        private void writeString(String value) throws IOException {
+            if (isPlain(value)) {
+                writeAscii(value);
+            }
+            else {
+                writeQuoted(value);
+            }
+        }
+
+        /**
+         * @return whether the given string can be written as a plain scalar that reads back as the same string
+         */
+        private static boolean isPlain(String value) {
+            if (value.isEmpty() || !(Character.isLetter(value.charAt(0)) || "/_$".indexOf(value.charAt(0)) >= 0)) {
+                return false;
+            }
+            final char last = value.charAt(value.length() - 1);
+            if (last == ' ' || last == ':') {
+                return false;
+            }
+            for (int i = 0; i < value.length(); i++) {
+                final char c = value.charAt(i);
+                if (c < 0x20 || c >= 0x7F || c == '#' || c == '"' || c == '\\' || c == ':' && value.charAt(i + 1) == ' ') {
+                    return false;
+                }
+            }
+            // the words that YAML 1.1 readers resolve to booleans or null
+            switch (value.toLowerCase(Locale.ROOT)) {
+                case "y":
+                case "n":
+                case "yes":
+                case "no":
+                case "on":
+                case "off":
+                case "true":
+                case "false":
+                case "null":
+                    return false;
+                default:
+                    return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.spi;
+
+/**
+ * This enum is not intended to be used by end-users. It lists the formats in which vendors serve the
+ * OpenAPI document from the /openapi endpoint.
+ */
+public enum DocumentFormat {
+
+    /**
+     * The default format of the /openapi endpoint.
+     */
+    YAML("application/yaml"),
+
+    /**
+     * The format requested with an Accept header of application/json.
+     */
+    JSON("application/json");
+
+    private final String mediaType;
+
+    DocumentFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * @return the media type to use as the Content-Type of a response in this format
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Selects the format of the response to a request of the /openapi endpoint: the format named by the optional
+     * format query parameter if it names one, JSON if the Accept header contains application/json, and the default
+     * YAML format otherwise.
+     *
+     * @param formatParameter the value of the format query parameter, or null
+     * @param acceptHeader the value of the Accept header, or null
+     * @return the format of the response
+     */
+    public static DocumentFormat forRequest(String formatParameter, String acceptHeader) {
+        if (formatParameter != null) {
+            for (DocumentFormat format : values()) {
+                if (format.name().equalsIgnoreCase(formatParameter)) {
+                    return format;
+                }
+            }
+        }
+        if (acceptHeader != null && acceptHeader.contains(JSON.mediaType)) {
+            return JSON;
+        }
+        return YAML;
+    }
+}
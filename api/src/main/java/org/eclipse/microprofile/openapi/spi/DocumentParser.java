@@ -0,0 +1,1049 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.spi;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads a document as a stream of events given to a {@link ModelBuilder} as the characters arrive. Nothing but the
+ * current line and the current nesting of objects and arrays is kept in memory.
+ * <p>
+ * The YAML parser reads the block and flow styles used by OpenAPI documents. Anchors, aliases, tags, complex keys
+ * and streams of several documents are not supported.
+ */
+abstract class DocumentParser {
+
+    private final ModelBuilder builder;
+    private int lineNumber;
+
+    DocumentParser(ModelBuilder builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * @return the builder given the events of the document
+     */
+    ModelBuilder builder() {
+        return builder;
+    }
+
+    /**
+     * Counts the start of the next line of the document, the first line being line 1.
+     */
+    void countLine() {
+        lineNumber++;
+    }
+
+    /**
+     * @return a parser of the given format, giving the events of the document to the given builder
+     */
+    static DocumentParser create(DocumentFormat format, ModelBuilder builder) {
+        return format == DocumentFormat.JSON ? new Json(builder) : new Yaml(builder);
+    }
+
+    /**
+     * Reads a document from the given reader, which is not closed.
+     *
+     * @throws IOException if reading fails, or the document is malformed or does not match the model
+     */
+    void parse(Reader reader) throws IOException {
+        try {
+            read(reader);
+        }
+        catch (IllegalArgumentException | IllegalStateException e) {
+            throw error(e.getMessage());
+        }
+    }
+
+    abstract void read(Reader reader) throws IOException;
+
+    IOException error(String message) {
+        return new IOException("Line " + lineNumber + ": " + message);
+    }
+
+    private static final class Json extends DocumentParser {
+
+        private final char[] buffer = new char[DocumentEmitter.BUFFER_SIZE];
+        private final StringBuilder text = new StringBuilder();
+        private Reader reader;
+        private int position;
+        private int limit;
+
+        Json(ModelBuilder builder) {
+            super(builder);
+        }
+
+        @Override
+        void read(Reader in) throws IOException {
+            reader = in;
+            countLine();
+            value(next());
+            if (next() != -1) {
+                throw error("Unexpected content after the document");
+            }
+        }
+
+        /**
+         * @return the next character that is not white space, or -1 at the end of the document
+         */
+        private int next() throws IOException {
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        return -1;
+                    }
+                }
+                final char c = buffer[position++];
+                if (c == '\n') {
+                    countLine();
+                }
+                else if (c != ' ' && c != '\t' && c != '\r') {
+                    return c;
+                }
+            }
+        }
+
+        private char nextInString() throws IOException {
+            if (position == limit) {
+                limit = reader.read(buffer);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    throw error("Unterminated string");
+                }
+            }
+            return buffer[position++];
+        }
+
+        private void value(int c) throws IOException {
+            switch (c) {
+                case '{':
+                    builder().startObject();
+                    int n = next();
+                    if (n != '}') {
+                        while (true) {
+                            if (n != '"') {
+                                throw error("Expected a field name");
+                            }
+                            builder().name(string());
+                            if (next() != ':') {
+                                throw error("Expected ':'");
+                            }
+                            value(next());
+                            n = next();
+                            if (n == '}') {
+                                break;
+                            }
+                            if (n != ',') {
+                                throw error("Expected ',' or '}'");
+                            }
+                            n = next();
+                        }
+                    }
+                    builder().endObject();
+                    break;
+                case '[':
+                    builder().startArray();
+                    int m = next();
+                    if (m != ']') {
+                        while (true) {
+                            value(m);
+                            m = next();
+                            if (m == ']') {
+                                break;
+                            }
+                            if (m != ',') {
+                                throw error("Expected ',' or ']'");
+                            }
+                            m = next();
+                        }
+                    }
+                    builder().endArray();
+                    break;
+                case '"':
+                    builder().scalar(string(), false);
+                    break;
+                case -1:
+                    throw error("Unexpected end of the document");
+                default:
+                    builder().scalar(literal((char) c), true);
+                    break;
+            }
+        }
+
+        private String string() throws IOException {
+            text.setLength(0);
+            for (char c = nextInString(); c != '"'; c = nextInString()) {
+                if (c == '\\') {
+                    c = nextInString();
+                    switch (c) {
+                        case 'b':
+                            c = '\b';
+                            break;
+                        case 'f':
+                            c = '\f';
+                            break;
+                        case 'n':
+                            c = '\n';
+                            break;
+                        case 'r':
+                            c = '\r';
+                            break;
+                        case 't':
+                            c = '\t';
+                            break;
+                        case 'u':
+                            int code = 0;
+                            for (int i = 0; i < 4; i++) {
+                                final int digit = Character.digit(nextInString(), 16);
+                                if (digit < 0) {
+                                    throw error("Invalid escape sequence");
+                                }
+                                code = code * 16 + digit;
+                            }
+                            c = (char) code;
+                            break;
+                        case '"':
+                        case '\\':
+                        case '/':
+                            break;
+                        default:
+                            throw error("Invalid escape sequence");
+                    }
+                }
+                else if (c < ' ') {
+                    throw error("Unescaped control character in a string");
+                }
+                text.append(c);
+            }
+            return text.toString();
+        }
+
+        /**
+         * @return the text of a number, a boolean or null, starting with the given character
+         */
+        private String literal(char first) throws IOException {
+            text.setLength(0);
+            text.append(first);
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        break;
+                    }
+                }
+                final char c = buffer[position];
+                if (!Character.isLetterOrDigit(c) && c != '.' && c != '-' && c != '+') {
+                    break;
+                }
+                text.append(c);
+                position++;
+            }
+            final String literal = text.toString();
+            if (!"true".equals(literal) && !"false".equals(literal) && !"null".equals(literal)
+                    && !literal.matches("-?(0|[1-9][0-9]*)(\\.[0-9]+)?([eE][-+]?[0-9]+)?")) {
+                throw error("Invalid value " + literal);
+            }
+            return literal;
+        }
+    }
+
+    private static final class Yaml extends DocumentParser {
+
+        private final char[] buffer = new char[DocumentEmitter.BUFFER_SIZE];
+        private final StringBuilder text = new StringBuilder();
+        private Reader reader;
+        private int position;
+        private int limit;
+        private boolean skipLineFeed;
+        // whether the current line ends with a line break, rather than with the end of the document
+        private boolean terminated;
+        private boolean started;
+        private boolean end;
+        // the current line, from its indentation on, or from the start of a value nested in a sequence entry
+        private String line;
+        private int indent;
+
+        Yaml(ModelBuilder builder) {
+            super(builder);
+        }
+
+        @Override
+        void read(Reader in) throws IOException {
+            reader = in;
+            nextLine();
+            skipBlank();
+            if (end) {
+                throw error("Empty document");
+            }
+            blockNode(indent, -1);
+            skipBlank();
+            if (!end) {
+                throw error("Unexpected content after the document");
+            }
+        }
+
+        private void nextLine() throws IOException {
+            if (end) {
+                return;
+            }
+            String raw = readLine();
+            countLine();
+            if (!started && raw != null) {
+                if (!raw.isEmpty() && raw.charAt(0) == '\uFEFF') {
+                    raw = raw.substring(1);
+                }
+                while (raw != null && raw.startsWith("%")) {
+                    // directives
+                    raw = readLine();
+                    countLine();
+                }
+            }
+            if (raw == null || isMarker(raw, "...") || started && isMarker(raw, "---")) {
+                end = true;
+                line = "";
+                indent = 0;
+                return;
+            }
+            if (!started) {
+                started = true;
+                if (isMarker(raw, "---")) {
+                    raw = raw.substring(3);
+                }
+            }
+            int i = 0;
+            while (i < raw.length() && raw.charAt(i) == ' ') {
+                i++;
+            }
+            if (i < raw.length() && raw.charAt(i) == '\t' && !raw.trim().isEmpty() && !raw.trim().startsWith("#")) {
+                throw error("Tabs are not allowed in indentation");
+            }
+            indent = i;
+            line = raw.substring(i);
+        }
+
+        /**
+         * Reads the next line, ended by a line feed, a carriage return or both, and records whether it is terminated.
+         *
+         * @return the line without its line break, or null at the end of the document
+         */
+        private String readLine() throws IOException {
+            text.setLength(0);
+            boolean read = false;
+            while (true) {
+                if (position == limit) {
+                    limit = reader.read(buffer);
+                    position = 0;
+                    if (limit <= 0) {
+                        limit = 0;
+                        terminated = false;
+                        return read ? text.toString() : null;
+                    }
+                }
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (buffer[position] == '\n') {
+                        position++;
+                        continue;
+                    }
+                }
+                final int start = position;
+                while (position < limit && buffer[position] != '\n' && buffer[position] != '\r') {
+                    position++;
+                }
+                text.append(buffer, start, position - start);
+                read = true;
+                if (position < limit) {
+                    skipLineFeed = buffer[position++] == '\r';
+                    terminated = true;
+                    return text.toString();
+                }
+            }
+        }
+
+        private static boolean isMarker(String raw, String marker) {
+            return raw.startsWith(marker) && (raw.length() == 3 || raw.charAt(3) == ' ' || raw.charAt(3) == '\t');
+        }
+
+        private void skipBlank() throws IOException {
+            while (!end && isBlank(line)) {
+                nextLine();
+            }
+        }
+
+        private static boolean isBlank(String text) {
+            final String trimmed = text.trim();
+            return trimmed.isEmpty() || trimmed.charAt(0) == '#';
+        }
+
+        private static boolean isEntry(String text) {
+            return text.startsWith("-") && (text.length() == 1 || text.charAt(1) == ' ' || text.charAt(1) == '\t');
+        }
+
+        /**
+         * Reads the value of a mapping entry or sequence entry whose indentation is given, starting on the next line.
+         * A sequence may have the indentation of the key of a mapping entry.
+         */
+        private void nestedNode(int parentIndent, boolean mappingValue) throws IOException {
+            nextLine();
+            skipBlank();
+            if (!end && (indent > parentIndent || mappingValue && indent == parentIndent && isEntry(line))) {
+                blockNode(indent, parentIndent);
+            }
+            else {
+                builder().scalar("", true);
+            }
+        }
+
+        /**
+         * Reads a node starting on the current line, at the given column.
+         */
+        private void blockNode(int column, int parentIndent) throws IOException {
+            if (isEntry(line)) {
+                sequence(column);
+            }
+            else if (keyEnd(line) >= 0) {
+                mapping(column);
+            }
+            else {
+                inlineValue(line, parentIndent);
+            }
+        }
+
+        private void sequence(int column) throws IOException {
+            builder().startArray();
+            while (!end && indent == column && isEntry(line)) {
+                final String rest = line.substring(1);
+                final String content = rest.trim();
+                if (content.isEmpty() || content.charAt(0) == '#') {
+                    nestedNode(column, false);
+                }
+                else {
+                    // a node nested in the entry on the same line
+                    indent = column + rest.indexOf(content.charAt(0)) + 1;
+                    line = content + rest.substring(rest.indexOf(content.charAt(0)) + content.length());
+                    blockNode(indent, column);
+                }
+                skipBlank();
+            }
+            if (!end && indent > column) {
+                throw error("Bad indentation of a sequence entry");
+            }
+            builder().endArray();
+        }
+
+        private void mapping(int column) throws IOException {
+            builder().startObject();
+            while (!end && indent == column && !isEntry(line)) {
+                final int colon = keyEnd(line);
+                if (colon < 0) {
+                    throw error("Expected a mapping key");
+                }
+                builder().name(key(line.substring(0, colon).trim()));
+                final String content = line.substring(colon + 1).trim();
+                if (content.isEmpty() || content.charAt(0) == '#') {
+                    nestedNode(column, true);
+                }
+                else {
+                    inlineValue(content, column);
+                }
+                skipBlank();
+            }
+            if (!end && indent > column) {
+                throw error("Bad indentation of a mapping entry");
+            }
+            builder().endObject();
+        }
+
+        /**
+         * @return the index of the colon ending the key of a mapping entry, or -1 if the text is not a mapping entry
+         */
+        private static int keyEnd(String text) {
+            if (text.isEmpty()) {
+                return -1;
+            }
+            int i = 0;
+            final char first = text.charAt(0);
+            if (first == '"' || first == '\'') {
+                i = quoteEnd(text, 0);
+                if (i < 0) {
+                    return -1;
+                }
+                i++;
+                while (i < text.length() && text.charAt(i) == ' ') {
+                    i++;
+                }
+                return i < text.length() && text.charAt(i) == ':' && isSeparator(text, i + 1) ? i : -1;
+            }
+            if ("[]{}#|>&*!%@`,".indexOf(first) >= 0) {
+                return -1;
+            }
+            for (; i < text.length(); i++) {
+                final char c = text.charAt(i);
+                if (c == ':' && isSeparator(text, i + 1)) {
+                    return i;
+                }
+                if (c == '#' && i > 0 && (text.charAt(i - 1) == ' ' || text.charAt(i - 1) == '\t')) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        private static boolean isSeparator(String text, int i) {
+            return i >= text.length() || text.charAt(i) == ' ' || text.charAt(i) == '\t';
+        }
+
+        /**
+         * @return the index of the quote closing the quoted scalar starting at the given index, or -1 if the line
+         * does not close it
+         */
+        private static int quoteEnd(String text, int start) {
+            final char quote = text.charAt(start);
+            for (int i = start + 1; i < text.length(); i++) {
+                final char c = text.charAt(i);
+                if (quote == '"' && c == '\\') {
+                    i++;
+                }
+                else if (c == quote) {
+                    if (quote == '\'' && i + 1 < text.length() && text.charAt(i + 1) == '\'') {
+                        i++;
+                    }
+                    else {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        private String key(String text) throws IOException {
+            if (text.isEmpty()) {
+                throw error("Empty mapping key");
+            }
+            final char first = text.charAt(0);
+            if (first == '"') {
+                return unescape(text.substring(1, text.length() - 1));
+            }
+            if (first == '\'') {
+                return text.substring(1, text.length() - 1).replace("''", "'");
+            }
+            if (first == '?') {
+                throw error("Complex mapping keys are not supported");
+            }
+            return text;
+        }
+
+        /**
+         * Reads a value starting with the given text of the current line, and the lines following it that are
+         * indented more than the given indentation of its parent node.
+         */
+        private void inlineValue(String content, int parentIndent) throws IOException {
+            switch (content.charAt(0)) {
+                case '|':
+                case '>':
+                    blockScalar(content, parentIndent);
+                    break;
+                case '"':
+                case '\'':
+                    builder().scalar(quoted(content, parentIndent), false);
+                    break;
+                case '[':
+                case '{':
+                    flow(content);
+                    break;
+                case '&':
+                case '*':
+                case '!':
+                    throw error("Anchors, aliases and tags are not supported");
+                default:
+                    builder().scalar(plain(content, parentIndent), true);
+                    break;
+            }
+        }
+
+        private String plain(String content, int parentIndent) throws IOException {
+            String text = stripComment(content);
+            final StringBuilder value = new StringBuilder(text);
+            boolean comment = text.length() != content.length();
+            nextLine();
+            int breaks = 0;
+            while (!end && !comment) {
+                if (line.trim().isEmpty()) {
+                    breaks++;
+                }
+                else if (indent > parentIndent && line.charAt(0) != '#') {
+                    text = stripComment(line);
+                    comment = text.length() != line.length();
+                    if (breaks == 0) {
+                        value.append(' ');
+                    }
+                    for (; breaks > 0; breaks--) {
+                        value.append('\n');
+                    }
+                    value.append(text);
+                }
+                else {
+                    break;
+                }
+                nextLine();
+            }
+            return value.toString();
+        }
+
+        private static String stripComment(String text) {
+            for (int i = 1; i < text.length(); i++) {
+                if (text.charAt(i) == '#' && (text.charAt(i - 1) == ' ' || text.charAt(i - 1) == '\t')) {
+                    return text.substring(0, i).trim();
+                }
+            }
+            return text.trim();
+        }
+
+        /**
+         * @return the value of a quoted scalar starting the given text, which may continue on the following lines
+         */
+        private String quoted(String content, int parentIndent) throws IOException {
+            final char quote = content.charAt(0);
+            final StringBuilder raw = new StringBuilder();
+            String text = content;
+            int start = 1;
+            int close = quoteEnd(text, 0);
+            while (close < 0) {
+                raw.append(text, start, text.length());
+                nextLine();
+                if (end) {
+                    throw error("Unterminated quoted scalar");
+                }
+                // line breaks are folded, and escaped line breaks are removed, as the value is unescaped
+                raw.append('\n');
+                text = quote + line;
+                start = 1;
+                close = quoteEnd(text, 0);
+            }
+            raw.append(text, start, close);
+            final String rest = text.substring(close + 1).trim();
+            if (!rest.isEmpty() && rest.charAt(0) != '#') {
+                throw error("Unexpected content after a quoted scalar");
+            }
+            nextLine();
+            final String value = fold(raw.toString(), quote == '"');
+            return quote == '"' ? unescape(value) : value.replace("''", "'");
+        }
+
+        /**
+         * Folds the line breaks of a multi-line quoted scalar: a single line break becomes a space, and each of several
+         * consecutive line breaks but the first is kept. In a double-quoted scalar an escaped line break is removed.
+         */
+        private static String fold(String raw, boolean escapes) {
+            if (raw.indexOf('\n') < 0) {
+                return raw;
+            }
+            final String[] lines = raw.split("\n", -1);
+            final StringBuilder value = new StringBuilder();
+            int breaks = 0;
+            boolean escapedBreak = false;
+            for (int i = 0; i < lines.length; i++) {
+                String text = lines[i];
+                if (i > 0) {
+                    text = text.replaceAll("^[ \t]+", "");
+                }
+                if (i < lines.length - 1) {
+                    text = text.replaceAll("[ \t]+$", "");
+                }
+                if (i > 0 && text.isEmpty() && i < lines.length - 1) {
+                    breaks++;
+                    continue;
+                }
+                if (i > 0 && !escapedBreak) {
+                    if (breaks == 0) {
+                        value.append(' ');
+                    }
+                    for (; breaks > 0; breaks--) {
+                        // kept as an escape sequence in a double-quoted scalar, which is unescaped afterwards
+                        value.append(escapes ? "\\n" : "\n");
+                    }
+                }
+                breaks = 0;
+                escapedBreak = escapes && i < lines.length - 1 && endsWithEscape(text);
+                value.append(escapedBreak ? text.substring(0, text.length() - 1) : text);
+            }
+            return value.toString();
+        }
+
+        private static boolean endsWithEscape(String text) {
+            int backslashes = 0;
+            for (int i = text.length() - 1; i >= 0 && text.charAt(i) == '\\'; i--) {
+                backslashes++;
+            }
+            return backslashes % 2 == 1;
+        }
+
+        private String unescape(String text) throws IOException {
+            if (text.indexOf('\\') < 0) {
+                return text;
+            }
+            final StringBuilder value = new StringBuilder(text.length());
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (++i == text.length()) {
+                    throw error("Invalid escape sequence");
+                }
+                c = text.charAt(i);
+                switch (c) {
+                    case '0':
+                        value.append('\0');
+                        break;
+                    case 'a':
+                        value.append('\u0007');
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 't':
+                    case '\t':
+                        value.append('\t');
+                        break;
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'v':
+                        value.append('\u000B');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 'e':
+                        value.append('\u001B');
+                        break;
+                    case 'N':
+                        value.append('\u0085');
+                        break;
+                    case '_':
+                        value.append('\u00A0');
+                        break;
+                    case 'L':
+                        value.append('\u2028');
+                        break;
+                    case 'P':
+                        value.append('\u2029');
+                        break;
+                    case 'x':
+                        i = appendCode(text, i, 2, value);
+                        break;
+                    case 'u':
+                        i = appendCode(text, i, 4, value);
+                        break;
+                    case 'U':
+                        i = appendCode(text, i, 8, value);
+                        break;
+                    case ' ':
+                    case '"':
+                    case '/':
+                    case '\\':
+                        value.append(c);
+                        break;
+                    default:
+                        throw error("Invalid escape sequence \\" + c);
+                }
+            }
+            return value.toString();
+        }
+
+        private int appendCode(String text, int i, int digits, StringBuilder value) throws IOException {
+            if (i + digits >= text.length()) {
+                throw error("Invalid escape sequence");
+            }
+            try {
+                value.appendCodePoint(Integer.parseInt(text.substring(i + 1, i + 1 + digits), 16));
+            }
+            catch (IllegalArgumentException e) {
+                throw error("Invalid escape sequence");
+            }
+            return i + digits;
+        }
+
+        private void blockScalar(String header, int parentIndent) throws IOException {
+            final boolean folded = header.charAt(0) == '>';
+            char chomping = ' ';
+            int indentation = 0;
+            int i = 1;
+            for (; i < header.length() && header.charAt(i) != ' ' && header.charAt(i) != '\t'; i++) {
+                final char c = header.charAt(i);
+                if (c == '-' || c == '+') {
+                    chomping = c;
+                }
+                else if (c >= '1' && c <= '9') {
+                    indentation = c - '0';
+                }
+                else {
+                    throw error("Invalid block scalar header");
+                }
+            }
+            if (!isBlank(header.substring(i))) {
+                throw error("Invalid block scalar header");
+            }
+            final int contentIndent = indentation > 0 ? Math.max(parentIndent, 0) + indentation : -1;
+            final List<String> lines = new ArrayList<>();
+            int column = contentIndent;
+            // whether the last line of content ends with a line break, which clipping keeps
+            boolean contentTerminated = false;
+            nextLine();
+            while (!end) {
+                if (line.isEmpty() || line.trim().isEmpty() && (column < 0 || indent <= column)) {
+                    lines.add("");
+                }
+                else if (column < 0 && indent > parentIndent) {
+                    column = indent;
+                    lines.add(line);
+                    contentTerminated = terminated;
+                }
+                else if (column >= 0 && indent >= column) {
+                    lines.add(spaces(indent - column) + line);
+                    contentTerminated = terminated;
+                }
+                else {
+                    break;
+                }
+                nextLine();
+            }
+            int last = lines.size() - 1;
+            while (last >= 0 && lines.get(last).isEmpty()) {
+                last--;
+            }
+            final StringBuilder value = new StringBuilder();
+            int previous = 0;
+            while (previous <= last && lines.get(previous).isEmpty()) {
+                value.append('\n');
+                previous++;
+            }
+            if (previous <= last) {
+                value.append(lines.get(previous));
+            }
+            for (int n = previous + 1; n <= last; n++) {
+                final String text = lines.get(n);
+                if (text.isEmpty()) {
+                    continue;
+                }
+                final int emptyLines = n - previous - 1;
+                // folding joins lines with a space, unless they are separated by empty lines or more indented
+                if (!folded || isMoreIndented(text) || isMoreIndented(lines.get(previous))) {
+                    value.append('\n');
+                }
+                else if (emptyLines == 0) {
+                    value.append(' ');
+                }
+                for (int e = 0; e < emptyLines; e++) {
+                    value.append('\n');
+                }
+                value.append(text);
+                previous = n;
+            }
+            if (last >= 0 && chomping != '-' && contentTerminated) {
+                value.append('\n');
+            }
+            if (chomping == '+') {
+                for (int n = last + 1; n < lines.size(); n++) {
+                    value.append('\n');
+                }
+            }
+            builder().scalar(value.toString(), false);
+        }
+
+        private static boolean isMoreIndented(String text) {
+            return !text.isEmpty() && (text.charAt(0) == ' ' || text.charAt(0) == '\t');
+        }
+
+        private static String spaces(int count) {
+            final char[] spaces = new char[count];
+            Arrays.fill(spaces, ' ');
+            return new String(spaces);
+        }
+
+        /**
+         * Reads a flow collection starting with the given text, which may continue on the following lines.
+         */
+        private void flow(String content) throws IOException {
+            final StringBuilder text = new StringBuilder();
+            String rest = content;
+            int depth = 0;
+            char quote = 0;
+            while (true) {
+                int i = 0;
+                for (; i < rest.length(); i++) {
+                    final char c = rest.charAt(i);
+                    if (quote != 0) {
+                        if (c == '\\' && quote == '"') {
+                            i++;
+                        }
+                        else if (c == quote) {
+                            quote = 0;
+                        }
+                    }
+                    else if (c == '"' || c == '\'') {
+                        quote = c;
+                    }
+                    else if (c == '[' || c == '{') {
+                        depth++;
+                    }
+                    else if (c == ']' || c == '}') {
+                        depth--;
+                        if (depth == 0) {
+                            break;
+                        }
+                    }
+                    else if (c == '#' && (i == 0 || rest.charAt(i - 1) == ' ' || rest.charAt(i - 1) == '\t')) {
+                        rest = rest.substring(0, i);
+                        break;
+                    }
+                }
+                if (depth == 0) {
+                    text.append(rest, 0, i + 1);
+                    if (!isBlank(rest.substring(i + 1))) {
+                        throw error("Unexpected content after a flow collection");
+                    }
+                    break;
+                }
+                text.append(rest, 0, Math.min(i, rest.length())).append(' ');
+                nextLine();
+                if (end) {
+                    throw error("Unterminated flow collection");
+                }
+                rest = line;
+            }
+            nextLine();
+            new Flow(text.toString()).node();
+        }
+
+        /**
+         * Parses a flow collection joined on a single line.
+         */
+        private final class Flow {
+
+            private final String text;
+            private int position;
+
+            Flow(String text) {
+                this.text = text;
+            }
+
+            private char peek() {
+                while (position < text.length() && (text.charAt(position) == ' ' || text.charAt(position) == '\t')) {
+                    position++;
+                }
+                return position < text.length() ? text.charAt(position) : 0;
+            }
+
+            void node() throws IOException {
+                final char c = peek();
+                if (c == '[') {
+                    position++;
+                    builder().startArray();
+                    while (peek() != ']') {
+                        node();
+                        separator(']');
+                    }
+                    position++;
+                    builder().endArray();
+                }
+                else if (c == '{') {
+                    position++;
+                    builder().startObject();
+                    while (peek() != '}') {
+                        final char first = peek();
+                        builder().name(first == '"' || first == '\'' ? scalarText(first) : plainText(true));
+                        if (peek() != ':') {
+                            throw error("Expected ':' in a flow mapping");
+                        }
+                        position++;
+                        final char next = peek();
+                        if (next == ',' || next == '}') {
+                            builder().scalar("", true);
+                        }
+                        else {
+                            node();
+                        }
+                        separator('}');
+                    }
+                    position++;
+                    builder().endObject();
+                }
+                else if (c == '"' || c == '\'') {
+                    builder().scalar(scalarText(c), false);
+                }
+                else if (c == '&' || c == '*' || c == '!') {
+                    throw error("Anchors, aliases and tags are not supported");
+                }
+                else {
+                    builder().scalar(plainText(false), true);
+                }
+            }
+
+            private void separator(char close) throws IOException {
+                final char c = peek();
+                if (c == ',') {
+                    position++;
+                }
+                else if (c != close) {
+                    throw error("Expected ',' or '" + close + "' in a flow collection");
+                }
+            }
+
+            private String scalarText(char quote) throws IOException {
+                final int close = quoteEnd(text, position);
+                if (close < 0) {
+                    throw error("Unterminated quoted scalar");
+                }
+                final String raw = text.substring(position + 1, close);
+                position = close + 1;
+                return quote == '"' ? unescape(raw) : raw.replace("''", "'");
+            }
+
+            private String plainText(boolean key) throws IOException {
+                final int start = position;
+                while (position < text.length()) {
+                    final char c = text.charAt(position);
+                    if (c == ',' || c == ']' || c == '}' || c == '[' || c == '{'
+                            || c == ':' && (key || isSeparator(text, position + 1))) {
+                        break;
+                    }
+                    position++;
+                }
+                if (position == text.length()) {
+                    throw error("Unterminated flow collection");
+                }
+                return text.substring(start, position).trim();
+            }
+        }
+    }
+}
@@ -0,0 +1,661 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.spi;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.eclipse.microprofile.openapi.OASFactory;
+import org.eclipse.microprofile.openapi.StringPool;
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.Extensible;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+
+/**
+ * This class is not intended to be used by end-users. It builds an OpenAPI model tree from the events of a
+ * streaming parser of an OpenAPI document, so that vendors can load a large static document without first building a
+ * generic tree of maps and lists.
+ *
+ * <br><br>Each object of the document is created through {@link OASFactory} when the event starting it arrives, and
+ * is set on its parent when the event ending it arrives. The model interface to create, and the type of each value,
+ * follow from the setters of the model interfaces. Values of the document typed {@code Object} in the model, such as
+ * examples and extensions, are built as maps, lists, strings, numbers and booleans. Fields that no model interface
+ * defines are skipped.
+ *
+ * <br><br>Scalars are given with their text and whether they were written plain, that is without quotes. The text of a
+ * plain scalar is converted to the type of its value, so that a plain {@code 1.10} set on a string property keeps its
+ * text. Where no type is known, a plain scalar is a null, boolean, integer or decimal number when its text is one, as
+ * defined by the core schema of YAML 1.2, and a string otherwise.
+ *
+ * <br><br>A builder built with a {@link StringPool} replaces the names and the string values of the document by their
+ * pooled instances, so that the strings repeated throughout the model are held once.
+ *
+ * <br><br>A builder builds one document, and is not thread-safe.
+ *
+ * <br><br>Example, with the events of the document <code>{"openapi": "3.0.0", "paths": {}}</code>:
+ * <pre><code>ModelBuilder builder = new ModelBuilder();
+ * builder.startObject();
+ * builder.name("openapi");
+ * builder.scalar("3.0.0", false);
+ * builder.name("paths");
+ * builder.startObject();
+ * builder.endObject();
+ * builder.endObject();
+ * OpenAPI model = builder.getModel();
+ * </code></pre>
+ */
+public final class ModelBuilder {
+
+    private static final int OBJECT = 0;
+    private static final int ARRAY = 1;
+    private static final int SCALAR = 2;
+
+    private static final String EXTENSION_PREFIX = "x-";
+    private static final String REF = "$ref";
+
+    private static final Pattern INTEGER = Pattern.compile("[-+]?[0-9]+");
+    private static final Pattern DECIMAL = Pattern.compile("[-+]?(\\.[0-9]+|[0-9]+(\\.[0-9]*)?)([eE][-+]?[0-9]+)?");
+
+    private static final ClassValue<ModelType> MODEL_TYPES = new ClassValue<ModelType>() {
+        @Override
+        protected ModelType computeValue(Class<?> type) {
+            return new ModelType(type);
+        }
+    };
+
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final RootFrame root;
+    private final StringPool pool;
+
+    /**
+     * Creates a builder of an {@link OpenAPI} model.
+     */
+    public ModelBuilder() {
+        this(OpenAPI.class, null);
+    }
+
+    /**
+     * Creates a builder of an {@link OpenAPI} model whose names and string values are the pooled instances of the
+     * given pool, which may be shared by the builders of the documents of one model.
+     *
+     * @param pool the pool of the strings
+     *
+     * @throws NullPointerException if the pool is null
+     */
+    public ModelBuilder(StringPool pool) {
+        this(OpenAPI.class, pool);
+        if (pool == null) {
+            throw new NullPointerException();
+        }
+    }
+
+    /**
+     * Creates a builder of a document of the given type, which is a model interface or {@code Object}.
+     */
+    ModelBuilder(Type rootType) {
+        this(rootType, null);
+    }
+
+    private ModelBuilder(Type rootType, StringPool pool) {
+        root = new RootFrame(rootType);
+        frames.push(root);
+        this.pool = pool;
+    }
+
+    /**
+     * Starts an object of the document.
+     *
+     * @throws IllegalArgumentException if the model does not allow an object at this point of the document
+     * @throws IllegalStateException if the document is complete, or a name is expected
+     */
+    public void startObject() {
+        final Frame frame = current();
+        final Type type = frame.expected(OBJECT);
+        final Class<?> raw = rawType(type);
+        if (raw == null) {
+            frames.push(new SkipFrame(false));
+        }
+        else if (Constructible.class.isAssignableFrom(raw)) {
+            frames.push(new ModelFrame(raw, (Constructible) OASFactory.createObject(raw.asSubclass(Constructible.class))));
+        }
+        else if (raw == Map.class || raw == Object.class) {
+            frames.push(new MapFrame(typeArgument(type, 1)));
+        }
+        else {
+            throw mismatch("object", frame);
+        }
+    }
+
+    /**
+     * Ends the current object of the document.
+     *
+     * @throws IllegalStateException if the current value of the document is not an object
+     */
+    public void endObject() {
+        end(false);
+    }
+
+    /**
+     * Starts an array of the document.
+     *
+     * @throws IllegalArgumentException if the model does not allow an array at this point of the document
+     * @throws IllegalStateException if the document is complete, or a name is expected
+     */
+    public void startArray() {
+        final Frame frame = current();
+        final Type type = frame.expected(ARRAY);
+        final Class<?> raw = rawType(type);
+        if (raw == null) {
+            frames.push(new SkipFrame(true));
+        }
+        else if (raw == List.class || raw == Object.class) {
+            frames.push(new ListFrame(typeArgument(type, 0)));
+        }
+        else {
+            throw mismatch("array", frame);
+        }
+    }
+
+    /**
+     * Ends the current array of the document.
+     *
+     * @throws IllegalStateException if the current value of the document is not an array
+     */
+    public void endArray() {
+        end(true);
+    }
+
+    /**
+     * Gives the name of the next field of the current object.
+     *
+     * @param name the name of the field
+     *
+     * @throws NullPointerException if the name is null
+     * @throws IllegalStateException if the current value of the document is not an object
+     */
+    public void name(String name) {
+        if (name == null) {
+            throw new NullPointerException();
+        }
+        current().name(pool == null ? name : pool.intern(name));
+    }
+
+    /**
+     * Gives a scalar of the document.
+     *
+     * @param text the text of the scalar, after the resolution of any escape sequences
+     * @param plain true if the scalar was written without quotes
+     *
+     * @throws NullPointerException if the text is null
+     * @throws IllegalArgumentException if the model does not allow the scalar at this point of the document
+     * @throws IllegalStateException if the document is complete, or a name is expected
+     */
+    public void scalar(String text, boolean plain) {
+        if (text == null) {
+            throw new NullPointerException();
+        }
+        final Frame frame = current();
+        final Type type = frame.expected(SCALAR);
+        if (type != null) {
+            final Object value = convert(text, plain, type, frame);
+            frame.add(pool != null && value instanceof String ? pool.intern((String) value) : value);
+        }
+    }
+
+    /**
+     * @return the model built from the events of the document
+     *
+     * @throws IllegalStateException if the document is not complete
+     */
+    public OpenAPI getModel() {
+        return (OpenAPI) getResult();
+    }
+
+    Object getResult() {
+        if (frames.peek() != root || !root.complete) {
+            throw new IllegalStateException("Incomplete document");
+        }
+        return root.value;
+    }
+
+    private Frame current() {
+        final Frame frame = frames.peek();
+        if (frame == root && root.complete) {
+            throw new IllegalStateException("Complete document");
+        }
+        return frame;
+    }
+
+    private void end(boolean array) {
+        final Frame frame = frames.peek();
+        if (frame == root || frame.isArray() != array) {
+            throw new IllegalStateException(array ? "Not in an array" : "Not in an object");
+        }
+        frames.pop();
+        if (!(frame instanceof SkipFrame)) {
+            frames.peek().add(frame.value());
+        }
+    }
+
+    private static Object convert(String text, boolean plain, Type type, Frame frame) {
+        if (plain && isNull(text)) {
+            return null;
+        }
+        final Class<?> raw = rawType(type);
+        if (raw == String.class) {
+            return text;
+        }
+        if (raw == Object.class) {
+            return plain ? resolve(text) : text;
+        }
+        if (raw == Boolean.class) {
+            if ("true".equalsIgnoreCase(text)) {
+                return Boolean.TRUE;
+            }
+            if ("false".equalsIgnoreCase(text)) {
+                return Boolean.FALSE;
+            }
+        }
+        else if (raw == Integer.class && INTEGER.matcher(text).matches()) {
+            return Integer.valueOf(text);
+        }
+        else if (raw == BigDecimal.class && DECIMAL.matcher(text).matches()) {
+            return new BigDecimal(text);
+        }
+        else if (raw != null && raw.isEnum()) {
+            for (Object constant : raw.getEnumConstants()) {
+                if (constant.toString().equals(text)) {
+                    return constant;
+                }
+            }
+        }
+        throw mismatch("scalar '" + text + "'", frame);
+    }
+
+    private static boolean isNull(String text) {
+        return text.isEmpty() || "~".equals(text) || "null".equals(text) || "Null".equals(text) || "NULL".equals(text);
+    }
+
+    /**
+     * @return the value of a plain scalar of unknown type, following the core schema of YAML 1.2
+     */
+    private static Object resolve(String text) {
+        if (isNull(text)) {
+            return null;
+        }
+        if ("true".equals(text) || "True".equals(text) || "TRUE".equals(text)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equals(text) || "False".equals(text) || "FALSE".equals(text)) {
+            return Boolean.FALSE;
+        }
+        if (INTEGER.matcher(text).matches()) {
+            final BigInteger value = new BigInteger(text.startsWith("+") ? text.substring(1) : text);
+            if (value.bitLength() < Integer.SIZE) {
+                return value.intValue();
+            }
+            return value.bitLength() < Long.SIZE ? (Object) value.longValue() : value;
+        }
+        if (DECIMAL.matcher(text).matches()) {
+            return new BigDecimal(text);
+        }
+        return text;
+    }
+
+    private static IllegalArgumentException mismatch(String value, Frame frame) {
+        return new IllegalArgumentException("Unexpected " + value + frame.describe());
+    }
+
+    /**
+     * @return the class of the given type, or null if the type is null
+     */
+    private static Class<?> rawType(Type type) {
+        if (type instanceof Class) {
+            return (Class<?>) type;
+        }
+        if (type instanceof ParameterizedType) {
+            return (Class<?>) ((ParameterizedType) type).getRawType();
+        }
+        return type == null ? null : Object.class;
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType) {
+            final Type[] arguments = ((ParameterizedType) type).getActualTypeArguments();
+            if (index < arguments.length) {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+
+    /**
+     * The setters of a model interface, by the name of the field they set in a document, and the type of its entries
+     * if the model interface is a map.
+     */
+    private static final class ModelType {
+
+        private final Map<String, List<Method>> setters = new HashMap<>();
+        private final Type entryType;
+
+        ModelType(Class<?> type) {
+            for (Method method : type.getMethods()) {
+                final String name = method.getName();
+                if (name.startsWith("set") && name.length() > 3 && method.getParameterCount() == 1 && !"setExtensions".equals(name)) {
+                    setters.computeIfAbsent(fieldName(name.substring(3)), k -> new ArrayList<>(1)).add(method);
+                }
+            }
+            entryType = Map.class.isAssignableFrom(type) ? mapValueType(type) : null;
+        }
+
+        private static String fieldName(String property) {
+            switch (property) {
+                case "Ref":
+                    return REF;
+                case "DefaultValue":
+                    return "default";
+                case "Enumeration":
+                    return "enum";
+                default:
+                    if (property.equals(property.toUpperCase())) {
+                        // the operations of a path item
+                        return property.toLowerCase();
+                    }
+                    return Character.toLowerCase(property.charAt(0)) + property.substring(1);
+            }
+        }
+
+        private static Type mapValueType(Type type) {
+            final Class<?> raw = rawType(type);
+            if (raw == Map.class) {
+                return typeArgument(type, 1);
+            }
+            for (Type superinterface : raw.getGenericInterfaces()) {
+                if (Map.class.isAssignableFrom(rawType(superinterface))) {
+                    return mapValueType(superinterface);
+                }
+            }
+            return Object.class;
+        }
+
+        /**
+         * @return the setter of the given field accepting a value of the given kind, or null if there is none
+         */
+        Method setter(String field, int kind) {
+            final List<Method> candidates = setters.get(field);
+            if (candidates == null) {
+                return null;
+            }
+            for (Method setter : candidates) {
+                final Class<?> parameter = setter.getParameterTypes()[0];
+                final boolean container = Constructible.class.isAssignableFrom(parameter) || Map.class.isAssignableFrom(parameter);
+                if (parameter == Object.class || kind == OBJECT && container || kind == ARRAY && parameter == List.class
+                        || kind == SCALAR && !container && parameter != List.class) {
+                    return setter;
+                }
+            }
+            return candidates.get(0);
+        }
+    }
+
+    private abstract static class Frame {
+
+        /**
+         * @return the type of the next value, or null if the value is to be skipped
+         */
+        abstract Type expected(int kind);
+
+        abstract void add(Object value);
+
+        abstract Object value();
+
+        boolean isArray() {
+            return false;
+        }
+
+        void name(String name) {
+            throw new IllegalStateException("Unexpected name " + name);
+        }
+
+        String describe() {
+            return "";
+        }
+    }
+
+    private static final class RootFrame extends Frame {
+
+        private final Type type;
+        private Object value;
+        private boolean complete;
+
+        RootFrame(Type type) {
+            this.type = type;
+        }
+
+        @Override
+        Type expected(int kind) {
+            return type;
+        }
+
+        @Override
+        void add(Object value) {
+            this.value = value;
+            complete = true;
+        }
+
+        @Override
+        Object value() {
+            return value;
+        }
+
+        @Override
+        String describe() {
+            return " for the document";
+        }
+    }
+
+    private abstract static class ObjectFrame extends Frame {
+
+        private String name;
+
+        @Override
+        void name(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return the name of the current field
+         */
+        String fieldName() {
+            return name;
+        }
+
+        @Override
+        String describe() {
+            return " for the field " + name;
+        }
+    }
+
+    private static final class ModelFrame extends ObjectFrame {
+
+        private final ModelType type;
+        private final Class<?> modelType;
+        private final Constructible model;
+        private Method setter;
+
+        ModelFrame(Class<?> modelType, Constructible model) {
+            this.type = MODEL_TYPES.get(modelType);
+            this.modelType = modelType;
+            this.model = model;
+        }
+
+        @Override
+        Type expected(int kind) {
+            setter = null;
+            if (fieldName().startsWith(EXTENSION_PREFIX) && model instanceof Extensible) {
+                return Object.class;
+            }
+            if (type.entryType != null && !REF.equals(fieldName())) {
+                return type.entryType;
+            }
+            setter = type.setter(fieldName(), kind);
+            return setter == null ? null : setter.getGenericParameterTypes()[0];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void add(Object value) {
+            if (setter != null) {
+                try {
+                    setter.invoke(model, value);
+                }
+                catch (InvocationTargetException e) {
+                    if (e.getCause() instanceof RuntimeException) {
+                        throw (RuntimeException) e.getCause();
+                    }
+                    throw new IllegalStateException(e.getCause());
+                }
+                catch (IllegalAccessException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            else if (type.entryType != null && !fieldName().startsWith(EXTENSION_PREFIX)) {
+                ((Map<String, Object>) model).put(fieldName(), value);
+            }
+            else {
+                ((Extensible) model).addExtension(fieldName(), value);
+            }
+        }
+
+        @Override
+        Object value() {
+            return model;
+        }
+
+        @Override
+        String describe() {
+            return " for the field " + fieldName() + " of " + modelType.getSimpleName();
+        }
+    }
+
+    private static final class MapFrame extends ObjectFrame {
+
+        private final Type valueType;
+        private final Map<String, Object> map = new LinkedHashMap<>();
+
+        MapFrame(Type valueType) {
+            this.valueType = valueType;
+        }
+
+        @Override
+        Type expected(int kind) {
+            return valueType;
+        }
+
+        @Override
+        void add(Object value) {
+            map.put(fieldName(), value);
+        }
+
+        @Override
+        Object value() {
+            return map;
+        }
+    }
+
+    private static final class ListFrame extends Frame {
+
+        private final Type elementType;
+        private final List<Object> list = new ArrayList<>();
+
+        ListFrame(Type elementType) {
+            this.elementType = elementType;
+        }
+
+        @Override
+        Type expected(int kind) {
+            return elementType;
+        }
+
+        @Override
+        void add(Object value) {
+            list.add(value);
+        }
+
+        @Override
+        Object value() {
+            return list;
+        }
+
+        @Override
+        boolean isArray() {
+            return true;
+        }
+
+        @Override
+        String describe() {
+            return " in an array";
+        }
+    }
+
+    /**
+     * Skips an object or array that no model interface defines. Nested values are skipped by frames of their own.
+     */
+    private static final class SkipFrame extends Frame {
+
+        private final boolean array;
+
+        SkipFrame(boolean array) {
+            this.array = array;
+        }
+
+        @Override
+        Type expected(int kind) {
+            return null;
+        }
+
+        @Override
+        void add(Object value) {
+        }
+
+        @Override
+        Object value() {
+            return null;
+        }
+
+        @Override
+        void name(String name) {
+        }
+
+        @Override
+        boolean isArray() {
+            return array;
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.spi;
+
+import java.util.concurrent.atomic.AtomicStampedReference;
+import java.util.function.Function;
+
+/**
+ * This class is not intended to be used by end-users. It caches the serialized OpenAPI document served by the
+ * /openapi endpoint, so that the fully processed model is serialized once per {@link DocumentFormat} instead of once
+ * per request.
+ *
+ * <br><br>Vendors implement {@link #serialize(DocumentFormat)} and call {@link #get(DocumentFormat)} for every
+ * request. A document is serialized the first time it is requested in a format, and is then shared by all later
+ * requests until the cache is {@link #invalidate() invalidated}. A document whose serialization started before the
+ * cache was invalidated is returned to the request that serialized it, but is not cached, so that no later request
+ * is served a document, or an entity tag, of the model the invalidation discarded.
+ *
+ * <br><br>Example:
+ * <pre><code>OASDocumentCache cache = OASDocumentCache.of(format -&gt; writer.write(openAPI, format), true);
+ * SerializedDocument document = cache.get(DocumentFormat.forRequest(formatParameter, acceptHeader));
+ * if (document.matches(ifNoneMatch)) {
+ *     // respond with 304 Not Modified and the ETag of the document
+ * }
+ * </code></pre>
+ */
+public abstract class OASDocumentCache {
+
+    private final boolean gzip;
+
+    /**
+     * The cached document of each format, stamped with the number of invalidations of its slot.
+     */
+    private final AtomicStampedReference<?>[] documents = new AtomicStampedReference<?>[DocumentFormat.values().length];
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param gzip whether the cached documents also hold a gzip compressed copy of their bytes
+     */
+    protected OASDocumentCache(boolean gzip) {
+        this.gzip = gzip;
+        for (int i = 0; i < documents.length; i++) {
+            documents[i] = new AtomicStampedReference<SerializedDocument>(null, 0);
+        }
+    }
+
+    /**
+     * Creates a cache serializing documents with the given function.
+     *
+     * @param serializer the function returning the bytes of the document in a format
+     * @param gzip whether the cached documents also hold a gzip compressed copy of their bytes
+     * @return a new, empty cache
+     *
+     * @throws NullPointerException if the serializer is null
+     */
+    public static OASDocumentCache of(Function<DocumentFormat, byte[]> serializer, boolean gzip) {
+        if (serializer == null) {
+            throw new NullPointerException();
+        }
+        return new OASDocumentCache(gzip) {
+            @Override
+            protected byte[] serialize(DocumentFormat format) {
+                return serializer.apply(format);
+            }
+        };
+    }
+
+    /**
+     * Serializes the OpenAPI document in the given format. This method is called at most once per format between
+     * two invalidations of the cache, unless several threads request a document that is not cached yet at the same
+     * time.
+     *
+     * @param format the format of the document
+     * @return the bytes of the document
+     */
+    protected abstract byte[] serialize(DocumentFormat format);
+
+    /**
+     * Returns the document in the given format, serializing it if it is not cached yet.
+     *
+     * @param format the format of the document
+     * @return the serialized document
+     *
+     * @throws NullPointerException if the format is null
+     */
+    public final SerializedDocument get(DocumentFormat format) {
+        final AtomicStampedReference<SerializedDocument> slot = slot(format.ordinal());
+        final int[] stamp = new int[1];
+        final SerializedDocument document = slot.get(stamp);
+        if (document != null) {
+            return document;
+        }
+        final SerializedDocument created = SerializedDocument.of(format, serialize(format), gzip);
+        // keeps the document of the first thread, so that all requests see the same instance, unless the cache was
+        // invalidated while serializing
+        if (slot.compareAndSet(null, created, stamp[0], stamp[0])) {
+            return created;
+        }
+        final int[] current = new int[1];
+        final SerializedDocument cached = slot.get(current);
+        return cached != null && current[0] == stamp[0] ? cached : created;
+    }
+
+    /**
+     * Discards the cached documents, so that they are serialized again when they are next requested. The documents
+     * being serialized when this method is called are not cached.
+     */
+    public final void invalidate() {
+        for (int i = 0; i < documents.length; i++) {
+            final AtomicStampedReference<SerializedDocument> slot = slot(i);
+            final int[] stamp = new int[1];
+            SerializedDocument document = slot.get(stamp);
+            while (!slot.compareAndSet(document, null, stamp[0], stamp[0] + 1)) {
+                document = slot.get(stamp);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private AtomicStampedReference<SerializedDocument> slot(int index) {
+        return (AtomicStampedReference<SerializedDocument>) documents[index];
+    }
+}
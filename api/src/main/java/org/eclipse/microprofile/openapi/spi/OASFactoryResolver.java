@@ -18,9 +18,18 @@ package org.eclipse.microprofile.openapi.spi;
 
 import org.eclipse.microprofile.openapi.models.Constructible;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 /**
  * This class is not intended to be used by end-users. It should
@@ -35,6 +44,10 @@ public abstract class OASFactoryResolver {
 
     private static volatile OASFactoryResolver instance = null;
 
+    private static final ResolverCache RESOLVERS = new ResolverCache();
+
+    private final ConcurrentMap<Class<?>, Supplier<?>> suppliers = new ConcurrentHashMap<>();
+
     /**
      * Create a new instance of a constructible element from the OpenAPI model tree.
      * 
@@ -48,70 +61,296 @@ public abstract class OASFactoryResolver {
      */
     public abstract <T extends Constructible> T createObject(Class<T> clazz);
 
+    /**
+     * Create a supplier of new instances of a constructible element from the OpenAPI model tree.
+     * <p>
+     * Implementations are encouraged to override this method and return a supplier that invokes an
+     * already resolved constructor (for example a constructor reference or a {@link java.lang.invoke.MethodHandle}),
+     * so that no lookup is needed when an instance is created. The default implementation returns a
+     * supplier that delegates to {@link #createObject(Class)}.
+     * <p>
+     * The returned supplier must create a new instance on each invocation and must be safe for use by
+     * multiple threads, since it is cached and shared by {@link #getSupplier(Class)}.
+     *
+     * @param <T> describes the type parameter
+     * @param clazz represents a model which extends the org.eclipse.microprofile.openapi.models.Constructible interface
+     *
+     * @return a supplier of new instances of the requested model class
+     *
+     * @throws NullPointerException if the specified class is null
+     * @throws IllegalArgumentException if the supplier could not be created, most likely, due to an illegal or inappropriate class.
+     * Implementations may instead return a supplier that throws this exception when it is invoked.
+     */
+    public <T extends Constructible> Supplier<T> createSupplier(Class<T> clazz) {
+        if (clazz == null) {
+            throw new NullPointerException();
+        }
+        return () -> createObject(clazz);
+    }
+
+    /**
+     * Returns the supplier of new instances of the given constructible element, creating it with
+     * {@link #createSupplier(Class)} on first use and caching it for the lifetime of this resolver.
+     * Only used internally from within {@link org.eclipse.microprofile.openapi.OASFactory}
+     *
+     * @param <T> describes the type parameter
+     * @param clazz represents a model which extends the org.eclipse.microprofile.openapi.models.Constructible interface
+     *
+     * @return the cached supplier of new instances of the requested model class
+     *
+     * @throws NullPointerException if the specified class is null
+     * @throws IllegalArgumentException if the supplier could not be created, most likely, due to an illegal or inappropriate class
+     */
+    @SuppressWarnings("unchecked")
+    public final <T extends Constructible> Supplier<T> getSupplier(Class<T> clazz) {
+        Supplier<?> supplier = suppliers.get(clazz);
+        if (supplier == null) {
+            supplier = createSupplier(clazz);
+            final Supplier<?> existing = suppliers.putIfAbsent(clazz, supplier);
+            if (existing != null) {
+                supplier = existing;
+            }
+        }
+        return (Supplier<T>) supplier;
+    }
+
     /**
      * Creates an OASFactoryResolver object.
      * Only used internally from within {@link org.eclipse.microprofile.openapi.OASFactory}
+     * <p>
+     * Unless an instance has been set with {@link #setInstance(OASFactoryResolver)}, the resolver is looked up
+     * for the context class loader of the current thread and cached for that class loader, so that each
+     * application of a runtime hosting several applications gets the implementation visible to it. Once a
+     * class loader has been resolved, subsequent calls do not lock.
      * 
      * @return an instance of OASFactoryResolver
      */
     public static OASFactoryResolver instance() {
-        if (instance == null) {
-            synchronized (OASFactoryResolver.class) {
-                if (instance != null) {
-                    return instance;
-                }
-
-                ClassLoader cl = AccessController.doPrivileged(new PrivilegedAction<ClassLoader>() {
-                    @Override
-                    public ClassLoader run() {
-                        return Thread.currentThread().getContextClassLoader();
-                    }
-                });
-                if (cl == null) {
-                    cl = OASFactoryResolver.class.getClassLoader();
-                }
-
-                OASFactoryResolver newInstance = loadSpi(cl);
+        final OASFactoryResolver override = instance;
+        if (override != null) {
+            return override;
+        }
 
-                if (newInstance == null) {
-                    throw new IllegalStateException("No OASFactoryResolver implementation found!");
-                }
+        ClassLoader cl = getContextClassLoader();
+        if (cl == null) {
+            cl = OASFactoryResolver.class.getClassLoader();
+        }
+        if (cl == null) {
+            throw new IllegalStateException("No OASFactoryResolver implementation found!");
+        }
 
-                instance = newInstance;
+        OASFactoryResolver resolver = RESOLVERS.get(cl);
+        if (resolver == null) {
+            resolver = loadSpi(cl);
+            if (resolver == null) {
+                throw new IllegalStateException("No OASFactoryResolver implementation found!");
             }
         }
+        return resolver;
+    }
 
-        return instance;
+    private static ClassLoader getContextClassLoader() {
+        if (System.getSecurityManager() == null) {
+            return Thread.currentThread().getContextClassLoader();
+        }
+        return AccessController.doPrivileged(new PrivilegedAction<ClassLoader>() {
+            @Override
+            public ClassLoader run() {
+                return Thread.currentThread().getContextClassLoader();
+            }
+        });
     }
 
+    /**
+     * Looks the implementation up parent first, starting from the outermost class loader and reusing
+     * the resolvers already cached, and caches the result for every class loader from the one it was
+     * found in down to the given one.
+     */
     private static OASFactoryResolver loadSpi(ClassLoader cl) {
-        if (cl == null) {
-            return null;
+        final Deque<ClassLoader> chain = new ArrayDeque<>();
+        for (ClassLoader loader = cl; loader != null; loader = loader.getParent()) {
+            chain.push(loader);
         }
 
-        OASFactoryResolver instance = loadSpi(cl.getParent());
-
-        if (instance == null) {
-            ServiceLoader<OASFactoryResolver> sl = ServiceLoader.load(OASFactoryResolver.class, cl);
-            for (OASFactoryResolver spi : sl) {
-                if (instance != null) {
-                    throw new IllegalStateException("Multiple OASFactoryResolver implementations found: " + spi.getClass().getName() + " and "
-                            + instance.getClass().getName());
-                }
-                else {
-                    instance = spi;
+        OASFactoryResolver instance = null;
+        while (!chain.isEmpty()) {
+            final ClassLoader loader = chain.pop();
+            if (instance == null) {
+                instance = RESOLVERS.get(loader);
+            }
+            if (instance == null) {
+                ServiceLoader<OASFactoryResolver> sl = ServiceLoader.load(OASFactoryResolver.class, loader);
+                for (OASFactoryResolver spi : sl) {
+                    if (instance != null) {
+                        throw new IllegalStateException("Multiple OASFactoryResolver implementations found: " + spi.getClass().getName() + " and "
+                                + instance.getClass().getName());
+                    }
+                    else {
+                        instance = spi;
+                    }
                 }
             }
+            if (instance != null) {
+                instance = RESOLVERS.putIfAbsent(loader, instance);
+            }
         }
         return instance;
     }
 
     /**
      * Set the instance. It is used by OSGi environment while service loader pattern is not supported.
+     * <p>
+     * The instance set here is returned for every class loader. Setting it to null restores the lookup
+     * per class loader.
      *
      * @param factory set the instance.
      */
     public static void setInstance(OASFactoryResolver factory) {
         instance = factory;
     }
+
+    /**
+     * The resolvers found so far, keyed by class loader. The class loaders are only weakly referenced, so that
+     * undeployed applications can be collected. A resolver whose class was loaded by the very class loader it is
+     * cached for is only weakly referenced by the cache as well, since a strong reference to it would in turn keep its
+     * class loader reachable, but is strongly referenced by its own class, through a {@link ClassValue}, so that it
+     * lives exactly as long as its class loader, together with the suppliers it caches.
+     */
+    private static final class ResolverCache {
+
+        /**
+         * The resolver held by each resolver class loaded by the class loader it is cached for.
+         */
+        private static final ClassValue<AtomicReference<OASFactoryResolver>> OWN_RESOLVER =
+                new ClassValue<AtomicReference<OASFactoryResolver>>() {
+                    @Override
+                    protected AtomicReference<OASFactoryResolver> computeValue(Class<?> type) {
+                        return new AtomicReference<>();
+                    }
+                };
+
+        private final ConcurrentMap<LoaderKey, Entry> resolvers = new ConcurrentHashMap<>();
+        private final ReferenceQueue<ClassLoader> queue = new ReferenceQueue<>();
+
+        /**
+         * Looks the resolver up with a plain key, without allocating a reference, since this is called for every
+         * element created by the OASFactory. Stale entries are expunged when a resolver is cached instead.
+         */
+        OASFactoryResolver get(ClassLoader cl) {
+            final Entry entry = resolvers.get(new LookupKey(cl));
+            return entry == null ? null : entry.get();
+        }
+
+        /**
+         * Caches the resolver for the given class loader unless a resolver is cached for it already,
+         * and returns the cached resolver.
+         */
+        OASFactoryResolver putIfAbsent(ClassLoader cl, OASFactoryResolver resolver) {
+            expungeStaleEntries();
+            final LoaderKey key = new LoaderKey(cl, queue);
+            final Entry entry;
+            if (resolver.getClass().getClassLoader() == cl) {
+                final AtomicReference<OASFactoryResolver> own = OWN_RESOLVER.get(resolver.getClass());
+                own.compareAndSet(null, resolver);
+                entry = new Entry(null, new WeakReference<>(own.get()));
+            }
+            else {
+                entry = new Entry(resolver, null);
+            }
+            while (true) {
+                final Entry existing = resolvers.putIfAbsent(key, entry);
+                if (existing == null) {
+                    return entry.get();
+                }
+                final OASFactoryResolver cached = existing.get();
+                if (cached != null) {
+                    return cached;
+                }
+                if (resolvers.replace(key, existing, entry)) {
+                    return entry.get();
+                }
+            }
+        }
+
+        private void expungeStaleEntries() {
+            Reference<? extends ClassLoader> stale;
+            while ((stale = queue.poll()) != null) {
+                resolvers.remove(stale);
+            }
+        }
+    }
+
+    /**
+     * A cached resolver, held strongly, or weakly when its class holds it.
+     */
+    private static final class Entry {
+
+        private final OASFactoryResolver resolver;
+        private final WeakReference<OASFactoryResolver> weakResolver;
+
+        Entry(OASFactoryResolver resolver, WeakReference<OASFactoryResolver> weakResolver) {
+            this.resolver = resolver;
+            this.weakResolver = weakResolver;
+        }
+
+        OASFactoryResolver get() {
+            return resolver != null ? resolver : weakResolver.get();
+        }
+    }
+
+    /**
+     * A key looking up the entry of a class loader, which compares by the identity of the class loader with the
+     * {@link LoaderKey} of the entry.
+     */
+    private static final class LookupKey {
+
+        private final ClassLoader cl;
+
+        LookupKey(ClassLoader cl) {
+            this.cl = cl;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(cl);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof LoaderKey && ((LoaderKey) obj).get() == cl;
+        }
+    }
+
+    /**
+     * A weak reference to a class loader that compares by the identity of the class loader.
+     */
+    private static final class LoaderKey extends WeakReference<ClassLoader> {
+
+        private final int hash;
+
+        LoaderKey(ClassLoader cl, ReferenceQueue<ClassLoader> queue) {
+            super(cl, queue);
+            this.hash = System.identityHashCode(cl);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            final ClassLoader cl = get();
+            if (cl == null) {
+                return false;
+            }
+            if (obj instanceof LookupKey) {
+                return cl == ((LookupKey) obj).cl;
+            }
+            return obj instanceof LoaderKey && cl == ((LoaderKey) obj).get();
+        }
+    }
 }
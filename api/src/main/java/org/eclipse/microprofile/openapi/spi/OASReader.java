@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.spi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.ServiceLoader;
+
+import org.eclipse.microprofile.openapi.StringPool;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+
+/**
+ * This class is not intended to be used by end-users. It should be used by vendors to load the static OpenAPI
+ * document of an application, such as <code>META-INF/openapi.yaml</code>, into the OpenAPI model.
+ *
+ * <br><br>Service provider for OASReader. An implementation registers itself via the {@link java.util.ServiceLoader}
+ * mechanism or by manually setting it using the setInstance method. When no implementation is registered, a default
+ * implementation is used, which builds the model with a {@link ModelBuilder} as the document is parsed, without
+ * building an intermediate tree of maps and lists, and which reads files through a memory mapping rather than a
+ * copy into the heap. Vendors using a parser of their own can drive a {@link ModelBuilder} with its events instead.
+ *
+ * <br><br>The YAML parser of the default implementation reads the block and flow styles used by OpenAPI documents. It
+ * does not support anchors (<code>&amp;name</code>), aliases (<code>*name</code>), tags, complex keys or streams of
+ * several documents, and fails with an {@link IOException} on a document using them.
+ *
+ * <br><br>Example:
+ * <pre><code>OpenAPI model = OASReader.instance().read(applicationClassLoader);
+ * </code></pre>
+ */
+public abstract class OASReader {
+
+    private static volatile OASReader instance = null;
+
+    private static final OASReader DEFAULT = new StreamingOASReader();
+
+    private static final String[] RESOURCES = {
+        BinaryDocument.RESOURCE, "META-INF/openapi.yaml", "META-INF/openapi.yml", "META-INF/openapi.json"
+    };
+
+    /**
+     * Reads an OpenAPI document from the given stream, which is not closed. The document is encoded as UTF-8.
+     *
+     * @param in the stream to read from
+     * @param format the format of the document
+     * @return the model of the document
+     *
+     * @throws NullPointerException if any of the arguments is null
+     * @throws IOException if reading from the stream fails, or the document is malformed
+     */
+    public abstract OpenAPI read(InputStream in, DocumentFormat format) throws IOException;
+
+    /**
+     * Reads an OpenAPI document from the given stream, which is not closed, replacing the strings of the model by
+     * their pooled instances in the given pool. The document is encoded as UTF-8.
+     * <p>
+     * The default implementation pools the strings of the model once it is read. Implementations are encouraged to
+     * override this method and pool the strings as they are read.
+     *
+     * @param in the stream to read from
+     * @param format the format of the document
+     * @param pool the pool of the strings, which may be shared by the documents of one model
+     * @return the model of the document
+     *
+     * @throws NullPointerException if any of the arguments is null
+     * @throws IOException if reading from the stream fails, or the document is malformed
+     */
+    public OpenAPI read(InputStream in, DocumentFormat format, StringPool pool) throws IOException {
+        if (pool == null) {
+            throw new NullPointerException();
+        }
+        return pool.intern(read(in, format));
+    }
+
+    /**
+     * Reads an OpenAPI document from the remaining bytes of the given buffer, such as a buffer mapping a file. The
+     * document is encoded as UTF-8. The position of the buffer is not changed.
+     * <p>
+     * The default implementation reads from a stream adapting the buffer. Implementations are encouraged to
+     * override this method and decode the buffer directly.
+     *
+     * @param buffer the buffer to read from
+     * @param format the format of the document
+     * @return the model of the document
+     *
+     * @throws NullPointerException if any of the arguments is null
+     * @throws IOException if the document is malformed
+     */
+    public OpenAPI read(ByteBuffer buffer, DocumentFormat format) throws IOException {
+        return read(new ByteBufferInputStream(buffer.duplicate()), format);
+    }
+
+    /**
+     * Reads an OpenAPI document from the given file, which is mapped into memory. The format of the document follows
+     * from the extension of the file name: <code>.bin</code> for the {@link BinaryDocument binary format},
+     * <code>.json</code> for JSON, and YAML otherwise.
+     *
+     * @param file the file to read
+     * @return the model of the document
+     *
+     * @throws NullPointerException if the file is null
+     * @throws IOException if reading the file fails, or the document is malformed
+     */
+    public OpenAPI read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return isBinary(file.toString()) ? BinaryDocument.read(buffer) : read(buffer, formatOf(file.toString()));
+        }
+    }
+
+    /**
+     * Reads an OpenAPI document from the given URL, such as a resource of a class loader. A <code>file:</code> URL is
+     * mapped into memory, and any other URL is read as a stream. The format of the document follows from the
+     * extension of the path of the URL, as for {@link #read(Path)}.
+     *
+     * @param url the URL to read
+     * @return the model of the document
+     *
+     * @throws NullPointerException if the URL is null
+     * @throws IOException if reading the URL fails, or the document is malformed
+     */
+    public OpenAPI read(URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return read(Paths.get(url.toURI()));
+            }
+            catch (URISyntaxException | IllegalArgumentException e) {
+                // not a path of the default file system, read as a stream
+            }
+        }
+        try (InputStream in = url.openStream()) {
+            return isBinary(url.getPath()) ? BinaryDocument.read(in) : read(in, formatOf(url.getPath()));
+        }
+    }
+
+    /**
+     * Reads the static OpenAPI document of an application from the resources of its class loader: the first of
+     * {@value BinaryDocument#RESOURCE}, <code>META-INF/openapi.yaml</code>, <code>META-INF/openapi.yml</code> and
+     * <code>META-INF/openapi.json</code> that exists.
+     *
+     * @param loader the class loader of the application
+     * @return the model of the document, or null if the application has no static document
+     *
+     * @throws NullPointerException if the class loader is null
+     * @throws IOException if reading the document fails, or the document is malformed
+     */
+    public OpenAPI read(ClassLoader loader) throws IOException {
+        for (String resource : RESOURCES) {
+            final URL url = loader.getResource(resource);
+            if (url != null) {
+                return read(url);
+            }
+        }
+        return null;
+    }
+
+    private static DocumentFormat formatOf(String name) {
+        return name.toLowerCase(Locale.ROOT).endsWith(".json") ? DocumentFormat.JSON : DocumentFormat.YAML;
+    }
+
+    private static boolean isBinary(String name) {
+        return name.toLowerCase(Locale.ROOT).endsWith(".bin");
+    }
+
+    /**
+     * Returns the OASReader to use: the instance set with {@link #setInstance(OASReader)}, else the first
+     * implementation registered via the {@link java.util.ServiceLoader} mechanism for the context class loader of
+     * the current thread, else the default implementation.
+     * <p>
+     * The registered implementations are looked up on each call, so callers are expected to keep the returned
+     * reader for as long as they need it.
+     *
+     * @return an instance of OASReader
+     */
+    public static OASReader instance() {
+        final OASReader override = instance;
+        if (override != null) {
+            return override;
+        }
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if (cl == null) {
+            cl = OASReader.class.getClassLoader();
+        }
+        final Iterator<OASReader> readers = ServiceLoader.load(OASReader.class, cl).iterator();
+        return readers.hasNext() ? readers.next() : DEFAULT;
+    }
+
+    /**
+     * Set the instance. It is used by OSGi environment while service loader pattern is not supported.
+     * A null instance restores the lookup described in {@link #instance()}.
+     *
+     * @param reader set the instance.
+     */
+    public static void setInstance(OASReader reader) {
+        instance = reader;
+    }
+
+    /**
+     * Reads the remaining bytes of a buffer, advancing its position.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return length == 0 ? 0 : -1;
+            }
+            final int count = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.spi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+import org.eclipse.microprofile.openapi.models.Constructible;
+
+/**
+ * This class is not intended to be used by end-users. It should be used by vendors to serialize the OpenAPI model
+ * served by the /openapi endpoint.
+ *
+ * <br><br>Service provider for OASWriter. An implementation registers itself via the {@link java.util.ServiceLoader}
+ * mechanism or by manually setting it using the setInstance method. When no implementation is registered, a default
+ * implementation is used, which streams the elements of the model to the output as it reads them, without building
+ * an intermediate tree, and reuses its encoding buffers.
+ *
+ * <br><br>Example:
+ * <pre><code>OASDocumentCache cache = OASDocumentCache.of(format -&gt; OASWriter.instance().toBytes(openAPI, format), true);
+ * </code></pre>
+ */
+public abstract class OASWriter {
+
+    private static volatile OASWriter instance = null;
+
+    private static final OASWriter DEFAULT = new StreamingOASWriter();
+
+    /**
+     * Writes the given element of the OpenAPI model tree, and all of its descendants, to the given stream. The
+     * stream is neither flushed nor closed.
+     *
+     * @param element the element to write
+     * @param format the format of the document
+     * @param out the stream to write to
+     *
+     * @throws NullPointerException if any of the arguments is null
+     * @throws IOException if writing to the stream fails
+     */
+    public abstract void write(Constructible element, DocumentFormat format, OutputStream out) throws IOException;
+
+    /**
+     * Writes the given element of the OpenAPI model tree, and all of its descendants, to the given channel. The
+     * channel is not closed.
+     * <p>
+     * The default implementation writes to a stream adapting the channel. Implementations are encouraged to
+     * override this method and write their buffers to the channel directly.
+     *
+     * @param element the element to write
+     * @param format the format of the document
+     * @param channel the channel to write to
+     *
+     * @throws NullPointerException if any of the arguments is null
+     * @throws IOException if writing to the channel fails
+     */
+    public void write(Constructible element, DocumentFormat format, WritableByteChannel channel) throws IOException {
+        if (channel == null) {
+            throw new NullPointerException();
+        }
+        write(element, format, Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Writes the given element of the OpenAPI model tree, and all of its descendants, to a new byte array.
+     *
+     * @param element the element to write
+     * @param format the format of the document
+     * @return the bytes of the document
+     *
+     * @throws NullPointerException if any of the arguments is null
+     */
+    public byte[] toBytes(Constructible element, DocumentFormat format) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(DocumentEmitter.BUFFER_SIZE);
+        try {
+            write(element, format, out);
+        }
+        catch (IOException e) {
+            // a ByteArrayOutputStream does not throw
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the OASWriter to use: the instance set with {@link #setInstance(OASWriter)}, else the first
+     * implementation registered via the {@link java.util.ServiceLoader} mechanism for the context class loader of
+     * the current thread, else the default implementation.
+     * <p>
+     * The registered implementations are looked up on each call, so callers are expected to keep the returned
+     * writer for as long as they need it.
+     *
+     * @return an instance of OASWriter
+     */
+    public static OASWriter instance() {
+        final OASWriter override = instance;
+        if (override != null) {
+            return override;
+        }
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        if (cl == null) {
+            cl = OASWriter.class.getClassLoader();
+        }
+        final Iterator<OASWriter> writers = ServiceLoader.load(OASWriter.class, cl).iterator();
+        return writers.hasNext() ? writers.next() : DEFAULT;
+    }
+
+    /**
+     * Set the instance. It is used by OSGi environment while service loader pattern is not supported.
+     * A null instance restores the lookup described in {@link #instance()}.
+     *
+     * @param writer set the instance.
+     */
+    public static void setInstance(OASWriter writer) {
+        instance = writer;
+    }
+}
@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.spi;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class is not intended to be used by end-users. It holds the final bytes of the OpenAPI document in one
+ * {@link DocumentFormat}, as served by the /openapi endpoint, together with a strong entity tag identifying them.
+ *
+ * <br><br>The document may also hold a gzip compressed copy of the bytes, to be served to clients that accept
+ * the gzip content coding. The compressed representation has an entity tag of its own.
+ *
+ * <br><br>Instances are immutable and may be shared by any number of threads.
+ */
+public final class SerializedDocument {
+
+    private static final String GZIP_SUFFIX = "-gzip";
+
+    private final DocumentFormat format;
+    private final byte[] bytes;
+    private final byte[] gzipBytes;
+    private final String eTag;
+    private final String gzipETag;
+
+    private SerializedDocument(DocumentFormat format, byte[] bytes, byte[] gzipBytes, String hash) {
+        this.format = format;
+        this.bytes = bytes;
+        this.gzipBytes = gzipBytes;
+        this.eTag = '"' + hash + '"';
+        this.gzipETag = gzipBytes == null ? null : '"' + hash + GZIP_SUFFIX + '"';
+    }
+
+    /**
+     * Creates a serialized document from the given bytes, which are copied.
+     *
+     * @param format the format of the document
+     * @param bytes the serialized document
+     * @param gzip whether to also hold a gzip compressed copy of the bytes
+     * @return a new serialized document
+     *
+     * @throws NullPointerException if the format or the bytes are null
+     */
+    public static SerializedDocument of(DocumentFormat format, byte[] bytes, boolean gzip) {
+        if (format == null) {
+            throw new NullPointerException();
+        }
+        final byte[] copy = bytes.clone();
+        return new SerializedDocument(format, copy, gzip ? gzip(copy) : null, hash(copy));
+    }
+
+    /**
+     * @return the format of this document
+     */
+    public DocumentFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * @return the strong entity tag of the uncompressed document, including the surrounding quotes
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @return a read-only view of the bytes of the uncompressed document
+     */
+    public ByteBuffer getContent() {
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * @return the length of the uncompressed document in bytes
+     */
+    public int getContentLength() {
+        return bytes.length;
+    }
+
+    /**
+     * Writes the uncompressed document to the given stream.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing to the stream fails
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(bytes);
+    }
+
+    /**
+     * @return whether this document holds a gzip compressed copy of its bytes
+     */
+    public boolean hasGzipContent() {
+        return gzipBytes != null;
+    }
+
+    /**
+     * @return the strong entity tag of the gzip compressed document, including the surrounding quotes, or null
+     * if this document holds no compressed copy
+     */
+    public String getGzipETag() {
+        return gzipETag;
+    }
+
+    /**
+     * @return a read-only view of the bytes of the gzip compressed document, or null if this document holds no
+     * compressed copy
+     */
+    public ByteBuffer getGzipContent() {
+        return gzipBytes == null ? null : ByteBuffer.wrap(gzipBytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Writes the gzip compressed document to the given stream.
+     *
+     * @param out the stream to write to
+     * @throws IOException if writing to the stream fails
+     * @throws IllegalStateException if this document holds no compressed copy
+     */
+    public void writeGzipTo(OutputStream out) throws IOException {
+        if (gzipBytes == null) {
+            throw new IllegalStateException("No gzip compressed content");
+        }
+        out.write(gzipBytes);
+    }
+
+    /**
+     * Returns whether a request with the given If-None-Match header is to be answered with 304 Not Modified, that is
+     * whether the header is "*" or lists one of the entity tags of this document. Entity tags are compared with the
+     * weak comparison function, as required for If-None-Match.
+     *
+     * @param ifNoneMatch the value of the If-None-Match header, or null
+     * @return true if the client already has a current representation of this document
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String opaque = tag.trim();
+            if ("*".equals(opaque)) {
+                return true;
+            }
+            if (opaque.startsWith("W/")) {
+                opaque = opaque.substring(2);
+            }
+            if (opaque.equals(eTag) || opaque.equals(gzipETag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof SerializedDocument)) {
+            return false;
+        }
+        final SerializedDocument other = (SerializedDocument) obj;
+        return format == other.format && eTag.equals(other.eTag) && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return eTag.hashCode();
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MessageDigest.getInstance("SHA-256").digest(bytes));
+        }
+        catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                // the content is compressed once and served many times
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(bytes);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.spi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.microprofile.openapi.StringPool;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+
+/**
+ * The default OASReader. It decodes the document as UTF-8 and gives the events of its parser to a
+ * {@link ModelBuilder}, so that the model is built as the document is read and nothing else of the document is kept
+ * in memory.
+ */
+final class StreamingOASReader extends OASReader {
+
+    @Override
+    public OpenAPI read(InputStream in, DocumentFormat format) throws IOException {
+        if (in == null || format == null) {
+            throw new NullPointerException();
+        }
+        return read(in, format, new ModelBuilder());
+    }
+
+    @Override
+    public OpenAPI read(InputStream in, DocumentFormat format, StringPool pool) throws IOException {
+        if (in == null || format == null) {
+            throw new NullPointerException();
+        }
+        return read(in, format, new ModelBuilder(pool));
+    }
+
+    private static OpenAPI read(InputStream in, DocumentFormat format, ModelBuilder builder) throws IOException {
+        DocumentParser.create(format, builder).parse(new InputStreamReader(in, StandardCharsets.UTF_8));
+        return builder.getModel();
+    }
+}
@@ -0,0 +1,437 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.spi;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.Extensible;
+import org.eclipse.microprofile.openapi.models.ExternalDocumentation;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Reference;
+import org.eclipse.microprofile.openapi.models.examples.Example;
+import org.eclipse.microprofile.openapi.models.headers.Header;
+import org.eclipse.microprofile.openapi.models.info.Contact;
+import org.eclipse.microprofile.openapi.models.info.Info;
+import org.eclipse.microprofile.openapi.models.info.License;
+import org.eclipse.microprofile.openapi.models.links.Link;
+import org.eclipse.microprofile.openapi.models.media.Discriminator;
+import org.eclipse.microprofile.openapi.models.media.Encoding;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.media.XML;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.parameters.RequestBody;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.security.OAuthFlow;
+import org.eclipse.microprofile.openapi.models.security.OAuthFlows;
+import org.eclipse.microprofile.openapi.models.security.SecurityScheme;
+import org.eclipse.microprofile.openapi.models.servers.Server;
+import org.eclipse.microprofile.openapi.models.servers.ServerVariable;
+import org.eclipse.microprofile.openapi.models.tags.Tag;
+
+/**
+ * The default OASWriter. It writes the fields of each element in the order of the OpenAPI specification, reading
+ * them with the getters of the model interfaces, and writes the entries of the elements that are maps, such as
+ * Paths or APIResponses, in the iteration order of the map. Extensions are written after the fields of an element.
+ * <p>
+ * Each thread reuses one encoding buffer, so writing a document allocates little beyond the iterators of the
+ * lists and maps of the model.
+ */
+final class StreamingOASWriter extends OASWriter {
+
+    private static final ThreadLocal<byte[]> BUFFERS = new ThreadLocal<>();
+
+    @Override
+    public void write(Constructible element, DocumentFormat format, OutputStream out) throws IOException {
+        if (out == null) {
+            throw new NullPointerException();
+        }
+        write(element, format, out, null);
+    }
+
+    @Override
+    public void write(Constructible element, DocumentFormat format, WritableByteChannel channel) throws IOException {
+        if (channel == null) {
+            throw new NullPointerException();
+        }
+        write(element, format, null, channel);
+    }
+
+    private static void write(Constructible element, DocumentFormat format, OutputStream out, WritableByteChannel channel)
+            throws IOException {
+        if (element == null || format == null) {
+            throw new NullPointerException();
+        }
+        byte[] buffer = BUFFERS.get();
+        if (buffer == null) {
+            buffer = new byte[DocumentEmitter.BUFFER_SIZE];
+        }
+        else {
+            // a nested call on the same thread allocates a buffer of its own
+            BUFFERS.set(null);
+        }
+        try {
+            write(element, DocumentEmitter.create(format, buffer, out, channel));
+        }
+        finally {
+            BUFFERS.set(buffer);
+        }
+    }
+
+    /**
+     * Writes the given element, and all of its descendants, as events of the given emitter.
+     */
+    static void write(Constructible element, DocumentEmitter emitter) throws IOException {
+        new ModelWriter(emitter).element(element);
+        emitter.finish();
+    }
+
+    /**
+     * Writes the elements of one document.
+     */
+    private static final class ModelWriter {
+
+        private final DocumentEmitter emitter;
+
+        ModelWriter(DocumentEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void element(Constructible element) throws IOException {
+            emitter.beginObject();
+            if (element instanceof Reference && ((Reference<?>) element).getRef() != null) {
+                field("$ref", ((Reference<?>) element).getRef());
+            }
+            if (element instanceof Map) {
+                entries((Map<?, ?>) element);
+            }
+            else {
+                fields(element);
+            }
+            if (element instanceof Extensible) {
+                extensions(((Extensible) element).getExtensions());
+            }
+            emitter.endObject();
+        }
+
+        private void fields(Constructible element) throws IOException {
+            if (element instanceof Schema) {
+                schema((Schema) element);
+            }
+            else if (element instanceof OpenAPI) {
+                final OpenAPI openAPI = (OpenAPI) element;
+                field("openapi", openAPI.getOpenapi());
+                field("info", openAPI.getInfo());
+                field("externalDocs", openAPI.getExternalDocs());
+                field("servers", openAPI.getServers());
+                field("security", openAPI.getSecurity());
+                field("tags", openAPI.getTags());
+                field("paths", openAPI.getPaths());
+                field("components", openAPI.getComponents());
+            }
+            else if (element instanceof PathItem) {
+                final PathItem pathItem = (PathItem) element;
+                field("summary", pathItem.getSummary());
+                field("description", pathItem.getDescription());
+                field("get", pathItem.getGET());
+                field("put", pathItem.getPUT());
+                field("post", pathItem.getPOST());
+                field("delete", pathItem.getDELETE());
+                field("options", pathItem.getOPTIONS());
+                field("head", pathItem.getHEAD());
+                field("patch", pathItem.getPATCH());
+                field("trace", pathItem.getTRACE());
+                field("servers", pathItem.getServers());
+                field("parameters", pathItem.getParameters());
+            }
+            else if (element instanceof Operation) {
+                final Operation operation = (Operation) element;
+                field("tags", operation.getTags());
+                field("summary", operation.getSummary());
+                field("description", operation.getDescription());
+                field("externalDocs", operation.getExternalDocs());
+                field("operationId", operation.getOperationId());
+                field("parameters", operation.getParameters());
+                field("requestBody", operation.getRequestBody());
+                field("responses", operation.getResponses());
+                field("callbacks", operation.getCallbacks());
+                field("deprecated", operation.getDeprecated());
+                field("security", operation.getSecurity());
+                field("servers", operation.getServers());
+            }
+            else if (element instanceof Parameter) {
+                final Parameter parameter = (Parameter) element;
+                field("name", parameter.getName());
+                field("in", parameter.getIn());
+                field("description", parameter.getDescription());
+                field("required", parameter.getRequired());
+                field("deprecated", parameter.getDeprecated());
+                field("allowEmptyValue", parameter.getAllowEmptyValue());
+                field("style", parameter.getStyle());
+                field("explode", parameter.getExplode());
+                field("allowReserved", parameter.getAllowReserved());
+                field("schema", parameter.getSchema());
+                field("example", parameter.getExample());
+                field("examples", parameter.getExamples());
+                field("content", parameter.getContent());
+            }
+            else if (element instanceof APIResponse) {
+                final APIResponse response = (APIResponse) element;
+                field("description", response.getDescription());
+                field("headers", response.getHeaders());
+                field("content", response.getContent());
+                field("links", response.getLinks());
+            }
+            else if (element instanceof MediaType) {
+                final MediaType mediaType = (MediaType) element;
+                field("schema", mediaType.getSchema());
+                field("example", mediaType.getExample());
+                field("examples", mediaType.getExamples());
+                field("encoding", mediaType.getEncoding());
+            }
+            else if (element instanceof RequestBody) {
+                final RequestBody requestBody = (RequestBody) element;
+                field("description", requestBody.getDescription());
+                field("content", requestBody.getContent());
+                field("required", requestBody.getRequired());
+            }
+            else if (element instanceof Header) {
+                final Header header = (Header) element;
+                field("description", header.getDescription());
+                field("required", header.getRequired());
+                field("deprecated", header.getDeprecated());
+                field("allowEmptyValue", header.getAllowEmptyValue());
+                field("style", header.getStyle());
+                field("explode", header.getExplode());
+                field("schema", header.getSchema());
+                field("example", header.getExample());
+                field("examples", header.getExamples());
+                field("content", header.getContent());
+            }
+            else if (element instanceof Components) {
+                final Components components = (Components) element;
+                field("schemas", components.getSchemas());
+                field("responses", components.getResponses());
+                field("parameters", components.getParameters());
+                field("examples", components.getExamples());
+                field("requestBodies", components.getRequestBodies());
+                field("headers", components.getHeaders());
+                field("securitySchemes", components.getSecuritySchemes());
+                field("links", components.getLinks());
+                field("callbacks", components.getCallbacks());
+            }
+            else if (element instanceof Info) {
+                final Info info = (Info) element;
+                field("title", info.getTitle());
+                field("description", info.getDescription());
+                field("termsOfService", info.getTermsOfService());
+                field("contact", info.getContact());
+                field("license", info.getLicense());
+                field("version", info.getVersion());
+            }
+            else if (element instanceof Contact) {
+                final Contact contact = (Contact) element;
+                field("name", contact.getName());
+                field("url", contact.getUrl());
+                field("email", contact.getEmail());
+            }
+            else if (element instanceof License) {
+                final License license = (License) element;
+                field("name", license.getName());
+                field("url", license.getUrl());
+            }
+            else if (element instanceof Server) {
+                final Server server = (Server) element;
+                field("url", server.getUrl());
+                field("description", server.getDescription());
+                field("variables", server.getVariables());
+            }
+            else if (element instanceof ServerVariable) {
+                final ServerVariable variable = (ServerVariable) element;
+                field("enum", variable.getEnumeration());
+                field("default", variable.getDefaultValue());
+                field("description", variable.getDescription());
+            }
+            else if (element instanceof Tag) {
+                final Tag tag = (Tag) element;
+                field("name", tag.getName());
+                field("description", tag.getDescription());
+                field("externalDocs", tag.getExternalDocs());
+            }
+            else if (element instanceof ExternalDocumentation) {
+                final ExternalDocumentation externalDocs = (ExternalDocumentation) element;
+                field("description", externalDocs.getDescription());
+                field("url", externalDocs.getUrl());
+            }
+            else if (element instanceof Example) {
+                final Example example = (Example) element;
+                field("summary", example.getSummary());
+                field("description", example.getDescription());
+                field("value", example.getValue());
+                field("externalValue", example.getExternalValue());
+            }
+            else if (element instanceof Link) {
+                final Link link = (Link) element;
+                field("operationRef", link.getOperationRef());
+                field("operationId", link.getOperationId());
+                field("parameters", link.getParameters());
+                field("requestBody", link.getRequestBody());
+                field("description", link.getDescription());
+                field("server", link.getServer());
+            }
+            else if (element instanceof Encoding) {
+                final Encoding encoding = (Encoding) element;
+                field("contentType", encoding.getContentType());
+                field("headers", encoding.getHeaders());
+                field("style", encoding.getStyle());
+                field("explode", encoding.getExplode());
+                field("allowReserved", encoding.getAllowReserved());
+            }
+            else if (element instanceof Discriminator) {
+                final Discriminator discriminator = (Discriminator) element;
+                field("propertyName", discriminator.getPropertyName());
+                field("mapping", discriminator.getMapping());
+            }
+            else if (element instanceof XML) {
+                final XML xml = (XML) element;
+                field("name", xml.getName());
+                field("namespace", xml.getNamespace());
+                field("prefix", xml.getPrefix());
+                field("attribute", xml.getAttribute());
+                field("wrapped", xml.getWrapped());
+            }
+            else if (element instanceof SecurityScheme) {
+                final SecurityScheme scheme = (SecurityScheme) element;
+                field("type", scheme.getType());
+                field("description", scheme.getDescription());
+                field("name", scheme.getName());
+                field("in", scheme.getIn());
+                field("scheme", scheme.getScheme());
+                field("bearerFormat", scheme.getBearerFormat());
+                field("flows", scheme.getFlows());
+                field("openIdConnectUrl", scheme.getOpenIdConnectUrl());
+            }
+            else if (element instanceof OAuthFlows) {
+                final OAuthFlows flows = (OAuthFlows) element;
+                field("implicit", flows.getImplicit());
+                field("password", flows.getPassword());
+                field("clientCredentials", flows.getClientCredentials());
+                field("authorizationCode", flows.getAuthorizationCode());
+            }
+            else if (element instanceof OAuthFlow) {
+                final OAuthFlow flow = (OAuthFlow) element;
+                field("authorizationUrl", flow.getAuthorizationUrl());
+                field("tokenUrl", flow.getTokenUrl());
+                field("refreshUrl", flow.getRefreshUrl());
+                field("scopes", flow.getScopes());
+            }
+        }
+
+        private void schema(Schema schema) throws IOException {
+            field("type", schema.getType());
+            field("format", schema.getFormat());
+            field("title", schema.getTitle());
+            field("description", schema.getDescription());
+            field("default", schema.getDefaultValue());
+            field("enum", schema.getEnumeration());
+            field("multipleOf", schema.getMultipleOf());
+            field("maximum", schema.getMaximum());
+            field("exclusiveMaximum", schema.getExclusiveMaximum());
+            field("minimum", schema.getMinimum());
+            field("exclusiveMinimum", schema.getExclusiveMinimum());
+            field("maxLength", schema.getMaxLength());
+            field("minLength", schema.getMinLength());
+            field("pattern", schema.getPattern());
+            field("maxItems", schema.getMaxItems());
+            field("minItems", schema.getMinItems());
+            field("uniqueItems", schema.getUniqueItems());
+            field("maxProperties", schema.getMaxProperties());
+            field("minProperties", schema.getMinProperties());
+            field("required", schema.getRequired());
+            field("allOf", schema.getAllOf());
+            field("oneOf", schema.getOneOf());
+            field("anyOf", schema.getAnyOf());
+            field("not", schema.getNot());
+            field("items", schema.getItems());
+            field("properties", schema.getProperties());
+            field("additionalProperties", schema.getAdditionalProperties());
+            field("nullable", schema.getNullable());
+            field("discriminator", schema.getDiscriminator());
+            field("readOnly", schema.getReadOnly());
+            field("writeOnly", schema.getWriteOnly());
+            field("xml", schema.getXml());
+            field("externalDocs", schema.getExternalDocs());
+            field("example", schema.getExample());
+            field("deprecated", schema.getDeprecated());
+        }
+
+        private void field(String name, Object value) throws IOException {
+            if (value != null) {
+                emitter.name(name);
+                value(value);
+            }
+        }
+
+        private void value(Object value) throws IOException {
+            if (value instanceof Constructible) {
+                element((Constructible) value);
+            }
+            else if (value instanceof Map) {
+                emitter.beginObject();
+                entries((Map<?, ?>) value);
+                emitter.endObject();
+            }
+            else if (value instanceof List) {
+                emitter.beginArray();
+                for (Object item : (List<?>) value) {
+                    if (item == null) {
+                        emitter.scalar(null);
+                    }
+                    else {
+                        value(item);
+                    }
+                }
+                emitter.endArray();
+            }
+            else {
+                emitter.scalar(value);
+            }
+        }
+
+        private void entries(Map<?, ?> map) throws IOException {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                field(String.valueOf(entry.getKey()), entry.getValue());
+            }
+        }
+
+        private void extensions(Map<String, Object> extensions) throws IOException {
+            if (extensions != null) {
+                for (Map.Entry<String, Object> entry : extensions.entrySet()) {
+                    field(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.openapi.spi.CompactMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the time to fill a {@link CompactMap} with the keys of a map-typed model element, such as the response
+ * codes of an {@code APIResponses}, and to look every key up, compared with a {@link LinkedHashMap}. Sizes of one
+ * and four entries are the common ones; 64 entries exercise the index of larger maps.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactMapBenchmark {
+
+    @Param({"1", "4", "64"})
+    protected int size;
+
+    private String[] keys;
+
+    @Setup
+    public void createKeys() {
+        keys = new String[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = Integer.toString(200 + i);
+        }
+    }
+
+    @Benchmark
+    public int compactMap() {
+        return fillAndLookUp(new CompactMap<>());
+    }
+
+    @Benchmark
+    public int linkedHashMap() {
+        return fillAndLookUp(new LinkedHashMap<>());
+    }
+
+    private int fillAndLookUp(Map<String, Integer> map) {
+        for (int i = 0; i < keys.length; i++) {
+            map.put(keys[i], i);
+        }
+        int sum = 0;
+        for (String key : keys) {
+            sum += map.get(key);
+        }
+        return sum;
+    }
+}
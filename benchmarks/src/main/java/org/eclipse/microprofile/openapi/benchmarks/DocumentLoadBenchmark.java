@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.spi.BinaryDocument;
+import org.eclipse.microprofile.openapi.spi.DocumentFormat;
+import org.eclipse.microprofile.openapi.spi.OASReader;
+import org.eclipse.microprofile.openapi.spi.OASWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading a static OpenAPI document of a generated model into the model with the {@link OASReader}, from
+ * its YAML and JSON forms, and from its {@link BinaryDocument binary} form. The documents are held in direct buffers,
+ * as when they are mapped from files.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentLoadBenchmark {
+
+    @Param({"100", "1000", "4000"})
+    protected int pathCount;
+
+    @Param({"yaml", "json", "binary"})
+    protected String format;
+
+    private OASReader reader;
+    private ByteBuffer document;
+
+    @Setup(Level.Trial)
+    public void createDocument() throws IOException {
+        final OpenAPI model = ModelGenerator.createModel(pathCount);
+        final byte[] bytes;
+        if ("binary".equals(format)) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            BinaryDocument.write(model, out);
+            bytes = out.toByteArray();
+        }
+        else {
+            bytes = OASWriter.instance().toBytes(model, DocumentFormat.valueOf(format.toUpperCase()));
+        }
+        document = ByteBuffer.allocateDirect(bytes.length);
+        document.put(bytes).flip();
+        reader = OASReader.instance();
+    }
+
+    @Benchmark
+    public OpenAPI loadDocument() throws IOException {
+        if ("binary".equals(format)) {
+            return BinaryDocument.read(document);
+        }
+        return reader.read(document, DocumentFormat.valueOf(format.toUpperCase()));
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.benchmarks;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.openapi.OASFilter;
+import org.eclipse.microprofile.openapi.OASFilterWalker;
+import org.eclipse.microprofile.openapi.filter.AirlinesOASFilter;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures walking a whole model through an {@link OASFilter} with the {@link OASFilterWalker}.
+ * Filters may modify the model, so a fresh model is generated before every invocation; the
+ * generation time is not measured.
+ * <p>
+ * The {@code noop} filter keeps all of the default methods and therefore declares no types to
+ * filter, {@code operations} only filters operations, which lets the walker skip everything
+ * below them, and {@code airlines} uses the TCK {@link AirlinesOASFilter}, which filters every type.
+ * The {@code sequential} walker filters every element on the benchmark thread, while
+ * {@code parallel} uses the common ForkJoinPool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilterBenchmark {
+
+    @Param({"100", "1000", "4000"})
+    protected int pathCount;
+
+    @Param({"noop", "operations", "airlines"})
+    protected String filter;
+
+    @Param({"sequential", "parallel"})
+    protected String walker;
+
+    private List<OASFilter> filters;
+    private ForkJoinPool pool;
+    private OpenAPI model;
+
+    @Setup(Level.Trial)
+    public void createFilter() {
+        filters = Collections.singletonList(createFilter(filter));
+        pool = "parallel".equals(walker) ? ForkJoinPool.commonPool() : null;
+    }
+
+    private static OASFilter createFilter(String name) {
+        switch (name) {
+            case "airlines":
+                return new AirlinesOASFilter();
+            case "operations":
+                return new OASFilter() {
+                    @Override
+                    public Operation filterOperation(Operation operation) {
+                        return operation.getOperationId().startsWith("post") ? null : operation;
+                    }
+                };
+            default:
+                return new OASFilter() {};
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createModel() {
+        model = ModelGenerator.createModel(pathCount);
+    }
+
+    @Benchmark
+    public OpenAPI filterModel() {
+        OASFilterWalker.filter(model, filters, pool);
+        return model;
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.openapi.OASMerger;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures merging two generated models with the {@link OASMerger}. The merge modifies both models, so fresh models
+ * are generated before every invocation; the generation time is not measured.
+ * <p>
+ * With the {@code full} overlay, the overlay has the same paths and components as the base, so that every element
+ * conflicts and is merged recursively. With the {@code half} overlay, the overlay has the first half of the paths
+ * and components of the base.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MergeBenchmark {
+
+    @Param({"100", "1000", "4000"})
+    protected int pathCount;
+
+    @Param({"half", "full"})
+    protected String overlay;
+
+    private OpenAPI baseModel;
+    private OpenAPI overlayModel;
+
+    @Setup(Level.Invocation)
+    public void createModels() {
+        baseModel = ModelGenerator.createModel(pathCount);
+        overlayModel = ModelGenerator.createModel("full".equals(overlay) ? pathCount : pathCount / 2);
+    }
+
+    @Benchmark
+    public OpenAPI mergeModels() {
+        return OASMerger.merge(baseModel, overlayModel);
+    }
+}
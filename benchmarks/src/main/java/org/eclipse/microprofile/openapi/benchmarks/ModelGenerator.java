@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.benchmarks;
+
+import org.eclipse.microprofile.openapi.OASFactory;
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.info.Info;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.parameters.RequestBody;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.eclipse.microprofile.openapi.models.servers.Server;
+import org.eclipse.microprofile.openapi.models.tags.Tag;
+
+/**
+ * Builds synthetic OpenAPI models of a given size through the {@link OASFactory}, so that
+ * every implementation is measured against the same document shape.
+ * <p>
+ * Each path gets a GET and a POST operation with a path parameter, a query parameter, a
+ * request body and two responses. Response and request schemas are shared components
+ * referenced by name, and each component schema has a handful of inline properties.
+ * <p>
+ * Every model also contains the {@code /bookings/{id}} path of the airlines application,
+ * which the TCK {@code AirlinesOASFilter} expects to find.
+ */
+public final class ModelGenerator {
+
+    private static final int PROPERTIES_PER_SCHEMA = 8;
+    private static final int PATHS_PER_TAG = 50;
+    private static final int PATHS_PER_SCHEMA = 4;
+
+    private ModelGenerator() {}
+
+    /**
+     * Creates a model with the given number of paths, which yields twice as many operations.
+     *
+     * @param pathCount the number of paths in the generated model
+     * @return a new OpenAPI model
+     */
+    public static OpenAPI createModel(int pathCount) {
+        final int schemaCount = Math.max(1, pathCount / PATHS_PER_SCHEMA);
+        final OpenAPI openAPI = OASFactory.createObject(OpenAPI.class)
+                .openapi("3.0.0")
+                .info(OASFactory.createObject(Info.class)
+                    .title("Generated API")
+                    .description("A generated API with " + pathCount + " paths")
+                    .version("1.0"))
+                .addServer(OASFactory.createObject(Server.class)
+                    .url("https://localhost:9443/generated")
+                    .description("The generated API server"));
+
+        for (int i = 0; i <= pathCount / PATHS_PER_TAG; i++) {
+            openAPI.addTag(OASFactory.createObject(Tag.class).name("tag" + i).description("Operations of group " + i));
+        }
+
+        final Components components = OASFactory.createObject(Components.class);
+        for (int i = 0; i < schemaCount; i++) {
+            components.addSchema("Entity" + i, createSchema(i));
+        }
+        openAPI.components(components);
+
+        final Paths paths = OASFactory.createObject(Paths.class);
+        for (int i = 0; i < pathCount; i++) {
+            final String entity = "Entity" + (i % schemaCount);
+            final String tag = "tag" + (i / PATHS_PER_TAG);
+            paths.addPathItem("/resource" + i + "/{id}", OASFactory.createObject(PathItem.class)
+                    .GET(createOperation("get" + i, tag, entity, false))
+                    .POST(createOperation("post" + i, tag, entity, true)));
+        }
+        paths.addPathItem("/bookings/{id}", OASFactory.createObject(PathItem.class)
+                .GET(createOperation("getBookingById", "Bookings", "Entity0", false).summary("Get a booking with ID"))
+                .PUT(createOperation("updateBookingId", "Bookings", "Entity0", true).summary("Update a booking with ID")));
+        openAPI.paths(paths);
+        return openAPI;
+    }
+
+    private static Schema createSchema(int index) {
+        final Schema schema = OASFactory.createObject(Schema.class)
+                .type(Schema.SchemaType.OBJECT)
+                .title("Entity" + index)
+                .description("Generated entity number " + index);
+        for (int i = 0; i < PROPERTIES_PER_SCHEMA; i++) {
+            final boolean numeric = (i % 2) == 0;
+            schema.addProperty("field" + i, OASFactory.createObject(Schema.class)
+                    .type(numeric ? Schema.SchemaType.INTEGER : Schema.SchemaType.STRING)
+                    .format(numeric ? "int64" : null)
+                    .description("Field " + i + " of entity " + index));
+            schema.addRequired("field" + i);
+        }
+        return schema;
+    }
+
+    private static Operation createOperation(String operationId, String tag, String entity, boolean withBody) {
+        final Operation operation = OASFactory.createObject(Operation.class)
+                .operationId(operationId)
+                .summary("Operation " + operationId)
+                .description("Generated operation " + operationId + " on " + entity)
+                .addTag(tag)
+                .addParameter(OASFactory.createObject(Parameter.class)
+                    .name("id")
+                    .in(Parameter.In.PATH)
+                    .required(true)
+                    .description("The id of the " + entity)
+                    .schema(OASFactory.createObject(Schema.class).type(Schema.SchemaType.INTEGER).format("int64")))
+                .addParameter(OASFactory.createObject(Parameter.class)
+                    .name("fields")
+                    .in(Parameter.In.QUERY)
+                    .description("The fields to return")
+                    .schema(OASFactory.createObject(Schema.class).type(Schema.SchemaType.STRING)))
+                .responses(OASFactory.createObject(APIResponses.class)
+                    .addApiResponse("200", OASFactory.createObject(APIResponse.class)
+                        .description("The " + entity)
+                        .content(createContent(entity)))
+                    .addApiResponse("404", OASFactory.createObject(APIResponse.class)
+                        .description("No " + entity + " found")));
+        if (withBody) {
+            operation.requestBody(OASFactory.createObject(RequestBody.class)
+                    .description("The new " + entity)
+                    .required(true)
+                    .content(createContent(entity)));
+        }
+        return operation;
+    }
+
+    private static Content createContent(String entity) {
+        return OASFactory.createObject(Content.class)
+                .addMediaType("application/json", OASFactory.createObject(MediaType.class)
+                    .schema(OASFactory.createObject(Schema.class).ref(entity)));
+    }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.openapi.OASFactory;
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.ExternalDocumentation;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.callbacks.Callback;
+import org.eclipse.microprofile.openapi.models.examples.Example;
+import org.eclipse.microprofile.openapi.models.headers.Header;
+import org.eclipse.microprofile.openapi.models.info.Contact;
+import org.eclipse.microprofile.openapi.models.info.Info;
+import org.eclipse.microprofile.openapi.models.info.License;
+import org.eclipse.microprofile.openapi.models.links.Link;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.models.media.Discriminator;
+import org.eclipse.microprofile.openapi.models.media.Encoding;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.media.XML;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.parameters.RequestBody;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.eclipse.microprofile.openapi.models.security.OAuthFlow;
+import org.eclipse.microprofile.openapi.models.security.OAuthFlows;
+import org.eclipse.microprofile.openapi.models.security.Scopes;
+import org.eclipse.microprofile.openapi.models.security.SecurityRequirement;
+import org.eclipse.microprofile.openapi.models.security.SecurityScheme;
+import org.eclipse.microprofile.openapi.models.servers.Server;
+import org.eclipse.microprofile.openapi.models.servers.ServerVariable;
+import org.eclipse.microprofile.openapi.models.servers.ServerVariables;
+import org.eclipse.microprofile.openapi.models.tags.Tag;
+import org.eclipse.microprofile.openapi.spi.OASFactoryResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the throughput of {@link OASFactory#createObject(Class)}, both for the model types
+ * that dominate large documents and for a sweep over every constructible type.
+ * <p>
+ * {@link #createSchemaFromSupplier()} invokes the supplier of the implementation directly and
+ * shows what remains of the cost once the factory lookup is taken out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OASFactoryBenchmark {
+
+    static final Class<?>[] CONSTRUCTIBLES = {
+        Components.class, ExternalDocumentation.class, OpenAPI.class, Operation.class, PathItem.class, Paths.class,
+        Callback.class, Example.class, Header.class, Contact.class, Info.class, License.class, Link.class,
+        Content.class, Discriminator.class, Encoding.class, MediaType.class, Schema.class, XML.class,
+        Parameter.class, RequestBody.class, APIResponse.class, APIResponses.class, OAuthFlow.class,
+        OAuthFlows.class, Scopes.class, SecurityRequirement.class, SecurityScheme.class, Server.class,
+        ServerVariable.class, ServerVariables.class, Tag.class
+    };
+
+    private Supplier<Schema> schemaSupplier;
+
+    @Setup
+    public void resolveSupplier() {
+        schemaSupplier = OASFactoryResolver.instance().getSupplier(Schema.class);
+    }
+
+    @Benchmark
+    public Schema createSchemaFromSupplier() {
+        return schemaSupplier.get();
+    }
+
+    @Benchmark
+    public Schema createSchema() {
+        return OASFactory.createObject(Schema.class);
+    }
+
+    @Benchmark
+    public Parameter createParameter() {
+        return OASFactory.createObject(Parameter.class);
+    }
+
+    @Benchmark
+    public APIResponse createAPIResponse() {
+        return OASFactory.createObject(APIResponse.class);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @SuppressWarnings("unchecked")
+    public void createAllTypes(Blackhole blackhole) {
+        for (Class<?> clazz : CONSTRUCTIBLES) {
+            blackhole.consume(OASFactory.createObject((Class<Constructible>) clazz));
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.openapi.StringPool;
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.spi.DocumentFormat;
+import org.eclipse.microprofile.openapi.spi.OASReader;
+import org.eclipse.microprofile.openapi.spi.OASWriter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading the YAML form of a generated model with the {@link OASReader}, with and without a
+ * {@link StringPool}, and reports the footprint of the strings of the loaded model as the secondary results
+ * <code>strings</code>, the number of distinct string instances the model holds, and <code>stringBytes</code>, an
+ * estimate of the bytes they take, assuming compressed references and strings of one byte per character.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringPoolBenchmark {
+
+    @Param({"100", "1000", "4000"})
+    protected int pathCount;
+
+    @Param({"false", "true"})
+    protected boolean pooled;
+
+    private OASReader reader;
+    private byte[] document;
+    private long strings;
+    private long stringBytes;
+
+    /**
+     * The footprint of the strings of the loaded model, reported by JMH as secondary results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public long strings;
+        public long stringBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void createDocument() throws IOException {
+        document = OASWriter.instance().toBytes(ModelGenerator.createModel(pathCount), DocumentFormat.YAML);
+        reader = OASReader.instance();
+
+        final Set<String> found = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectStrings(load(), found, Collections.newSetFromMap(new IdentityHashMap<>()));
+        strings = found.size();
+        stringBytes = 0;
+        for (String string : found) {
+            // the string object, then its array of bytes, each aligned to 8 bytes
+            stringBytes += 24 + (16 + string.length() + 7) / 8 * 8;
+        }
+    }
+
+    @Benchmark
+    public OpenAPI loadDocument(Footprint footprint) throws IOException {
+        footprint.strings = strings;
+        footprint.stringBytes = stringBytes;
+        return load();
+    }
+
+    private OpenAPI load() throws IOException {
+        final ByteArrayInputStream in = new ByteArrayInputStream(document);
+        return pooled ? reader.read(in, DocumentFormat.YAML, new StringPool()) : reader.read(in, DocumentFormat.YAML);
+    }
+
+    /**
+     * Collects the strings reachable from a value through the getters of the model interfaces, and the entries of the
+     * lists and maps.
+     */
+    private static void collectStrings(Object value, Set<String> found, Set<Object> visited) {
+        if (value instanceof String) {
+            found.add((String) value);
+        }
+        else if (value instanceof List) {
+            for (Object element : (List<?>) value) {
+                collectStrings(element, found, visited);
+            }
+        }
+        else if (value instanceof Map) {
+            if (value instanceof Constructible && !visited.add(value)) {
+                return;
+            }
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                collectStrings(entry.getKey(), found, visited);
+                collectStrings(entry.getValue(), found, visited);
+            }
+            if (value instanceof Constructible) {
+                collectProperties(value, found, visited);
+            }
+        }
+        else if (value instanceof Constructible && visited.add(value)) {
+            collectProperties(value, found, visited);
+        }
+    }
+
+    private static void collectProperties(Object element, Set<String> found, Set<Object> visited) {
+        for (Class<?> c = element.getClass(); c != null; c = c.getSuperclass()) {
+            for (Class<?> type : c.getInterfaces()) {
+                if (Constructible.class.isAssignableFrom(type)) {
+                    for (Method getter : type.getMethods()) {
+                        if (getter.getName().startsWith("get") && getter.getParameterCount() == 0) {
+                            try {
+                                collectStrings(getter.invoke(element), found, visited);
+                            }
+                            catch (IllegalAccessException | InvocationTargetException e) {
+                                throw new IllegalStateException(e);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.microprofile.openapi.OASFactory;
+import org.eclipse.microprofile.openapi.OASUnion;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the union of the models of 40 applications with the {@link OASUnion}, which together have the given
+ * number of paths. Every application has its own context root, and the same component names and operationIds as
+ * the others, so that most of them are renamed.
+ * <p>
+ * {@code redeploy} replaces the model of one application of a union of 40 applications, while {@code rebuild}
+ * creates the union of the 40 applications from scratch, as a runtime without incremental merging does when any of
+ * them is redeployed. The models are generated before every invocation; the generation time is not measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnionBenchmark {
+
+    private static final int APPLICATIONS = 40;
+
+    @Param({"100", "1000", "4000"})
+    protected int pathCount;
+
+    private OASUnion union;
+    private OpenAPI[] models;
+
+    @Setup(Level.Trial)
+    public void createUnion() {
+        union = newUnion();
+        for (int i = 0; i < APPLICATIONS; i++) {
+            union.put("app" + i, createApplication(i));
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void createModels() {
+        models = new OpenAPI[APPLICATIONS];
+        for (int i = 0; i < APPLICATIONS; i++) {
+            models[i] = createApplication(i);
+        }
+    }
+
+    @Benchmark
+    public OASUnion redeploy() {
+        union.put("app" + (APPLICATIONS / 2), models[APPLICATIONS / 2]);
+        return union;
+    }
+
+    @Benchmark
+    public OASUnion rebuild() {
+        final OASUnion rebuilt = newUnion();
+        for (int i = 0; i < APPLICATIONS; i++) {
+            rebuilt.put("app" + i, models[i]);
+        }
+        return rebuilt;
+    }
+
+    private static OASUnion newUnion() {
+        return new OASUnion(OASFactory.createObject(OpenAPI.class).openapi("3.0.0"));
+    }
+
+    /**
+     * @return a generated model, the paths of which are prefixed by the context root of the application
+     */
+    private OpenAPI createApplication(int index) {
+        final OpenAPI model = ModelGenerator.createModel(Math.max(1, pathCount / APPLICATIONS));
+        final Paths paths = OASFactory.createObject(Paths.class);
+        for (Map.Entry<String, PathItem> entry : model.getPaths().entrySet()) {
+            paths.addPathItem("/app" + index + entry.getKey(), entry.getValue());
+        }
+        return model.paths(paths);
+    }
+}
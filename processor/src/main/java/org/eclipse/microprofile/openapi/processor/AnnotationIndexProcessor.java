@@ -0,0 +1,244 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.processor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+import org.eclipse.microprofile.openapi.spi.AnnotationIndex;
+
+/**
+ * Records every class of the compiled sources that carries OpenAPI or JAX-RS annotations, on the class itself or on
+ * any of its members or parameters, into the {@link AnnotationIndex#RESOURCE_NAME} resource of the class output.
+ * Annotations of a package are recorded for its package-info class.
+ * <p>
+ * Since JAX-RS annotations are inherited from the superclasses and interfaces of a resource, a class of the compiled
+ * sources that extends or implements an annotated class, of the compiled sources or of a library, is recorded too,
+ * with the kinds of the annotations it inherits.
+ * <p>
+ * A build compiling only the changed sources of a module merges their classes into the index already in the class
+ * output: the entries of the recompiled classes are replaced, and the entries of the classes whose class file no
+ * longer exists are dropped.
+ */
+// every annotation, since a class may inherit its annotations from a library without carrying any itself
+@SupportedAnnotationTypes("*")
+public class AnnotationIndexProcessor extends AbstractProcessor {
+
+    private static final String JAXRS_PACKAGE_PREFIX = "javax.ws.rs.";
+    private static final String OPENAPI_PACKAGE_PREFIX = "org.eclipse.microprofile.openapi.annotations.";
+
+    private final Map<String, Integer> kinds = new HashMap<>();
+    private final Map<String, Integer> inheritedKinds = new HashMap<>();
+    private final Set<String> compiledClassNames = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            final int kind = kind(annotation);
+            if (kind == 0) {
+                continue;
+            }
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                final String className = indexedClassName(element);
+                if (className != null) {
+                    kinds.merge(className, kind, (a, b) -> a | b);
+                }
+            }
+        }
+        for (Element root : roundEnv.getRootElements()) {
+            if (root instanceof TypeElement) {
+                indexSubtype((TypeElement) root);
+            }
+            else if (root instanceof PackageElement) {
+                compiledClassNames.add(indexedClassName(root));
+            }
+        }
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        }
+        // other processors may process the same annotations
+        return false;
+    }
+
+    /**
+     * @return the binary name of the class to record for an annotated element, or null if there is none
+     */
+    private String indexedClassName(Element element) {
+        Element current = element;
+        while (current != null) {
+            if (current instanceof TypeElement) {
+                return processingEnv.getElementUtils().getBinaryName((TypeElement) current).toString();
+            }
+            if (current instanceof PackageElement) {
+                final PackageElement pkg = (PackageElement) current;
+                return pkg.isUnnamed() ? "package-info" : pkg.getQualifiedName() + ".package-info";
+            }
+            current = current.getEnclosingElement();
+        }
+        return null;
+    }
+
+    /**
+     * Records a type, and the types nested in it, if it inherits annotations from its superclasses or interfaces.
+     */
+    private void indexSubtype(TypeElement type) {
+        final String className = processingEnv.getElementUtils().getBinaryName(type).toString();
+        compiledClassNames.add(className);
+        final int inherited = inheritedKinds(type);
+        if (inherited != 0) {
+            kinds.merge(className, inherited, (a, b) -> a | b);
+        }
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            indexSubtype(nested);
+        }
+    }
+
+    /**
+     * @return the kinds of the annotations declared by the superclasses and interfaces of a type, at any depth
+     */
+    private int inheritedKinds(TypeElement type) {
+        final String name = type.getQualifiedName().toString();
+        final Integer known = inheritedKinds.get(name);
+        if (known != null) {
+            return known;
+        }
+        // guards against cycles in erroneous sources
+        inheritedKinds.put(name, 0);
+        int result = 0;
+        for (TypeMirror supertype : processingEnv.getTypeUtils().directSupertypes(type.asType())) {
+            final Element element = processingEnv.getTypeUtils().asElement(supertype);
+            if (element instanceof TypeElement) {
+                result |= declaredKinds((TypeElement) element) | inheritedKinds((TypeElement) element);
+            }
+        }
+        inheritedKinds.put(name, result);
+        return result;
+    }
+
+    /**
+     * @return the kinds of the annotations declared on a type, its members and their parameters
+     */
+    private static int declaredKinds(TypeElement type) {
+        int result = kinds(type);
+        for (Element member : type.getEnclosedElements()) {
+            if (member instanceof TypeElement) {
+                continue;
+            }
+            result |= kinds(member);
+            if (member instanceof ExecutableElement) {
+                for (VariableElement parameter : ((ExecutableElement) member).getParameters()) {
+                    result |= kinds(parameter);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static int kinds(Element element) {
+        int result = 0;
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            result |= kind((TypeElement) annotation.getAnnotationType().asElement());
+        }
+        return result;
+    }
+
+    /**
+     * @return the kind of an annotation type, or 0 if it is neither an OpenAPI nor a JAX-RS annotation
+     */
+    private static int kind(TypeElement annotation) {
+        final String name = annotation.getQualifiedName().toString();
+        if (name.startsWith(JAXRS_PACKAGE_PREFIX)) {
+            return AnnotationIndex.JAXRS_ANNOTATIONS;
+        }
+        return name.startsWith(OPENAPI_PACKAGE_PREFIX) ? AnnotationIndex.OPENAPI_ANNOTATIONS : 0;
+    }
+
+    private void writeIndex() {
+        final Map<String, Integer> merged = new HashMap<>();
+        final AnnotationIndex previous = readPreviousIndex();
+        for (String className : previous.getClassNames()) {
+            if (!compiledClassNames.contains(className) && classFileExists(className)) {
+                merged.put(className, previous.getKinds(className));
+            }
+        }
+        merged.putAll(kinds);
+        if (merged.isEmpty() && previous.size() == 0) {
+            return;
+        }
+        try {
+            final FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    AnnotationIndex.RESOURCE_NAME);
+            try (OutputStream out = resource.openOutputStream()) {
+                AnnotationIndex.of(merged).write(out);
+            }
+        }
+        catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    "Failed to write " + AnnotationIndex.RESOURCE_NAME + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return the index written to the class output by a previous compilation, or an empty index if there is none
+     */
+    private AnnotationIndex readPreviousIndex() {
+        try (InputStream in = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "",
+                AnnotationIndex.RESOURCE_NAME).openInputStream()) {
+            return AnnotationIndex.read(in);
+        }
+        catch (IOException e) {
+            return AnnotationIndex.of(new HashMap<>());
+        }
+    }
+
+    private boolean classFileExists(String className) {
+        final int dot = className.lastIndexOf('.');
+        try (InputStream in = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT,
+                dot < 0 ? "" : className.substring(0, dot), className.substring(dot + 1) + ".class").openInputStream()) {
+            return true;
+        }
+        catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.processor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+
+/**
+ * The values explicitly given to the members of an annotation. Members left to their default value are reported as
+ * absent, as are members given an empty string, since the OpenAPI annotations use both to mean "not set".
+ */
+final class AnnotationValues {
+
+    private final Map<String, Object> values = new HashMap<>();
+
+    private AnnotationValues(AnnotationMirror mirror) {
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+            values.put(entry.getKey().getSimpleName().toString(), entry.getValue().getValue());
+        }
+    }
+
+    /**
+     * @return the values of the given annotation of the element, or null if the element does not carry it
+     */
+    static AnnotationValues find(Element element, String annotationType) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            if (nameOf(mirror).equals(annotationType)) {
+                return new AnnotationValues(mirror);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the values of the given repeatable annotation of the element, whether it is given directly or within
+     * its container annotation
+     */
+    static List<AnnotationValues> findAll(Element element, String annotationType, String containerType) {
+        final List<AnnotationValues> all = new ArrayList<>();
+        for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            final String name = nameOf(mirror);
+            if (name.equals(annotationType)) {
+                all.add(new AnnotationValues(mirror));
+            }
+            else if (name.equals(containerType)) {
+                all.addAll(new AnnotationValues(mirror).annotations("value"));
+            }
+        }
+        return all;
+    }
+
+    static String nameOf(AnnotationMirror mirror) {
+        return ((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().toString();
+    }
+
+    boolean has(String member) {
+        final Object value = values.get(member);
+        return value != null && !"".equals(value);
+    }
+
+    String string(String member) {
+        return has(member) ? values.get(member).toString() : null;
+    }
+
+    /**
+     * @return the value of a boolean or numeric member as source text
+     */
+    String constant(String member) {
+        return has(member) ? values.get(member).toString() : null;
+    }
+
+    boolean isTrue(String member) {
+        return Boolean.TRUE.equals(values.get(member));
+    }
+
+    /**
+     * @return the name of the constant of an enum member
+     */
+    String enumConstant(String member) {
+        return has(member) ? ((VariableElement) values.get(member)).getSimpleName().toString() : null;
+    }
+
+    TypeMirror type(String member) {
+        return (TypeMirror) values.get(member);
+    }
+
+    List<TypeMirror> types(String member) {
+        final List<TypeMirror> types = new ArrayList<>();
+        for (AnnotationValue value : elements(member)) {
+            types.add((TypeMirror) value.getValue());
+        }
+        return types;
+    }
+
+    List<String> strings(String member) {
+        final List<String> strings = new ArrayList<>();
+        for (AnnotationValue value : elements(member)) {
+            strings.add(value.getValue().toString());
+        }
+        return strings;
+    }
+
+    AnnotationValues annotation(String member) {
+        final Object value = values.get(member);
+        return value == null ? null : new AnnotationValues((AnnotationMirror) value);
+    }
+
+    List<AnnotationValues> annotations(String member) {
+        final List<AnnotationValues> annotations = new ArrayList<>();
+        for (AnnotationValue value : elements(member)) {
+            annotations.add(new AnnotationValues((AnnotationMirror) value.getValue()));
+        }
+        return annotations;
+    }
+
+    /**
+     * @return the annotations of an array member that give a value to the given key member
+     */
+    List<AnnotationValues> annotations(String member, String keyMember) {
+        final List<AnnotationValues> annotations = annotations(member);
+        annotations.removeIf(annotation -> !annotation.has(keyMember));
+        return annotations;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<? extends AnnotationValue> elements(String member) {
+        final Object value = values.get(member);
+        return value instanceof List ? (List<? extends AnnotationValue>) value : Collections.<AnnotationValue>emptyList();
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.processor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.eclipse.microprofile.openapi.spi.BinaryDocument;
+import org.eclipse.microprofile.openapi.spi.OASReader;
+
+/**
+ * Converts a static OpenAPI document in YAML or JSON, such as <code>META-INF/openapi.yaml</code>, into the binary
+ * format of {@link BinaryDocument}, to be packaged as {@value BinaryDocument#RESOURCE} so that the document does not
+ * have to be parsed at deployment time.
+ * <p>
+ * The conversion builds the model through the OASFactory, so an implementation of the OASFactoryResolver must be on
+ * the class path of the build, for example in the dependencies of the plugin running it:
+ * <pre><code>java -cp microprofile-openapi-processor.jar:microprofile-openapi-api.jar:implementation.jar \
+ *     org.eclipse.microprofile.openapi.processor.BinaryDocumentConverter \
+ *     src/main/resources/META-INF/openapi.yaml target/classes/META-INF/openapi.bin
+ * </code></pre>
+ */
+public final class BinaryDocumentConverter {
+
+    private BinaryDocumentConverter() {
+    }
+
+    /**
+     * Converts the document named by the first argument into the file named by the second argument, which defaults
+     * to <code>openapi.bin</code> in the directory of the document.
+     *
+     * @param args the document to convert, and optionally the file to write
+     * @throws IOException if reading the document or writing the file fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2) {
+            throw new IllegalArgumentException("Usage: BinaryDocumentConverter <openapi.yaml|openapi.json> [<openapi.bin>]");
+        }
+        final Path source = Paths.get(args[0]);
+        final Path target = args.length > 1 ? Paths.get(args[1]) : source.resolveSibling("openapi.bin");
+        convert(source, target);
+    }
+
+    /**
+     * Converts a document in YAML or JSON, as told by the extension of its file name, into the binary format.
+     *
+     * @param source the document to convert
+     * @param target the file to write, whose parent directories are created if needed
+     * @throws IOException if reading the document or writing the file fails
+     */
+    public static void convert(Path source, Path target) throws IOException {
+        final Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (OutputStream out = Files.newOutputStream(target)) {
+            BinaryDocument.write(OASReader.instance().read(source), out);
+        }
+    }
+}
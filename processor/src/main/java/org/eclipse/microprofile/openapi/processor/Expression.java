@@ -0,0 +1,161 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A Java expression of the generated source: a head, such as the creation of a model object or the call of a static
+ * method, followed by a chain of method calls. The arguments of the head and of the calls are either source text or
+ * nested expressions.
+ */
+final class Expression {
+
+    private static final String INDENT = "        ";
+
+    private final String head;
+    private final List<Object> headArguments;
+    private final List<String> methods = new ArrayList<>();
+    private final List<List<Object>> arguments = new ArrayList<>();
+
+    private Expression(String head, List<Object> headArguments) {
+        this.head = head;
+        this.headArguments = headArguments;
+    }
+
+    /**
+     * @return the creation of a model object by the OASFactory
+     */
+    static Expression create(String modelType) {
+        return new Expression("OASFactory.createObject(" + modelType + ".class)", null);
+    }
+
+    /**
+     * @return the call of a static method of the generated class
+     */
+    static Expression invoke(String method, Object... arguments) {
+        return new Expression(method, new ArrayList<>(Arrays.asList(arguments)));
+    }
+
+    /**
+     * @return the given source text as an expression
+     */
+    static Expression of(String source) {
+        return new Expression(source, null);
+    }
+
+    /**
+     * @return the Java literal of the given string
+     */
+    static String literal(String value) {
+        final StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < ' ' || c > '~') {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    }
+                    else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Appends the call of a method to this expression.
+     *
+     * @return this expression
+     */
+    Expression call(String method, Object... args) {
+        methods.add(method);
+        arguments.add(Arrays.asList(args));
+        return this;
+    }
+
+    /**
+     * Appends the call of a setter to this expression, or replaces the arguments of a previous call of the same setter.
+     *
+     * @return this expression
+     */
+    Expression set(String method, Object... args) {
+        final int i = methods.indexOf(method);
+        if (i < 0) {
+            return call(method, args);
+        }
+        arguments.set(i, Arrays.asList(args));
+        return this;
+    }
+
+    /**
+     * @return true if no method is called on the head of this expression
+     */
+    boolean isEmpty() {
+        return methods.isEmpty();
+    }
+
+    void appendTo(StringBuilder sb, int depth) {
+        sb.append(head);
+        if (headArguments != null) {
+            appendArguments(sb, headArguments, depth);
+        }
+        for (int i = 0; i < methods.size(); i++) {
+            sb.append('\n');
+            for (int j = 0; j <= depth; j++) {
+                sb.append(INDENT);
+            }
+            sb.append('.').append(methods.get(i));
+            appendArguments(sb, arguments.get(i), depth + 1);
+        }
+    }
+
+    private static void appendArguments(StringBuilder sb, List<Object> args, int depth) {
+        sb.append('(');
+        for (int i = 0; i < args.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            final Object arg = args.get(i);
+            if (arg instanceof Expression) {
+                ((Expression) arg).appendTo(sb, depth);
+            }
+            else {
+                sb.append(arg);
+            }
+        }
+        sb.append(')');
+    }
+}
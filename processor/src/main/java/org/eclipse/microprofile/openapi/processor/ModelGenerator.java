@@ -0,0 +1,1188 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.processor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+
+/**
+ * Builds the source of an OASModelReader from the JAX-RS and OpenAPI annotations of the compiled classes. The model is
+ * built in the generated source by chains of calls on objects created by the OASFactory, so that the generated reader
+ * works with any implementation of the models.
+ */
+final class ModelGenerator {
+
+    private static final String ANNOTATIONS = "org.eclipse.microprofile.openapi.annotations.";
+    private static final String JAXRS = "javax.ws.rs.";
+
+    private static final String OPENAPI_DEFINITION = ANNOTATIONS + "OpenAPIDefinition";
+    private static final String OPERATION = ANNOTATIONS + "Operation";
+    private static final String CALLBACK = ANNOTATIONS + "callbacks.Callback";
+    private static final String CALLBACKS = ANNOTATIONS + "callbacks.Callbacks";
+    private static final String EXTENSION = ANNOTATIONS + "extensions.Extension";
+    private static final String EXTENSIONS = ANNOTATIONS + "extensions.Extensions";
+    private static final String SCHEMA = ANNOTATIONS + "media.Schema";
+    private static final String PARAMETER = ANNOTATIONS + "parameters.Parameter";
+    private static final String PARAMETERS = ANNOTATIONS + "parameters.Parameters";
+    private static final String REQUEST_BODY = ANNOTATIONS + "parameters.RequestBody";
+    private static final String API_RESPONSE = ANNOTATIONS + "responses.APIResponse";
+    private static final String API_RESPONSES = ANNOTATIONS + "responses.APIResponses";
+    private static final String SECURITY_REQUIREMENT = ANNOTATIONS + "security.SecurityRequirement";
+    private static final String SECURITY_REQUIREMENTS = ANNOTATIONS + "security.SecurityRequirements";
+    private static final String SECURITY_REQUIREMENTS_SET = ANNOTATIONS + "security.SecurityRequirementsSet";
+    private static final String SECURITY_SCHEME = ANNOTATIONS + "security.SecurityScheme";
+    private static final String SECURITY_SCHEMES = ANNOTATIONS + "security.SecuritySchemes";
+    private static final String TAG = ANNOTATIONS + "tags.Tag";
+    private static final String TAGS = ANNOTATIONS + "tags.Tags";
+
+    private static final String APPLICATION_PATH = JAXRS + "ApplicationPath";
+    private static final String PATH = JAXRS + "Path";
+    private static final String HTTP_METHOD = JAXRS + "HttpMethod";
+    private static final String CONSUMES = JAXRS + "Consumes";
+    private static final String PRODUCES = JAXRS + "Produces";
+    private static final String DEFAULT_VALUE = JAXRS + "DefaultValue";
+    private static final String[] PARAMETER_KINDS = { "Path", "Query", "Header", "Cookie" };
+
+    private static final String COMPONENT_SCHEMAS = "#/components/schemas/";
+    private static final List<String> ANY_MEDIA_TYPE = Collections.singletonList("*/*");
+    private static final Set<String> PATH_ITEM_METHODS = new TreeSet<>(Arrays.asList("GET", "PUT", "POST", "DELETE", "OPTIONS", "HEAD", "PATCH",
+            "TRACE"));
+
+    private static final Map<String, String> MODEL_TYPES = new HashMap<>();
+    private static final Map<String, String[]> SIMPLE_TYPES = new HashMap<>();
+
+    static {
+        final String models = "org.eclipse.microprofile.openapi.models.";
+        for (String type : Arrays.asList("OpenAPI", "Operation", "PathItem", "Paths", "Components", "ExternalDocumentation", "callbacks.Callback",
+                "examples.Example", "headers.Header", "info.Contact", "info.Info", "info.License", "links.Link", "media.Content",
+                "media.Discriminator", "media.Encoding", "media.MediaType", "media.Schema", "parameters.Parameter", "parameters.RequestBody",
+                "responses.APIResponse", "responses.APIResponses", "security.OAuthFlow", "security.OAuthFlows", "security.Scopes",
+                "security.SecurityRequirement", "security.SecurityScheme", "servers.Server", "servers.ServerVariable",
+                "servers.ServerVariables", "tags.Tag")) {
+            MODEL_TYPES.put(type.substring(type.indexOf('.') + 1), models + type);
+        }
+        final String[] int32 = { "INTEGER", "int32" };
+        final String[] int64 = { "INTEGER", "int64" };
+        final String[] string = { "STRING", null };
+        final String[] dateTime = { "STRING", "date-time" };
+        SIMPLE_TYPES.put("java.lang.String", string);
+        SIMPLE_TYPES.put("java.lang.Character", string);
+        SIMPLE_TYPES.put("java.lang.Boolean", new String[] { "BOOLEAN", null });
+        SIMPLE_TYPES.put("java.lang.Byte", int32);
+        SIMPLE_TYPES.put("java.lang.Short", int32);
+        SIMPLE_TYPES.put("java.lang.Integer", int32);
+        SIMPLE_TYPES.put("java.lang.Long", int64);
+        SIMPLE_TYPES.put("java.lang.Float", new String[] { "NUMBER", "float" });
+        SIMPLE_TYPES.put("java.lang.Double", new String[] { "NUMBER", "double" });
+        SIMPLE_TYPES.put("java.math.BigDecimal", new String[] { "NUMBER", null });
+        SIMPLE_TYPES.put("java.math.BigInteger", new String[] { "INTEGER", null });
+        SIMPLE_TYPES.put("java.util.UUID", new String[] { "STRING", "uuid" });
+        SIMPLE_TYPES.put("java.time.LocalDate", new String[] { "STRING", "date" });
+        SIMPLE_TYPES.put("java.util.Date", dateTime);
+        SIMPLE_TYPES.put("java.time.Instant", dateTime);
+        SIMPLE_TYPES.put("java.time.LocalDateTime", dateTime);
+        SIMPLE_TYPES.put("java.time.OffsetDateTime", dateTime);
+        SIMPLE_TYPES.put("java.time.ZonedDateTime", dateTime);
+    }
+
+    private final ProcessingEnvironment env;
+    private final Set<String> imports = new TreeSet<>();
+    private final Map<String, Map<String, Expression>> pathItems = new TreeMap<>();
+    private final Map<String, Expression> tags = new LinkedHashMap<>();
+    private final Map<String, Expression> schemas = new LinkedHashMap<>();
+    private final Map<String, String> schemaNames = new HashMap<>();
+    private final Map<String, Expression> securitySchemes = new LinkedHashMap<>();
+    private String applicationPath = "";
+    private AnnotationValues definition;
+
+    ModelGenerator(ProcessingEnvironment env) {
+        this.env = env;
+    }
+
+    /**
+     * Adds the application path of a JAX-RS application class.
+     */
+    void addApplication(TypeElement application) {
+        final AnnotationValues path = AnnotationValues.find(application, APPLICATION_PATH);
+        if (path != null && path.has("value")) {
+            applicationPath = path.string("value");
+        }
+    }
+
+    /**
+     * Adds the OpenAPI definition of a class or package.
+     */
+    void addDefinition(Element element) {
+        final AnnotationValues values = AnnotationValues.find(element, OPENAPI_DEFINITION);
+        if (values != null) {
+            definition = values;
+        }
+    }
+
+    /**
+     * Adds the operations of the resource methods of a JAX-RS resource class, including the methods it inherits from
+     * its superclasses and interfaces, and the security schemes the class declares.
+     */
+    void addResource(TypeElement resource) {
+        for (AnnotationValues scheme : AnnotationValues.findAll(resource, SECURITY_SCHEME, SECURITY_SCHEMES)) {
+            if (scheme.has("securitySchemeName")) {
+                securitySchemes.put(scheme.string("securitySchemeName"), securityScheme(scheme));
+            }
+        }
+        final List<TypeElement> hierarchy = hierarchy(resource);
+        final String classPath = pathOf(annotated(hierarchy, PATH));
+        for (ExecutableElement method : resourceMethods(resource, hierarchy)) {
+            final String httpMethod = httpMethodOf(method);
+            if (!PATH_ITEM_METHODS.contains(httpMethod)) {
+                continue;
+            }
+            final AnnotationValues operation = AnnotationValues.find(method, OPERATION);
+            if (operation != null && operation.isTrue("hidden")) {
+                continue;
+            }
+            final String path = joinPaths(classPath, pathOf(method));
+            Map<String, Expression> operations = pathItems.get(path);
+            if (operations == null) {
+                operations = new TreeMap<>();
+                pathItems.put(path, operations);
+            }
+            operations.put(httpMethod, operation(hierarchy, method, operation));
+        }
+    }
+
+    /**
+     * @return true if the given class is not a resource class itself but inherits the path of one, such as the
+     * implementation of an annotated interface
+     */
+    boolean inheritsResource(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS || type.getModifiers().contains(Modifier.ABSTRACT)
+                || AnnotationValues.find(type, PATH) != null) {
+            return false;
+        }
+        return AnnotationValues.find(annotated(hierarchy(type), PATH), PATH) != null;
+    }
+
+    /**
+     * @return the given class, its superclasses, and then the interfaces they implement and the interfaces these
+     * extend, which is the order in which JAX-RS looks for inherited annotations
+     */
+    private List<TypeElement> hierarchy(TypeElement type) {
+        final Types types = env.getTypeUtils();
+        final Set<TypeElement> hierarchy = new LinkedHashSet<>();
+        for (TypeElement current = type; current != null && !"java.lang.Object".equals(current.getQualifiedName().toString());) {
+            hierarchy.add(current);
+            final TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(superclass) : null;
+        }
+        final List<TypeElement> ordered = new ArrayList<>(hierarchy);
+        for (int i = 0; i < ordered.size(); i++) {
+            for (TypeMirror superinterface : ordered.get(i).getInterfaces()) {
+                final TypeElement element = (TypeElement) types.asElement(superinterface);
+                if (hierarchy.add(element)) {
+                    ordered.add(element);
+                }
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * @return the first type of the hierarchy carrying one of the given annotations, or the class itself if none does
+     */
+    private static TypeElement annotated(List<TypeElement> hierarchy, String... annotationTypes) {
+        for (TypeElement type : hierarchy) {
+            for (String annotationType : annotationTypes) {
+                if (AnnotationValues.find(type, annotationType) != null) {
+                    return type;
+                }
+            }
+        }
+        return hierarchy.get(0);
+    }
+
+    /**
+     * @return the methods of a resource designated by an HTTP method. A method that overrides another one without
+     * JAX-RS annotations of its own inherits the annotations of the overridden method, so the overridden method is
+     * the one returned.
+     */
+    private List<ExecutableElement> resourceMethods(TypeElement resource, List<TypeElement> hierarchy) {
+        final List<ExecutableElement> annotated = new ArrayList<>();
+        final List<ExecutableElement> resourceMethods = new ArrayList<>();
+        for (TypeElement type : hierarchy) {
+            for (ExecutableElement method : ElementFilter.methodsIn(type.getEnclosedElements())) {
+                if (!hasJaxrsAnnotations(method) || isOverridden(method, annotated, resource)) {
+                    continue;
+                }
+                annotated.add(method);
+                if (httpMethodOf(method) != null) {
+                    resourceMethods.add(method);
+                }
+            }
+        }
+        return resourceMethods;
+    }
+
+    private boolean isOverridden(ExecutableElement method, List<ExecutableElement> overriders, TypeElement resource) {
+        for (ExecutableElement overrider : overriders) {
+            if (env.getElementUtils().overrides(overrider, method, resource)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasJaxrsAnnotations(ExecutableElement method) {
+        if (httpMethodOf(method) != null || AnnotationValues.find(method, PATH) != null) {
+            return true;
+        }
+        for (VariableElement parameter : method.getParameters()) {
+            for (AnnotationMirror mirror : parameter.getAnnotationMirrors()) {
+                if (AnnotationValues.nameOf(mirror).startsWith(JAXRS)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if no annotation relevant to the model has been added
+     */
+    boolean isEmpty() {
+        return pathItems.isEmpty() && definition == null;
+    }
+
+    /**
+     * @return the source of the OASModelReader building the model of the added classes
+     */
+    String generate(String packageName, String simpleName) {
+        final StringBuilder methods = new StringBuilder();
+        final Expression openAPI = model("OpenAPI").call("openapi", Expression.literal("3.0.0"));
+        final Expression components = definition != null && definition.annotation("components") != null
+                ? components(definition.annotation("components")) : model("Components");
+        if (definition != null) {
+            definition(openAPI, definition);
+        }
+        for (Expression tag : tags.values()) {
+            openAPI.call("addTag", tag);
+        }
+        if (!pathItems.isEmpty()) {
+            final Expression paths = model("Paths");
+            int i = 0;
+            for (Map.Entry<String, Map<String, Expression>> entry : pathItems.entrySet()) {
+                final Expression pathItem = model("PathItem");
+                for (Map.Entry<String, Expression> operation : entry.getValue().entrySet()) {
+                    pathItem.call(operation.getKey(), operation.getValue());
+                }
+                final String method = "pathItem" + i++;
+                appendMethod(methods, "PathItem", method, pathItem);
+                paths.call("addPathItem", Expression.literal(joinPaths(applicationPath, entry.getKey())), Expression.invoke(method));
+            }
+            openAPI.call("paths", paths);
+        }
+        int i = 0;
+        for (Map.Entry<String, Expression> entry : schemas.entrySet()) {
+            final String method = "schema" + i++;
+            appendMethod(methods, "Schema", method, entry.getValue());
+            components.call("addSchema", Expression.literal(entry.getKey()), Expression.invoke(method));
+        }
+        for (Map.Entry<String, Expression> entry : securitySchemes.entrySet()) {
+            components.call("addSecurityScheme", Expression.literal(entry.getKey()), entry.getValue());
+        }
+        if (!components.isEmpty()) {
+            openAPI.call("components", components);
+        }
+
+        final StringBuilder sb = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            sb.append("package ").append(packageName).append(";\n\n");
+        }
+        imports.add("java.util.LinkedHashMap");
+        imports.add("java.util.Map");
+        imports.add("org.eclipse.microprofile.openapi.OASFactory");
+        imports.add("org.eclipse.microprofile.openapi.OASModelReader");
+        imports.add("org.eclipse.microprofile.openapi.models.Extensible");
+        imports.add(MODEL_TYPES.get("OpenAPI"));
+        for (String type : imports) {
+            sb.append("import ").append(type).append(";\n");
+        }
+        sb.append("\n/**\n * The OpenAPI model of the annotated classes of the application, generated at compile time. Do not edit.\n */\n");
+        sb.append("public class ").append(simpleName).append(" implements OASModelReader {\n\n");
+        sb.append("    @Override\n    public OpenAPI buildModel() {\n        return ");
+        openAPI.appendTo(sb, 1);
+        sb.append(";\n    }\n").append(methods);
+        sb.append("\n    @SuppressWarnings(\"unchecked\")\n");
+        sb.append("    private static <V> Map<String, V> map(Object... keysAndValues) {\n");
+        sb.append("        final Map<String, V> map = new LinkedHashMap<>();\n");
+        sb.append("        for (int i = 0; i < keysAndValues.length; i += 2) {\n");
+        sb.append("            map.put((String) keysAndValues[i], (V) keysAndValues[i + 1]);\n");
+        sb.append("        }\n        return map;\n    }\n");
+        sb.append("\n    private static <T extends Extensible> T extensions(T model, String... namesAndValues) {\n");
+        sb.append("        for (int i = 0; i < namesAndValues.length; i += 2) {\n");
+        sb.append("            model.addExtension(namesAndValues[i], namesAndValues[i + 1]);\n");
+        sb.append("        }\n        return model;\n    }\n}\n");
+        return sb.toString();
+    }
+
+    private static void appendMethod(StringBuilder sb, String type, String name, Expression body) {
+        sb.append("\n    private static ").append(type).append(' ').append(name).append("() {\n        return ");
+        body.appendTo(sb, 1);
+        sb.append(";\n    }\n");
+    }
+
+    private Expression model(String type) {
+        imports.add(MODEL_TYPES.get(type));
+        return Expression.create(type);
+    }
+
+    private String constant(String type, String constant) {
+        imports.add(MODEL_TYPES.get(type));
+        return type + "." + constant;
+    }
+
+    // JAX-RS resources
+
+    private Expression operation(List<TypeElement> hierarchy, ExecutableElement method, AnnotationValues values) {
+        final Expression operation = model("Operation");
+        if (values != null) {
+            strings(operation, values, "summary", "description", "operationId");
+            constants(operation, values, "deprecated");
+        }
+        if (AnnotationValues.find(method, Deprecated.class.getName()) != null) {
+            operation.call("deprecated", "true");
+        }
+        operationTags(operation, method, hierarchy);
+
+        final List<String> consumes = mediaTypes(method, hierarchy, CONSUMES);
+        final Map<String, Expression> parameters = new LinkedHashMap<>();
+        AnnotationValues requestBody = AnnotationValues.find(method, REQUEST_BODY);
+        TypeMirror entityType = null;
+        for (VariableElement parameter : method.getParameters()) {
+            final AnnotationValues annotation = AnnotationValues.find(parameter, PARAMETER);
+            if (annotation != null && annotation.isTrue("hidden")) {
+                continue;
+            }
+            boolean entity = true;
+            for (AnnotationMirror mirror : parameter.getAnnotationMirrors()) {
+                entity &= !AnnotationValues.nameOf(mirror).startsWith(JAXRS);
+            }
+            for (String kind : PARAMETER_KINDS) {
+                final AnnotationValues jaxrs = AnnotationValues.find(parameter, JAXRS + kind + "Param");
+                if (jaxrs != null) {
+                    final String in = kind.toUpperCase(Locale.ROOT);
+                    final String name = jaxrs.string("value");
+                    final Expression expression = annotation != null && annotation.has("ref")
+                            ? parameter(model("Parameter"), annotation) : jaxrsParameter(parameter, in, name, annotation);
+                    parameters.put(in + ':' + name, expression);
+                }
+            }
+            if (entity) {
+                entityType = parameter.asType();
+                if (requestBody == null) {
+                    requestBody = AnnotationValues.find(parameter, REQUEST_BODY);
+                }
+            }
+        }
+        for (AnnotationValues annotation : AnnotationValues.findAll(method, PARAMETER, PARAMETERS)) {
+            final String key = annotation.enumConstant("in") + ':' + annotation.string("name");
+            final Expression existing = parameters.get(key);
+            if (annotation.isTrue("hidden")) {
+                parameters.remove(key);
+            }
+            else if (existing != null && !annotation.has("ref")) {
+                parameter(existing, annotation);
+            }
+            else {
+                parameters.put(key, parameter(model("Parameter"), annotation));
+            }
+        }
+        for (Expression parameter : parameters.values()) {
+            operation.call("addParameter", parameter);
+        }
+
+        if (requestBody != null || entityType != null) {
+            final Expression body = requestBody != null ? requestBody(requestBody) : model("RequestBody");
+            if (entityType != null && (requestBody == null || !requestBody.has("content") && !requestBody.has("ref"))) {
+                body.call("content", content(consumes, entityType));
+            }
+            operation.call("requestBody", body);
+        }
+
+        final Expression responses = model("APIResponses");
+        final List<AnnotationValues> declared = AnnotationValues.findAll(method, API_RESPONSE, API_RESPONSES);
+        if (declared.isEmpty()) {
+            final TypeMirror returnType = method.getReturnType();
+            if (returnType.getKind() == TypeKind.VOID) {
+                responses.call("addApiResponse", Expression.literal("204"),
+                        model("APIResponse").call("description", Expression.literal("No Content")));
+            }
+            else {
+                responses.call("addApiResponse", Expression.literal("200"), model("APIResponse").call("description", Expression.literal("OK"))
+                        .call("content", content(mediaTypes(method, hierarchy, PRODUCES), returnType)));
+            }
+        }
+        for (AnnotationValues response : declared) {
+            final String code = response.has("responseCode") ? response.string("responseCode") : "default";
+            responses.call("addApiResponse", Expression.literal(code), apiResponse(response));
+        }
+        operation.call("responses", responses);
+
+        final List<Object> callbacks = new ArrayList<>();
+        for (AnnotationValues callback : AnnotationValues.findAll(method, CALLBACK, CALLBACKS)) {
+            if (!callback.has("name")) {
+                continue;
+            }
+            callbacks.add(Expression.literal(callback.string("name")));
+            callbacks.add(callback(callback));
+        }
+        if (!callbacks.isEmpty()) {
+            operation.call("callbacks", Expression.invoke("map", callbacks.toArray()));
+        }
+
+        List<Expression> security = securityRequirements(method);
+        if (security.isEmpty()) {
+            security = securityRequirements(annotated(hierarchy, SECURITY_REQUIREMENT, SECURITY_REQUIREMENTS, SECURITY_REQUIREMENTS_SET));
+        }
+        for (Expression requirement : security) {
+            operation.call("addSecurityRequirement", requirement);
+        }
+        return extensions(operation, method);
+    }
+
+    private Expression jaxrsParameter(VariableElement parameter, String in, String name, AnnotationValues annotation) {
+        final Expression expression = model("Parameter").call("name", Expression.literal(name)).call("in", constant("Parameter", "In." + in));
+        if ("PATH".equals(in)) {
+            expression.call("required", "true");
+        }
+        final Expression schema = schemaOf(parameter.asType());
+        final AnnotationValues defaultValue = AnnotationValues.find(parameter, DEFAULT_VALUE);
+        if (schema != null && defaultValue != null && defaultValue.has("value")) {
+            schema.call("defaultValue", Expression.literal(defaultValue.string("value")));
+        }
+        if (schema != null && (annotation == null || annotation.annotation("schema") == null)) {
+            expression.call("schema", schema);
+        }
+        return annotation == null ? expression : parameter(expression, annotation);
+    }
+
+    private void operationTags(Expression operation, Element element, List<TypeElement> hierarchy) {
+        List<AnnotationValues> annotations = AnnotationValues.findAll(element, TAG, TAGS);
+        AnnotationValues container = AnnotationValues.find(element, TAGS);
+        if (annotations.isEmpty() && (container == null || container.strings("refs").isEmpty())) {
+            final TypeElement resource = annotated(hierarchy, TAG, TAGS);
+            annotations = AnnotationValues.findAll(resource, TAG, TAGS);
+            container = AnnotationValues.find(resource, TAGS);
+        }
+        final Set<String> names = new TreeSet<>();
+        for (AnnotationValues tag : annotations) {
+            final String name = tag.has("name") ? tag.string("name") : tag.string("ref");
+            if (name != null) {
+                names.add(name);
+                if (tag.has("name") && (tag.has("description") || tag.annotation("externalDocs") != null) && !tags.containsKey(name)) {
+                    tags.put(name, tag(tag));
+                }
+            }
+        }
+        if (container != null) {
+            names.addAll(container.strings("refs"));
+        }
+        for (String name : names) {
+            operation.call("addTag", Expression.literal(name));
+        }
+    }
+
+    private List<String> mediaTypes(ExecutableElement method, List<TypeElement> hierarchy, String annotationType) {
+        AnnotationValues values = AnnotationValues.find(method, annotationType);
+        if (values == null) {
+            values = AnnotationValues.find(annotated(hierarchy, annotationType), annotationType);
+        }
+        final List<String> mediaTypes = new ArrayList<>();
+        if (values != null) {
+            for (String value : values.strings("value")) {
+                for (String mediaType : value.split(",")) {
+                    mediaTypes.add(mediaType.trim());
+                }
+            }
+        }
+        return mediaTypes.isEmpty() ? ANY_MEDIA_TYPE : mediaTypes;
+    }
+
+    private Expression content(List<String> mediaTypes, TypeMirror type) {
+        final Expression content = model("Content");
+        for (String mediaType : mediaTypes) {
+            final Expression schema = schemaOf(type);
+            final Expression media = model("MediaType");
+            if (schema != null) {
+                media.call("schema", schema);
+            }
+            content.call("addMediaType", Expression.literal(mediaType), media);
+        }
+        return content;
+    }
+
+    private List<Expression> securityRequirements(Element element) {
+        final List<Expression> requirements = new ArrayList<>();
+        for (AnnotationValues requirement : AnnotationValues.findAll(element, SECURITY_REQUIREMENT, SECURITY_REQUIREMENTS)) {
+            requirements.add(securityRequirement(model("SecurityRequirement"), requirement));
+        }
+        final AnnotationValues set = AnnotationValues.find(element, SECURITY_REQUIREMENTS_SET);
+        if (set != null) {
+            final Expression requirement = model("SecurityRequirement");
+            for (AnnotationValues values : set.annotations("value")) {
+                securityRequirement(requirement, values);
+            }
+            requirements.add(requirement);
+        }
+        return requirements;
+    }
+
+    private Expression extensions(Expression model, Element element) {
+        final List<Object> arguments = new ArrayList<>();
+        arguments.add(model);
+        for (AnnotationValues extension : AnnotationValues.findAll(element, EXTENSION, EXTENSIONS)) {
+            arguments.add(Expression.literal(extension.string("name")));
+            arguments.add(Expression.literal(extension.has("value") ? extension.string("value") : ""));
+        }
+        return arguments.size() == 1 ? model : Expression.invoke("extensions", arguments.toArray());
+    }
+
+    private static String pathOf(Element element) {
+        final AnnotationValues path = AnnotationValues.find(element, PATH);
+        return path == null ? "" : path.string("value");
+    }
+
+    private static String httpMethodOf(ExecutableElement method) {
+        for (AnnotationMirror mirror : method.getAnnotationMirrors()) {
+            final AnnotationValues httpMethod = AnnotationValues.find(mirror.getAnnotationType().asElement(), HTTP_METHOD);
+            if (httpMethod != null) {
+                return httpMethod.string("value");
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Joins the given JAX-RS paths, and removes the regular expressions of their templates.
+     */
+    static String joinPaths(String... paths) {
+        final StringBuilder sb = new StringBuilder();
+        for (String path : paths) {
+            if (path == null) {
+                continue;
+            }
+            for (String segment : path.split("/")) {
+                if (!segment.isEmpty()) {
+                    sb.append('/').append(segment);
+                }
+            }
+        }
+        final StringBuilder joined = new StringBuilder(sb.length() + 1);
+        int depth = 0;
+        boolean skipping = false;
+        for (int i = 0; i < sb.length(); i++) {
+            final char c = sb.charAt(i);
+            if (c == '{') {
+                depth++;
+                if (depth > 1) {
+                    continue;
+                }
+            }
+            else if (c == '}') {
+                depth--;
+                if (depth > 0) {
+                    continue;
+                }
+                skipping = false;
+            }
+            else if (depth == 1 && c == ':') {
+                skipping = true;
+            }
+            if (!skipping && (depth == 0 || c != ' ')) {
+                joined.append(c);
+            }
+        }
+        return joined.length() == 0 ? "/" : joined.toString();
+    }
+
+    // Java types
+
+    /**
+     * @return the schema of values of the given type, or null if the type does not describe its values
+     */
+    private Expression schemaOf(TypeMirror type) {
+        final Types types = env.getTypeUtils();
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return simpleSchema("BOOLEAN", null);
+            case BYTE:
+            case SHORT:
+            case INT:
+                return simpleSchema("INTEGER", "int32");
+            case LONG:
+                return simpleSchema("INTEGER", "int64");
+            case FLOAT:
+                return simpleSchema("NUMBER", "float");
+            case DOUBLE:
+                return simpleSchema("NUMBER", "double");
+            case CHAR:
+                return simpleSchema("STRING", null);
+            case ARRAY:
+                final TypeMirror component = ((ArrayType) type).getComponentType();
+                if (component.getKind() == TypeKind.BYTE) {
+                    return simpleSchema("STRING", "byte");
+                }
+                return arraySchema(component);
+            case DECLARED:
+                break;
+            default:
+                return null;
+        }
+        final TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        final String name = element.getQualifiedName().toString();
+        final List<? extends TypeMirror> arguments = ((DeclaredType) type).getTypeArguments();
+        final String[] simple = SIMPLE_TYPES.get(name);
+        if (simple != null) {
+            return simpleSchema(simple[0], simple[1]);
+        }
+        if ("java.lang.Object".equals(name) || "java.lang.Void".equals(name) || name.startsWith(JAXRS)) {
+            return null;
+        }
+        if ("java.util.Optional".equals(name) || "java.util.concurrent.CompletionStage".equals(name)
+                || "java.util.concurrent.CompletableFuture".equals(name)) {
+            return arguments.isEmpty() ? null : schemaOf(arguments.get(0));
+        }
+        if (isSubtype(type, "java.lang.Iterable")) {
+            return arraySchema(arguments.size() == 1 ? arguments.get(0) : null);
+        }
+        if (isSubtype(type, "java.util.Map")) {
+            final Expression schema = simpleSchema("OBJECT", null);
+            final Expression values = arguments.size() == 2 ? schemaOf(arguments.get(1)) : null;
+            if (values != null) {
+                schema.call("additionalProperties", values);
+            }
+            return schema;
+        }
+        if (element.getKind() == ElementKind.ENUM) {
+            final Expression schema = simpleSchema("STRING", null);
+            for (VariableElement field : ElementFilter.fieldsIn(element.getEnclosedElements())) {
+                if (field.getKind() == ElementKind.ENUM_CONSTANT) {
+                    schema.call("addEnumeration", Expression.literal(field.getSimpleName().toString()));
+                }
+            }
+            return schema;
+        }
+        if (element.getKind() == ElementKind.CLASS || element.getKind() == ElementKind.INTERFACE) {
+            return model("Schema").call("ref", Expression.literal(COMPONENT_SCHEMAS + componentSchema(types, element)));
+        }
+        return null;
+    }
+
+    private boolean isSubtype(TypeMirror type, String supertype) {
+        final Types types = env.getTypeUtils();
+        final TypeElement element = env.getElementUtils().getTypeElement(supertype);
+        return element != null && types.isAssignable(types.erasure(type), types.erasure(element.asType()));
+    }
+
+    private Expression simpleSchema(String type, String format) {
+        final Expression schema = model("Schema").call("type", constant("Schema", "SchemaType." + type));
+        if (format != null) {
+            schema.call("format", Expression.literal(format));
+        }
+        return schema;
+    }
+
+    private Expression arraySchema(TypeMirror itemType) {
+        final Expression items = itemType == null ? null : schemaOf(itemType);
+        return simpleSchema("ARRAY", null).call("items", items != null ? items : simpleSchema("OBJECT", null));
+    }
+
+    /**
+     * Adds the schema of the given class to the component schemas, unless it is already there.
+     *
+     * @return the name of the component schema
+     */
+    private String componentSchema(Types types, TypeElement element) {
+        final String qualifiedName = element.getQualifiedName().toString();
+        String name = schemaNames.get(qualifiedName);
+        if (name != null) {
+            return name;
+        }
+        final AnnotationValues annotation = AnnotationValues.find(element, SCHEMA);
+        name = annotation != null && annotation.has("name") ? annotation.string("name") : element.getSimpleName().toString();
+        schemaNames.put(qualifiedName, name);
+
+        final Expression schema = simpleSchema("OBJECT", null);
+        // the fields of superclasses come first
+        final List<TypeElement> hierarchy = new ArrayList<>();
+        for (TypeElement current = element; current != null && !"java.lang.Object".equals(current.getQualifiedName().toString());) {
+            hierarchy.add(0, current);
+            final TypeMirror superclass = current.getSuperclass();
+            current = superclass.getKind() == TypeKind.DECLARED ? (TypeElement) types.asElement(superclass) : null;
+        }
+        for (TypeElement type : hierarchy) {
+            for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+                if (field.getModifiers().contains(Modifier.STATIC) || field.getModifiers().contains(Modifier.TRANSIENT)) {
+                    continue;
+                }
+                final AnnotationValues property = AnnotationValues.find(field, SCHEMA);
+                if (property != null && property.isTrue("hidden")) {
+                    continue;
+                }
+                final String propertyName = property != null && property.has("name") ? property.string("name") : field.getSimpleName().toString();
+                schema.call("addProperty", Expression.literal(propertyName), schema(property, field.asType()));
+                if (property != null && property.isTrue("required")) {
+                    schema.call("addRequired", Expression.literal(propertyName));
+                }
+            }
+        }
+        if (annotation != null) {
+            schemaProperties(schema, annotation);
+        }
+        schemas.put(name, schema);
+        return name;
+    }
+
+    // OpenAPI annotations
+
+    /**
+     * @return the schema of the given annotation, based on the schema of the given type unless the annotation names
+     * another implementation
+     */
+    private Expression schema(AnnotationValues values, TypeMirror type) {
+        Expression schema = null;
+        if (values != null && values.type("implementation") != null) {
+            // an array of the implementation when the type is an array
+            final TypeMirror implementation = values.type("implementation");
+            schema = "ARRAY".equals(values.enumConstant("type")) ? arraySchema(implementation) : schemaOf(implementation);
+        }
+        else if (type != null && (values == null || !values.has("ref"))) {
+            schema = schemaOf(type);
+        }
+        if (schema == null) {
+            schema = model("Schema");
+        }
+        if (values != null) {
+            schemaProperties(schema, values);
+        }
+        return schema;
+    }
+
+    private void schemaProperties(Expression schema, AnnotationValues values) {
+        final String type = values.enumConstant("type");
+        if (type != null && !"DEFAULT".equals(type)) {
+            // replaces the type of the schema of the Java type, such as the array type of an array schema
+            schema.set("type", constant("Schema", "SchemaType." + type));
+        }
+        strings(schema, values, "ref", "format", "title", "description", "pattern", "defaultValue", "example");
+        constants(schema, values, "minLength", "maxLength", "minProperties", "maxProperties", "minItems", "maxItems", "exclusiveMaximum",
+                "exclusiveMinimum", "readOnly", "writeOnly", "nullable", "deprecated", "uniqueItems");
+        for (String member : Arrays.asList("multipleOf", "maximum", "minimum")) {
+            final String value = values.constant(member);
+            if (value != null) {
+                imports.add("java.math.BigDecimal");
+                schema.call(member, "new BigDecimal(" + Expression.literal(value) + ")");
+            }
+        }
+        for (String value : values.strings("enumeration")) {
+            schema.call("addEnumeration", Expression.literal(value));
+        }
+        for (String value : values.strings("requiredProperties")) {
+            schema.call("addRequired", Expression.literal(value));
+        }
+        if (values.annotation("externalDocs") != null) {
+            schema.call("externalDocs", externalDocs(values.annotation("externalDocs")));
+        }
+        if (values.type("not") != null) {
+            schema.call("not", schema(null, values.type("not")));
+        }
+        for (String member : Arrays.asList("allOf", "anyOf", "oneOf")) {
+            for (TypeMirror alternative : values.types(member)) {
+                schema.call("add" + Character.toUpperCase(member.charAt(0)) + member.substring(1), schema(null, alternative));
+            }
+        }
+        final List<AnnotationValues> mappings = values.annotations("discriminatorMapping");
+        if (values.has("discriminatorProperty") || !mappings.isEmpty()) {
+            final Expression discriminator = model("Discriminator");
+            if (values.has("discriminatorProperty")) {
+                discriminator.call("propertyName", Expression.literal(values.string("discriminatorProperty")));
+            }
+            for (AnnotationValues mapping : mappings) {
+                final TypeMirror mapped = mapping.type("schema");
+                if (mapping.has("value") && mapped != null && mapped.getKind() == TypeKind.DECLARED) {
+                    final String name = componentSchema(env.getTypeUtils(), (TypeElement) ((DeclaredType) mapped).asElement());
+                    discriminator.call("addMapping", Expression.literal(mapping.string("value")), Expression.literal(COMPONENT_SCHEMAS + name));
+                }
+            }
+            schema.call("discriminator", discriminator);
+        }
+    }
+
+    private void definition(Expression openAPI, AnnotationValues values) {
+        if (values.annotation("info") != null) {
+            openAPI.call("info", info(values.annotation("info")));
+        }
+        if (values.annotation("externalDocs") != null) {
+            openAPI.call("externalDocs", externalDocs(values.annotation("externalDocs")));
+        }
+        for (AnnotationValues server : values.annotations("servers")) {
+            openAPI.call("addServer", server(server));
+        }
+        for (AnnotationValues requirement : values.annotations("security")) {
+            openAPI.call("addSecurityRequirement", securityRequirement(model("SecurityRequirement"), requirement));
+        }
+        for (AnnotationValues tag : values.annotations("tags")) {
+            if (tag.has("name")) {
+                tags.remove(tag.string("name"));
+                openAPI.call("addTag", tag(tag));
+            }
+        }
+    }
+
+    private Expression info(AnnotationValues values) {
+        final Expression info = model("Info");
+        strings(info, values, "title", "version", "description", "termsOfService");
+        if (values.annotation("contact") != null) {
+            info.call("contact", strings(model("Contact"), values.annotation("contact"), "name", "url", "email"));
+        }
+        if (values.annotation("license") != null) {
+            info.call("license", strings(model("License"), values.annotation("license"), "name", "url"));
+        }
+        return info;
+    }
+
+    private Expression externalDocs(AnnotationValues values) {
+        return strings(model("ExternalDocumentation"), values, "url", "description");
+    }
+
+    private Expression tag(AnnotationValues values) {
+        final Expression tag = strings(model("Tag"), values, "name", "description");
+        if (values.annotation("externalDocs") != null) {
+            tag.call("externalDocs", externalDocs(values.annotation("externalDocs")));
+        }
+        return tag;
+    }
+
+    private Expression server(AnnotationValues values) {
+        final Expression server = strings(model("Server"), values, "url", "description");
+        final List<AnnotationValues> variables = values.annotations("variables", "name");
+        if (!variables.isEmpty()) {
+            final Expression serverVariables = model("ServerVariables");
+            for (AnnotationValues variable : variables) {
+                final Expression serverVariable = strings(model("ServerVariable"), variable, "description", "defaultValue");
+                for (String value : variable.strings("enumeration")) {
+                    serverVariable.call("addEnumeration", Expression.literal(value));
+                }
+                serverVariables.call("addServerVariable", Expression.literal(variable.string("name")), serverVariable);
+            }
+            server.call("variables", serverVariables);
+        }
+        return server;
+    }
+
+    private Expression securityRequirement(Expression requirement, AnnotationValues values) {
+        final List<String> scopes = values.strings("scopes");
+        if (scopes.isEmpty()) {
+            return requirement.call("addScheme", Expression.literal(values.string("name")));
+        }
+        final List<Object> arguments = new ArrayList<>();
+        for (String scope : scopes) {
+            arguments.add(Expression.literal(scope));
+        }
+        imports.add("java.util.Arrays");
+        return requirement.call("addScheme", Expression.literal(values.string("name")), Expression.invoke("Arrays.asList", arguments.toArray()));
+    }
+
+    private Expression securityScheme(AnnotationValues values) {
+        final Expression scheme = model("SecurityScheme");
+        final String type = values.enumConstant("type");
+        if (type != null && !"DEFAULT".equals(type)) {
+            scheme.call("type", constant("SecurityScheme", "Type." + type));
+        }
+        final String in = values.enumConstant("in");
+        if (in != null && !"DEFAULT".equals(in)) {
+            scheme.call("in", constant("SecurityScheme", "In." + in));
+        }
+        strings(scheme, values, "ref", "description", "scheme", "bearerFormat", "openIdConnectUrl");
+        if (values.has("apiKeyName")) {
+            scheme.call("name", Expression.literal(values.string("apiKeyName")));
+        }
+        final AnnotationValues flows = values.annotation("flows");
+        if (flows != null) {
+            final Expression oauthFlows = model("OAuthFlows");
+            for (String member : Arrays.asList("implicit", "password", "clientCredentials", "authorizationCode")) {
+                final AnnotationValues flow = flows.annotation(member);
+                if (flow != null) {
+                    final Expression oauthFlow = strings(model("OAuthFlow"), flow, "authorizationUrl", "tokenUrl", "refreshUrl");
+                    final List<AnnotationValues> scopes = flow.annotations("scopes", "name");
+                    if (!scopes.isEmpty()) {
+                        final Expression flowScopes = model("Scopes");
+                        for (AnnotationValues scope : scopes) {
+                            flowScopes.call("addScope", Expression.literal(scope.string("name")),
+                                    Expression.literal(scope.has("description") ? scope.string("description") : ""));
+                        }
+                        oauthFlow.call("scopes", flowScopes);
+                    }
+                    oauthFlows.call(member, oauthFlow);
+                }
+            }
+            scheme.call("flows", oauthFlows);
+        }
+        return scheme;
+    }
+
+    private Expression parameter(Expression parameter, AnnotationValues values) {
+        final String in = values.enumConstant("in");
+        if (in != null && !"DEFAULT".equals(in)) {
+            parameter.set("in", constant("Parameter", "In." + in));
+        }
+        final String style = values.enumConstant("style");
+        if (style != null && !"DEFAULT".equals(style)) {
+            parameter.set("style", constant("Parameter", "Style." + style));
+        }
+        final String explode = values.enumConstant("explode");
+        if (explode != null && !"DEFAULT".equals(explode)) {
+            parameter.set("explode", explode.toLowerCase(Locale.ROOT));
+        }
+        strings(parameter, values, "ref", "name", "description", "example");
+        constants(parameter, values, "required", "deprecated", "allowEmptyValue", "allowReserved");
+        if (values.annotation("schema") != null) {
+            parameter.set("schema", schema(values.annotation("schema"), null));
+        }
+        if (!values.annotations("content").isEmpty()) {
+            parameter.set("content", content(values.annotations("content")));
+        }
+        for (AnnotationValues example : values.annotations("examples", "name")) {
+            parameter.call("addExample", Expression.literal(example.string("name")), example(example));
+        }
+        return parameter;
+    }
+
+    private Expression requestBody(AnnotationValues values) {
+        final Expression requestBody = strings(model("RequestBody"), values, "ref", "description");
+        constants(requestBody, values, "required");
+        if (!values.annotations("content").isEmpty()) {
+            requestBody.call("content", content(values.annotations("content")));
+        }
+        return requestBody;
+    }
+
+    private Expression apiResponse(AnnotationValues values) {
+        final Expression response = strings(model("APIResponse"), values, "ref", "description");
+        if (!values.annotations("content").isEmpty()) {
+            response.call("content", content(values.annotations("content")));
+        }
+        for (AnnotationValues header : values.annotations("headers", "name")) {
+            response.call("addHeader", Expression.literal(header.string("name")), header(header));
+        }
+        for (AnnotationValues link : values.annotations("links", "name")) {
+            response.call("addLink", Expression.literal(link.string("name")), link(link));
+        }
+        return response;
+    }
+
+    private Expression content(List<AnnotationValues> contents) {
+        final Expression content = model("Content");
+        for (AnnotationValues values : contents) {
+            final Expression mediaType = model("MediaType");
+            if (values.annotation("schema") != null) {
+                mediaType.call("schema", schema(values.annotation("schema"), null));
+            }
+            for (AnnotationValues example : values.annotations("examples", "name")) {
+                mediaType.call("addExample", Expression.literal(example.string("name")), example(example));
+            }
+            for (AnnotationValues encoding : values.annotations("encoding", "name")) {
+                mediaType.call("addEncoding", Expression.literal(encoding.string("name")), encoding(encoding));
+            }
+            content.call("addMediaType", Expression.literal(values.has("mediaType") ? values.string("mediaType") : "*/*"), mediaType);
+        }
+        return content;
+    }
+
+    private Expression example(AnnotationValues values) {
+        return strings(model("Example"), values, "ref", "summary", "description", "value", "externalValue");
+    }
+
+    private Expression encoding(AnnotationValues values) {
+        final Expression encoding = strings(model("Encoding"), values, "contentType");
+        constants(encoding, values, "explode", "allowReserved");
+        if (values.has("style")) {
+            final String style = values.string("style").replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT);
+            encoding.call("style", constant("Encoding", "Style." + style));
+        }
+        final List<Object> headers = new ArrayList<>();
+        for (AnnotationValues header : values.annotations("headers", "name")) {
+            headers.add(Expression.literal(header.string("name")));
+            headers.add(header(header));
+        }
+        if (!headers.isEmpty()) {
+            encoding.call("headers", Expression.invoke("map", headers.toArray()));
+        }
+        return encoding;
+    }
+
+    private Expression header(AnnotationValues values) {
+        final Expression header = strings(model("Header"), values, "ref", "description");
+        constants(header, values, "required", "deprecated", "allowEmptyValue");
+        if (values.annotation("schema") != null) {
+            header.call("schema", schema(values.annotation("schema"), null));
+        }
+        return header;
+    }
+
+    private Expression link(AnnotationValues values) {
+        final Expression link = strings(model("Link"), values, "ref", "operationRef", "operationId", "description", "requestBody");
+        if (values.annotation("server") != null) {
+            link.call("server", server(values.annotation("server")));
+        }
+        for (AnnotationValues parameter : values.annotations("parameters", "name")) {
+            link.call("addParameter", Expression.literal(parameter.string("name")),
+                    Expression.literal(parameter.has("expression") ? parameter.string("expression") : ""));
+        }
+        return link;
+    }
+
+    private Expression callback(AnnotationValues values) {
+        final Expression callback = strings(model("Callback"), values, "ref");
+        if (values.has("callbackUrlExpression")) {
+            final Expression pathItem = model("PathItem");
+            for (AnnotationValues operation : values.annotations("operations")) {
+                final String method = operation.has("method") ? operation.string("method").toUpperCase(Locale.ROOT) : null;
+                if (method != null && PATH_ITEM_METHODS.contains(method)) {
+                    pathItem.call(method, callbackOperation(operation));
+                }
+            }
+            callback.call("addPathItem", Expression.literal(values.string("callbackUrlExpression")), pathItem);
+        }
+        return callback;
+    }
+
+    private Expression callbackOperation(AnnotationValues values) {
+        final Expression operation = strings(model("Operation"), values, "summary", "description");
+        if (values.annotation("externalDocs") != null) {
+            operation.call("externalDocs", externalDocs(values.annotation("externalDocs")));
+        }
+        for (AnnotationValues parameter : values.annotations("parameters")) {
+            operation.call("addParameter", parameter(model("Parameter"), parameter));
+        }
+        if (values.annotation("requestBody") != null) {
+            operation.call("requestBody", requestBody(values.annotation("requestBody")));
+        }
+        final List<AnnotationValues> responses = values.annotations("responses");
+        if (!responses.isEmpty()) {
+            final Expression apiResponses = model("APIResponses");
+            for (AnnotationValues response : responses) {
+                final String code = response.has("responseCode") ? response.string("responseCode") : "default";
+                apiResponses.call("addApiResponse", Expression.literal(code), apiResponse(response));
+            }
+            operation.call("responses", apiResponses);
+        }
+        for (AnnotationValues requirement : values.annotations("security")) {
+            operation.call("addSecurityRequirement", securityRequirement(model("SecurityRequirement"), requirement));
+        }
+        final List<Object> arguments = new ArrayList<>();
+        arguments.add(operation);
+        for (AnnotationValues extension : values.annotations("extensions")) {
+            arguments.add(Expression.literal(extension.string("name")));
+            arguments.add(Expression.literal(extension.has("value") ? extension.string("value") : ""));
+        }
+        return arguments.size() == 1 ? operation : Expression.invoke("extensions", arguments.toArray());
+    }
+
+    private Expression components(AnnotationValues values) {
+        final Expression components = model("Components");
+        for (AnnotationValues schema : values.annotations("schemas", "name")) {
+            components.call("addSchema", Expression.literal(schema.string("name")), schema(schema, null));
+        }
+        for (AnnotationValues response : values.annotations("responses", "name")) {
+            components.call("addResponse", Expression.literal(response.string("name")), apiResponse(response));
+        }
+        for (AnnotationValues parameter : values.annotations("parameters", "name")) {
+            components.call("addParameter", Expression.literal(parameter.string("name")), parameter(model("Parameter"), parameter));
+        }
+        for (AnnotationValues example : values.annotations("examples", "name")) {
+            components.call("addExample", Expression.literal(example.string("name")), example(example));
+        }
+        for (AnnotationValues requestBody : values.annotations("requestBodies")) {
+            components.call("addRequestBody", Expression.literal(requestBody.string("name")), requestBody(requestBody));
+        }
+        for (AnnotationValues header : values.annotations("headers", "name")) {
+            components.call("addHeader", Expression.literal(header.string("name")), header(header));
+        }
+        for (AnnotationValues scheme : values.annotations("securitySchemes", "securitySchemeName")) {
+            components.call("addSecurityScheme", Expression.literal(scheme.string("securitySchemeName")), securityScheme(scheme));
+        }
+        for (AnnotationValues link : values.annotations("links", "name")) {
+            components.call("addLink", Expression.literal(link.string("name")), link(link));
+        }
+        for (AnnotationValues callback : values.annotations("callbacks", "name")) {
+            components.call("addCallback", Expression.literal(callback.string("name")), callback(callback));
+        }
+        return components;
+    }
+
+    /**
+     * Calls the setter of the same name as each given string member, if the member is set, replacing an earlier call
+     * of the setter.
+     *
+     * @return the given model
+     */
+    private static Expression strings(Expression model, AnnotationValues values, String... members) {
+        for (String member : members) {
+            if (values.has(member)) {
+                model.set(member, Expression.literal(values.string(member)));
+            }
+        }
+        return model;
+    }
+
+    /**
+     * Calls the setter of the same name as each given boolean or numeric member, if the member is set, replacing an
+     * earlier call of the setter.
+     */
+    private static void constants(Expression model, AnnotationValues values, String... members) {
+        for (String member : members) {
+            if (values.has(member)) {
+                model.set(member, values.constant(member));
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+import org.eclipse.microprofile.openapi.OASConfig;
+
+/**
+ * Generates, at compile time, an OASModelReader building the OpenAPI model of the JAX-RS resources and OpenAPI
+ * annotations of the compiled sources, so that the annotations do not have to be scanned at deployment time.
+ * <p>
+ * The processor only runs when the fully qualified name of the reader to generate is given by the
+ * {@value #READER_OPTION} option, for example with <code>-Amp.openapi.model.reader=com.example.GeneratedModelReader</code>.
+ * The application then names the same class in its {@link OASConfig#MODEL_READER} configuration, and disables the
+ * scanning of its classes with {@link OASConfig#SCAN_DISABLE}.
+ * <p>
+ * The resources include the classes that inherit their JAX-RS annotations from an annotated superclass or interface,
+ * of the compiled sources or of a library.
+ * <p>
+ * The reader is generated in the first processing round that finds annotated classes, so resources generated by
+ * other processors in later rounds are not part of it.
+ */
+// every annotation, since a resource may inherit its annotations from a library without carrying any itself
+@SupportedAnnotationTypes("*")
+@SupportedOptions(ModelReaderProcessor.READER_OPTION)
+public class ModelReaderProcessor extends AbstractProcessor {
+
+    /**
+     * The option naming the reader to generate.
+     */
+    public static final String READER_OPTION = OASConfig.MODEL_READER;
+
+    private boolean generated;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        final String readerName = processingEnv.getOptions().get(READER_OPTION);
+        if (readerName == null || generated || roundEnv.processingOver()) {
+            return false;
+        }
+        final ModelGenerator generator = new ModelGenerator(processingEnv);
+        for (TypeElement annotation : annotations) {
+            final String name = annotation.getQualifiedName().toString();
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (name.equals("javax.ws.rs.ApplicationPath") && element instanceof TypeElement) {
+                    generator.addApplication((TypeElement) element);
+                }
+                else if (name.equals("javax.ws.rs.Path") && element instanceof TypeElement) {
+                    generator.addResource((TypeElement) element);
+                }
+                else if (name.equals("org.eclipse.microprofile.openapi.annotations.OpenAPIDefinition")) {
+                    generator.addDefinition(element);
+                }
+            }
+        }
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getRootElements())) {
+            addInheritingResources(generator, type);
+        }
+        if (!generator.isEmpty()) {
+            generated = true;
+            writeReader(readerName, generator);
+        }
+        // other processors may process the same annotations
+        return false;
+    }
+
+    /**
+     * Adds a class, and the classes nested in it, if it inherits the JAX-RS annotations of a resource.
+     */
+    private static void addInheritingResources(ModelGenerator generator, TypeElement type) {
+        if (generator.inheritsResource(type)) {
+            generator.addResource(type);
+        }
+        for (TypeElement nested : ElementFilter.typesIn(type.getEnclosedElements())) {
+            addInheritingResources(generator, nested);
+        }
+    }
+
+    private void writeReader(String readerName, ModelGenerator generator) {
+        final int dot = readerName.lastIndexOf('.');
+        final String source = generator.generate(dot < 0 ? "" : readerName.substring(0, dot), readerName.substring(dot + 1));
+        try {
+            final JavaFileObject file = processingEnv.getFiler().createSourceFile(readerName);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source);
+            }
+        }
+        catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + readerName + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,22 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+/**
+ * Annotation processors generating, at compile time, the OpenAPI resources that runtimes would otherwise compute
+ * at deployment time.
+ * <p>
+ * The processors are registered via the {@link java.util.ServiceLoader} mechanism, so adding this artifact to the
+ * compile classpath of an application is enough to run them.
+ */
+@org.osgi.annotation.versioning.Version("1.0")
+package org.eclipse.microprofile.openapi.processor;
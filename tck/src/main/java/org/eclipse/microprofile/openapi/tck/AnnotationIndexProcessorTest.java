@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.eclipse.microprofile.openapi.tck.utils.Compilation.source;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import javax.annotation.processing.Processor;
+import javax.ws.rs.Path;
+
+import org.eclipse.microprofile.openapi.annotations.OpenAPIDefinition;
+import org.eclipse.microprofile.openapi.processor.AnnotationIndexProcessor;
+import org.eclipse.microprofile.openapi.spi.AnnotationIndex;
+import org.eclipse.microprofile.openapi.tck.utils.Compilation;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test compiles sources with the annotation processor writing the build-time annotation index, and checks the
+ * classes it records, after a full compilation and after compilations of some of the sources only.
+ */
+public class AnnotationIndexProcessorTest extends Arquillian {
+
+    private static final int JAXRS = AnnotationIndex.JAXRS_ANNOTATIONS;
+    private static final int OPENAPI = AnnotationIndex.OPENAPI_ANNOTATIONS;
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void annotatedClassesTest() throws IOException {
+        final File output = Files.createTempDirectory("openapi-index").toFile();
+        compileAll(output);
+
+        final AnnotationIndex index = readIndex(output);
+        assertEquals(index.getClassNames(), Arrays.asList("com.example.api.Api", "com.example.api.ApiImpl",
+                "com.example.api.Outer$Nested", "com.example.api.Resource", "com.example.model.Pet", "com.example.package-info"),
+                "Annotated classes, and classes inheriting annotations, are expected to be recorded.");
+        assertEquals(index.getKinds("com.example.api.Api"), JAXRS);
+        assertEquals(index.getKinds("com.example.api.ApiImpl"), JAXRS, "An implementor of an annotated interface is expected to be recorded.");
+        assertEquals(index.getKinds("com.example.api.Outer$Nested"), JAXRS, "A nested implementor is expected to be recorded.");
+        assertEquals(index.getKinds("com.example.api.Resource"), JAXRS | OPENAPI);
+        assertEquals(index.getKinds("com.example.model.Pet"), OPENAPI);
+        assertEquals(index.getKinds("com.example.package-info"), OPENAPI);
+    }
+
+    @Test
+    public void incrementalCompilationTest() throws IOException {
+        final File output = Files.createTempDirectory("openapi-index").toFile();
+        compileAll(output);
+
+        createCompilation(output).compile(processors(),
+                source("com.example.model.Pet", "package com.example.model;\n public class Pet {}"),
+                source("com.example.model.Tag", "package com.example.model;\n"
+                        + "@org.eclipse.microprofile.openapi.annotations.media.Schema(name = \"Tag\") public class Tag {}"));
+
+        final AnnotationIndex index = readIndex(output);
+        assertEquals(index.getClassNames(), Arrays.asList("com.example.api.Api", "com.example.api.ApiImpl",
+                "com.example.api.Outer$Nested", "com.example.api.Resource", "com.example.model.Tag", "com.example.package-info"),
+                "The classes of earlier compilations are expected to be kept, and the recompiled classes to be replaced.");
+        assertEquals(index.getKinds("com.example.model.Tag"), OPENAPI);
+    }
+
+    @Test
+    public void deletedClassTest() throws IOException {
+        final File output = Files.createTempDirectory("openapi-index").toFile();
+        compileAll(output);
+        assertTrue(new File(output, "com/example/api/ApiImpl.class").delete());
+        assertTrue(new File(output, "com/example/package-info.class").delete());
+
+        createCompilation(output).compile(processors(), source("com.example.model.Plain", "package com.example.model;\n public class Plain {}"));
+
+        assertEquals(readIndex(output).getClassNames(), Arrays.asList("com.example.api.Api", "com.example.api.Outer$Nested",
+                "com.example.api.Resource", "com.example.model.Pet"),
+                "The classes whose class file was deleted are expected to be dropped.");
+    }
+
+    private static void compileAll(File output) {
+        createCompilation(output).compile(processors(),
+                source("com.example.package-info", "@org.eclipse.microprofile.openapi.annotations.OpenAPIDefinition("
+                        + "info = @org.eclipse.microprofile.openapi.annotations.info.Info(title = \"Example\", version = \"1.0\"))\n"
+                        + "package com.example;"),
+                source("com.example.api.Api", "package com.example.api;\n"
+                        + "@javax.ws.rs.Path(\"/api\") public interface Api { @javax.ws.rs.GET String get(); }"),
+                source("com.example.api.ApiImpl", "package com.example.api;\n"
+                        + "public class ApiImpl implements Api { public String get() { return \"\"; } }"),
+                source("com.example.api.Outer", "package com.example.api;\n"
+                        + "public class Outer { public static class Nested implements Api { public String get() { return \"\"; } } }"),
+                source("com.example.api.Base", "package com.example.api;\n public class Base {}"),
+                source("com.example.api.Sub", "package com.example.api;\n public class Sub extends Base {}"),
+                source("com.example.api.Resource", "package com.example.api;\n"
+                        + "@javax.ws.rs.Path(\"/resource\") public class Resource {\n"
+                        + "  @javax.ws.rs.GET @org.eclipse.microprofile.openapi.annotations.Operation(summary = \"Get\")\n"
+                        + "  public String get() { return \"\"; }\n"
+                        + "}"),
+                source("com.example.model.Pet", "package com.example.model;\n"
+                        + "@org.eclipse.microprofile.openapi.annotations.media.Schema(name = \"Pet\") public class Pet {}"));
+    }
+
+    private static Compilation createCompilation(File output) {
+        return new Compilation(output, Path.class, OpenAPIDefinition.class);
+    }
+
+    private static Collection<Processor> processors() {
+        return Collections.<Processor>singletonList(new AnnotationIndexProcessor());
+    }
+
+    private static AnnotationIndex readIndex(File output) throws IOException {
+        try (InputStream in = Files.newInputStream(new File(output, AnnotationIndex.RESOURCE_NAME).toPath())) {
+            return AnnotationIndex.read(in);
+        }
+    }
+}
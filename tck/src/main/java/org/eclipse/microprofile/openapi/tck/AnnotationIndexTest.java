@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.microprofile.openapi.spi.AnnotationIndex;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test checks that the build-time annotation index reads back what was written, and that the indexes of
+ * several jars are merged.
+ */
+public class AnnotationIndexTest extends Arquillian {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void roundTripTest() throws IOException {
+        final AnnotationIndex index = createIndex();
+        final AnnotationIndex read = AnnotationIndex.read(new ByteArrayInputStream(toBytes(index)));
+        assertEquals(read, index, "An index is expected to read back as written.");
+        assertEquals(read.getClassNames(), Arrays.asList("com.example.api.Resource", "com.example.api.Resource$Nested",
+                "com.example.model.Pet", "com.example.model.Peté"), "Classes are expected to be sorted by name.");
+        assertEquals(read.getKinds("com.example.api.Resource"), AnnotationIndex.JAXRS_ANNOTATIONS | AnnotationIndex.OPENAPI_ANNOTATIONS);
+        assertEquals(read.getKinds("com.example.Unknown"), 0);
+        assertEquals(read.getClassNames(AnnotationIndex.JAXRS_ANNOTATIONS), Arrays.asList("com.example.api.Resource",
+                "com.example.api.Resource$Nested"));
+    }
+
+    @Test
+    public void loadTest() throws IOException {
+        final Map<String, Integer> other = new HashMap<>();
+        other.put("com.example.model.Pet", AnnotationIndex.JAXRS_ANNOTATIONS);
+        other.put("org.example.Other", AnnotationIndex.OPENAPI_ANNOTATIONS);
+        final byte[] first = toBytes(createIndex());
+        final byte[] second = toBytes(AnnotationIndex.of(other));
+
+        final AnnotationIndex loaded = AnnotationIndex.load(new ClassLoader(null) {
+            @Override
+            public Enumeration<URL> getResources(String name) throws IOException {
+                assertEquals(name, AnnotationIndex.RESOURCE_NAME);
+                return Collections.enumeration(Arrays.asList(toURL(first), toURL(second)));
+            }
+        });
+        assertEquals(loaded.size(), 5, "The indexes of all jars are expected to be merged.");
+        assertEquals(loaded.getKinds("com.example.model.Pet"), AnnotationIndex.JAXRS_ANNOTATIONS | AnnotationIndex.OPENAPI_ANNOTATIONS,
+                "The kinds of a class indexed twice are expected to be combined.");
+        assertEquals(loaded.getKinds("org.example.Other"), AnnotationIndex.OPENAPI_ANNOTATIONS);
+    }
+
+    @Test(expectedExceptions = { IOException.class })
+    public void invalidIndexTest() throws IOException {
+        AnnotationIndex.read(new ByteArrayInputStream(new byte[] { 'n', 'o', 't', ' ', 'a', 'n', ' ', 'i', 'n', 'd', 'e', 'x' }));
+    }
+
+    @Test(expectedExceptions = { IllegalArgumentException.class })
+    public void invalidKindTest() {
+        AnnotationIndex.of(Collections.singletonMap("com.example.Resource", 4));
+    }
+
+    private static AnnotationIndex createIndex() {
+        final Map<String, Integer> kinds = new HashMap<>();
+        kinds.put("com.example.model.Peté", AnnotationIndex.OPENAPI_ANNOTATIONS);
+        kinds.put("com.example.api.Resource", AnnotationIndex.JAXRS_ANNOTATIONS | AnnotationIndex.OPENAPI_ANNOTATIONS);
+        kinds.put("com.example.model.Pet", AnnotationIndex.OPENAPI_ANNOTATIONS);
+        kinds.put("com.example.api.Resource$Nested", AnnotationIndex.JAXRS_ANNOTATIONS);
+        return AnnotationIndex.of(kinds);
+    }
+
+    private static byte[] toBytes(AnnotationIndex index) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+        return out.toByteArray();
+    }
+
+    private static URL toURL(byte[] bytes) throws IOException {
+        return new URL(null, "bytes:" + AnnotationIndex.RESOURCE_NAME, new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL url) {
+                return new URLConnection(url) {
+                    @Override
+                    public void connect() {
+                    }
+
+                    @Override
+                    public InputStream getInputStream() {
+                        return new ByteArrayInputStream(bytes);
+                    }
+                };
+            }
+        });
+    }
+}
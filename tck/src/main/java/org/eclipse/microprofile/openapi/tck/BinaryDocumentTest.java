@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.spi.BinaryDocument;
+import org.eclipse.microprofile.openapi.spi.DocumentFormat;
+import org.eclipse.microprofile.openapi.spi.OASReader;
+import org.eclipse.microprofile.openapi.spi.OASWriter;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test writes the models of static OpenAPI documents in the binary format of BinaryDocument, and checks that
+ * reading them back gives the same models.
+ */
+public class BinaryDocumentTest extends Arquillian {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class)
+                .addAsResource("simpleapi.yaml", "simpleapi.yaml")
+                .addAsResource("openapi.yaml", "openapi.yaml");
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        for (String resource : Arrays.asList("simpleapi.yaml", "openapi.yaml")) {
+            final OpenAPI model = OASReader.instance().read(Thread.currentThread().getContextClassLoader().getResource(resource));
+            final byte[] binary = toBinary(model);
+
+            assertEquals(yaml(BinaryDocument.read(ByteBuffer.wrap(binary))), yaml(model),
+                    "The model read from the binary document of " + resource + " is expected to be the model it was written from.");
+            assertEquals(yaml(BinaryDocument.read(new ByteArrayInputStream(binary))), yaml(model));
+            assertTrue(binary.length < OASWriter.instance().toBytes(model, DocumentFormat.JSON).length,
+                    "The binary document of " + resource + " is expected to be smaller than its JSON document.");
+        }
+    }
+
+    @Test
+    public void testInternedStrings() throws IOException {
+        final OpenAPI model = OASReader.instance().read(Thread.currentThread().getContextClassLoader().getResource("simpleapi.yaml"));
+        final String binary = new String(toBinary(model), StandardCharsets.ISO_8859_1);
+        final String ref = "#/components/schemas/InventoryItem";
+        assertEquals(binary.indexOf(ref), binary.lastIndexOf(ref), "A string used several times is expected to be stored once.");
+        assertTrue(binary.startsWith("OASB"));
+    }
+
+    @Test
+    public void testStaticDocumentLookup() throws IOException {
+        final Path directory = Files.createTempDirectory("openapi");
+        final Path metaInf = Files.createDirectories(directory.resolve("META-INF"));
+        Files.write(metaInf.resolve("openapi.yaml"), "openapi: 3.0.0\ninfo:\n  title: text\n  version: '1'\n".getBytes(StandardCharsets.UTF_8));
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { directory.toUri().toURL() }, null)) {
+            assertEquals(OASReader.instance().read(loader).getInfo().getTitle(), "text");
+
+            final OpenAPI binaryModel = OASReader.instance().read(new ByteArrayInputStream(
+                    "openapi: 3.0.0\ninfo:\n  title: binary\n  version: '1'\n".getBytes(StandardCharsets.UTF_8)), DocumentFormat.YAML);
+            try (OutputStream out = Files.newOutputStream(metaInf.resolve("openapi.bin"))) {
+                BinaryDocument.write(binaryModel, out);
+            }
+            assertEquals(OASReader.instance().read(loader).getInfo().getTitle(), "binary",
+                    "The binary document is expected to be read in place of the text document.");
+            assertEquals(OASReader.instance().read(metaInf.resolve("openapi.bin")).getInfo().getTitle(), "binary");
+        }
+        try (URLClassLoader empty = new URLClassLoader(new URL[0], null)) {
+            assertNull(OASReader.instance().read(empty));
+        }
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testTruncatedDocument() throws IOException {
+        final OpenAPI model = OASReader.instance().read(Thread.currentThread().getContextClassLoader().getResource("simpleapi.yaml"));
+        final byte[] binary = toBinary(model);
+        BinaryDocument.read(ByteBuffer.wrap(binary, 0, binary.length - 3));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testNotBinaryDocument() throws IOException {
+        BinaryDocument.read(ByteBuffer.wrap("openapi: 3.0.0\n".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static byte[] toBinary(OpenAPI model) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryDocument.write(model, out);
+        return out.toByteArray();
+    }
+
+    private static String yaml(OpenAPI model) {
+        return new String(OASWriter.instance().toBytes(model, DocumentFormat.YAML), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.microprofile.openapi.OASFactory;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.spi.CompactMap;
+import org.eclipse.microprofile.openapi.spi.CompactModels;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test checks that the CompactMap behaves as a LinkedHashMap, below and above the size from which it indexes
+ * its keys, and that the CompactModels pass the ModelConstructionTest of the model interfaces that extend Map, and
+ * share an empty map of extensions until the first extension is added.
+ */
+public class CompactMapTest extends Arquillian {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void testInsertionOrder() {
+        final Map<String, Integer> compact = new CompactMap<>();
+        final Map<String, Integer> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 40; i++) {
+            final String key = Integer.toString(i * 7 % 40);
+            assertEquals(compact.put(key, i), expected.put(key, i));
+            assertEquals(new ArrayList<>(compact.entrySet()), new ArrayList<>(expected.entrySet()));
+        }
+        assertEquals(compact.put("3", -1), expected.put("3", -1));
+        assertEquals(new ArrayList<>(compact.keySet()), new ArrayList<>(expected.keySet()),
+                "Replacing a value is expected to keep the position of its key.");
+        for (int i = 0; i < 40; i += 3) {
+            assertEquals(compact.remove(Integer.toString(i)), expected.remove(Integer.toString(i)));
+        }
+        assertNull(compact.remove("missing"));
+        while (compact.size() > 4) {
+            final String key = compact.keySet().iterator().next();
+            assertEquals(compact.remove(key), expected.remove(key));
+            for (String k : expected.keySet()) {
+                assertEquals(compact.get(k), expected.get(k), "Every key is expected to be found after a removal.");
+            }
+        }
+        assertEquals(new ArrayList<>(compact.entrySet()), new ArrayList<>(expected.entrySet()));
+        assertEquals(compact, expected);
+        assertEquals(compact.hashCode(), expected.hashCode());
+        assertFalse(compact.containsKey("0"));
+
+        compact.put(null, null);
+        assertTrue(compact.containsKey(null), "A null key is expected to be permitted.");
+        compact.clear();
+        assertTrue(compact.isEmpty());
+        assertEquals(new CompactMap<>(expected), expected);
+    }
+
+    @Test
+    public void testIterator() {
+        final Map<String, Integer> compact = new CompactMap<>();
+        for (int i = 0; i < 12; i++) {
+            compact.put("k" + i, i);
+        }
+        final Iterator<Map.Entry<String, Integer>> iterator = compact.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, Integer> entry = iterator.next();
+            if (entry.getValue() % 2 == 0) {
+                iterator.remove();
+            }
+            else {
+                entry.setValue(-entry.getValue());
+            }
+        }
+        assertEquals(new ArrayList<>(compact.keySet()), Arrays.asList("k1", "k3", "k5", "k7", "k9", "k11"));
+        assertEquals(compact.get("k11"), Integer.valueOf(-11), "The entries are expected to write through to the map.");
+
+        try {
+            for (String key : compact.keySet()) {
+                compact.put(key + "x", 0);
+            }
+            fail("Adding a key while iterating is expected to fail.");
+        }
+        catch (ConcurrentModificationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSharedExtensions() {
+        final Paths paths = CompactModels.createObject(Paths.class);
+        assertSame(paths.getExtensions(), CompactModels.createObject(Paths.class).getExtensions(),
+                "The instances without extensions are expected to share an empty map.");
+        paths.addExtension("x-owner", "bookings");
+        assertEquals(paths.getExtensions().get("x-owner"), "bookings");
+        assertTrue(CompactModels.createObject(Paths.class).getExtensions().isEmpty());
+    }
+
+    @Test
+    public void testModelConstruction() {
+        // the compact implementations are created directly, so that the resolver of the vendor is left untouched
+        final ModelConstructionTest test = new ModelConstructionTest(
+                clazz -> CompactModels.supports(clazz) ? CompactModels.createObject(clazz) : OASFactory.createObject(clazz));
+        test.pathsTest();
+        test.callbackTest();
+        test.contentTest();
+        test.apiResponsesTest();
+        test.scopesTest();
+        test.securityRequirementTest();
+        test.serverVariablesTest();
+        assertTrue(CompactModels.createObject(Paths.class) instanceof CompactMap);
+        assertTrue(CompactModels.createObject(Content.class) instanceof CompactMap);
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.eclipse.microprofile.openapi.OASFactory.createObject;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.eclipse.microprofile.openapi.ComponentIndex;
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.eclipse.microprofile.openapi.models.security.SecurityRequirement;
+import org.eclipse.microprofile.openapi.models.security.SecurityScheme;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test checks that the ComponentIndex resolves references, and finds the references, the referrers and the
+ * closure of the components, path items and operations of a model.
+ */
+public class ComponentIndexTest extends Arquillian {
+
+    private static final String BOOKING = "#/components/schemas/Booking";
+    private static final String FLIGHT = "#/components/schemas/Flight";
+    private static final String AIRPORT = "#/components/schemas/Airport";
+    private static final String TREE = "#/components/schemas/Tree";
+    private static final String ID = "#/components/parameters/id";
+    private static final String AUTH = "#/components/securitySchemes/auth";
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void testResolve() {
+        final OpenAPI model = createModel();
+        final ComponentIndex index = ComponentIndex.of(model);
+        final Schema flight = model.getComponents().getSchemas().get("Flight");
+
+        assertSame(index.resolve(FLIGHT), flight);
+        assertSame(index.resolve(model.getComponents().getSchemas().get("Booking").getProperties().get("flight")), flight);
+        assertSame(index.resolve(createObject(Parameter.class).ref("id")), model.getComponents().getParameters().get("id"));
+        assertNull(index.resolve("#/components/schemas/Missing"), "A reference to a missing component is expected to resolve to null.");
+        assertNull(index.resolve(createObject(Schema.class).type(Schema.SchemaType.STRING)));
+        assertNull(index.resolve(createObject(Schema.class).ref("id")));
+    }
+
+    @Test
+    public void testReferences() {
+        final ComponentIndex index = ComponentIndex.of(createModel());
+        final String get = ComponentIndex.operationPointer("/bookings/{id}", PathItem.HttpMethod.GET);
+        final String path = ComponentIndex.pathPointer("/bookings/{id}");
+
+        assertEquals(path, "#/paths/~1bookings~1{id}");
+        assertEquals(get, "#/paths/~1bookings~1{id}/get");
+        assertEquals(index.getReferences(path), Collections.singleton(ID),
+                "The references of the operations are not expected to be references of the path item.");
+        assertEquals(index.getReferences(get), new HashSet<>(Arrays.asList(BOOKING, AUTH)));
+        assertEquals(index.getReferences(BOOKING), new HashSet<>(Arrays.asList(FLIGHT, "#/components/schemas/Missing")));
+        assertEquals(index.getReferences(ComponentIndex.SECURITY_POINTER), Collections.singleton(AUTH));
+        assertTrue(index.getReferences("#/components/schemas/Unknown").isEmpty());
+        assertTrue(index.getPointers().containsAll(Arrays.asList(BOOKING, FLIGHT, AIRPORT, TREE, ID, AUTH, path, get)));
+    }
+
+    @Test
+    public void testReferrers() {
+        final ComponentIndex index = ComponentIndex.of(createModel());
+
+        assertEquals(index.getReferrers(FLIGHT), Collections.singleton(BOOKING));
+        assertEquals(index.getReferrers(BOOKING),
+                Collections.singleton(ComponentIndex.operationPointer("/bookings/{id}", PathItem.HttpMethod.GET)));
+        assertEquals(index.getReferrers(AUTH), new HashSet<>(Arrays.asList(ComponentIndex.SECURITY_POINTER,
+                ComponentIndex.operationPointer("/bookings/{id}", PathItem.HttpMethod.GET))));
+        assertTrue(index.getReferrers("#/components/schemas/Unused").isEmpty());
+    }
+
+    @Test
+    public void testClosure() {
+        final ComponentIndex index = ComponentIndex.of(createModel());
+
+        assertEquals(index.getClosure(Collections.singleton(ComponentIndex.operationPointer("/bookings/{id}", PathItem.HttpMethod.GET))),
+                new HashSet<>(Arrays.asList(BOOKING, FLIGHT, AIRPORT, AUTH, "#/components/schemas/Missing")));
+        assertEquals(index.getClosure(Collections.singleton(FLIGHT)), Collections.singleton(AIRPORT),
+                "A starting node is not expected to be in the closure unless it is reachable.");
+        assertEquals(index.getClosure(Collections.singleton(TREE)), Collections.singleton(TREE),
+                "A component referencing itself is expected to be in its closure.");
+        assertTrue(index.getClosure(Collections.singleton("#/paths/~1unknown")).isEmpty());
+    }
+
+    /**
+     * @return a model where the bookings reference flights, which reference airports, and a missing component
+     */
+    private static OpenAPI createModel() {
+        return createObject(OpenAPI.class).openapi("3.0.0")
+                .addSecurityRequirement(createObject(SecurityRequirement.class).addScheme("auth"))
+                .paths(createObject(Paths.class).addPathItem("/bookings/{id}", createObject(PathItem.class)
+                        .addParameter(createObject(Parameter.class).ref("id"))
+                        .GET(createObject(Operation.class).operationId("getBooking")
+                                .addSecurityRequirement(createObject(SecurityRequirement.class).addScheme("auth"))
+                                .responses(createObject(APIResponses.class).addApiResponse("200", createObject(APIResponse.class)
+                                        .content(createObject(Content.class).addMediaType("application/json",
+                                                createObject(MediaType.class).schema(createObject(Schema.class).ref("Booking")))))))))
+                .components(createObject(Components.class)
+                        .addSchema("Unused", createObject(Schema.class).type(Schema.SchemaType.STRING))
+                        .addSchema("Booking", createObject(Schema.class).type(Schema.SchemaType.OBJECT)
+                                .addProperty("flight", createObject(Schema.class).ref("Flight"))
+                                .addProperty("extra", createObject(Schema.class).ref("Missing")))
+                        .addSchema("Flight", createObject(Schema.class).type(Schema.SchemaType.OBJECT)
+                                .addProperty("airports", createObject(Schema.class).type(Schema.SchemaType.ARRAY)
+                                        .items(createObject(Schema.class).ref("Airport"))))
+                        .addSchema("Airport", createObject(Schema.class).type(Schema.SchemaType.OBJECT))
+                        .addSchema("Tree", createObject(Schema.class).type(Schema.SchemaType.OBJECT)
+                                .addProperty("children", createObject(Schema.class).type(Schema.SchemaType.ARRAY)
+                                        .items(createObject(Schema.class).ref("Tree"))))
+                        .addParameter("id", createObject(Parameter.class).name("id").in(Parameter.In.PATH).required(true))
+                        .addSecurityScheme("auth", createObject(SecurityScheme.class).type(SecurityScheme.Type.HTTP).scheme("bearer")));
+    }
+}
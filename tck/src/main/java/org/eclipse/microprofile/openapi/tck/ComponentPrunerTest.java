@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.eclipse.microprofile.openapi.OASFactory.createObject;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import org.eclipse.microprofile.openapi.ComponentPruner;
+import org.eclipse.microprofile.openapi.OASFilter;
+import org.eclipse.microprofile.openapi.OASFilterWalker;
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.examples.Example;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.models.media.Discriminator;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.eclipse.microprofile.openapi.models.security.SecurityScheme;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test checks that the ComponentPruner removes the components that a filtered model no longer references,
+ * directly or through other components, and keeps the others.
+ */
+public class ComponentPrunerTest extends Arquillian {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void testPruneAfterFilter() {
+        final OpenAPI model = createModel();
+        OASFilterWalker.filter(model, new OASFilter() {
+            @Override
+            public Parameter filterParameter(Parameter parameter) {
+                return "#/components/parameters/filter".equals(parameter.getRef()) ? null : parameter;
+            }
+        });
+
+        assertEquals(ComponentPruner.prune(model), new HashSet<>(Arrays.asList(
+                "#/components/schemas/Filter", "#/components/schemas/Unused", "#/components/schemas/Left",
+                "#/components/schemas/Right", "#/components/parameters/filter", "#/components/examples/filter")),
+                "The components only referenced by the removed parameter, and the unused ones, are expected to be removed.");
+
+        final Components components = model.getComponents();
+        assertEquals(new ArrayList<>(components.getSchemas().keySet()), Arrays.asList("Booking", "Flight"));
+        assertEquals(new ArrayList<>(components.getParameters().keySet()), Collections.singletonList("id"));
+        assertNull(components.getExamples(), "A section without components left is expected to be removed.");
+        assertEquals(new ArrayList<>(components.getSecuritySchemes().keySet()), Collections.singletonList("unused_auth"),
+                "The security schemes are expected to be kept.");
+    }
+
+    @Test
+    public void testNothingToPrune() {
+        final OpenAPI model = createObject(OpenAPI.class).openapi("3.0.0");
+        assertTrue(ComponentPruner.prune(model).isEmpty());
+        assertNull(model.getComponents());
+
+        final OpenAPI referenced = createModel();
+        final Schema booking = referenced.getComponents().getSchemas().get("Booking");
+        ComponentPruner.prune(referenced);
+        assertTrue(ComponentPruner.prune(referenced).isEmpty(), "Pruning is expected to remove nothing the second time.");
+        assertEquals(referenced.getComponents().getSchemas().get("Booking"), booking);
+    }
+
+    @Test
+    public void testDiscriminatorMapping() {
+        final OpenAPI model = createObject(OpenAPI.class).openapi("3.0.0")
+                .paths(createObject(Paths.class).addPathItem("/pets", createObject(PathItem.class)
+                        .GET(createObject(Operation.class).operationId("getPets")
+                                .responses(createObject(APIResponses.class).addApiResponse("200", createObject(APIResponse.class)
+                                        .content(createObject(Content.class).addMediaType("application/json",
+                                                createObject(MediaType.class).schema(createObject(Schema.class).ref("Pet")))))))))
+                .components(createObject(Components.class)
+                        .addSchema("Pet", createObject(Schema.class).type(Schema.SchemaType.OBJECT)
+                                .discriminator(createObject(Discriminator.class).propertyName("kind")
+                                        .addMapping("dog", "#/components/schemas/Dog")
+                                        .addMapping("cat", "Cat")))
+                        .addSchema("Dog", createObject(Schema.class).type(Schema.SchemaType.OBJECT))
+                        .addSchema("Cat", createObject(Schema.class).type(Schema.SchemaType.OBJECT))
+                        .addSchema("Bird", createObject(Schema.class).type(Schema.SchemaType.OBJECT)));
+
+        assertEquals(ComponentPruner.prune(model), Collections.singleton("#/components/schemas/Bird"),
+                "The schemas only reached through the mapping of a discriminator are expected to be kept.");
+        assertEquals(new ArrayList<>(model.getComponents().getSchemas().keySet()), Arrays.asList("Pet", "Dog", "Cat"));
+    }
+
+    /**
+     * @return a model where the path references a booking, which references a flight, and a filter parameter, which
+     * references a schema and an example, while the unused schema and the two schemas referencing each other are not
+     * referenced by the path
+     */
+    private static OpenAPI createModel() {
+        return createObject(OpenAPI.class).openapi("3.0.0")
+                .paths(createObject(Paths.class).addPathItem("/bookings/{id}", createObject(PathItem.class)
+                        .addParameter(createObject(Parameter.class).ref("id"))
+                        .GET(createObject(Operation.class).operationId("getBooking")
+                                .addParameter(createObject(Parameter.class).ref("filter"))
+                                .responses(createObject(APIResponses.class).addApiResponse("200", createObject(APIResponse.class)
+                                        .content(createObject(Content.class).addMediaType("application/json",
+                                                createObject(MediaType.class).schema(createObject(Schema.class).ref("Booking")))))))))
+                .components(createObject(Components.class)
+                        .addSchema("Booking", createObject(Schema.class).type(Schema.SchemaType.OBJECT)
+                                .addProperty("flight", createObject(Schema.class).ref("Flight")))
+                        .addSchema("Flight", createObject(Schema.class).type(Schema.SchemaType.OBJECT))
+                        .addSchema("Filter", createObject(Schema.class).type(Schema.SchemaType.STRING))
+                        .addSchema("Unused", createObject(Schema.class).type(Schema.SchemaType.STRING))
+                        .addSchema("Left", createObject(Schema.class).addProperty("right", createObject(Schema.class).ref("Right")))
+                        .addSchema("Right", createObject(Schema.class).addProperty("left", createObject(Schema.class).ref("Left")))
+                        .addParameter("id", createObject(Parameter.class).name("id").in(Parameter.In.PATH).required(true))
+                        .addParameter("filter", createObject(Parameter.class).name("filter").in(Parameter.In.QUERY)
+                                .schema(createObject(Schema.class).ref("Filter"))
+                                .addExample("all", createObject(Example.class).ref("filter")))
+                        .addExample("filter", createObject(Example.class).value("*"))
+                        .addSecurityScheme("unused_auth", createObject(SecurityScheme.class).type(SecurityScheme.Type.HTTP).scheme("bearer")));
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.eclipse.microprofile.openapi.OASFactory.createObject;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.openapi.LazyComponents;
+import org.eclipse.microprofile.openapi.OASFilter;
+import org.eclipse.microprofile.openapi.OASFilterWalker;
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test checks that the sections of LazyComponents are built once, on first access, and that a filter that is
+ * not interested in components leaves them unbuilt.
+ */
+public class LazyComponentsTest extends Arquillian {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void testFirstAccess() {
+        final AtomicInteger schemaBuilds = new AtomicInteger();
+        final AtomicInteger responseBuilds = new AtomicInteger();
+        final Components components = createComponents(schemaBuilds, responseBuilds);
+
+        assertFalse(LazyComponents.isBuilt(components, "schemas"));
+        assertEquals(components.getResponses().keySet(), Collections.singleton("NotFound"));
+        assertEquals(responseBuilds.get(), 1);
+        assertTrue(LazyComponents.isBuilt(components, "responses"));
+        assertFalse(LazyComponents.isBuilt(components, "schemas"), "Accessing a section is not expected to build the others.");
+        assertEquals(schemaBuilds.get(), 0);
+
+        assertSame(components.addSchema("Airport", createObject(Schema.class)), components,
+                "The builder methods are expected to return the lazy components.");
+        assertEquals(new ArrayList<>(components.getSchemas().keySet()), Arrays.asList("Booking", "Flight", "Airport"),
+                "Adding to a section is expected to build it first.");
+        components.getResponses();
+        assertEquals(schemaBuilds.get(), 1);
+        assertEquals(responseBuilds.get(), 1, "A section is expected to be built once.");
+        assertNull(components.getParameters(), "A section without a supplier is expected to be empty.");
+        assertTrue(LazyComponents.isBuilt(createObject(Components.class), "schemas"));
+    }
+
+    @Test
+    public void testObjectMethods() {
+        final AtomicInteger builds = new AtomicInteger();
+        final Components components = createComponents(builds, builds);
+        assertTrue(components.equals(components));
+        assertEquals(builds.get(), 2, "The methods belonging to no section are expected to build all the sections.");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnknownSection() {
+        LazyComponents.of(Collections.singletonMap("paths", LinkedHashMap::new));
+    }
+
+    @Test
+    public void testFilterOnlyPaths() {
+        final AtomicInteger schemaBuilds = new AtomicInteger();
+        final AtomicInteger responseBuilds = new AtomicInteger();
+        final OpenAPI model = createObject(OpenAPI.class).openapi("3.0.0")
+                .paths(createObject(Paths.class).addPathItem("/bookings", createObject(PathItem.class)
+                        .GET(createObject(Operation.class).operationId("getBookings"))))
+                .components(createComponents(schemaBuilds, responseBuilds));
+
+        OASFilterWalker.filter(model, new OASFilter() {
+            @Override
+            public Operation filterOperation(Operation operation) {
+                return operation.summary("Filtered");
+            }
+        });
+        assertEquals(model.getPaths().get("/bookings").getGET().getSummary(), "Filtered");
+        assertEquals(schemaBuilds.get() + responseBuilds.get(), 0,
+                "A filter only interested in operations is not expected to build the components.");
+
+        OASFilterWalker.filter(model, new OASFilter() {
+            @Override
+            public Schema filterSchema(Schema schema) {
+                return schema;
+            }
+        });
+        assertEquals(schemaBuilds.get(), 1);
+        assertEquals(responseBuilds.get(), 1, "The responses may hold schemas, so they are expected to be built.");
+    }
+
+    private static Components createComponents(AtomicInteger schemaBuilds, AtomicInteger responseBuilds) {
+        final Map<String, Supplier<Map<String, ?>>> sections = new HashMap<>();
+        sections.put("schemas", () -> {
+            schemaBuilds.incrementAndGet();
+            final Map<String, Schema> schemas = new LinkedHashMap<>();
+            schemas.put("Booking", createObject(Schema.class).type(Schema.SchemaType.OBJECT));
+            schemas.put("Flight", createObject(Schema.class).type(Schema.SchemaType.OBJECT));
+            return schemas;
+        });
+        sections.put("responses", () -> {
+            responseBuilds.incrementAndGet();
+            return Collections.singletonMap("NotFound", createObject(APIResponse.class).description("Not found"));
+        });
+        return LazyComponents.of(sections);
+    }
+}
@@ -34,6 +34,7 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import org.eclipse.microprofile.openapi.OASFactory;
 import org.eclipse.microprofile.openapi.models.Components;
@@ -152,6 +153,20 @@ public class ModelConstructionTest extends Arquillian {
         }
     }
 
+    /**
+     * Creates the instances under test, which are the instances created by the OASFactory unless another factory is
+     * given, such as one of the factories of the implementations that vendors may use for some of the interfaces.
+     */
+    private final Function<Class<? extends Constructible>, ? extends Constructible> factory;
+
+    public ModelConstructionTest() {
+        this(clazz -> OASFactory.createObject(clazz));
+    }
+
+    ModelConstructionTest(Function<Class<? extends Constructible>, ? extends Constructible> factory) {
+        this.factory = factory;
+    }
+
     @Deployment
     public static WebArchive createDeployment() {
         return ShrinkWrap.create(WebArchive.class);
@@ -554,7 +569,7 @@ public class ModelConstructionTest extends Arquillian {
     private <T extends Constructible> T processConstructible(Class<T> clazz) {
         final T o = createConstructibleInstance(clazz);
         if (o instanceof Extensible && Extensible.class.isAssignableFrom(clazz)) {
-            processExtensible((Extensible) o);
+            processExtensible((Extensible) o, (Extensible) createConstructibleInstance(clazz));
         }
         if (o instanceof Reference && Reference.class.isAssignableFrom(clazz)) {
             processReference((Reference<?>) o);
@@ -568,21 +583,24 @@ public class ModelConstructionTest extends Arquillian {
     
     private <T extends Constructible> T createConstructibleInstance(Class<T> clazz) {
         // Check that the OASFactory is able to create an instance of the given Class.
-        final T o1 = OASFactory.createObject(clazz);
+        final T o1 = clazz.cast(factory.apply(clazz));
         assertNotNull(o1, "The return value of OASFactory.createObject(" + clazz.getName() + ") must not be null.");
         assertTrue(clazz.isInstance(o1), "The return value of OASFactory.createObject() is expected to be an instance of: " + clazz.getName());
-        final T o2 = OASFactory.createObject(clazz);
+        final T o2 = clazz.cast(factory.apply(clazz));
         assertNotNull(o2, "The return value of OASFactory.createObject(" + clazz.getName() + ") must not be null.");
         assertTrue(clazz.isInstance(o2), "The return value of OASFactory.createObject() is expected to be an instance of: " + clazz.getName());
         assertNotSame(o2, o1, "OASFactory.createObject(" + clazz.getName() + ") is expected to create a new object on each invocation.");
         return o1;
     }
     
-    private void processExtensible(Extensible e) {
+    private void processExtensible(Extensible e, Extensible other) {
         final String extensionName1 = "x-" + e.getClass().getName() + "-1";
         final Object obj1 = new Object();
         final String extensionName2 = "x-" + e.getClass().getName() + "-2";
         final Object obj2 = new Object();
+        // Check that a new instance has no extensions, which may be held in a shared empty immutable map.
+        final Map<String, Object> initial = e.getExtensions();
+        assertTrue(initial == null || initial.isEmpty(), "The extensions map of a new instance is expected to be null or empty.");
         // Check that extensions can be added to and retrieved from the map.
         e.addExtension(extensionName1, obj1);
         e.addExtension(extensionName2, obj2);
@@ -594,6 +612,9 @@ public class ModelConstructionTest extends Arquillian {
                 "The value associated with the key: " + extensionName1 + " is expected to be the same one that was added.");
         assertSame(map.get(extensionName2), obj2,
                 "The value associated with the key: " + extensionName2 + " is expected to be the same one that was added.");
+        final Map<String, Object> otherMap = other.getExtensions();
+        assertTrue(otherMap == null || otherMap.isEmpty(),
+                "Adding an extension to an instance is not expected to add it to the extensions of another instance.");
         // Check that the extension map can be replaced with the setter and that it is returned by the getter.
         final Map<String, Object> newMap = new HashMap<>();
         e.setExtensions(newMap);
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+import java.io.File;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.processing.Processor;
+import javax.ws.rs.Path;
+
+import org.eclipse.microprofile.openapi.OASModelReader;
+import org.eclipse.microprofile.openapi.apps.airlines.JAXRSApp;
+import org.eclipse.microprofile.openapi.apps.airlines.resources.AirlinesResource;
+import org.eclipse.microprofile.openapi.apps.airlines.resources.AvailabilityResource;
+import org.eclipse.microprofile.openapi.apps.airlines.resources.ReviewResource;
+import org.eclipse.microprofile.openapi.apps.airlines.resources.bookings.BookingResource;
+import org.eclipse.microprofile.openapi.apps.petstore.PetStoreApp;
+import org.eclipse.microprofile.openapi.apps.petstore.resource.PetResource;
+import org.eclipse.microprofile.openapi.apps.petstore.resource.PetStoreResource;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.security.SecurityScheme;
+import org.eclipse.microprofile.openapi.processor.ModelReaderProcessor;
+import org.eclipse.microprofile.openapi.tck.utils.Compilation;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test runs the annotation processor generating an OASModelReader over the classes of the airlines and
+ * petstore applications, compiles the generated reader, and checks the model it builds against the expectations
+ * of the tests scanning these applications.
+ */
+public class ModelReaderProcessorTest extends Arquillian {
+
+    private static final String READER_NAME = "org.eclipse.microprofile.openapi.generated.GeneratedModelReader";
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void airlinesTest() throws Exception {
+        final File output = Files.createTempDirectory("openapi-reader").toFile();
+        final OpenAPI model = buildModel(output, JAXRSApp.class, AirlinesResource.class, AvailabilityResource.class, ReviewResource.class,
+                BookingResource.class, org.eclipse.microprofile.openapi.apps.airlines.resources.UserResource.class);
+
+        assertEquals(model.getOpenapi(), "3.0.0");
+        assertEquals(model.getInfo().getTitle(), "AirlinesRatingApp API");
+        assertEquals(model.getInfo().getVersion(), "1.0");
+        assertEquals(model.getInfo().getContact().getName(), "AirlinesRatingApp API Support");
+        assertEquals(model.getInfo().getLicense().getName(), "Apache 2.0");
+        assertEquals(model.getServers().size(), 2);
+
+        assertEquals(model.getPaths().get("/").getGET().getOperationId(), "getAirlines");
+        assertEquals(model.getPaths().get("/bookings/{id}").getDELETE().getOperationId(), "deleteBookingById");
+        assertEquals(model.getPaths().get("/reviews/{airline}").getGET().getOperationId(), "getReviewByAirline");
+        assertEquals(model.getPaths().get("/user/login").getGET().getOperationId(), "logInUser");
+
+        final Operation availability = model.getPaths().get("/availability").getGET();
+        assertEquals(availability.getOperationId(), "getFlights");
+        assertEquals(availability.getParameters().size(), 6);
+        for (String name : Arrays.asList("airportFrom", "returningDate", "airportTo")) {
+            final Parameter parameter = parameter(availability, name);
+            assertEquals(parameter.getIn(), Parameter.In.QUERY);
+            assertEquals(parameter.getRequired(), Boolean.TRUE);
+            assertEquals(parameter.getSchema().getType(), Schema.SchemaType.STRING);
+        }
+        assertEquals(parameter(availability, "numberOfAdults").getSchema().getMinimum().compareTo(BigDecimal.ZERO), 0);
+        assertEquals(availability.getResponses().size(), 2);
+        assertEquals(availability.getResponses().get("200").getDescription(), "successful operation");
+        assertEquals(availability.getResponses().get("404").getDescription(), "No available flights found");
+
+        final Operation booking = model.getPaths().get("/bookings/{id}").getGET();
+        assertEquals(booking.getParameters().size(), 1);
+        final Parameter id = parameter(booking, "id");
+        assertEquals(id.getIn(), Parameter.In.PATH);
+        assertEquals(id.getDescription(), "ID of the booking");
+        assertEquals(id.getRequired(), Boolean.TRUE);
+        assertEquals(id.getSchema().getType(), Schema.SchemaType.INTEGER);
+        assertEquals(booking.getResponses().get("200").getDescription(), "Booking retrieved");
+
+        assertEquals(model.getPaths().get("/user/{username}").getDELETE().getResponses().size(), 3);
+
+        final String source = new String(Files.readAllBytes(new File(output, READER_NAME.replace('.', '/') + ".java").toPath()),
+                StandardCharsets.UTF_8);
+        assertEquals(occurrences(source, ".name(\"airportFrom\")"), 1, "Each property of a parameter is expected to be set once.");
+    }
+
+    @Test
+    public void petStoreTest() throws Exception {
+        final File output = Files.createTempDirectory("openapi-reader").toFile();
+        final OpenAPI model = buildModel(output, PetStoreApp.class, PetResource.class, PetStoreResource.class,
+                org.eclipse.microprofile.openapi.apps.petstore.resource.UserResource.class);
+
+        final Schema tags = parameter(model.getPaths().get("/pet/findByTags").getGET(), "tags").getSchema();
+        assertEquals(tags.getDefaultValue(), "Dog");
+        assertEquals(new ArrayList<>(tags.getEnumeration()), Arrays.<Object>asList("Cat", "Dog", "Lizard"));
+        assertEquals(tags.getExternalDocs().getDescription(), "Pet Types");
+        assertEquals(tags.getDeprecated(), Boolean.TRUE);
+
+        final Schema petId = parameter(model.getPaths().get("/pet/{petId}").getGET(), "petId").getSchema();
+        assertEquals(petId.getMaximum().compareTo(new BigDecimal(101)), 0);
+        assertEquals(petId.getExclusiveMaximum(), Boolean.TRUE);
+        assertEquals(petId.getMinimum().compareTo(new BigDecimal(9)), 0);
+        assertEquals(petId.getExclusiveMinimum(), Boolean.TRUE);
+        assertEquals(petId.getMultipleOf().compareTo(BigDecimal.TEN), 0);
+
+        final Operation deletePet = model.getPaths().get("/pet/{petId}").getDELETE();
+        final Schema apiKey = parameter(deletePet, "apiKey").getSchema();
+        assertEquals(apiKey.getMaxLength(), Integer.valueOf(256));
+        assertEquals(apiKey.getMinLength(), Integer.valueOf(32));
+        assertEquals(deletePet.getSecurity().get(0).get("petsOAuth2"), Collections.singletonList("write:pets"));
+
+        final Map<String, SecurityScheme> schemes = model.getComponents().getSecuritySchemes();
+        assertEquals(schemes.keySet(), new HashSet<>(Arrays.asList("petsApiKey", "petsOAuth2", "petsHttp", "storeOpenIdConnect", "storeHttp",
+                "userApiKey", "userBasicHttp", "userBearerHttp")), "The security schemes declared by the resources are expected.");
+        final SecurityScheme petsApiKey = schemes.get("petsApiKey");
+        assertEquals(petsApiKey.getType(), SecurityScheme.Type.APIKEY);
+        assertEquals(petsApiKey.getName(), "createPetProfile");
+        assertEquals(petsApiKey.getIn(), SecurityScheme.In.HEADER);
+        assertEquals(schemes.get("petsHttp").getScheme(), "bearer");
+        assertEquals(schemes.get("petsHttp").getBearerFormat(), "jwt");
+        assertEquals(schemes.get("storeOpenIdConnect").getOpenIdConnectUrl(), "https://petstoreauth.com:4433/oidc/petstore/oidcprovider/authorize");
+    }
+
+    /**
+     * Generates a reader for the given classes, compiles it, and builds its model.
+     */
+    private static OpenAPI buildModel(File output, Class<?>... classes) throws Exception {
+        final List<String> classNames = new ArrayList<>();
+        for (Class<?> type : classes) {
+            classNames.add(type.getName());
+        }
+        new Compilation(output, Path.class, OASModelReader.class, JAXRSApp.class)
+                .option("-A" + ModelReaderProcessor.READER_OPTION + "=" + READER_NAME)
+                .compile(Collections.<Processor>singletonList(new ModelReaderProcessor()), classNames);
+
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { output.toURI().toURL() },
+                ModelReaderProcessorTest.class.getClassLoader())) {
+            final OASModelReader reader = (OASModelReader) loader.loadClass(READER_NAME).newInstance();
+            return reader.buildModel();
+        }
+    }
+
+    private static Parameter parameter(Operation operation, String name) {
+        for (Parameter parameter : operation.getParameters()) {
+            if (name.equals(parameter.getName())) {
+                return parameter;
+            }
+        }
+        fail("The operation " + operation.getOperationId() + " is expected to have a parameter " + name + ".");
+        return null;
+    }
+
+    private static int occurrences(String source, String text) {
+        int count = 0;
+        for (int i = source.indexOf(text); i >= 0; i = source.indexOf(text, i + text.length())) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import org.eclipse.microprofile.openapi.spi.DocumentFormat;
+import org.eclipse.microprofile.openapi.spi.OASDocumentCache;
+import org.eclipse.microprofile.openapi.spi.SerializedDocument;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test checks the serialized document cache that vendors use to serve the /openapi endpoint.
+ */
+public class OASDocumentCacheTest extends Arquillian {
+
+    private static final String DOCUMENT = "openapi: 3.0.0\ninfo:\n  title: Cached\n  version: 1.0.0\n";
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void serializeOnceTest() {
+        final AtomicInteger serializations = new AtomicInteger();
+        final OASDocumentCache cache = OASDocumentCache.of(format -> {
+            serializations.incrementAndGet();
+            return (format.name() + DOCUMENT).getBytes(StandardCharsets.UTF_8);
+        }, false);
+
+        final SerializedDocument yaml = cache.get(DocumentFormat.YAML);
+        assertSame(cache.get(DocumentFormat.YAML), yaml, "A cached document is expected to be served again.");
+        assertEquals(serializations.get(), 1, "A document is expected to be serialized once per format.");
+        final SerializedDocument json = cache.get(DocumentFormat.JSON);
+        assertEquals(serializations.get(), 2);
+        assertNotEquals(json.getETag(), yaml.getETag(), "Documents with different bytes are expected to have different entity tags.");
+
+        cache.invalidate();
+        assertNotSame(cache.get(DocumentFormat.YAML), yaml, "An invalidated cache is expected to serialize the document again.");
+        assertEquals(serializations.get(), 3);
+    }
+
+    @Test
+    public void invalidateWhileSerializingTest() throws InterruptedException, ExecutionException, TimeoutException, IOException {
+        final AtomicInteger version = new AtomicInteger();
+        final CountDownLatch serializing = new CountDownLatch(1);
+        final CountDownLatch invalidated = new CountDownLatch(1);
+        final OASDocumentCache cache = OASDocumentCache.of(format -> {
+            final String title = "version: " + version.get();
+            if (serializing.getCount() > 0) {
+                serializing.countDown();
+                try {
+                    invalidated.await(10, TimeUnit.SECONDS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return title.getBytes(StandardCharsets.UTF_8);
+        }, false);
+
+        final CompletableFuture<SerializedDocument> stale = CompletableFuture.supplyAsync(() -> cache.get(DocumentFormat.YAML));
+        assertTrue(serializing.await(10, TimeUnit.SECONDS));
+        version.incrementAndGet();
+        cache.invalidate();
+        invalidated.countDown();
+
+        final SerializedDocument old = stale.get(10, TimeUnit.SECONDS);
+        assertEquals(text(old), "version: 0");
+        final SerializedDocument current = cache.get(DocumentFormat.YAML);
+        assertEquals(text(current), "version: 1",
+                "A document serialized before an invalidation is not expected to be cached.");
+        assertNotEquals(current.getETag(), old.getETag());
+        assertSame(cache.get(DocumentFormat.YAML), current);
+    }
+
+    @Test
+    public void eTagTest() {
+        final byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        final SerializedDocument document = SerializedDocument.of(DocumentFormat.YAML, bytes, false);
+        final String eTag = document.getETag();
+        assertTrue(eTag.startsWith("\"") && eTag.endsWith("\"") && eTag.length() > 2, "An entity tag is expected to be quoted.");
+        assertEquals(SerializedDocument.of(DocumentFormat.YAML, bytes, false).getETag(), eTag,
+                "The entity tag is expected to depend on the bytes of the document only.");
+        assertEquals(document.getContentLength(), bytes.length);
+
+        assertTrue(document.matches(eTag));
+        assertTrue(document.matches("W/" + eTag), "If-None-Match is expected to use the weak comparison function.");
+        assertTrue(document.matches("\"other\", " + eTag));
+        assertTrue(document.matches("*"));
+        assertFalse(document.matches("\"other\""));
+        assertFalse(document.matches(null));
+    }
+
+    @Test
+    public void gzipTest() throws IOException {
+        final byte[] bytes = DOCUMENT.getBytes(StandardCharsets.UTF_8);
+        final SerializedDocument document = SerializedDocument.of(DocumentFormat.JSON, bytes, true);
+        assertTrue(document.hasGzipContent());
+        assertNotEquals(document.getGzipETag(), document.getETag(),
+                "The compressed document is expected to have an entity tag of its own.");
+        assertTrue(document.matches(document.getGzipETag()));
+
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        document.writeGzipTo(compressed);
+        final ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            final byte[] buffer = new byte[256];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                uncompressed.write(buffer, 0, read);
+            }
+        }
+        assertEquals(uncompressed.toByteArray(), bytes, "The compressed document is expected to hold the same bytes.");
+        assertFalse(SerializedDocument.of(DocumentFormat.JSON, bytes, false).hasGzipContent());
+    }
+
+    @Test
+    public void formatForRequestTest() {
+        assertEquals(DocumentFormat.forRequest(null, null), DocumentFormat.YAML);
+        assertEquals(DocumentFormat.forRequest(null, "application/json"), DocumentFormat.JSON);
+        assertEquals(DocumentFormat.forRequest("yaml", "application/json"), DocumentFormat.YAML);
+        assertEquals(DocumentFormat.forRequest("JSON", null), DocumentFormat.JSON);
+        assertEquals(DocumentFormat.JSON.getMediaType(), "application/json");
+    }
+
+    private static String text(SerializedDocument document) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        document.writeTo(out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.spi.OASFactoryResolver;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test covers the lookup of the OASFactoryResolver implementation and the suppliers it hands out.
+ */
+public class OASFactoryResolverTest extends Arquillian {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void instanceTest() throws Exception {
+        final OASFactoryResolver resolver = OASFactoryResolver.instance();
+        assertNotNull(resolver, "The return value of OASFactoryResolver.instance() must not be null.");
+        assertSame(OASFactoryResolver.instance(), resolver, "The resolver is expected to be cached for the context class loader.");
+
+        final ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<OASFactoryResolver>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> {
+                    Thread.currentThread().setContextClassLoader(cl);
+                    return OASFactoryResolver.instance();
+                }));
+            }
+            for (Future<OASFactoryResolver> future : futures) {
+                assertSame(future.get(), resolver, "The same resolver is expected to be returned on every thread.");
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void garbageCollectionTest() throws Exception {
+        final OASFactoryResolver resolver = OASFactoryResolver.instance();
+        final Supplier<Schema> supplier = resolver.getSupplier(Schema.class);
+        final WeakReference<ClassLoader> child = resolveFor(new URLClassLoader(new URL[0],
+                Thread.currentThread().getContextClassLoader()));
+        for (int i = 0; i < 20 && child.get() != null; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        assertNull(child.get(), "The cache of the resolvers is not expected to keep a class loader reachable.");
+        assertSame(OASFactoryResolver.instance(), resolver,
+                "The resolver is expected to stay cached as long as its class loader is reachable.");
+        assertSame(resolver.getSupplier(Schema.class), supplier, "The suppliers of the resolver are expected to stay cached.");
+    }
+
+    @Test
+    public void supplierTest() {
+        checkSupplier(Schema.class);
+        checkSupplier(Parameter.class);
+        checkSupplier(APIResponse.class);
+    }
+
+    @Test
+    public void cachedSupplierTest() {
+        final OASFactoryResolver resolver = OASFactoryResolver.instance();
+        assertSame(resolver.getSupplier(Schema.class), resolver.getSupplier(Schema.class),
+                "The supplier returned by getSupplier() is expected to be cached.");
+    }
+
+    @Test(expectedExceptions = { NullPointerException.class })
+    public void nullSupplierTest() {
+        OASFactoryResolver.instance().createSupplier(null);
+    }
+
+    @Test(expectedExceptions = { IllegalArgumentException.class })
+    public void baseInterfaceSupplierTest() {
+        OASFactoryResolver.instance().createSupplier(Constructible.class).get();
+    }
+
+    /**
+     * @return a weak reference to the class loader, once a resolver was looked up for it
+     */
+    private static WeakReference<ClassLoader> resolveFor(ClassLoader loader) {
+        final Thread thread = Thread.currentThread();
+        final ClassLoader previous = thread.getContextClassLoader();
+        thread.setContextClassLoader(loader);
+        try {
+            assertNotNull(OASFactoryResolver.instance());
+        }
+        finally {
+            thread.setContextClassLoader(previous);
+        }
+        return new WeakReference<>(loader);
+    }
+
+    private <T extends Constructible> void checkSupplier(Class<T> clazz) {
+        final Supplier<T> supplier = OASFactoryResolver.instance().createSupplier(clazz);
+        assertNotNull(supplier, "The return value of createSupplier(" + clazz.getName() + ") must not be null.");
+        final T o1 = supplier.get();
+        final T o2 = supplier.get();
+        assertTrue(clazz.isInstance(o1), "The supplier is expected to create instances of: " + clazz.getName());
+        assertTrue(clazz.isInstance(o2), "The supplier is expected to create instances of: " + clazz.getName());
+        assertNotSame(o2, o1, "The supplier for " + clazz.getName() + " is expected to create a new object on each invocation.");
+    }
+}
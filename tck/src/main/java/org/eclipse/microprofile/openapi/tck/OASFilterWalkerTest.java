@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.microprofile.openapi.OASFactory;
+import org.eclipse.microprofile.openapi.OASFilter;
+import org.eclipse.microprofile.openapi.OASFilterWalker;
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test walks models built with the OASFactory through the OASFilterWalker, both on the calling
+ * thread and on a pool, and checks the ordering rules of the filter and the removal of elements.
+ */
+public class OASFilterWalkerTest extends Arquillian {
+
+    private static final int PATH_COUNT = 200;
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void sequentialWalkTest() {
+        checkWalk(null);
+    }
+
+    @Test
+    public void parallelWalkTest() {
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            checkWalk(pool);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void callingThreadTest() {
+        final OpenAPI openAPI = createModel();
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        OASFilterWalker.filter(openAPI, new OASFilter() {
+            @Override
+            public Operation filterOperation(Operation operation) {
+                threads.add(Thread.currentThread());
+                return operation;
+            }
+        });
+        assertEquals(threads, Collections.singleton(Thread.currentThread()),
+                "A walk with a single filter and no pool is expected to run on the calling thread.");
+    }
+
+    @Test
+    public void filteredTypesTest() {
+        final OASFilter operationFilter = new OASFilter() {
+            @Override
+            public Operation filterOperation(Operation operation) {
+                return operation;
+            }
+        };
+        assertEquals(operationFilter.getFilteredTypes(), Collections.singleton(Operation.class),
+                "By default the filtered types are expected to be those whose filter methods are overridden.");
+        assertTrue(new OASFilter() {}.getFilteredTypes().isEmpty(), "A filter overriding no method is expected to filter no type.");
+        assertEquals(new RecordingFilter().getFilteredTypes(),
+                new HashSet<>(Arrays.asList(Schema.class, Parameter.class, Operation.class, PathItem.class, OpenAPI.class)),
+                "By default the filtered types are expected to be those whose filter methods are overridden.");
+    }
+
+    @Test
+    public void prunedWalkTest() {
+        final OpenAPI openAPI = createModel();
+        final AtomicInteger schemaCalls = new AtomicInteger();
+        final OASFilter filter = new OASFilter() {
+            @Override
+            public Operation filterOperation(Operation operation) {
+                return "remove".equals(operation.getOperationId()) ? null : operation;
+            }
+
+            @Override
+            public Schema filterSchema(Schema schema) {
+                schemaCalls.incrementAndGet();
+                return null;
+            }
+
+            @Override
+            public Set<Class<? extends Constructible>> getFilteredTypes() {
+                return Collections.singleton(Operation.class);
+            }
+        };
+        OASFilterWalker.filter(openAPI, Collections.singletonList(filter), null);
+
+        assertEquals(schemaCalls.get(), 0, "Elements of types the filter does not declare are not expected to be filtered.");
+        assertEquals(openAPI.getComponents().getSchemas().size(), 1, "Elements of types the filter does not declare are expected to remain.");
+        for (PathItem pathItem : openAPI.getPaths().values()) {
+            assertNull(pathItem.getDELETE(), "Operations for which the filter returned null are expected to be removed.");
+            assertNotNull(pathItem.getGET(), "Operations the filter kept are expected to remain.");
+        }
+    }
+
+    @Test(expectedExceptions = { NullPointerException.class })
+    public void nullModelTest() {
+        OASFilterWalker.filter(null, new OASFilter() {});
+    }
+
+    private void checkWalk(ForkJoinPool pool) {
+        final OpenAPI openAPI = createModel();
+        final RecordingFilter filter = new RecordingFilter();
+        OASFilterWalker.filter(openAPI, Collections.singletonList(filter), pool);
+
+        assertTrue(filter.openAPIFiltered, "filterOpenAPI is expected to be called.");
+        assertEquals(openAPI.getPaths().size(), PATH_COUNT / 2, "Path items for which the filter returned null are expected to be removed.");
+        for (PathItem pathItem : openAPI.getPaths().values()) {
+            assertNull(pathItem.getDELETE(), "Operations for which the filter returned null are expected to be removed.");
+            final Operation get = pathItem.getGET();
+            assertNotNull(get, "Operations the filter kept are expected to remain.");
+            assertEquals(get.getParameters().size(), 1, "Parameters for which the filter returned null are expected to be removed.");
+            final Schema schema = get.getResponses().get("200").getContent().get("application/json").getSchema();
+            assertEquals(schema.getDescription(), "replaced", "Elements replaced by the filter are expected to be replaced in the model.");
+        }
+        assertEquals(filter.schemaCalls.get(), PATH_COUNT + 1, "A schema referenced from several places is expected to be filtered once.");
+    }
+
+    private static OpenAPI createModel() {
+        final Schema shared = OASFactory.createObject(Schema.class).type(Schema.SchemaType.STRING);
+        final Paths paths = OASFactory.createObject(Paths.class);
+        for (int i = 0; i < PATH_COUNT; i++) {
+            paths.addPathItem("/path" + i, OASFactory.createObject(PathItem.class)
+                    .summary(i % 2 == 0 ? "keep" : "remove")
+                    .GET(OASFactory.createObject(Operation.class)
+                        .addParameter(OASFactory.createObject(Parameter.class).name("id").schema(shared))
+                        .addParameter(OASFactory.createObject(Parameter.class).name("remove"))
+                        .responses(OASFactory.createObject(APIResponses.class)
+                            .addApiResponse("200", OASFactory.createObject(APIResponse.class)
+                                .content(OASFactory.createObject(Content.class)
+                                    .addMediaType("application/json", OASFactory.createObject(MediaType.class)
+                                        .schema(OASFactory.createObject(Schema.class).description("original")))))))
+                    .DELETE(OASFactory.createObject(Operation.class).operationId("remove")));
+        }
+        return OASFactory.createObject(OpenAPI.class)
+                .paths(paths)
+                .components(OASFactory.createObject(Components.class).addSchema("Shared", shared));
+    }
+
+    /**
+     * Records the order in which elements are filtered, and checks the ordering rules when filtering their ancestors.
+     */
+    private static final class RecordingFilter implements OASFilter {
+
+        private final AtomicInteger clock = new AtomicInteger();
+        private final Map<Object, Integer> filtered = Collections.synchronizedMap(new IdentityHashMap<>());
+        private final AtomicInteger schemaCalls = new AtomicInteger();
+        private volatile boolean openAPIFiltered;
+
+        @Override
+        public Schema filterSchema(Schema schema) {
+            schemaCalls.incrementAndGet();
+            record(schema);
+            if ("original".equals(schema.getDescription())) {
+                return OASFactory.createObject(Schema.class).description("replaced");
+            }
+            return schema;
+        }
+
+        @Override
+        public Parameter filterParameter(Parameter parameter) {
+            record(parameter);
+            if (parameter.getSchema() != null) {
+                assertFilteredBefore(parameter.getSchema(), parameter);
+            }
+            return "remove".equals(parameter.getName()) ? null : parameter;
+        }
+
+        @Override
+        public Operation filterOperation(Operation operation) {
+            record(operation);
+            if (operation.getParameters() != null) {
+                for (Parameter parameter : operation.getParameters()) {
+                    assertFilteredBefore(parameter, operation);
+                }
+            }
+            return "remove".equals(operation.getOperationId()) ? null : operation;
+        }
+
+        @Override
+        public PathItem filterPathItem(PathItem pathItem) {
+            record(pathItem);
+            for (Operation operation : pathItem.readOperations()) {
+                assertFilteredBefore(operation, pathItem);
+            }
+            return "remove".equals(pathItem.getSummary()) ? null : pathItem;
+        }
+
+        @Override
+        public void filterOpenAPI(OpenAPI openAPI) {
+            assertEquals(filtered.size(), clock.get(), "filterOpenAPI is expected to be called last.");
+            openAPIFiltered = true;
+        }
+
+        private void record(Object element) {
+            filtered.put(element, clock.incrementAndGet());
+        }
+
+        private void assertFilteredBefore(Object descendant, Object ancestor) {
+            final Integer before = filtered.get(descendant);
+            assertNotNull(before, "Descendants are expected to be filtered before their ancestor.");
+            assertTrue(before < filtered.get(ancestor), "Descendants are expected to be filtered before their ancestor.");
+        }
+    }
+}
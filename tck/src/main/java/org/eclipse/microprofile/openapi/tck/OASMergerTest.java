@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.eclipse.microprofile.openapi.OASFactory.createObject;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.microprofile.openapi.OASMerger;
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.info.Info;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.eclipse.microprofile.openapi.models.security.SecurityRequirement;
+import org.eclipse.microprofile.openapi.models.servers.Server;
+import org.eclipse.microprofile.openapi.models.tags.Tag;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test checks that the OASMerger merges two models with the override semantics of the processing rules.
+ */
+public class OASMergerTest extends Arquillian {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void testPropertiesOverride() {
+        final OpenAPI base = createObject(OpenAPI.class).openapi("3.0.0")
+                .info(createObject(Info.class).title("Base").version("1.0").description("Base description"));
+        final OpenAPI overlay = createObject(OpenAPI.class).openapi("3.0.1")
+                .info(createObject(Info.class).title("Overlay"));
+
+        final OpenAPI merged = OASMerger.merge(base, overlay);
+        assertSame(merged, base, "The overlay is expected to be merged into the base.");
+        assertEquals(merged.getOpenapi(), "3.0.1");
+        assertEquals(merged.getInfo().getTitle(), "Overlay");
+        assertEquals(merged.getInfo().getVersion(), "1.0", "A property the overlay does not set is expected to be kept.");
+        assertEquals(merged.getInfo().getDescription(), "Base description");
+    }
+
+    @Test
+    public void testPathsAndOperations() {
+        final OpenAPI base = createObject(OpenAPI.class).paths(createObject(Paths.class)
+                .addPathItem("/a", createObject(PathItem.class)
+                        .GET(createObject(Operation.class).operationId("getA").summary("Base summary")
+                                .responses(createObject(APIResponses.class)
+                                        .addApiResponse("200", createObject(APIResponse.class).description("OK"))
+                                        .addApiResponse("404", createObject(APIResponse.class).description("Not found"))))));
+        final PathItem pathB = createObject(PathItem.class).GET(createObject(Operation.class).operationId("getB"));
+        final Operation postA = createObject(Operation.class).operationId("postA");
+        final OpenAPI overlay = createObject(OpenAPI.class).paths(createObject(Paths.class)
+                .addPathItem("/a", createObject(PathItem.class)
+                        .GET(createObject(Operation.class).summary("Overlay summary")
+                                .responses(createObject(APIResponses.class)
+                                        .addApiResponse("200", createObject(APIResponse.class).description("Success"))
+                                        .addApiResponse("500", createObject(APIResponse.class).description("Error"))))
+                        .POST(postA))
+                .addPathItem("/b", pathB));
+
+        final OpenAPI merged = OASMerger.merge(base, overlay);
+        assertEquals(merged.getPaths().size(), 2);
+        assertSame(merged.getPaths().get("/b"), pathB, "A path only in the overlay is expected to be moved into the base.");
+        final PathItem pathA = merged.getPaths().get("/a");
+        assertSame(pathA.getPOST(), postA);
+        final Operation getA = pathA.getGET();
+        assertEquals(getA.getOperationId(), "getA");
+        assertEquals(getA.getSummary(), "Overlay summary");
+        assertEquals(getA.getResponses().size(), 3, "The responses are expected to be merged by response code.");
+        assertEquals(getA.getResponses().get("200").getDescription(), "Success");
+        assertEquals(getA.getResponses().get("404").getDescription(), "Not found");
+        assertEquals(getA.getResponses().get("500").getDescription(), "Error");
+    }
+
+    @Test
+    public void testComponents() {
+        final Schema kept = createObject(Schema.class).type(Schema.SchemaType.STRING);
+        final OpenAPI base = createObject(OpenAPI.class).components(createObject(Components.class)
+                .addSchema("Kept", kept)
+                .addSchema("Merged", createObject(Schema.class).type(Schema.SchemaType.OBJECT).title("Base title")
+                        .addProperty("id", createObject(Schema.class).type(Schema.SchemaType.INTEGER)))
+                .addSchema("Referenced", createObject(Schema.class).type(Schema.SchemaType.OBJECT).title("Inline")));
+        final OpenAPI overlay = createObject(OpenAPI.class).components(createObject(Components.class)
+                .addSchema("Merged", createObject(Schema.class).title("Overlay title")
+                        .addProperty("name", createObject(Schema.class).type(Schema.SchemaType.STRING)))
+                .addSchema("Referenced", createObject(Schema.class).ref("Kept")));
+
+        final Components components = OASMerger.merge(base, overlay).getComponents();
+        assertEquals(components.getSchemas().size(), 3);
+        assertSame(components.getSchemas().get("Kept"), kept);
+        final Schema merged = components.getSchemas().get("Merged");
+        assertEquals(merged.getType(), Schema.SchemaType.OBJECT);
+        assertEquals(merged.getTitle(), "Overlay title");
+        assertEquals(merged.getProperties().keySet(), new HashSet<>(Arrays.asList("id", "name")));
+        final Schema referenced = components.getSchemas().get("Referenced");
+        assertEquals(referenced.getRef(), "#/components/schemas/Kept", "A reference is expected to replace the element of the base.");
+        assertNull(referenced.getTitle());
+    }
+
+    @Test
+    public void testLists() {
+        final OpenAPI base = createObject(OpenAPI.class)
+                .addTag(createObject(Tag.class).name("a").description("Base a"))
+                .addTag(createObject(Tag.class).name("b").description("Base b"))
+                .addServer(createObject(Server.class).url("https://base").description("Base server"))
+                .addSecurityRequirement(createObject(SecurityRequirement.class).addScheme("base"))
+                .paths(createObject(Paths.class).addPathItem("/a", createObject(PathItem.class)
+                        .addParameter(createObject(Parameter.class).name("id").in(Parameter.In.PATH).description("Base id"))
+                        .addParameter(createObject(Parameter.class).name("id").in(Parameter.In.QUERY).description("Query id"))));
+        final OpenAPI overlay = createObject(OpenAPI.class)
+                .addTag(createObject(Tag.class).name("b").description("Overlay b"))
+                .addTag(createObject(Tag.class).name("c"))
+                .addServer(createObject(Server.class).url("https://overlay"))
+                .addSecurityRequirement(createObject(SecurityRequirement.class).addScheme("overlay"))
+                .paths(createObject(Paths.class).addPathItem("/a", createObject(PathItem.class)
+                        .addParameter(createObject(Parameter.class).name("id").in(Parameter.In.PATH).required(true))));
+
+        final OpenAPI merged = OASMerger.merge(base, overlay);
+        assertEquals(merged.getTags().size(), 3, "The tags are expected to be merged by name.");
+        assertEquals(merged.getTags().get(0).getDescription(), "Base a");
+        assertEquals(merged.getTags().get(1).getDescription(), "Overlay b");
+        assertEquals(merged.getTags().get(2).getName(), "c");
+        assertEquals(merged.getServers().size(), 2, "The servers are expected to be merged by URL.");
+        assertEquals(merged.getSecurity().size(), 1, "The security requirements of the overlay are expected to replace those of the base.");
+        assertEquals(merged.getSecurity().get(0).keySet().iterator().next(), "overlay");
+
+        final List<Parameter> parameters = merged.getPaths().get("/a").getParameters();
+        assertEquals(parameters.size(), 2, "The parameters are expected to be merged by name and location.");
+        assertEquals(parameters.get(0).getDescription(), "Base id");
+        assertEquals(parameters.get(0).getRequired(), Boolean.TRUE);
+        assertEquals(parameters.get(1).getIn(), Parameter.In.QUERY);
+    }
+
+    @Test
+    public void testReferenceParameterFirst() {
+        final PathItem base = createObject(PathItem.class)
+                .addParameter(createObject(Parameter.class).name("id").in(Parameter.In.PATH).description("Base id"))
+                .addParameter(createObject(Parameter.class).name("q").in(Parameter.In.QUERY))
+                .addParameter(createObject(Parameter.class).ref("Offset"));
+        final PathItem overlay = createObject(PathItem.class)
+                .addParameter(createObject(Parameter.class).ref("Limit"))
+                .addParameter(createObject(Parameter.class).name("id").in(Parameter.In.PATH).required(true))
+                .addParameter(createObject(Parameter.class).ref("Offset"));
+
+        final List<Parameter> parameters = OASMerger.merge(base, overlay).getParameters();
+        assertEquals(parameters.size(), 4, "Each parameter is expected to be merged by its own key.");
+        assertEquals(parameters.get(0).getDescription(), "Base id");
+        assertEquals(parameters.get(0).getRequired(), Boolean.TRUE);
+        assertEquals(parameters.get(1).getName(), "q");
+        assertEquals(parameters.get(2).getRef(), "#/components/parameters/Offset",
+                "A reference is expected to be merged with the same reference.");
+        assertEquals(parameters.get(3).getRef(), "#/components/parameters/Limit");
+    }
+
+    @Test
+    public void testUnmodifiableBase() {
+        final Map<String, Object> extensions = new LinkedHashMap<>();
+        extensions.put("x-base", "base");
+        final OpenAPI base = createObject(OpenAPI.class).tags(Collections.singletonList(createObject(Tag.class).name("a")));
+        base.setExtensions(Collections.unmodifiableMap(extensions));
+        final OpenAPI overlay = createObject(OpenAPI.class).addTag(createObject(Tag.class).name("b"));
+        overlay.addExtension("x-overlay", "overlay");
+
+        final OpenAPI merged = OASMerger.merge(base, overlay);
+        assertEquals(merged.getExtensions().keySet(), new HashSet<>(Arrays.asList("x-base", "x-overlay")),
+                "An unmodifiable map of the base is expected to be replaced by a merged copy.");
+        assertEquals(merged.getTags().size(), 2);
+        assertEquals(extensions.size(), 1);
+    }
+
+    @Test
+    public void testExtensions() {
+        final OpenAPI base = createObject(OpenAPI.class);
+        base.addExtension("x-base", "base");
+        base.addExtension("x-both", "base");
+        final OpenAPI overlay = createObject(OpenAPI.class);
+        overlay.addExtension("x-both", "overlay");
+        overlay.addExtension("x-overlay", 1);
+
+        final OpenAPI merged = OASMerger.merge(base, overlay);
+        assertEquals(merged.getExtensions().size(), 3);
+        assertEquals(merged.getExtensions().get("x-base"), "base");
+        assertEquals(merged.getExtensions().get("x-both"), "overlay");
+        assertEquals(merged.getExtensions().get("x-overlay"), 1);
+    }
+
+    @Test
+    public void testMissingModels() {
+        final OpenAPI model = createObject(OpenAPI.class).openapi("3.0.0");
+        assertSame(OASMerger.merge(null, model), model);
+        assertSame(OASMerger.merge(model, null), model);
+        assertNull(OASMerger.merge((OpenAPI) null, null));
+    }
+}
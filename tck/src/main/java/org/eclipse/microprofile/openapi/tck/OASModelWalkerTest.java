@@ -0,0 +1,214 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.microprofile.openapi.OASFactory;
+import org.eclipse.microprofile.openapi.OASModelWalker;
+import org.eclipse.microprofile.openapi.OASVisitor;
+import org.eclipse.microprofile.openapi.OpenAPISnapshot;
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.Constructible;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.info.Info;
+import org.eclipse.microprofile.openapi.models.info.License;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.security.OAuthFlow;
+import org.eclipse.microprofile.openapi.models.security.OAuthFlows;
+import org.eclipse.microprofile.openapi.models.security.Scopes;
+import org.eclipse.microprofile.openapi.models.security.SecurityScheme;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test walks models built with the OASFactory with the OASModelWalker and checks which elements are visited,
+ * and in which order.
+ */
+public class OASModelWalkerTest extends Arquillian {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void walkOrderTest() {
+        final List<String> events = new ArrayList<>();
+        OASModelWalker.walk(createModel(), new RecordingVisitor(events));
+        assertEquals(events, Arrays.asList("visit OpenAPI", "visit Info", "visit License", "leave License", "leave Info",
+                "visit Paths", "visit PathItem", "visit Operation", "leave Operation", "leave PathItem", "leave Paths",
+                "visit Components", "visit Schema", "visit Schema", "leave Schema", "leave Schema",
+                "visit SecurityScheme", "visit OAuthFlows", "visit OAuthFlow", "visit Scopes", "leave Scopes", "leave OAuthFlow",
+                "leave OAuthFlows", "leave SecurityScheme", "leave Components", "leave OpenAPI"),
+                "Elements are expected to be visited depth first, in the order of the model interfaces.");
+    }
+
+    @Test
+    public void skipDescendantsTest() {
+        final List<String> events = new ArrayList<>();
+        OASModelWalker.walk(createModel(), new RecordingVisitor(events) {
+            @Override
+            public boolean visitComponents(Components components) {
+                super.visitComponents(components);
+                return false;
+            }
+        });
+        assertTrue(events.contains("visit Components"));
+        assertFalse(events.contains("visit Schema"),
+                "The descendants of an element are not expected to be visited when its visit method returns false.");
+        assertFalse(events.contains("leave Components"), "An element whose visit method returns false is not expected to be left.");
+    }
+
+    @Test
+    public void walkSnapshotTest() {
+        final List<String> events = new ArrayList<>();
+        final List<String> snapshotEvents = new ArrayList<>();
+        final OpenAPI openAPI = createModel();
+        OASModelWalker.walk(openAPI, new RecordingVisitor(events));
+        OASModelWalker.walk(OpenAPISnapshot.of(openAPI).getModel(), new RecordingVisitor(snapshotEvents));
+        assertEquals(snapshotEvents, events, "A snapshot is expected to be walked like the model it was taken from.");
+    }
+
+    @Test
+    public void dispatchTest() {
+        final List<String> events = new ArrayList<>();
+        assertTrue(OASModelWalker.dispatch(OASFactory.createObject(Info.class), new RecordingVisitor(events)));
+        assertEquals(events, Arrays.asList("visit Info"), "Only the given element is expected to be visited.");
+    }
+
+    @Test(expectedExceptions = { NullPointerException.class })
+    public void nullElementTest() {
+        OASModelWalker.walk(null, new OASVisitor() {});
+    }
+
+    private static OpenAPI createModel() {
+        final Paths paths = OASFactory.createObject(Paths.class)
+                .addPathItem("/path", OASFactory.createObject(PathItem.class).GET(OASFactory.createObject(Operation.class)));
+        return OASFactory.createObject(OpenAPI.class)
+                .info(OASFactory.createObject(Info.class).license(OASFactory.createObject(License.class).name("Apache 2.0")))
+                .paths(paths)
+                .components(OASFactory.createObject(Components.class)
+                    .addSchema("Item", OASFactory.createObject(Schema.class).items(OASFactory.createObject(Schema.class)))
+                    .addSecurityScheme("oauth", OASFactory.createObject(SecurityScheme.class)
+                        .flows(OASFactory.createObject(OAuthFlows.class)
+                            .implicit(OASFactory.createObject(OAuthFlow.class).scopes(OASFactory.createObject(Scopes.class))))));
+    }
+
+    /**
+     * Records the visited elements.
+     */
+    private static class RecordingVisitor implements OASVisitor {
+
+        private static final List<Class<?>> VISITED_TYPES = Arrays.asList(OpenAPI.class, Info.class, License.class, Paths.class,
+                PathItem.class, Operation.class, Components.class, Schema.class, SecurityScheme.class, OAuthFlows.class, OAuthFlow.class,
+                Scopes.class);
+
+        private final List<String> events;
+
+        RecordingVisitor(List<String> events) {
+            this.events = events;
+        }
+
+        private boolean record(String type) {
+            events.add("visit " + type);
+            return true;
+        }
+
+        @Override
+        public boolean visitOpenAPI(OpenAPI openAPI) {
+            return record("OpenAPI");
+        }
+
+        @Override
+        public boolean visitInfo(Info info) {
+            return record("Info");
+        }
+
+        @Override
+        public boolean visitLicense(License license) {
+            return record("License");
+        }
+
+        @Override
+        public boolean visitPaths(Paths paths) {
+            return record("Paths");
+        }
+
+        @Override
+        public boolean visitPathItem(PathItem pathItem) {
+            return record("PathItem");
+        }
+
+        @Override
+        public boolean visitOperation(Operation operation) {
+            return record("Operation");
+        }
+
+        @Override
+        public boolean visitComponents(Components components) {
+            return record("Components");
+        }
+
+        @Override
+        public boolean visitSchema(Schema schema) {
+            return record("Schema");
+        }
+
+        @Override
+        public boolean visitSecurityScheme(SecurityScheme securityScheme) {
+            return record("SecurityScheme");
+        }
+
+        @Override
+        public boolean visitOAuthFlows(OAuthFlows oauthFlows) {
+            return record("OAuthFlows");
+        }
+
+        @Override
+        public boolean visitOAuthFlow(OAuthFlow oauthFlow) {
+            return record("OAuthFlow");
+        }
+
+        @Override
+        public boolean visitScopes(Scopes scopes) {
+            return record("Scopes");
+        }
+
+        @Override
+        public void leave(Constructible element) {
+            for (Class<?> type : VISITED_TYPES) {
+                if (type.isInstance(element)) {
+                    events.add("leave " + type.getSimpleName());
+                    return;
+                }
+            }
+        }
+    }
+}
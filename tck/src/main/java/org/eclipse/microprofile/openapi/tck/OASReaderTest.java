@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.spi.DocumentFormat;
+import org.eclipse.microprofile.openapi.spi.ModelBuilder;
+import org.eclipse.microprofile.openapi.spi.OASReader;
+import org.eclipse.microprofile.openapi.spi.OASWriter;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test reads static OpenAPI documents with the OASReader, and builds a model from the events of a document
+ * with the ModelBuilder.
+ */
+public class OASReaderTest extends Arquillian {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class)
+                .addAsResource("simpleapi.yaml", "simpleapi.yaml")
+                .addAsResource("openapi.yaml", "openapi.yaml");
+    }
+
+    @Test
+    public void testReadYaml() throws IOException {
+        final OpenAPI model = read("simpleapi.yaml");
+        assertEquals(model.getOpenapi(), "3.0.0");
+        assertEquals(model.getInfo().getTitle(), "Simple Inventory API");
+        assertEquals(model.getInfo().getVersion(), "1.0.0");
+        assertEquals(model.getServers().size(), 1);
+        assertEquals(model.getTags().size(), 2);
+        assertEquals(model.getTags().get(1).getName(), "developers");
+
+        final Operation get = model.getPaths().get("/inventory").getGET();
+        assertEquals(get.getOperationId(), "searchInventory");
+        assertEquals(get.getTags(), Collections.singletonList("developers"));
+        assertEquals(get.getDescription(), "By passing in the appropriate options, you can search for\navailable inventory in the system\n");
+        assertEquals(get.getParameters().size(), 3);
+        final Parameter limit = get.getParameters().get(2);
+        assertEquals(limit.getIn(), Parameter.In.QUERY);
+        assertEquals(limit.getSchema().getType(), Schema.SchemaType.INTEGER);
+        assertEquals(limit.getSchema().getMaximum(), new BigDecimal(50));
+        assertEquals(get.getResponses().get("200").getContent().get("application/json").getSchema().getItems().getRef(),
+                "#/components/schemas/InventoryItem");
+        assertEquals(model.getPaths().get("/inventory").getPOST().getResponses().get("400").getDescription(),
+                "invalid input, object invalid");
+
+        final Schema item = model.getComponents().getSchemas().get("InventoryItem");
+        assertEquals(item.getRequired(), Arrays.asList("id", "name", "manufacturer", "releaseDate"));
+        assertEquals(item.getProperties().get("releaseDate").getExample(), "2016-08-29T09:12:33.001Z");
+        assertEquals(item.getProperties().get("manufacturer").getRef(), "#/components/schemas/Manufacturer");
+    }
+
+    @Test
+    public void testReadFormats() throws IOException {
+        final OpenAPI model = read("openapi.yaml");
+        final String yaml = new String(OASWriter.instance().toBytes(model, DocumentFormat.YAML), StandardCharsets.UTF_8);
+        final byte[] json = OASWriter.instance().toBytes(model, DocumentFormat.JSON);
+
+        final OpenAPI fromJson = OASReader.instance().read(new ByteArrayInputStream(json), DocumentFormat.JSON);
+        assertEquals(new String(OASWriter.instance().toBytes(fromJson, DocumentFormat.YAML), StandardCharsets.UTF_8), yaml,
+                "The model read from the JSON document is expected to be the model it was written from.");
+
+        final ByteBuffer buffer = ByteBuffer.wrap(json);
+        final OpenAPI fromBuffer = OASReader.instance().read(buffer, DocumentFormat.JSON);
+        assertEquals(new String(OASWriter.instance().toBytes(fromBuffer, DocumentFormat.YAML), StandardCharsets.UTF_8), yaml);
+        assertEquals(buffer.position(), 0, "The position of the buffer is not expected to change.");
+
+        final OpenAPI fromYaml = OASReader.instance().read(new ByteArrayInputStream(yaml.getBytes(StandardCharsets.UTF_8)),
+                DocumentFormat.YAML);
+        assertEquals(new String(OASWriter.instance().toBytes(fromYaml, DocumentFormat.YAML), StandardCharsets.UTF_8), yaml,
+                "The model read from the YAML document is expected to be the model it was written from.");
+    }
+
+    @Test
+    public void testYamlStyles() throws IOException {
+        final OpenAPI model = readYaml("openapi: 3.0.0 # comment\n"
+                + "info: {title: \"Styles \\u0041\", version: '1.10'}\n"
+                + "servers:\n"
+                + "- url: http://localhost:8080/\n"
+                + "  description: >\n"
+                + "    folded\n"
+                + "    text\n"
+                + "tags: [{name: a}, {name: b, description: multi\n"
+                + "    line}]\n"
+                + "x-empty:\n"
+                + "x-unknown-type: {list: [1, 2.5, true, null, text]}\n"
+                + "unknown:\n"
+                + "  - ignored\n");
+        assertEquals(model.getOpenapi(), "3.0.0");
+        assertEquals(model.getInfo().getTitle(), "Styles A");
+        assertEquals(model.getInfo().getVersion(), "1.10");
+        assertEquals(model.getServers().get(0).getUrl(), "http://localhost:8080/");
+        assertEquals(model.getServers().get(0).getDescription(), "folded text\n");
+        assertEquals(model.getTags().get(1).getDescription(), "multi line");
+        assertTrue(model.getExtensions().containsKey("x-empty"));
+        assertNull(model.getExtensions().get("x-empty"));
+        final Map<?, ?> extension = (Map<?, ?>) model.getExtensions().get("x-unknown-type");
+        assertEquals(extension.get("list"), Arrays.asList(1, new BigDecimal("2.5"), true, null, "text"));
+    }
+
+    @Test
+    public void testBlockScalarAtEnd() throws IOException {
+        final String document = "openapi: 3.0.0\ninfo:\n  title: Blocks\n  version: 1.0\n  description: |\n    first\n    last";
+        assertEquals(readYaml(document).getInfo().getDescription(), "first\nlast",
+                "A block scalar ending the document without a line break is not expected to end with a line break.");
+        assertEquals(readYaml(document + "\n").getInfo().getDescription(), "first\nlast\n");
+        assertEquals(readYaml(document.replace("\n", "\r\n") + "\r\n").getInfo().getDescription(), "first\nlast\n");
+        assertEquals(readYaml(document + "\n\n").getInfo().getDescription(), "first\nlast\n");
+    }
+
+    @Test
+    public void testModelBuilder() {
+        final ModelBuilder builder = new ModelBuilder();
+        builder.startObject();
+        builder.name("openapi");
+        builder.scalar("3.0.0", false);
+        builder.name("components");
+        builder.startObject();
+        builder.name("schemas");
+        builder.startObject();
+        builder.name("Name");
+        builder.startObject();
+        builder.name("type");
+        builder.scalar("string", true);
+        builder.name("maxLength");
+        builder.scalar("10", true);
+        builder.name("enum");
+        builder.startArray();
+        builder.scalar("a", false);
+        builder.scalar("1", true);
+        builder.endArray();
+        builder.name("x-skipped-by-nobody");
+        builder.scalar("true", true);
+        builder.name("unknown");
+        builder.startObject();
+        builder.name("nested");
+        builder.startArray();
+        builder.endArray();
+        builder.endObject();
+        builder.endObject();
+        builder.endObject();
+        builder.endObject();
+        builder.endObject();
+
+        final OpenAPI model = builder.getModel();
+        assertEquals(model.getOpenapi(), "3.0.0");
+        final Schema schema = model.getComponents().getSchemas().get("Name");
+        assertEquals(schema.getType(), Schema.SchemaType.STRING);
+        assertEquals(schema.getMaxLength(), Integer.valueOf(10));
+        final List<Object> enumeration = schema.getEnumeration();
+        assertEquals(enumeration, Arrays.<Object>asList("a", 1));
+        assertEquals(schema.getExtensions().get("x-skipped-by-nobody"), Boolean.TRUE);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testIncompleteModel() {
+        final ModelBuilder builder = new ModelBuilder();
+        builder.startObject();
+        builder.getModel();
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testMalformedJson() throws IOException {
+        OASReader.instance().read(new ByteArrayInputStream("{\"openapi\": \"3.0.0\"".getBytes(StandardCharsets.UTF_8)),
+                DocumentFormat.JSON);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testMalformedYaml() throws IOException {
+        readYaml("openapi: 3.0.0\ninfo:\n  title: a\n version: 1\n");
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testMismatchedModel() throws IOException {
+        readYaml("openapi: 3.0.0\npaths: [a, b]\n");
+    }
+
+    private static OpenAPI read(String resource) throws IOException {
+        final URL url = Thread.currentThread().getContextClassLoader().getResource(resource);
+        return OASReader.instance().read(url);
+    }
+
+    private static OpenAPI readYaml(String document) throws IOException {
+        return OASReader.instance().read(new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8)), DocumentFormat.YAML);
+    }
+}
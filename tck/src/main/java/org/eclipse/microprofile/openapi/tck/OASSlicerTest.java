@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.eclipse.microprofile.openapi.OASFactory.createObject;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.eclipse.microprofile.openapi.OASSlicer;
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.info.Info;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.eclipse.microprofile.openapi.models.security.SecurityRequirement;
+import org.eclipse.microprofile.openapi.models.security.SecurityScheme;
+import org.eclipse.microprofile.openapi.models.tags.Tag;
+import org.eclipse.microprofile.openapi.spi.DocumentFormat;
+import org.eclipse.microprofile.openapi.spi.SerializedDocument;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test checks that the OASSlicer selects the paths and operations matching the path, tag and operationId
+ * parameters, together with the components they reach, and that the parts and their documents are shared.
+ */
+public class OASSlicerTest extends Arquillian {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void testPath() {
+        final OpenAPI model = createModel();
+        final OpenAPI slice = OASSlicer.of(model, false).slice("/bookings/{id}", null, null);
+
+        assertEquals(slice.getInfo().getTitle(), "Airlines");
+        assertEquals(new ArrayList<>(slice.getPaths().keySet()), Collections.singletonList("/bookings/{id}"));
+        assertSame(slice.getPaths().get("/bookings/{id}"), model.getPaths().get("/bookings/{id}"),
+                "A path item of which every operation is selected is expected to be shared with the model.");
+        assertEquals(new ArrayList<>(slice.getComponents().getSchemas().keySet()), Arrays.asList("Booking", "Flight", "Airport"),
+                "The schemas reachable through references, directly or not, are expected to be kept in the order of the model.");
+        assertEquals(new ArrayList<>(slice.getComponents().getParameters().keySet()), Collections.singletonList("id"));
+        assertEquals(new ArrayList<>(slice.getComponents().getSecuritySchemes().keySet()), Collections.singletonList("booking_auth"));
+        assertEquals(slice.getTags().size(), 2, "The tags of the operations of the path are expected to be kept in the order of the model.");
+        assertEquals(slice.getTags().get(0).getName(), "reviews");
+        assertEquals(slice.getTags().get(1).getName(), "bookings");
+    }
+
+    @Test
+    public void testTag() {
+        final OpenAPI model = createModel();
+        final OpenAPI slice = OASSlicer.of(model, false).slice(null, "reviews", null);
+
+        assertEquals(new ArrayList<>(slice.getPaths().keySet()), Arrays.asList("/reviews", "/bookings/{id}"));
+        final PathItem bookings = slice.getPaths().get("/bookings/{id}");
+        assertNotSame(bookings, model.getPaths().get("/bookings/{id}"));
+        assertNull(bookings.getGET(), "An operation without the tag is not expected to be selected.");
+        assertSame(bookings.getDELETE(), model.getPaths().get("/bookings/{id}").getDELETE());
+        assertEquals(bookings.getParameters().size(), 1);
+        assertEquals(new ArrayList<>(slice.getComponents().getSchemas().keySet()), Collections.singletonList("Review"));
+        assertEquals(new ArrayList<>(slice.getComponents().getParameters().keySet()), Collections.singletonList("id"));
+        assertNull(slice.getComponents().getSecuritySchemes());
+        assertEquals(slice.getTags().size(), 1);
+        assertEquals(slice.getTags().get(0).getName(), "reviews");
+    }
+
+    @Test
+    public void testOperationId() {
+        final OpenAPI model = createModel();
+        final OASSlicer slicer = OASSlicer.of(model, false);
+        final OpenAPI slice = slicer.slice(null, null, "getReviews");
+
+        assertEquals(new ArrayList<>(slice.getPaths().keySet()), Collections.singletonList("/reviews"));
+        assertEquals(slice.getPaths().get("/reviews").getGET().getOperationId(), "getReviews");
+        assertNull(slice.getPaths().get("/reviews").getPOST());
+        assertEquals(new ArrayList<>(slice.getComponents().getSchemas().keySet()), Collections.singletonList("Review"));
+
+        assertEquals(slicer.slice("/reviews", "reviews", "getReviews").getPaths().size(), 1, "All parameters are expected to match.");
+        assertNull(slicer.slice("/bookings/{id}", null, "getReviews"));
+        assertNull(slicer.slice(null, null, "unknown"));
+        assertNull(slicer.slice("/unknown", null, null));
+        assertSame(slicer.slice(null, null, null), model, "Without parameters, the whole model is expected.");
+    }
+
+    @Test
+    public void testSharedParts() {
+        final OASSlicer slicer = OASSlicer.of(createModel(), true);
+        assertSame(slicer.slice(null, "bookings", null), slicer.slice(null, "bookings", null),
+                "A part is expected to be built once.");
+
+        final SerializedDocument document = slicer.getDocument(null, "bookings", null, DocumentFormat.JSON);
+        assertSame(slicer.getDocument(null, "bookings", null, DocumentFormat.JSON), document);
+        assertTrue(document.hasGzipContent());
+        final byte[] bytes = new byte[document.getContentLength()];
+        document.getContent().get(bytes);
+        final String json = new String(bytes, StandardCharsets.UTF_8);
+        assertTrue(json.contains("getBooking"));
+        assertTrue(!json.contains("Review"), "A component that is not reachable is not expected to be serialized.");
+        assertNull(slicer.getDocument(null, "unknown", null, DocumentFormat.YAML));
+    }
+
+    /**
+     * @return a model where the bookings reference flights, which reference airports, while the reviews and the
+     * unused schema are not reachable from the bookings
+     */
+    private static OpenAPI createModel() {
+        final Operation getBooking = createObject(Operation.class).operationId("getBooking").addTag("bookings")
+                .addSecurityRequirement(createObject(SecurityRequirement.class).addScheme("booking_auth"))
+                .responses(response("Booking"));
+        final Operation deleteReviews = createObject(Operation.class).operationId("deleteBookingReviews").addTag("reviews")
+                .responses(createObject(APIResponses.class).addApiResponse("204", createObject(APIResponse.class).description("Deleted")));
+        return createObject(OpenAPI.class).openapi("3.0.0")
+                .info(createObject(Info.class).title("Airlines").version("1.0"))
+                .addTag(createObject(Tag.class).name("reviews"))
+                .addTag(createObject(Tag.class).name("bookings"))
+                .paths(createObject(Paths.class)
+                        .addPathItem("/reviews", createObject(PathItem.class)
+                                .GET(createObject(Operation.class).operationId("getReviews").addTag("reviews").responses(response("Review")))
+                                .POST(createObject(Operation.class).operationId("createReview").addTag("reviews").addTag("admin")))
+                        .addPathItem("/bookings/{id}", createObject(PathItem.class)
+                                .addParameter(createObject(Parameter.class).ref("id"))
+                                .GET(getBooking)
+                                .DELETE(deleteReviews)))
+                .components(createObject(Components.class)
+                        .addSchema("Unused", createObject(Schema.class).type(Schema.SchemaType.STRING))
+                        .addSchema("Review", createObject(Schema.class).type(Schema.SchemaType.OBJECT))
+                        .addSchema("Booking", createObject(Schema.class).type(Schema.SchemaType.OBJECT)
+                                .addProperty("flight", createObject(Schema.class).ref("Flight")))
+                        .addSchema("Flight", createObject(Schema.class).type(Schema.SchemaType.OBJECT)
+                                .addProperty("airports", createObject(Schema.class).type(Schema.SchemaType.ARRAY)
+                                        .items(createObject(Schema.class).ref("Airport"))))
+                        .addSchema("Airport", createObject(Schema.class).type(Schema.SchemaType.OBJECT))
+                        .addParameter("id", createObject(Parameter.class).name("id").in(Parameter.In.PATH).required(true))
+                        .addSecurityScheme("booking_auth", createObject(SecurityScheme.class).type(SecurityScheme.Type.HTTP).scheme("bearer"))
+                        .addSecurityScheme("review_auth", createObject(SecurityScheme.class).type(SecurityScheme.Type.HTTP).scheme("bearer")));
+    }
+
+    private static APIResponses response(String schema) {
+        return createObject(APIResponses.class).addApiResponse("200", createObject(APIResponse.class).description("OK")
+                .content(createObject(Content.class).addMediaType("application/json",
+                        createObject(MediaType.class).schema(createObject(Schema.class).ref(schema)))));
+    }
+}
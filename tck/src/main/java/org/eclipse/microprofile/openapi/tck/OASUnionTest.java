@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.eclipse.microprofile.openapi.OASFactory.createObject;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.microprofile.openapi.ComponentPruner;
+import org.eclipse.microprofile.openapi.OASUnion;
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.info.Info;
+import org.eclipse.microprofile.openapi.models.links.Link;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.models.media.Discriminator;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.eclipse.microprofile.openapi.models.security.SecurityRequirement;
+import org.eclipse.microprofile.openapi.models.security.SecurityScheme;
+import org.eclipse.microprofile.openapi.models.tags.Tag;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test checks that the OASUnion merges the models of several applications into one valid model, renaming the
+ * conflicting names, and that adding or removing an application only changes the contribution of that application.
+ */
+public class OASUnionTest extends Arquillian {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void testConflictingNames() {
+        final OASUnion union = newUnion();
+        union.put("inventory", application("/inventory", "Inventory"));
+        union.put("orders", application("/orders", "Orders"));
+
+        final OpenAPI model = union.getModel();
+        assertEquals(model.getInfo().getTitle(), "Runtime");
+        assertEquals(new ArrayList<>(model.getPaths().keySet()), Arrays.asList("/inventory", "/orders"));
+        assertEquals(new ArrayList<>(model.getComponents().getSchemas().keySet()), Arrays.asList("Item", "Item_orders"));
+        assertEquals(new ArrayList<>(model.getComponents().getSecuritySchemes().keySet()),
+                Arrays.asList("token", "token_orders"));
+
+        final Operation inventory = model.getPaths().get("/inventory").getGET();
+        assertEquals(inventory.getOperationId(), "list");
+        assertEquals(schemaRef(inventory), "#/components/schemas/Item");
+
+        final Operation orders = model.getPaths().get("/orders").getGET();
+        assertEquals(orders.getOperationId(), "list_orders", "A conflicting operationId is expected to be renamed.");
+        assertEquals(schemaRef(orders), "#/components/schemas/Item_orders",
+                "A reference to a renamed component is expected to be renamed as well.");
+        assertEquals(orders.getResponses().get("200").getLinks().get("self").getOperationId(), "list_orders");
+        assertEquals(orders.getSecurity().get(0).keySet(), Collections.singleton("token_orders"),
+                "The top-level security requirements of an application are expected to apply to its operations only.");
+        assertNull(model.getSecurity());
+
+        assertEquals(model.getTags().size(), 1, "The tags are expected to be merged by name.");
+        assertEquals(model.getTags().get(0).getDescription(), "Inventory");
+        assertEquals(new ArrayList<>(union.getApplications()), Arrays.asList("inventory", "orders"));
+    }
+
+    @Test
+    public void testRedeploy() {
+        final OASUnion union = newUnion();
+        union.put("inventory", application("/inventory", "Inventory"));
+        union.put("orders", application("/orders", "Orders"));
+        union.put("billing", application("/billing", "Billing"));
+        final OpenAPI model = union.getModel();
+        final PathItem inventory = model.getPaths().get("/inventory");
+        final Schema billingItem = model.getComponents().getSchemas().get("Item_billing");
+
+        final OpenAPI redeployed = application("/orders/v2", "Orders");
+        union.put("orders", redeployed);
+
+        assertSame(union.getModel(), model);
+        assertSame(union.getModel("orders"), redeployed);
+        assertEquals(new ArrayList<>(model.getPaths().keySet()), Arrays.asList("/inventory", "/billing", "/orders/v2"));
+        assertSame(model.getPaths().get("/inventory"), inventory,
+                "The contribution of an application that is not redeployed is expected to be kept as it is.");
+        assertSame(model.getComponents().getSchemas().get("Item_billing"), billingItem);
+        assertEquals(new ArrayList<>(model.getComponents().getSchemas().keySet()),
+                Arrays.asList("Item", "Item_orders", "Item_billing"),
+                "A component contributed again is expected to keep its position.");
+        assertEquals(model.getPaths().get("/orders/v2").getGET().getOperationId(), "list_orders");
+    }
+
+    @Test
+    public void testRemove() {
+        final OASUnion union = newUnion();
+        union.put("inventory", application("/inventory", "Inventory"));
+        union.put("orders", application("/orders", "Orders"));
+
+        assertTrue(union.remove("inventory"));
+        assertFalse(union.remove("inventory"));
+        final OpenAPI model = union.getModel();
+        assertEquals(model.getPaths().keySet(), Collections.singleton("/orders"));
+        assertEquals(model.getComponents().getSchemas().keySet(), Collections.singleton("Item_orders"),
+                "The names given to the other applications are expected to be kept.");
+        assertEquals(model.getTags().get(0).getDescription(), "Orders");
+        assertNull(union.getModel("inventory"));
+
+        union.put("inventory", application("/inventory", "Inventory"));
+        assertEquals(model.getPaths().get("/inventory").getGET().getOperationId(), "list");
+        assertEquals(new ArrayList<>(model.getComponents().getSchemas().keySet()), Arrays.asList("Item_orders", "Item"));
+
+        union.remove("orders");
+        union.remove("inventory");
+        assertTrue(model.getPaths().isEmpty());
+        assertNull(model.getComponents().getSchemas());
+        assertNull(model.getTags());
+    }
+
+    @Test
+    public void testSharedPath() {
+        final Operation get = createObject(Operation.class).operationId("health");
+        final Operation post = createObject(Operation.class).operationId("reset");
+        final OASUnion union = newUnion();
+        union.put("a", createObject(OpenAPI.class).paths(createObject(Paths.class)
+                .addPathItem("/health", createObject(PathItem.class).summary("Health").GET(get))));
+        union.put("b", createObject(OpenAPI.class).paths(createObject(Paths.class)
+                .addPathItem("/health", createObject(PathItem.class)
+                        .GET(createObject(Operation.class).operationId("health"))
+                        .POST(post))));
+
+        final PathItem health = union.getModel().getPaths().get("/health");
+        assertEquals(health.getSummary(), "Health");
+        assertSame(health.getGET(), get, "The operation of the first application using a path and method is expected to be kept.");
+        assertSame(health.getPOST(), post);
+
+        union.remove("a");
+        assertEquals(union.getModel().getPaths().get("/health").getGET().getOperationId(), "health_b");
+    }
+
+    @Test
+    public void testDiscriminatorMapping() {
+        final OASUnion union = newUnion();
+        union.put("a", petApplication("/a/pet"));
+        union.put("b", petApplication("/b/pet"));
+
+        final OpenAPI model = union.getModel();
+        assertEquals(new ArrayList<>(model.getComponents().getSchemas().keySet()),
+                Arrays.asList("Pet", "Dog", "Cat", "Pet_b", "Dog_b", "Cat_b"));
+        assertEquals(model.getComponents().getSchemas().get("Pet").getDiscriminator().getMapping().get("dog"), "#/components/schemas/Dog");
+        final Map<String, String> mapping = model.getComponents().getSchemas().get("Pet_b").getDiscriminator().getMapping();
+        assertEquals(mapping.get("dog"), "#/components/schemas/Dog_b",
+                "A discriminator mapping referring to a renamed schema is expected to be renamed as well.");
+        assertEquals(mapping.get("cat"), "Cat_b", "A discriminator mapping naming a renamed schema is expected to be renamed as well.");
+
+        assertTrue(ComponentPruner.prune(model).isEmpty(), "The schemas of the renamed mappings are expected to remain reachable.");
+        assertTrue(model.getComponents().getSchemas().containsKey("Dog_b"));
+    }
+
+    private static OASUnion newUnion() {
+        return new OASUnion(createObject(OpenAPI.class).openapi("3.0.0")
+                .info(createObject(Info.class).title("Runtime").version("1.0")));
+    }
+
+    /**
+     * @return the model of an application with one operation, which returns an Item and requires a token
+     */
+    private static OpenAPI application(String path, String description) {
+        final Link self = createObject(Link.class).operationId("list");
+        final Operation list = createObject(Operation.class).operationId("list").addTag("items")
+                .responses(createObject(APIResponses.class).addApiResponse("200", createObject(APIResponse.class)
+                        .content(createObject(Content.class).addMediaType("application/json",
+                                createObject(MediaType.class).schema(createObject(Schema.class).ref("Item"))))
+                        .links(Collections.singletonMap("self", self))));
+        return createObject(OpenAPI.class).openapi("3.0.0")
+                .addTag(createObject(Tag.class).name("items").description(description))
+                .addSecurityRequirement(createObject(SecurityRequirement.class).addScheme("token"))
+                .paths(createObject(Paths.class).addPathItem(path, createObject(PathItem.class).GET(list)))
+                .components(createObject(Components.class)
+                        .addSchema("Item", createObject(Schema.class).type(Schema.SchemaType.OBJECT).description(description))
+                        .addSecurityScheme("token", createObject(SecurityScheme.class).type(SecurityScheme.Type.HTTP).scheme("bearer")));
+    }
+
+    /**
+     * @return the model of an application returning a Pet, whose discriminator maps to the Dog and Cat schemas
+     */
+    private static OpenAPI petApplication(String path) {
+        final Map<String, String> mapping = new LinkedHashMap<>();
+        mapping.put("dog", "#/components/schemas/Dog");
+        mapping.put("cat", "Cat");
+        final Operation get = createObject(Operation.class)
+                .responses(createObject(APIResponses.class).addApiResponse("200", createObject(APIResponse.class)
+                        .content(createObject(Content.class).addMediaType("application/json",
+                                createObject(MediaType.class).schema(createObject(Schema.class).ref("Pet"))))));
+        return createObject(OpenAPI.class).openapi("3.0.0")
+                .paths(createObject(Paths.class).addPathItem(path, createObject(PathItem.class).GET(get)))
+                .components(createObject(Components.class)
+                        .addSchema("Pet", createObject(Schema.class).type(Schema.SchemaType.OBJECT)
+                                .discriminator(createObject(Discriminator.class).propertyName("kind").mapping(mapping)))
+                        .addSchema("Dog", createObject(Schema.class).type(Schema.SchemaType.OBJECT))
+                        .addSchema("Cat", createObject(Schema.class).type(Schema.SchemaType.OBJECT)));
+    }
+
+    private static String schemaRef(Operation operation) {
+        return operation.getResponses().get("200").getContent().get("application/json").getSchema().getRef();
+    }
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.eclipse.microprofile.openapi.OpenAPISnapshot;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.reader.MyOASModelReaderImpl;
+import org.eclipse.microprofile.openapi.spi.DocumentFormat;
+import org.eclipse.microprofile.openapi.spi.OASWriter;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * This test writes the model built by the airlines model reader with the OASWriter, reads the document back and
+ * checks it with the assertions that the /openapi endpoint is tested with.
+ */
+public class OASWriterTest extends Arquillian {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final ObjectMapper YAML = new ObjectMapper(new YAMLFactory());
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class)
+                .addPackages(true, "org.eclipse.microprofile.openapi.reader")
+                .addAsLibraries(new File("./lib/jackson-core-2.8.6.jar"))
+                .addAsLibraries(new File("./lib/jackson-dataformat-yaml-2.8.6.jar"))
+                .addAsLibraries(new File("./lib/jackson-databind-2.8.6.jar"))
+                .addAsLibraries(new File("./lib/jackson-annotations-2.8.0.jar"))
+                .addAsLibraries(new File("./lib/snakeyaml-1.17.jar"));
+    }
+
+    @DataProvider(name = "formatProvider")
+    public Object[][] provide() {
+        return new Object[][] { { DocumentFormat.JSON }, { DocumentFormat.YAML } };
+    }
+
+    @Test(dataProvider = "formatProvider")
+    public void testInfo(DocumentFormat format) throws IOException {
+        final JsonNode document = write(format);
+        assertEquals(document.at("/info/title").asText(), "AirlinesRatingApp API");
+        assertEquals(document.at("/info/version").asText(), "1.0");
+        assertEquals(document.at("/info/termsOfService").asText(), "http://airlinesratingapp.com/terms");
+        assertEquals(document.at("/info/contact/name").asText(), "AirlinesRatingApp API Support");
+        assertEquals(document.at("/info/contact/url").asText(), "http://exampleurl.com/contact");
+        assertEquals(document.at("/info/contact/email").asText(), "techsupport@airlinesratingapp.com");
+        assertEquals(document.at("/info/license/name").asText(), "Apache 2.0");
+        assertEquals(document.at("/info/license/url").asText(), "http://www.apache.org/licenses/LICENSE-2.0.html");
+        assertEquals(document.at("/externalDocs/description").asText(), "instructions for how to deploy this app");
+        assertTrue(document.at("/externalDocs/url").asText().contains("README.md"));
+    }
+
+    @Test(dataProvider = "formatProvider")
+    public void testServer(DocumentFormat format) throws IOException {
+        final JsonNode servers = write(format).get("servers");
+        assertEquals(servers.size(), 2);
+        final JsonNode server = servers.get(0);
+        assertEquals(server.get("url").asText(), "https://{username}.gigantic-server.com:{port}/{basePath}");
+        assertEquals(server.get("description").asText(), "The production API server");
+        assertEquals(server.get("variables").size(), 4);
+        assertEquals(server.at("/variables/username/description").asText(), "Reviews of the app by users");
+        assertEquals(server.at("/variables/username/default").asText(), "user1");
+        assertEquals(server.at("/variables/username/enum/0").asText(), "user1");
+        assertEquals(server.at("/variables/username/enum/1").asText(), "user2");
+        assertEquals(server.at("/variables/port/default").asText(), "8443");
+        assertTrue(server.at("/variables/port/default").isTextual(), "A string that looks like a number is expected to stay a string.");
+        assertEquals(server.at("/variables/basePath/default").asText(), "v2");
+        assertEquals(servers.get(1).get("description").asText(), "The test API server");
+    }
+
+    @Test(dataProvider = "formatProvider")
+    public void testOperations(DocumentFormat format) throws IOException {
+        final JsonNode paths = write(format).get("paths");
+        assertEquals(paths.at("/~1modelReader~1airlines/get/summary").asText(), "Retrieve all available airlines");
+        assertEquals(paths.at("/~1modelReader~1airlines/get/operationId").asText(), "getAirlines");
+        assertEquals(paths.at("/~1modelReader~1bookings/get/operationId").asText(), "getAllBookings");
+        assertEquals(paths.at("/~1modelReader~1bookings/get/tags/0").asText(), "bookings");
+        assertEquals(paths.at("/~1modelReader~1bookings/post/description").asText(),
+                "Create a new booking record with the booking information provided.");
+        assertEquals(paths.at("/~1modelReader~1bookings/post/security/0/bookingSecurityScheme/0").asText(), "write:bookings");
+        assertEquals(paths.at("/~1modelReader~1bookings/post/security/0/bookingSecurityScheme/1").asText(), "read:bookings");
+        assertEquals(paths.at("/~1modelReader~1bookings/post/responses/201/content/text~1plain/schema/type").asText(), "string");
+
+        final JsonNode availability = paths.at("/~1availability/get");
+        assertEquals(availability.get("responses").size(), 2);
+        assertEquals(availability.at("/responses/200/description").asText(), "successful operation");
+        assertEquals(availability.at("/responses/404/description").asText(), "No available flights found");
+        assertEquals(availability.at("/responses/200/content/application~1json/schema/type").asText(), "array");
+        assertEquals(availability.get("parameters").size(), 6);
+        final JsonNode adults = availability.at("/parameters/4");
+        assertEquals(adults.get("name").asText(), "numberOfAdults");
+        assertEquals(adults.get("in").asText(), "query");
+        assertTrue(adults.get("required").booleanValue());
+        assertEquals(adults.at("/schema/minimum").intValue(), 0);
+        assertTrue(availability.at("/parameters/0/$ref").isTextual(), "A reference is expected to be written as $ref.");
+    }
+
+    @Test(dataProvider = "formatProvider")
+    public void testComponents(DocumentFormat format) throws IOException {
+        final JsonNode components = write(format).get("components");
+        final Set<String> names = new HashSet<>();
+        components.fieldNames().forEachRemaining(names::add);
+        assertEquals(names.size(), 8, "Unexpected component types " + names);
+        assertEquals(components.at("/schemas/AirlinesRef/$ref").asText(), "#/components/schemas/Airlines");
+        assertEquals(components.at("/schemas/Airlines/title").asText(), "Airlines");
+        assertEquals(components.at("/schemas/id/format").asText(), "int32");
+        assertEquals(components.at("/examples/review/externalValue").asText(), "http://foo.bar/examples/review-example.json");
+        assertTrue(components.at("/headers/Max-Rate/required").booleanValue());
+        assertTrue(components.at("/headers/Max-Rate/deprecated").booleanValue());
+        assertTrue(components.at("/headers/Max-Rate/allowEmptyValue").booleanValue());
+        assertEquals(components.at("/securitySchemes/httpTestScheme/type").asText(), "http");
+        assertEquals(components.at("/securitySchemes/httpTestScheme/scheme").asText(), "testScheme");
+        assertTrue(components.at("/links/UserName/parameters/userId").isObject(), "An empty element is expected to be written as {}.");
+    }
+
+    @Test(dataProvider = "formatProvider")
+    public void testTags(DocumentFormat format) throws IOException {
+        final JsonNode tags = write(format).get("tags");
+        assertEquals(tags.size(), 8);
+        final JsonNode flights = tags.get(7);
+        assertEquals(flights.get("name").asText(), "Get Flights");
+        assertEquals(flights.at("/externalDocs/url").asText(), "http://airlinesratingapp.com/ourflights");
+    }
+
+    @Test
+    public void testFormatsAgree() throws IOException {
+        assertEquals(write(DocumentFormat.YAML), write(DocumentFormat.JSON),
+                "The YAML and JSON documents are expected to hold the same values.");
+    }
+
+    @Test(dataProvider = "formatProvider")
+    public void testChannel(DocumentFormat format) throws IOException {
+        final OpenAPI openAPI = new MyOASModelReaderImpl().buildModel();
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (WritableByteChannel channel = Channels.newChannel(out)) {
+            OASWriter.instance().write(openAPI, format, channel);
+        }
+        assertEquals(out.toByteArray(), OASWriter.instance().toBytes(openAPI, format),
+                "Writing to a channel is expected to produce the same bytes as writing to a stream.");
+    }
+
+    @Test(dataProvider = "formatProvider")
+    public void testSnapshot(DocumentFormat format) throws IOException {
+        final OpenAPI openAPI = new MyOASModelReaderImpl().buildModel();
+        assertEquals(read(OASWriter.instance().toBytes(OpenAPISnapshot.of(openAPI).getModel(), format), format),
+                read(OASWriter.instance().toBytes(openAPI, format), format),
+                "A snapshot is expected to be written like the model it was taken from.");
+    }
+
+    @Test(dataProvider = "formatProvider")
+    public void testEscaping(DocumentFormat format) throws IOException {
+        final OpenAPI openAPI = new MyOASModelReaderImpl().buildModel();
+        final String description = "Line 1: \"quoted\" #hash\n\tLine 2 é€😀";
+        openAPI.getInfo().description(description).title("true");
+        final JsonNode document = read(OASWriter.instance().toBytes(openAPI, format), format);
+        assertEquals(document.at("/info/description").asText(), description);
+        assertTrue(document.at("/info/title").isTextual(), "A string that looks like a boolean is expected to stay a string.");
+        assertFalse(document.at("/info/title").booleanValue());
+    }
+
+    private static JsonNode write(DocumentFormat format) throws IOException {
+        return read(OASWriter.instance().toBytes(new MyOASModelReaderImpl().buildModel(), format), format);
+    }
+
+    private static JsonNode read(byte[] document, DocumentFormat format) throws IOException {
+        return (format == DocumentFormat.JSON ? JSON : YAML).readTree(document);
+    }
+}
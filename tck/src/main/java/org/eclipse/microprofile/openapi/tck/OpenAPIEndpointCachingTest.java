@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.isEmptyOrNullString;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertNotNull;
+
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.container.test.api.RunAsClient;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+/**
+ * This test covers the caching headers of the /openapi endpoint. It verifies that the endpoint sends a strong
+ * entity tag for each format and answers conditional requests for the current document with 304 Not Modified.
+ */
+public class OpenAPIEndpointCachingTest extends AppTestBase {
+
+    private static final String ETAG = "ETag";
+
+    @Deployment(name = "static")
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class, "static.war")
+                .addAsManifestResource("simpleapi.yaml", "openapi.yaml");
+    }
+
+    @RunAsClient
+    @Test(dataProvider = "formatProvider")
+    public void testStrongETag(String type) {
+        final String eTag = get(type).header(ETAG);
+        assertNotNull(eTag, "The /openapi endpoint is expected to send an ETag header.");
+        assertFalse(eTag.startsWith("W/"), "The ETag of the /openapi endpoint is expected to be a strong entity tag.");
+        assertEquals(get(type).header(ETAG), eTag, "The ETag of the /openapi endpoint is expected to be stable across requests.");
+    }
+
+    @RunAsClient
+    @Test
+    public void testETagPerFormat() {
+        assertNotEquals(get("JSON").header(ETAG), get("YAML").header(ETAG),
+                "The JSON and YAML documents are expected to have different entity tags.");
+    }
+
+    @RunAsClient
+    @Test(dataProvider = "formatProvider")
+    public void testNotModified(String type) {
+        final String eTag = get(type).header(ETAG);
+        request(type).header("If-None-Match", eTag).when().get("/openapi")
+            .then().statusCode(304).header(ETAG, eTag).body(isEmptyOrNullString());
+    }
+
+    @RunAsClient
+    @Test(dataProvider = "formatProvider")
+    public void testModified(String type) {
+        request(type).header("If-None-Match", "\"not-the-current-document\"").when().get("/openapi").then().statusCode(200);
+    }
+
+    @RunAsClient
+    @Test(dataProvider = "formatProvider")
+    public void testGzip(String type) {
+        final String eTag = get(type).header(ETAG);
+        final Response response = request(type).header("Accept-Encoding", "gzip").when().get("/openapi");
+        assertEquals(response.statusCode(), 200);
+        if ("gzip".equalsIgnoreCase(response.header("Content-Encoding"))) {
+            assertNotEquals(response.header(ETAG), eTag,
+                    "A gzip compressed document is expected to have an entity tag of its own.");
+            request(type).header("Accept-Encoding", "gzip").header("If-None-Match", response.header(ETAG))
+                .when().get("/openapi").then().statusCode(304);
+        }
+    }
+
+    private static RequestSpecification request(String type) {
+        // requests the identity content coding unless a test asks for another one
+        final RequestSpecification request = given()
+                .config(RestAssuredConfig.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders()));
+        return "JSON".equals(type) ? request.accept("application/json") : request;
+    }
+
+    private static Response get(String type) {
+        final Response response = request(type).header("Accept-Encoding", "identity").when().get("/openapi");
+        assertEquals(response.statusCode(), 200);
+        return response;
+    }
+}
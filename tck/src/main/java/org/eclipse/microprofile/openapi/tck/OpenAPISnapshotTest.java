@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.microprofile.openapi.OASFactory;
+import org.eclipse.microprofile.openapi.OpenAPISnapshot;
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.info.Info;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.eclipse.microprofile.openapi.models.tags.Tag;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test takes snapshots of models built with the OASFactory and checks that they hold the same values
+ * as the model and cannot be modified.
+ */
+public class OpenAPISnapshotTest extends Arquillian {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void snapshotValuesTest() {
+        final OpenAPI openAPI = createModel();
+        final OpenAPI frozen = OpenAPISnapshot.of(openAPI).getModel();
+
+        assertTrue(OpenAPISnapshot.isFrozen(frozen), "The model of a snapshot is expected to be frozen.");
+        assertFalse(OpenAPISnapshot.isFrozen(openAPI), "A model built with the OASFactory is not expected to be frozen.");
+        assertEquals(frozen.getInfo().getTitle(), "Snapshot");
+        assertEquals(frozen.getTags().size(), 1);
+        assertEquals(frozen.getTags().get(0).getName(), "tag");
+        final PathItem pathItem = frozen.getPaths().get("/path");
+        assertEquals(pathItem.getGET().getOperationId(), "get");
+        assertEquals(pathItem.readOperations().size(), 1);
+        assertEquals(pathItem.getGET().getResponses().getDefault().getDescription(), "default");
+        assertEquals(frozen.getComponents().getSchemas().get("Shared").getType(), Schema.SchemaType.STRING);
+        assertSame(frozen.getComponents().getSchemas().get("Shared"), frozen.getComponents().getSchemas().get("Alias"),
+                "An element referenced from several places is expected to be copied once.");
+
+        openAPI.getInfo().setTitle("Changed");
+        assertEquals(frozen.getInfo().getTitle(), "Snapshot", "A snapshot is not expected to reflect later changes to the model.");
+    }
+
+    @Test
+    public void snapshotEqualityTest() {
+        final OpenAPI openAPI = createModel();
+        final OpenAPISnapshot snapshot = OpenAPISnapshot.of(openAPI);
+        final OpenAPISnapshot other = OpenAPISnapshot.of(openAPI);
+        assertNotSame(other.getModel(), snapshot.getModel());
+        assertEquals(other, snapshot, "Snapshots of the same model are expected to be equal.");
+        assertEquals(other.hashCode(), snapshot.hashCode(), "Snapshots of the same model are expected to have the same hash code.");
+        assertSame(OpenAPISnapshot.freeze(snapshot.getModel()), snapshot.getModel(), "A frozen element is not expected to be copied again.");
+    }
+
+    @Test
+    public void mapEqualityTest() {
+        final Paths frozen = OpenAPISnapshot.of(createModel()).getModel().getPaths();
+        final Map<String, PathItem> plain = new HashMap<>(frozen);
+        assertTrue(frozen.equals(plain), "A frozen map-typed element is expected to equal a map with the same entries.");
+        assertTrue(plain.equals(frozen), "The equality of a frozen map-typed element and a map is expected to be symmetric.");
+        assertEquals(frozen.hashCode(), plain.hashCode(), "A frozen map-typed element is expected to have the hash code of its entries.");
+        assertEquals(frozen.size(), 1);
+        assertTrue(frozen.containsKey("/path"));
+        assertEquals(frozen.getOrDefault("/missing", null), null);
+    }
+
+    @Test(expectedExceptions = { UnsupportedOperationException.class })
+    public void immutablePropertyTest() {
+        OpenAPISnapshot.of(createModel()).getModel().getInfo().setTitle("Changed");
+    }
+
+    @Test(expectedExceptions = { UnsupportedOperationException.class })
+    public void immutableListTest() {
+        OpenAPISnapshot.of(createModel()).getModel().getTags().clear();
+    }
+
+    @Test(expectedExceptions = { UnsupportedOperationException.class })
+    public void immutableMapTest() {
+        OpenAPISnapshot.of(createModel()).getModel().getPaths().remove("/path");
+    }
+
+    @Test(expectedExceptions = { IllegalArgumentException.class })
+    public void cycleTest() {
+        final Schema schema = OASFactory.createObject(Schema.class);
+        schema.addProperty("self", schema);
+        OpenAPISnapshot.freeze(schema);
+    }
+
+    private static OpenAPI createModel() {
+        final Schema shared = OASFactory.createObject(Schema.class).type(Schema.SchemaType.STRING);
+        final Paths paths = OASFactory.createObject(Paths.class)
+                .addPathItem("/path", OASFactory.createObject(PathItem.class)
+                    .GET(OASFactory.createObject(Operation.class)
+                        .operationId("get")
+                        .responses(OASFactory.createObject(APIResponses.class)
+                            .addApiResponse(APIResponses.DEFAULT, OASFactory.createObject(APIResponse.class).description("default")))));
+        return OASFactory.createObject(OpenAPI.class)
+                .info(OASFactory.createObject(Info.class).title("Snapshot").version("1.0"))
+                .addTag(OASFactory.createObject(Tag.class).name("tag"))
+                .paths(paths)
+                .components(OASFactory.createObject(Components.class).addSchema("Shared", shared).addSchema("Alias", shared));
+    }
+}
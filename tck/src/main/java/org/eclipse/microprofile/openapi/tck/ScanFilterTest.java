@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.eclipse.microprofile.openapi.OASConfig;
+import org.eclipse.microprofile.openapi.ScanFilter;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test checks the decisions of the scan filter for the include and exclude rules of the configuration.
+ */
+public class ScanFilterTest extends Arquillian {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void noRulesTest() {
+        final ScanFilter filter = ScanFilter.of(key -> null);
+        assertTrue(filter.accept("com.example.Resource"), "Every class is expected to be scanned without rules.");
+        assertTrue(filter.accept("Resource"));
+    }
+
+    @Test
+    public void packageRulesTest() {
+        final ScanFilter filter = ScanFilter.of(Arrays.asList("com.example", "org.example.api.v2"), Collections.<String>emptyList(),
+                Arrays.asList("com.example.generated", "org.example.api"), Collections.<String>emptyList());
+        assertTrue(filter.accept("com.example.Resource"));
+        assertTrue(filter.accept("com.example.api.Resource"), "Subpackages of an included package are expected to be scanned.");
+        assertFalse(filter.accept("com.example.generated.Resource"));
+        assertFalse(filter.accept("com.example.generated.deep.Resource"));
+        assertTrue(filter.accept("com.example.generatedbis.Resource"), "A package rule is expected to match whole package names only.");
+        assertFalse(filter.accept("com.examples.Resource"), "A package rule is expected to match whole package names only.");
+        assertFalse(filter.accept("org.example.api.Resource"));
+        assertTrue(filter.accept("org.example.api.v2.Resource"), "The most specific package rule is expected to decide.");
+        assertFalse(filter.accept("net.example.Resource"), "Classes outside the included packages are not expected to be scanned.");
+        assertFalse(filter.accept(String.class));
+    }
+
+    @Test
+    public void classRulesTest() {
+        final Map<String, String> config = new HashMap<>();
+        config.put(OASConfig.SCAN_CLASSES, "com.example.generated.Kept, net.example.Single");
+        config.put(OASConfig.SCAN_EXCLUDE_PACKAGES, "com.example.generated");
+        config.put(OASConfig.SCAN_EXCLUDE_CLASSES, "com.example.Internal,net.example.Single");
+        final ScanFilter filter = ScanFilter.of(config::get);
+        assertTrue(filter.accept("com.example.generated.Kept"), "An included class is expected to win over an excluded package.");
+        assertTrue(filter.accept("com.example.generated.Kept$Nested"), "Nested classes are expected to follow their enclosing class.");
+        assertFalse(filter.accept("com.example.generated.Other"));
+        assertFalse(filter.accept("net.example.Single"), "An excluded class is expected to win over an included class.");
+        assertFalse(filter.accept("com.example.Internal$Nested"));
+        assertFalse(filter.accept("com.example.Resource"), "Only the included classes are expected to be scanned.");
+    }
+
+    @Test
+    public void sameRuleTest() {
+        final ScanFilter filter = ScanFilter.of(Collections.singletonList("com.example"), Collections.<String>emptyList(),
+                Collections.singletonList("com.example.*"), Collections.<String>emptyList());
+        assertFalse(filter.accept("com.example.Resource"), "An exclusion is expected to win over an inclusion of the same package.");
+    }
+}
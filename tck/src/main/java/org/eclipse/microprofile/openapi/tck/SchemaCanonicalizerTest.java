@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.eclipse.microprofile.openapi.OASFactory.createObject;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.eclipse.microprofile.openapi.SchemaCanonicalizer;
+import org.eclipse.microprofile.openapi.models.Components;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.parameters.Parameter;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test checks that the SchemaCanonicalizer shares the structurally equal schemas of a model, and replaces the
+ * repeated ones by references to components when hoisting.
+ */
+public class SchemaCanonicalizerTest extends Arquillian {
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void testShare() {
+        final OpenAPI model = createModel();
+        assertEquals(SchemaCanonicalizer.canonicalize(model), 14,
+                "Each string schema but the first, each flight schema but the component, and the second booking are expected to be replaced.");
+
+        final Schema first = schema(model, "/bookings", "200");
+        assertSame(schema(model, "/bookings", "201"), first, "Equal inline schemas are expected to be shared.");
+        assertSame(schema(model, "/flights", "200"), model.getComponents().getSchemas().get("Flight"),
+                "A schema equal to a component schema is expected to be replaced by the component schema.");
+        assertNotSame(schema(model, "/bookings", "400"), first,
+                "Schemas whose properties are in another order are not expected to be shared.");
+        assertSame(parameter(model, "/bookings").getSchema(), parameter(model, "/flights").getSchema());
+        assertSame(first.getProperties().get("id"), parameter(model, "/flights").getSchema(),
+                "Equal schemas are expected to be shared at any depth.");
+        assertNull(model.getComponents().getSchemas().get("Booking"));
+    }
+
+    @Test
+    public void testHoist() {
+        final OpenAPI model = createModel();
+        SchemaCanonicalizer.canonicalize(model, true);
+
+        final Schema booking = model.getComponents().getSchemas().get("Booking");
+        assertEquals(new ArrayList<>(model.getComponents().getSchemas().keySet()), Arrays.asList("Flight", "Booking"));
+        assertEquals(schema(model, "/bookings", "200").getRef(), "#/components/schemas/Booking");
+        assertSame(schema(model, "/bookings", "201"), schema(model, "/bookings", "200"),
+                "The references to a component are expected to be shared.");
+        assertEquals(schema(model, "/flights", "200").getRef(), "#/components/schemas/Flight");
+        assertEquals(booking.getProperties().get("flight").getRef(), "#/components/schemas/Flight");
+        assertNull(schema(model, "/bookings", "400").getRef(), "A schema held in one place is expected to stay in place.");
+        assertEquals(parameter(model, "/flights").getSchema().getType(), Schema.SchemaType.STRING,
+                "A schema without properties is expected to stay in place.");
+    }
+
+    @Test
+    public void testCycle() {
+        final Schema node = createObject(Schema.class).type(Schema.SchemaType.OBJECT);
+        node.addProperty("next", node);
+        final OpenAPI model = createObject(OpenAPI.class).openapi("3.0.0")
+                .components(createObject(Components.class).addSchema("Node", node)
+                        .addSchema("Copy", createObject(Schema.class).type(Schema.SchemaType.OBJECT)));
+        SchemaCanonicalizer.canonicalize(model, true);
+        assertEquals(model.getComponents().getSchemas().get("Node").getProperties().get("next").getRef(), "#/components/schemas/Node",
+                "A schema holding itself is expected to be replaced by a reference to its component.");
+    }
+
+    private static Schema schema(OpenAPI model, String path, String status) {
+        return model.getPaths().get(path).getGET().getResponses().get(status).getContent().get("application/json").getSchema();
+    }
+
+    private static Parameter parameter(OpenAPI model, String path) {
+        return model.getPaths().get(path).getGET().getParameters().get(0);
+    }
+
+    /**
+     * @return a model where two responses hold equal inline bookings, one response holds a booking with its properties
+     * in another order, and another response holds a schema equal to the flight component
+     */
+    private static OpenAPI createModel() {
+        return createObject(OpenAPI.class).openapi("3.0.0")
+                .paths(createObject(Paths.class)
+                        .addPathItem("/bookings", createObject(PathItem.class).GET(createObject(Operation.class)
+                                .addParameter(createObject(Parameter.class).name("id").in(Parameter.In.QUERY).schema(string()))
+                                .responses(createObject(APIResponses.class)
+                                        .addApiResponse("200", response(booking()))
+                                        .addApiResponse("201", response(booking()))
+                                        .addApiResponse("400", response(createObject(Schema.class).type(Schema.SchemaType.OBJECT).title("Booking")
+                                                .addProperty("flight", flight()).addProperty("id", string()))))))
+                        .addPathItem("/flights", createObject(PathItem.class).GET(createObject(Operation.class)
+                                .addParameter(createObject(Parameter.class).name("id").in(Parameter.In.QUERY).schema(string()))
+                                .responses(createObject(APIResponses.class).addApiResponse("200", response(flight()))))))
+                .components(createObject(Components.class).addSchema("Flight", flight()));
+    }
+
+    private static APIResponse response(Schema schema) {
+        return createObject(APIResponse.class).description("OK").content(createObject(Content.class)
+                .addMediaType("application/json", createObject(MediaType.class).schema(schema)));
+    }
+
+    private static Schema booking() {
+        return createObject(Schema.class).type(Schema.SchemaType.OBJECT).title("Booking")
+                .addProperty("id", string()).addProperty("flight", flight());
+    }
+
+    private static Schema flight() {
+        return createObject(Schema.class).type(Schema.SchemaType.OBJECT).addProperty("number", string());
+    }
+
+    private static Schema string() {
+        return createObject(Schema.class).type(Schema.SchemaType.STRING);
+    }
+}
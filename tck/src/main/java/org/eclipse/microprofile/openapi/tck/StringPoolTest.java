@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck;
+
+import static org.eclipse.microprofile.openapi.OASFactory.createObject;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.eclipse.microprofile.openapi.StringPool;
+import org.eclipse.microprofile.openapi.models.OpenAPI;
+import org.eclipse.microprofile.openapi.models.Operation;
+import org.eclipse.microprofile.openapi.models.PathItem;
+import org.eclipse.microprofile.openapi.models.Paths;
+import org.eclipse.microprofile.openapi.models.media.Content;
+import org.eclipse.microprofile.openapi.models.media.MediaType;
+import org.eclipse.microprofile.openapi.models.media.Schema;
+import org.eclipse.microprofile.openapi.models.responses.APIResponse;
+import org.eclipse.microprofile.openapi.models.responses.APIResponses;
+import org.eclipse.microprofile.openapi.spi.BinaryDocument;
+import org.eclipse.microprofile.openapi.spi.DocumentFormat;
+import org.eclipse.microprofile.openapi.spi.OASReader;
+import org.jboss.arquillian.container.test.api.Deployment;
+import org.jboss.arquillian.testng.Arquillian;
+import org.jboss.shrinkwrap.api.ShrinkWrap;
+import org.jboss.shrinkwrap.api.spec.WebArchive;
+import org.testng.annotations.Test;
+
+/**
+ * This test checks that the documents read with a StringPool, and the models interned in it, share one instance of
+ * each repeated string, and that the interned models keep the order of their entries.
+ */
+public class StringPoolTest extends Arquillian {
+
+    private static final String DOCUMENT = "openapi: 3.0.0\n"
+            + "paths:\n"
+            + "  %s:\n"
+            + "    get:\n"
+            + "      tags: [bookings]\n"
+            + "      responses:\n"
+            + "        '200':\n"
+            + "          description: OK\n"
+            + "          content:\n"
+            + "            application/json:\n"
+            + "              schema:\n"
+            + "                type: integer\n"
+            + "                format: int64\n";
+
+    @Deployment
+    public static WebArchive createDeployment() {
+        return ShrinkWrap.create(WebArchive.class);
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        final StringPool pool = new StringPool();
+        final Operation first = read(pool, "/bookings").getPaths().get("/bookings").getGET();
+        final Operation second = read(pool, "/flights").getPaths().get("/flights").getGET();
+        assertSame(responseKey(second), responseKey(first), "The documents read with one pool are expected to share their strings.");
+        assertSame(second.getTags().get(0), first.getTags().get(0));
+        assertSame(second.getResponses().get("200").getDescription(), first.getResponses().get("200").getDescription());
+        assertSame(mediaType(second).getSchema().getFormat(), mediaType(first).getSchema().getFormat());
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryDocument.write(read(new StringPool(), "/airports"), out);
+        final Operation binary = BinaryDocument.read(ByteBuffer.wrap(out.toByteArray()), pool).getPaths().get("/airports").getGET();
+        assertSame(responseKey(binary), responseKey(first));
+        assertSame(mediaType(binary).getSchema().getFormat(), mediaType(first).getSchema().getFormat());
+    }
+
+    @Test
+    public void testInternModel() {
+        final APIResponses responses = createObject(APIResponses.class)
+                .addApiResponse(new String("404"), createObject(APIResponse.class).description(new String("Not found")))
+                .addApiResponse(new String("200"), response(new String("OK")))
+                .addApiResponse(new String("default"), createObject(APIResponse.class).description(new String("Not found")));
+        final Paths paths = createObject(Paths.class)
+                .addPathItem("/bookings", createObject(PathItem.class).GET(createObject(Operation.class).responses(responses)))
+                .addPathItem("/flights", createObject(PathItem.class).GET(createObject(Operation.class)
+                        .addTag(new String("bookings")).responses(createObject(APIResponses.class)
+                                .addApiResponse(new String("200"), response(new String("OK"))))));
+        final OpenAPI model = createObject(OpenAPI.class).openapi("3.0.0").paths(paths);
+        final StringPool pool = new StringPool();
+        final String format = pool.intern(new String("int64"));
+
+        assertSame(pool.intern(model), model);
+        final Operation flights = model.getPaths().get("/flights").getGET();
+        assertEquals(new ArrayList<>(responses.keySet()), Arrays.asList("404", "200", "default"),
+                "Interning is expected to keep the order of the entries.");
+        assertSame(responseKey(flights), pool.intern("200"));
+        assertSame(flights.getResponses().get("200").getDescription(), responses.get("200").getDescription());
+        assertSame(responses.get("default").getDescription(), responses.get("404").getDescription());
+        assertSame(mediaType(flights).getSchema().getFormat(), format);
+        assertSame(flights.getTags().get(0), pool.intern("bookings"));
+        assertNull(pool.intern((String) null));
+    }
+
+    private static OpenAPI read(StringPool pool, String path) throws IOException {
+        return OASReader.instance().read(new ByteArrayInputStream(String.format(DOCUMENT, path).getBytes(StandardCharsets.UTF_8)),
+                DocumentFormat.YAML, pool);
+    }
+
+    private static APIResponse response(String description) {
+        return createObject(APIResponse.class).description(description).content(createObject(Content.class)
+                .addMediaType(new String("application/json"), createObject(MediaType.class)
+                        .schema(createObject(Schema.class).type(Schema.SchemaType.INTEGER).format(new String("int64")))));
+    }
+
+    private static String responseKey(Operation operation) {
+        return operation.getResponses().keySet().iterator().next();
+    }
+
+    private static MediaType mediaType(Operation operation) {
+        return operation.getResponses().get("200").getContent().get("application/json");
+    }
+}
@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) 2017 Contributors to the Eclipse Foundation
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.eclipse.microprofile.openapi.tck.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.testng.SkipException;
+
+/**
+ * Compiles sources with the system Java compiler, running the given annotation processors, into an output
+ * directory that is also on the class path of the compilation.
+ */
+public final class Compilation {
+
+    private final File output;
+    private final List<File> classPath = new ArrayList<>();
+    private final List<String> options = new ArrayList<>();
+
+    /**
+     * @param output the directory receiving the class files and the resources written by the processors
+     * @param classPathTypes types whose jar or class directory is put on the class path
+     */
+    public Compilation(File output, Class<?>... classPathTypes) {
+        this.output = output;
+        classPath.add(output);
+        for (Class<?> type : classPathTypes) {
+            final CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+            try {
+                if (codeSource == null || !"file".equals(codeSource.getLocation().getProtocol())) {
+                    throw new SkipException("The location of " + type.getName() + " is not a file.");
+                }
+                classPath.add(new File(codeSource.getLocation().toURI()));
+            }
+            catch (URISyntaxException e) {
+                throw new SkipException("The location of " + type.getName() + " is not a file.");
+            }
+        }
+    }
+
+    /**
+     * Adds an option, such as a processor option, to the compilations.
+     */
+    public Compilation option(String option) {
+        options.add(option);
+        return this;
+    }
+
+    /**
+     * Compiles sources, failing on any compilation error.
+     *
+     * @param processors the annotation processors to run
+     * @param sources the sources to compile
+     */
+    public void compile(Collection<Processor> processors, JavaFileObject... sources) {
+        compile(processors, Collections.<String>emptyList(), sources);
+    }
+
+    /**
+     * Compiles sources and processes the annotations of compiled classes, failing on any compilation error.
+     *
+     * @param processors the annotation processors to run
+     * @param classNames the names of the compiled classes of the class path to process
+     * @param sources the sources to compile
+     */
+    public void compile(Collection<Processor> processors, Collection<String> classNames, JavaFileObject... sources) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new SkipException("No Java compiler is available.");
+        }
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            output.mkdirs();
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(output));
+            fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, Collections.singletonList(output));
+            fileManager.setLocation(StandardLocation.CLASS_PATH, classPath);
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, classNames,
+                    Arrays.asList(sources));
+            task.setProcessors(processors);
+            if (!task.call()) {
+                final StringBuilder message = new StringBuilder("The compilation failed:");
+                for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                    message.append('\n').append(diagnostic);
+                }
+                throw new AssertionError(message);
+            }
+        }
+        catch (IOException e) {
+            throw new AssertionError("The compilation failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return an in-memory source of a class
+     */
+    public static JavaFileObject source(String className, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
@@ -16,13 +16,13 @@
 
 package org.eclipse.microprofile.openapi.tck.utils;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.TreeSet;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -31,17 +31,23 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang3.exception.ExceptionUtils;
-import org.apache.http.HttpResponse;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
 import org.apache.http.auth.AuthScope;
 import org.apache.http.auth.UsernamePasswordCredentials;
 import org.apache.http.client.CredentialsProvider;
-import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.impl.client.BasicCredentialsProvider;
-import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.util.EntityUtils;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 
 @WebServlet("/")
@@ -57,83 +63,111 @@ public class YamlToJsonConverterServlet extends HttpServlet {
     public static final String TCK_HEADER_PASSWORD = "x-tck-password";
     public static final String TCK_HEADER_SERVERURL = "x-tck-serverurl";
 
-    private Set<String> ignoredHeaders = new HashSet<>(Arrays.asList(TCK_HEADER_USERNAME, TCK_HEADER_PASSWORD, TCK_HEADER_SERVERURL));
+    // the factories are thread-safe, and recycle their buffers across parsers and generators
+    private static final YAMLFactory YAML_FACTORY = new YAMLFactory();
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
-    private String username = null;
-    private String password = null;
-    private String serverUrl = DEFAULT_PROTOCOL + "://" + DEFAULT_HOST + ":" + DEFAULT_PORT;
+    private static final Set<String> IGNORED_HEADERS = new HashSet<>(Arrays.asList(TCK_HEADER_USERNAME, TCK_HEADER_PASSWORD, TCK_HEADER_SERVERURL));
+
+    // these headers describe the YAML body, not the converted one
+    private static final Set<String> IGNORED_RESPONSE_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        IGNORED_RESPONSE_HEADERS.addAll(Arrays.asList("Content-Length", "Content-Type", "Content-Encoding", "Transfer-Encoding", "ETag"));
+    }
+
+    private transient PoolingHttpClientConnectionManager connectionManager;
+    private transient CloseableHttpClient client;
+
+    @Override
+    public void init() throws ServletException {
+        connectionManager = new PoolingHttpClientConnectionManager();
+        client = HttpClients.custom().setConnectionManager(connectionManager).build();
+    }
+
+    @Override
+    public void destroy() {
+        try {
+            client.close();
+        }
+        catch (IOException e) {
+        }
+        connectionManager.close();
+    }
 
     @Override
     public void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
-        extractProperties(request);
+        String serverUrl = request.getHeader(TCK_HEADER_SERVERURL);
+        if (serverUrl == null) {
+            serverUrl = DEFAULT_PROTOCOL + "://" + DEFAULT_HOST + ":" + DEFAULT_PORT;
+        }
+        final String username = request.getHeader(TCK_HEADER_USERNAME);
+        final String password = request.getHeader(TCK_HEADER_PASSWORD);
+
+        // the client is shared, so the credentials are given with each request
+        final HttpClientContext context = HttpClientContext.create();
+        if (username != null && password != null) {
+            CredentialsProvider provider = new BasicCredentialsProvider();
+            provider.setCredentials(AuthScope.ANY, new UsernamePasswordCredentials(username, password));
+            context.setCredentialsProvider(provider);
+        }
 
-        BufferedReader rd = null;
-        PrintWriter writer = null;
+        HttpGet targetRequest = new HttpGet(serverUrl + OPENAPI_PATH);
 
-        try {
-            HttpClientBuilder builder = HttpClientBuilder.create();
-            if (username != null && password != null) {
-                CredentialsProvider provider = new BasicCredentialsProvider();
-                UsernamePasswordCredentials credentials = new UsernamePasswordCredentials(username, password);
-                provider.setCredentials(AuthScope.ANY, credentials);
-                builder.setDefaultCredentialsProvider(provider);
+        // Copy request headers
+        Enumeration<String> headerNames = request.getHeaderNames();
+        while (headerNames.hasMoreElements()) {
+            String headerName = headerNames.nextElement();
+            if (!IGNORED_HEADERS.contains(headerName)) {
+                Enumeration<String> headers = request.getHeaders(headerName);
+                while (headers.hasMoreElements()) {
+                    targetRequest.addHeader(headerName, headers.nextElement());
+                }
             }
+        }
 
-            HttpClient client = builder.build();
-            HttpGet targetRequest = new HttpGet(serverUrl + OPENAPI_PATH);
-
-            // Copy request headers
-            Enumeration<String> headerNames = request.getHeaderNames();
-            while (headerNames.hasMoreElements()) {
-                String headerName = headerNames.nextElement();
-                if (!ignoredHeaders.contains(headerName)) {
-                    Enumeration<String> headers = request.getHeaders(headerName);
-                    while (headers.hasMoreElements()) {
-                        targetRequest.addHeader(headerName, headers.nextElement());
+        // Forward the request
+        try (CloseableHttpResponse targetResponse = client.execute(targetRequest, context)) {
+            final HttpEntity entity = targetResponse.getEntity();
+            try {
+                // Copy response headers
+                response.setStatus(targetResponse.getStatusLine().getStatusCode());
+                for (Header header : targetResponse.getAllHeaders()) {
+                    if (!IGNORED_RESPONSE_HEADERS.contains(header.getName())) {
+                        response.addHeader(header.getName(), header.getValue());
                     }
                 }
+                if (entity != null) {
+                    response.setContentType("application/json");
+                    response.setCharacterEncoding("UTF-8");
+                    convert(entity.getContent(), response);
+                }
+            }
+            finally {
+                // releases the connection to the pool
+                EntityUtils.consumeQuietly(entity);
             }
-
-            // Forward the request
-            HttpResponse targetResponse = client.execute(targetRequest);
-
-            // Copy response headers
-            response.setStatus(targetResponse.getStatusLine().getStatusCode());
-            Arrays.stream(targetResponse.getAllHeaders()).forEach(h -> response.addHeader(h.getName(), h.getValue()));
-
-            // Copy the content
-            String yaml = EntityUtils.toString(targetResponse.getEntity());
-
-            // Convert the yaml to json
-            ObjectMapper yamlReader = new ObjectMapper(new YAMLFactory());
-            Object obj = yamlReader.readValue(yaml, Object.class);
-
-            ObjectMapper jsonWriter = new ObjectMapper();
-            String json = jsonWriter.writeValueAsString(obj);
-            writer = response.getWriter();
-            writer.print(json);
-            writer.close();
         }
         catch (Exception e) {
-            response.sendError(500, "Failed to convert the request: " + ExceptionUtils.getMessage(e));
-        }
-        finally {
-            if (rd != null) {
-                try {
-                    rd.close();
-                }
-                catch (IOException e) {
-                }
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(500, "Failed to convert the request: " + ExceptionUtils.getMessage(e));
             }
-            if (writer != null) {
-                writer.close();
+            else {
+                throw new ServletException("Failed to convert the request", e);
             }
         }
     }
 
-    private void extractProperties(HttpServletRequest request) {
-        serverUrl = request.getHeader(TCK_HEADER_SERVERURL);
-        username = request.getHeader(TCK_HEADER_USERNAME);
-        password = request.getHeader(TCK_HEADER_PASSWORD);
+    /**
+     * Converts the yaml to json token by token, without reading the whole document into memory.
+     */
+    private static void convert(InputStream yaml, HttpServletResponse response) throws IOException {
+        try (JsonParser parser = YAML_FACTORY.createParser(yaml);
+             JsonGenerator generator = JSON_FACTORY.createGenerator(response.getOutputStream())) {
+            while (parser.nextToken() != null) {
+                generator.copyCurrentEvent(parser);
+            }
+        }
     }
 }